@@ -30,6 +30,8 @@ import org.jkiss.dbeaver.model.preferences.DBPPropertyDescriptor;
 import org.jkiss.dbeaver.model.runtime.DBRProgressListener;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.SubTaskProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSDataType;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
 import org.jkiss.dbeaver.runtime.properties.*;
@@ -288,6 +290,12 @@ public class CompareObjectsExecutor {
         }
     }
 
+    private static boolean isEntityClass(Class<? extends DBSObject> childrenClass) {
+        return childrenClass != null &&
+            DBSEntity.class.isAssignableFrom(childrenClass) &&
+            !DBSDataType.class.isAssignableFrom(childrenClass);
+    }
+
     private void compareChildren(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException
     {
         // Compare children
@@ -300,6 +308,12 @@ public class CompareObjectsExecutor {
             // Cache structure if possible
             if (node.getObject() instanceof DBSObjectContainer) {
                 ((DBSObjectContainer) node.getObject()).cacheStructure(subMonitor, DBSObjectContainer.STRUCT_ALL);
+            } else if (node instanceof DBNDatabaseFolder folder &&
+                isEntityClass(folder.getChildrenClass()) &&
+                folder.getParentObject() instanceof DBSObjectContainer container)
+            {
+                // Tables folder. Read all tables of the container at once instead of reading each table separately
+                container.cacheStructure(subMonitor, DBSObjectContainer.STRUCT_ALL);
             }
             try {
                 DBNDatabaseNode[] children = node.getChildren(subMonitor);
@@ -342,6 +342,7 @@ public class CoreMessages extends NLS {
     public static String pref_page_query_manager_group_settings;
     public static String pref_page_query_manager_group_storage;
     public static String pref_page_query_manager_checkbox_store_log_file;
+    public static String pref_page_query_manager_checkbox_store_history;
     public static String pref_page_query_manager_logs_folder;
     public static String pref_page_query_manager_label_days_to_store_log;
     public static String pref_page_query_manager_label_entries_per_page;
@@ -450,6 +451,16 @@ public class CoreMessages extends NLS {
     public static String pref_page_database_general_group_query_metadata;
     public static String pref_page_database_general_checkbox_add_special_DDL_info;
     public static String pref_page_database_general_checkbox_add_special_DDL_info_tip;
+    public static String pref_page_database_general_checkbox_metadata_snapshots;
+    public static String pref_page_database_general_checkbox_metadata_snapshots_tip;
+    public static String pref_page_database_general_label_metadata_snapshots_max_age;
+    public static String pref_page_database_general_label_metadata_snapshots_max_age_tip;
+    public static String pref_page_database_general_checkbox_metadata_snapshots_revalidate;
+    public static String pref_page_database_general_checkbox_metadata_snapshots_revalidate_tip;
+    public static String pref_page_database_general_label_meta_parallel_connections;
+    public static String pref_page_database_general_label_meta_parallel_connections_tip;
+    public static String pref_page_database_general_label_meta_statement_cache_size;
+    public static String pref_page_database_general_label_meta_statement_cache_size_tip;
     // EntityEditor
     public static String pref_page_ui_general_show_full_name_in_editor;
     public static String pref_page_ui_general_show_table_grid;
@@ -44,6 +44,7 @@ import org.jkiss.dbeaver.registry.DataSourceProviderRegistry;
 import org.jkiss.dbeaver.registry.GlobalEventManagerImpl;
 import org.jkiss.dbeaver.registry.language.PlatformLanguageRegistry;
 import org.jkiss.dbeaver.runtime.SecurityProviderUtils;
+import org.jkiss.dbeaver.runtime.qm.QMHistoryWriter;
 import org.jkiss.dbeaver.runtime.qm.QMLogFileWriter;
 import org.jkiss.dbeaver.runtime.qm.QMRegistryImpl;
 import org.jkiss.dbeaver.utils.ContentUtils;
@@ -87,6 +88,7 @@ public class DesktopPlatform extends BasePlatformImpl implements DBPPlatformDesk
     private DBPWorkspaceDesktop workspace;
     private QMRegistryImpl queryManager;
     private QMLogFileWriter qmLogWriter;
+    private QMHistoryWriter qmHistoryWriter;
     private DBACertificateStorage certificateStorage;
     private DBPPlatformLanguage language;
 
@@ -142,6 +144,8 @@ public class DesktopPlatform extends BasePlatformImpl implements DBPPlatformDesk
 
         this.qmLogWriter = new QMLogFileWriter();
         this.queryManager.registerMetaListener(qmLogWriter);
+        this.qmHistoryWriter = new QMHistoryWriter(queryManager);
+        this.queryManager.registerMetaListener(qmHistoryWriter);
 
         super.initialize();
 
@@ -180,6 +184,11 @@ public class DesktopPlatform extends BasePlatformImpl implements DBPPlatformDesk
             this.qmLogWriter.dispose();
             this.qmLogWriter = null;
         }
+        if (this.qmHistoryWriter != null) {
+            this.queryManager.unregisterMetaListener(qmHistoryWriter);
+            this.qmHistoryWriter.dispose();
+            this.qmHistoryWriter = null;
+        }
         if (this.queryManager != null) {
             this.queryManager.dispose();
             //queryManager = null;
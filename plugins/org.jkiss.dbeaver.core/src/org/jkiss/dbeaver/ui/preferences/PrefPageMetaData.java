@@ -19,6 +19,7 @@ package org.jkiss.dbeaver.ui.preferences;
 
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.SelectionListener;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.widgets.*;
 import org.jkiss.code.NotNull;
@@ -46,6 +47,11 @@ public class PrefPageMetaData extends TargetPrefPage
     private Button caseSensitiveNamesCheck;
     private Button serverSideFiltersCheck;
     private Button addExtraDDLInfo;
+    private Button metadataSnapshotsCheck;
+    private Spinner metadataSnapshotsMaxAgeSpinner;
+    private Button metadataSnapshotsRevalidateCheck;
+    private Spinner parallelMetaConnectionsSpinner;
+    private Spinner statementCacheSizeSpinner;
 
     public PrefPageMetaData()
     {
@@ -61,7 +67,12 @@ public class PrefPageMetaData extends TargetPrefPage
             store.contains(ModelPreferences.META_SEPARATE_CONNECTION) ||
             store.contains(ModelPreferences.META_CASE_SENSITIVE) ||
             store.contains(ModelPreferences.META_DISABLE_EXTRA_READ) ||
-            store.contains(ModelPreferences.META_USE_SERVER_SIDE_FILTERS)
+            store.contains(ModelPreferences.META_USE_SERVER_SIDE_FILTERS) ||
+            store.contains(ModelPreferences.META_SNAPSHOT_ENABLED) ||
+            store.contains(ModelPreferences.META_SNAPSHOT_MAX_AGE) ||
+            store.contains(ModelPreferences.META_SNAPSHOT_REVALIDATE) ||
+            store.contains(ModelPreferences.META_PARALLEL_CONNECTIONS) ||
+            store.contains(ModelPreferences.META_STATEMENT_CACHE_SIZE)
             ;
     }
 
@@ -141,6 +152,40 @@ public class PrefPageMetaData extends TargetPrefPage
                 CoreMessages.pref_page_database_general_checkbox_show_row_count_tip,
                 false,
                 1);
+            metadataSnapshotsCheck = UIUtils.createCheckbox(
+                performanceGroup,
+                CoreMessages.pref_page_database_general_checkbox_metadata_snapshots,
+                CoreMessages.pref_page_database_general_checkbox_metadata_snapshots_tip,
+                false,
+                1);
+            metadataSnapshotsCheck.addSelectionListener(SelectionListener.widgetSelectedAdapter(e -> updateSnapshotControls()));
+            metadataSnapshotsMaxAgeSpinner = UIUtils.createLabelSpinner(
+                UIUtils.createComposite(performanceGroup, 2),
+                CoreMessages.pref_page_database_general_label_metadata_snapshots_max_age,
+                CoreMessages.pref_page_database_general_label_metadata_snapshots_max_age_tip,
+                24,
+                0,
+                24 * 365);
+            metadataSnapshotsRevalidateCheck = UIUtils.createCheckbox(
+                performanceGroup,
+                CoreMessages.pref_page_database_general_checkbox_metadata_snapshots_revalidate,
+                CoreMessages.pref_page_database_general_checkbox_metadata_snapshots_revalidate_tip,
+                true,
+                1);
+            parallelMetaConnectionsSpinner = UIUtils.createLabelSpinner(
+                UIUtils.createComposite(performanceGroup, 2),
+                CoreMessages.pref_page_database_general_label_meta_parallel_connections,
+                CoreMessages.pref_page_database_general_label_meta_parallel_connections_tip,
+                4,
+                1,
+                32);
+            statementCacheSizeSpinner = UIUtils.createLabelSpinner(
+                UIUtils.createComposite(performanceGroup, 2),
+                CoreMessages.pref_page_database_general_label_meta_statement_cache_size,
+                CoreMessages.pref_page_database_general_label_meta_statement_cache_size_tip,
+                0,
+                0,
+                1000);
         }
 
         return composite;
@@ -158,7 +203,12 @@ public class PrefPageMetaData extends TargetPrefPage
             disableExtraMetadataRead.setSelection(store.getBoolean(ModelPreferences.META_DISABLE_EXTRA_READ));
             addExtraDDLInfo.setSelection(store.getBoolean(ModelPreferences.META_EXTRA_DDL_INFO));
             serverSideFiltersCheck.setSelection(store.getBoolean(ModelPreferences.META_USE_SERVER_SIDE_FILTERS));
-
+            metadataSnapshotsCheck.setSelection(store.getBoolean(ModelPreferences.META_SNAPSHOT_ENABLED));
+            metadataSnapshotsMaxAgeSpinner.setSelection(store.getInt(ModelPreferences.META_SNAPSHOT_MAX_AGE));
+            metadataSnapshotsRevalidateCheck.setSelection(store.getBoolean(ModelPreferences.META_SNAPSHOT_REVALIDATE));
+            parallelMetaConnectionsSpinner.setSelection(store.getInt(ModelPreferences.META_PARALLEL_CONNECTIONS));
+            statementCacheSizeSpinner.setSelection(store.getInt(ModelPreferences.META_STATEMENT_CACHE_SIZE));
+            updateSnapshotControls();
         } catch (Exception e) {
             log.warn(e);
         }
@@ -177,7 +227,11 @@ public class PrefPageMetaData extends TargetPrefPage
             store.setValue(ModelPreferences.META_DISABLE_EXTRA_READ, disableExtraMetadataRead.getSelection());
             store.setValue(ModelPreferences.META_EXTRA_DDL_INFO, addExtraDDLInfo.getSelection());
             store.setValue(ModelPreferences.META_USE_SERVER_SIDE_FILTERS, serverSideFiltersCheck.getSelection());
-
+            store.setValue(ModelPreferences.META_SNAPSHOT_ENABLED, metadataSnapshotsCheck.getSelection());
+            store.setValue(ModelPreferences.META_SNAPSHOT_MAX_AGE, metadataSnapshotsMaxAgeSpinner.getSelection());
+            store.setValue(ModelPreferences.META_SNAPSHOT_REVALIDATE, metadataSnapshotsRevalidateCheck.getSelection());
+            store.setValue(ModelPreferences.META_PARALLEL_CONNECTIONS, parallelMetaConnectionsSpinner.getSelection());
+            store.setValue(ModelPreferences.META_STATEMENT_CACHE_SIZE, statementCacheSizeSpinner.getSelection());
         } catch (Exception e) {
             log.warn(e);
         }
@@ -193,6 +247,11 @@ public class PrefPageMetaData extends TargetPrefPage
         store.setToDefault(ModelPreferences.META_DISABLE_EXTRA_READ);
         store.setToDefault(ModelPreferences.META_USE_SERVER_SIDE_FILTERS);
         store.setToDefault(ModelPreferences.META_EXTRA_DDL_INFO);
+        store.setToDefault(ModelPreferences.META_SNAPSHOT_ENABLED);
+        store.setToDefault(ModelPreferences.META_SNAPSHOT_MAX_AGE);
+        store.setToDefault(ModelPreferences.META_SNAPSHOT_REVALIDATE);
+        store.setToDefault(ModelPreferences.META_PARALLEL_CONNECTIONS);
+        store.setToDefault(ModelPreferences.META_STATEMENT_CACHE_SIZE);
     }
 
     @Override
@@ -206,9 +265,21 @@ public class PrefPageMetaData extends TargetPrefPage
         disableExtraMetadataRead.setSelection(store.getDefaultBoolean(ModelPreferences.META_DISABLE_EXTRA_READ));
         addExtraDDLInfo.setSelection(store.getDefaultBoolean(ModelPreferences.META_EXTRA_DDL_INFO));
         serverSideFiltersCheck.setSelection(store.getDefaultBoolean(ModelPreferences.META_USE_SERVER_SIDE_FILTERS));
+        metadataSnapshotsCheck.setSelection(store.getDefaultBoolean(ModelPreferences.META_SNAPSHOT_ENABLED));
+        metadataSnapshotsMaxAgeSpinner.setSelection(store.getDefaultInt(ModelPreferences.META_SNAPSHOT_MAX_AGE));
+        metadataSnapshotsRevalidateCheck.setSelection(store.getDefaultBoolean(ModelPreferences.META_SNAPSHOT_REVALIDATE));
+        parallelMetaConnectionsSpinner.setSelection(store.getDefaultInt(ModelPreferences.META_PARALLEL_CONNECTIONS));
+        statementCacheSizeSpinner.setSelection(store.getDefaultInt(ModelPreferences.META_STATEMENT_CACHE_SIZE));
+        updateSnapshotControls();
         super.performDefaults();
     }
 
+    private void updateSnapshotControls() {
+        boolean enabled = metadataSnapshotsCheck.getSelection();
+        metadataSnapshotsMaxAgeSpinner.setEnabled(enabled);
+        metadataSnapshotsRevalidateCheck.setEnabled(enabled);
+    }
+
     @Override
     protected String getPropertyPageID()
     {
@@ -62,6 +62,7 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
     private Text textHistoryDays;
     private Text textEntriesPerPage;
     private Button checkStoreLog;
+    private Button checkStoreHistory;
     private Text textOutputFolder;
 
 
@@ -119,12 +120,26 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
                 public void widgetSelected(SelectionEvent e)
                 {
                     UIUtils.enableWithChildren(textOutputFolder.getParent(), checkStoreLog.getSelection());
-                    UIUtils.enableWithChildren(textHistoryDays, checkStoreLog.getSelection());
+                    updateHistoryDaysState();
                 }
             });
             textOutputFolder = DialogUtils.createOutputFolderChooser(storageSettings, CoreMessages.pref_page_query_manager_logs_folder, null, false, null);
 
             textOutputFolder.setText(getQMLogStorePath(store));
+            checkStoreHistory = UIUtils.createCheckbox(
+                storageSettings,
+                CoreMessages.pref_page_query_manager_checkbox_store_history,
+                store.getBoolean(QMConstants.PROP_STORE_HISTORY));
+            gd = new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING);
+            gd.horizontalSpan = 2;
+            checkStoreHistory.setLayoutData(gd);
+            checkStoreHistory.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e)
+                {
+                    updateHistoryDaysState();
+                }
+            });
             textHistoryDays = UIUtils.createLabelText(
                 storageSettings,
                 CoreMessages.pref_page_query_manager_label_days_to_store_log,
@@ -147,7 +162,12 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
         checkObjectTypes(objectTypes);
         checkQueryTypes(queryTypes);
         UIUtils.enableWithChildren(textOutputFolder.getParent(), checkStoreLog.getSelection());
-        UIUtils.enableWithChildren(textHistoryDays, checkStoreLog.getSelection());
+        updateHistoryDaysState();
+    }
+
+    private void updateHistoryDaysState() {
+        // Both log files and persistent history are purged by age
+        UIUtils.enableWithChildren(textHistoryDays, checkStoreLog.getSelection() || checkStoreHistory.getSelection());
     }
 
     private void checkObjectTypes(Collection<QMObjectType> objectTypes) {
@@ -182,8 +202,9 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
 
         checkStoreLog.setSelection(store.getDefaultBoolean(QMConstants.PROP_STORE_LOG_FILE));
         textOutputFolder.setText(store.getDefaultString(QMConstants.PROP_LOG_DIRECTORY));
+        checkStoreHistory.setSelection(store.getDefaultBoolean(QMConstants.PROP_STORE_HISTORY));
         UIUtils.enableWithChildren(textOutputFolder.getParent(), checkStoreLog.getSelection());
-        UIUtils.enableWithChildren(textHistoryDays, checkStoreLog.getSelection());
+        updateHistoryDaysState();
 
         super.performDefaults();
     }
@@ -218,6 +239,7 @@ public class PrefPageQueryManager extends AbstractPrefPage implements IWorkbench
         }
         store.setValue(QMConstants.PROP_STORE_LOG_FILE, checkStoreLog.getSelection());
         store.setValue(QMConstants.PROP_LOG_DIRECTORY, textOutputFolder.getText());
+        store.setValue(QMConstants.PROP_STORE_HISTORY, checkStoreHistory.getSelection());
         PrefUtils.savePreferenceStore(store);
 
         return super.performOk();
@@ -47,6 +47,7 @@ public class DTUIMessages extends NLS {
     public static String database_consumer_wizard_performance_group_label;
     public static String database_consumer_wizard_transactions_checkbox_label;
     public static String database_consumer_wizard_commit_spinner_label;
+    public static String database_consumer_wizard_resume_checkbox_tooltip;
     public static String database_consumer_wizard_general_group_label;
     public static String database_consumer_wizard_table_checkbox_label;
     public static String database_consumer_wizard_final_message_checkbox_label;
@@ -63,6 +64,14 @@ public class DTUIMessages extends NLS {
     public static String database_consumer_wizard_ignore_duplicate_rows_tip;
     public static String database_consumer_wizard_use_bulk_load_label;
     public static String database_consumer_wizard_use_bulk_load_description;
+    public static String database_consumer_wizard_use_bulk_load_streaming_label;
+    public static String database_consumer_wizard_use_bulk_load_streaming_description;
+    public static String database_consumer_wizard_use_bulk_load_binary_format_label;
+    public static String database_consumer_wizard_use_bulk_load_binary_format_description;
+    public static String database_consumer_wizard_bulk_load_table_lock_label;
+    public static String database_consumer_wizard_bulk_load_table_lock_description;
+    public static String database_consumer_wizard_bulk_load_check_constraints_label;
+    public static String database_consumer_wizard_bulk_load_check_constraints_description;
     public static String database_consumer_wizard_on_duplicate_key_insert_method_text;
     public static String database_consumer_wizard_link_label_replace_method_wiki;
     public static String database_consumer_wizard_label_replace_method_not_supported;
@@ -105,6 +114,10 @@ public class DTUIMessages extends NLS {
     public static String database_producer_page_extract_settings_row_count_checkbox_tooltip;
     public static String database_producer_page_extract_settings_text_fetch_size_label;
     public static String database_producer_page_extract_settings_text_fetch_size_tooltip;
+    public static String database_producer_page_extract_settings_pipelined_transfer_checkbox_tooltip;
+    public static String database_producer_page_extract_settings_buffer_numeric_columns_checkbox_tooltip;
+    public static String database_producer_page_extract_settings_partition_count_tooltip;
+    public static String database_producer_page_extract_settings_partition_column_tooltip;
 
     public static String database_producer_page_input_objects_name;
     public static String database_producer_page_input_objects_title;
@@ -73,6 +73,10 @@ public class DatabaseConsumerPageLoadSettings extends DataTransferPageNodeSettin
     private Button useBatchCheck;
     private Button ignoreDuplicateRows;
     private Button useBulkLoadCheck;
+    private Button useBulkLoadStreamingCheck;
+    private Button useBulkLoadBinaryFormatCheck;
+    private Button bulkLoadTableLockCheck;
+    private Button bulkLoadCheckConstraintsCheck;
     private List<SQLDialectInsertReplaceMethod> availableInsertMethodsDescriptors;
     private final Map<String, EventProcessorComposite<?>> processors = new HashMap<>();
 
@@ -223,6 +227,14 @@ public class DatabaseConsumerPageLoadSettings extends DataTransferPageNodeSettin
             gd.widthHint = UIUtils.getFontHeight(commitAfterEdit) * 6;
             commitAfterEdit.setLayoutData(gd);
 
+            final Button resumeCheck = UIUtils.createCheckbox(performanceSettings, DTMessages.database_consumer_settings_option_resume_from_checkpoint, DTUIMessages.database_consumer_wizard_resume_checkbox_tooltip, settings.isResumeFromCheckpoint(), 4);
+            resumeCheck.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setResumeFromCheckpoint(resumeCheck.getSelection());
+                }
+            });
+
             final Button useMultiRowInsert = UIUtils.createCheckbox(performanceSettings, DTUIMessages.database_consumer_wizard_checkbox_multi_insert_label, DTUIMessages.database_consumer_wizard_checkbox_multi_insert_description, settings.isUseMultiRowInsert(), 1);
             if (useBatchCheck != null && (
                 (!useBatchCheck.isDisposed() && useBatchCheck.getSelection()) ||
@@ -345,6 +357,66 @@ public class DatabaseConsumerPageLoadSettings extends DataTransferPageNodeSettin
                         }
                     }
                     onDuplicateKeyInsertMethods.setEnabled(!checkSelection);
+                    useBulkLoadStreamingCheck.setEnabled(checkSelection);
+                    useBulkLoadBinaryFormatCheck.setEnabled(checkSelection);
+                    bulkLoadTableLockCheck.setEnabled(checkSelection);
+                    bulkLoadCheckConstraintsCheck.setEnabled(checkSelection);
+                }
+            });
+
+            useBulkLoadStreamingCheck = UIUtils.createCheckbox(
+                performanceSettings,
+                DTUIMessages.database_consumer_wizard_use_bulk_load_streaming_label,
+                DTUIMessages.database_consumer_wizard_use_bulk_load_streaming_description,
+                settings.isUseBulkLoadStreaming(),
+                4);
+            useBulkLoadStreamingCheck.setEnabled(settings.isUseBulkLoad());
+            useBulkLoadStreamingCheck.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setUseBulkLoadStreaming(useBulkLoadStreamingCheck.getSelection());
+                }
+            });
+
+            useBulkLoadBinaryFormatCheck = UIUtils.createCheckbox(
+                performanceSettings,
+                DTUIMessages.database_consumer_wizard_use_bulk_load_binary_format_label,
+                DTUIMessages.database_consumer_wizard_use_bulk_load_binary_format_description,
+                settings.isUseBulkLoadBinaryFormat(),
+                4);
+            useBulkLoadBinaryFormatCheck.setEnabled(settings.isUseBulkLoad());
+            useBulkLoadBinaryFormatCheck.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setUseBulkLoadBinaryFormat(useBulkLoadBinaryFormatCheck.getSelection());
+                }
+            });
+
+            bulkLoadTableLockCheck = UIUtils.createCheckbox(
+                performanceSettings,
+                DTUIMessages.database_consumer_wizard_bulk_load_table_lock_label,
+                DTUIMessages.database_consumer_wizard_bulk_load_table_lock_description,
+                settings.isBulkLoadTableLock(),
+                4);
+            bulkLoadTableLockCheck.setEnabled(settings.isUseBulkLoad());
+            bulkLoadTableLockCheck.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setBulkLoadTableLock(bulkLoadTableLockCheck.getSelection());
+                }
+            });
+
+            bulkLoadCheckConstraintsCheck = UIUtils.createCheckbox(
+                performanceSettings,
+                DTUIMessages.database_consumer_wizard_bulk_load_check_constraints_label,
+                DTUIMessages.database_consumer_wizard_bulk_load_check_constraints_description,
+                settings.isBulkLoadCheckConstraints(),
+                4);
+            bulkLoadCheckConstraintsCheck.setEnabled(settings.isUseBulkLoad());
+            bulkLoadCheckConstraintsCheck.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setBulkLoadCheckConstraints(bulkLoadCheckConstraintsCheck.getSelection());
                 }
             });
         }
@@ -436,6 +508,22 @@ public class DatabaseConsumerPageLoadSettings extends DataTransferPageNodeSettin
             if (DBUtils.getAdapter(DBSDataBulkLoader.class, dataSource) == null) {
                 disableButton(useBulkLoadCheck);
                 settings.setUseBulkLoad(false);
+                if (buttonIsAvailable(useBulkLoadStreamingCheck)) {
+                    disableButton(useBulkLoadStreamingCheck);
+                    settings.setUseBulkLoadStreaming(false);
+                }
+                if (buttonIsAvailable(useBulkLoadBinaryFormatCheck)) {
+                    disableButton(useBulkLoadBinaryFormatCheck);
+                    settings.setUseBulkLoadBinaryFormat(false);
+                }
+                if (buttonIsAvailable(bulkLoadTableLockCheck)) {
+                    disableButton(bulkLoadTableLockCheck);
+                    settings.setBulkLoadTableLock(false);
+                }
+                if (buttonIsAvailable(bulkLoadCheckConstraintsCheck)) {
+                    disableButton(bulkLoadCheckConstraintsCheck);
+                    settings.setBulkLoadCheckConstraints(false);
+                }
             }
         }
 
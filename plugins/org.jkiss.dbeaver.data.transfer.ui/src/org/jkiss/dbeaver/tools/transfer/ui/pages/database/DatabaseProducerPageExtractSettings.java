@@ -53,6 +53,10 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
     private Button selectedColumnsOnlyCheckbox;
     private Button selectedRowsOnlyCheckbox;
     private Text fetchSizeText;
+    private Button pipelinedTransferCheckbox;
+    private Button bufferNumericColumnsCheckbox;
+    private Text partitionCountText;
+    private Text partitionColumnText;
 
     public DatabaseProducerPageExtractSettings() {
         super(DTUIMessages.database_producer_page_extract_settings_name_and_title);
@@ -147,6 +151,39 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
                 settings.setFetchSize(Integer.parseInt(fetchSizeText.getText()));
             });
 
+            pipelinedTransferCheckbox = UIUtils.createCheckbox(generalSettings, DTMessages.data_transfer_wizard_output_checkbox_pipelined_transfer, DTUIMessages.database_producer_page_extract_settings_pipelined_transfer_checkbox_tooltip, false, 4);
+            pipelinedTransferCheckbox.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setPipelinedTransfer(pipelinedTransferCheckbox.getSelection());
+                    bufferNumericColumnsCheckbox.setEnabled(settings.isPipelinedTransfer());
+                }
+            });
+
+            bufferNumericColumnsCheckbox = UIUtils.createCheckbox(generalSettings, DTMessages.data_transfer_wizard_output_checkbox_buffer_numeric_columns, DTUIMessages.database_producer_page_extract_settings_buffer_numeric_columns_checkbox_tooltip, false, 4);
+            bufferNumericColumnsCheckbox.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setBufferNumericColumns(bufferNumericColumnsCheckbox.getSelection());
+                }
+            });
+
+            partitionCountText = UIUtils.createLabelText(generalSettings, DTMessages.data_transfer_wizard_output_label_partition_count, "", SWT.BORDER);
+            partitionCountText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
+            ((GridData)partitionCountText.getLayoutData()).widthHint = UIUtils.getFontHeight(partitionCountText) * 10;
+            partitionCountText.setToolTipText(DTUIMessages.database_producer_page_extract_settings_partition_count_tooltip);
+            partitionCountText.addVerifyListener(UIUtils.getIntegerVerifyListener(Locale.ENGLISH));
+            partitionCountText.addModifyListener(e -> {
+                settings.setPartitionCount(CommonUtils.toInt(partitionCountText.getText(), 1));
+                updatePageCompletion();
+            });
+
+            partitionColumnText = UIUtils.createLabelText(generalSettings, DTMessages.data_transfer_wizard_output_label_partition_column, "", SWT.BORDER);
+            partitionColumnText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
+            ((GridData)partitionColumnText.getLayoutData()).widthHint = UIUtils.getFontHeight(partitionColumnText) * 10;
+            partitionColumnText.setToolTipText(DTUIMessages.database_producer_page_extract_settings_partition_column_tooltip);
+            partitionColumnText.addModifyListener(e -> settings.setPartitionColumn(CommonUtils.nullIfEmpty(partitionColumnText.getText().trim())));
+
             IStructuredSelection curSelection = getWizard().getCurrentSelection();
             boolean hasSelection = curSelection != null && !curSelection.isEmpty() && curSelection.getFirstElement() instanceof DBDCellValue;
 
@@ -238,6 +275,11 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
             }
         }
         fetchSizeText.setText(String.valueOf(settings.getFetchSize()));
+        pipelinedTransferCheckbox.setSelection(settings.isPipelinedTransfer());
+        bufferNumericColumnsCheckbox.setSelection(settings.isBufferNumericColumns());
+        bufferNumericColumnsCheckbox.setEnabled(settings.isPipelinedTransfer());
+        partitionCountText.setText(String.valueOf(settings.getPartitionCount()));
+        partitionColumnText.setText(CommonUtils.notEmpty(settings.getPartitionColumn()));
         if (selectedColumnsOnlyCheckbox != null) {
             selectedColumnsOnlyCheckbox.setSelection(settings.isSelectedColumnsOnly());
         }
@@ -262,6 +304,9 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
                 segmentSizeText.setEnabled(false);
             }
         }
+        if (partitionColumnText != null) {
+            partitionColumnText.setEnabled(CommonUtils.toInt(partitionCountText.getText(), 1) > 1);
+        }
         return true;
     }
 
@@ -0,0 +1,158 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.util.Objects;
+
+/**
+ * Committed progress of a single data transfer pipe.
+ * <p>
+ * Consumer updates checkpoint after each commit in the target database.
+ * If the transfer fails, the next run of the same task continues reading after the last committed key
+ * (or skips committed rows if source has no suitable key).
+ * All changes are persisted immediately by the owning {@link DataTransferCheckpointStore}.
+ */
+public class DataTransferCheckpoint {
+
+    private final DataTransferCheckpointStore store;
+    private final String pipeId;
+    private String keyAttribute;
+    private String lastKey;
+    private long committedRows;
+    private boolean completed;
+    private long updateTime;
+
+    DataTransferCheckpoint(@NotNull DataTransferCheckpointStore store, @NotNull String pipeId) {
+        this.store = store;
+        this.pipeId = pipeId;
+    }
+
+    @NotNull
+    public String getPipeId() {
+        return pipeId;
+    }
+
+    /**
+     * Name of the source attribute which defines rows order. Null if rows are skipped by offset.
+     */
+    @Nullable
+    public String getKeyAttribute() {
+        synchronized (store) {
+            return keyAttribute;
+        }
+    }
+
+    /**
+     * Key value of the last committed row
+     */
+    @Nullable
+    public String getLastKey() {
+        synchronized (store) {
+            return lastKey;
+        }
+    }
+
+    /**
+     * Total number of committed rows, including rows committed by previous runs
+     */
+    public long getCommittedRows() {
+        synchronized (store) {
+            return committedRows;
+        }
+    }
+
+    public boolean isCompleted() {
+        synchronized (store) {
+            return completed;
+        }
+    }
+
+    public long getUpdateTime() {
+        synchronized (store) {
+            return updateTime;
+        }
+    }
+
+    /**
+     * Returns true if some rows of this pipe were already committed
+     */
+    public boolean isStarted() {
+        synchronized (store) {
+            return completed || committedRows > 0;
+        }
+    }
+
+    /**
+     * Sets key attribute used to order source rows. Must be called before the first commit.
+     */
+    public void setKeyAttribute(@Nullable String keyAttribute) {
+        synchronized (store) {
+            if (!Objects.equals(this.keyAttribute, keyAttribute)) {
+                this.keyAttribute = keyAttribute;
+                store.save();
+            }
+        }
+    }
+
+    /**
+     * Records a commit in the target database
+     *
+     * @param committedRows total number of committed rows
+     * @param lastKey       key value of the last committed row or null if rows are not ordered by a key
+     */
+    public void commit(long committedRows, @Nullable String lastKey) {
+        synchronized (store) {
+            this.committedRows = committedRows;
+            if (lastKey != null) {
+                this.lastKey = lastKey;
+            }
+            this.updateTime = System.currentTimeMillis();
+            store.save();
+        }
+    }
+
+    /**
+     * Marks pipe as fully transferred. Completed pipes are skipped on resume.
+     */
+    public void complete() {
+        synchronized (store) {
+            this.completed = true;
+            this.updateTime = System.currentTimeMillis();
+            store.save();
+        }
+    }
+
+    void restore(@Nullable String keyAttribute, @Nullable String lastKey, long committedRows, boolean completed, long updateTime) {
+        this.keyAttribute = keyAttribute;
+        this.lastKey = lastKey;
+        this.committedRows = committedRows;
+        this.completed = completed;
+        this.updateTime = updateTime;
+    }
+
+    @Override
+    public String toString() {
+        synchronized (store) {
+            return pipeId + " [" + committedRows + " rows" +
+                (lastKey == null ? "" : ", " + keyAttribute + "=" + lastKey) +
+                (completed ? ", completed" : "") + "]";
+        }
+    }
+}
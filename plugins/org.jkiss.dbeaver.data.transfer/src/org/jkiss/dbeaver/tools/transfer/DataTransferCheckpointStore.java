@@ -0,0 +1,190 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.data.json.JSONUtils;
+import org.jkiss.dbeaver.model.task.DBTTask;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data transfer checkpoints of a single task.
+ * <p>
+ * Checkpoints are kept in the task statistics folder. The file is rewritten on each checkpoint update
+ * (write to a temporary file, then atomic rename), so it always contains a consistent state
+ * even if the process is killed. The file is removed after the task completes successfully.
+ */
+public class DataTransferCheckpointStore {
+
+    private static final Log log = Log.getLog(DataTransferCheckpointStore.class);
+
+    public static final String CHECKPOINTS_FILE_NAME = "checkpoints.json";
+
+    private static final Gson gson = new GsonBuilder().setLenient().create();
+
+    private final Path file;
+    private final Map<String, DataTransferCheckpoint> checkpoints = new LinkedHashMap<>();
+
+    private DataTransferCheckpointStore(@NotNull Path file) {
+        this.file = file;
+    }
+
+    @NotNull
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Returns existing checkpoint or creates a new one
+     */
+    @NotNull
+    public synchronized DataTransferCheckpoint getCheckpoint(@NotNull String pipeId) {
+        return checkpoints.computeIfAbsent(pipeId, id -> new DataTransferCheckpoint(this, id));
+    }
+
+    @NotNull
+    public synchronized List<DataTransferCheckpoint> getCheckpoints() {
+        return new ArrayList<>(checkpoints.values());
+    }
+
+    /**
+     * Returns true if there are checkpoints from previous runs
+     */
+    public synchronized boolean hasProgress() {
+        for (DataTransferCheckpoint checkpoint : checkpoints.values()) {
+            if (checkpoint.isStarted()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if all pipes were completed
+     */
+    public synchronized boolean isCompleted() {
+        for (DataTransferCheckpoint checkpoint : checkpoints.values()) {
+            if (!checkpoint.isCompleted()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes all checkpoints. Next run of the task will start from scratch.
+     */
+    public synchronized void clear() {
+        checkpoints.clear();
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Error deleting data transfer checkpoints '" + file + "'", e);
+        }
+    }
+
+    synchronized void save() {
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                JsonWriter json = gson.newJsonWriter(writer);
+                json.setIndent(JSONUtils.DEFAULT_INDENT);
+                json.beginObject();
+                json.name("checkpoints");
+                json.beginArray();
+                for (DataTransferCheckpoint checkpoint : checkpoints.values()) {
+                    json.beginObject();
+                    JSONUtils.field(json, "pipe", checkpoint.getPipeId());
+                    JSONUtils.fieldNE(json, "keyAttribute", checkpoint.getKeyAttribute());
+                    JSONUtils.fieldNE(json, "lastKey", checkpoint.getLastKey());
+                    JSONUtils.field(json, "committedRows", checkpoint.getCommittedRows());
+                    JSONUtils.field(json, "completed", checkpoint.isCompleted());
+                    JSONUtils.field(json, "updateTime", checkpoint.getUpdateTime());
+                    json.endObject();
+                }
+                json.endArray();
+                json.endObject();
+                json.flush();
+            }
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            log.error("Error saving data transfer checkpoints to '" + file + "'", e);
+        }
+    }
+
+    /**
+     * Loads checkpoints of the specified task
+     */
+    @NotNull
+    public static DataTransferCheckpointStore forTask(@NotNull DBTTask task) {
+        Path folder = task.getProject().getTaskManager().getStatisticsFolder(task);
+        return load(folder.resolve(CHECKPOINTS_FILE_NAME));
+    }
+
+    /**
+     * Loads checkpoints from file. Missing or broken file results in empty store.
+     */
+    @NotNull
+    public static DataTransferCheckpointStore load(@NotNull Path file) {
+        DataTransferCheckpointStore store = new DataTransferCheckpointStore(file);
+        if (!Files.exists(file)) {
+            return store;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Map<String, Object> map = JSONUtils.parseMap(gson, reader);
+            for (Map<String, Object> cpMap : JSONUtils.getObjectList(map, "checkpoints")) {
+                String pipeId = JSONUtils.getString(cpMap, "pipe");
+                if (pipeId == null) {
+                    continue;
+                }
+                store.getCheckpoint(pipeId).restore(
+                    JSONUtils.getString(cpMap, "keyAttribute"),
+                    JSONUtils.getString(cpMap, "lastKey"),
+                    JSONUtils.getLong(cpMap, "committedRows", 0),
+                    JSONUtils.getBoolean(cpMap, "completed"),
+                    JSONUtils.getLong(cpMap, "updateTime", 0));
+            }
+        } catch (Exception e) {
+            log.warn("Error loading data transfer checkpoints from '" + file + "'. Transfer will start from scratch.", e);
+            store.checkpoints.clear();
+        }
+        return store;
+    }
+
+    @Override
+    public String toString() {
+        return file.toString();
+    }
+}
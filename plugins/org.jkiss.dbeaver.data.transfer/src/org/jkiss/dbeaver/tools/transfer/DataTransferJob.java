@@ -131,6 +131,10 @@ public class DataTransferJob extends AbstractJob {
 
             IDataTransferProcessor processor = settings.getProcessor() == null ? null : settings.getProcessor().getInstance();
             producer.transferData(monitor, consumer, processor, nodeSettings, task);
+            DataTransferCheckpoint checkpoint = transferPipe.getCheckpoint();
+            if (checkpoint != null && !monitor.isCanceled()) {
+                checkpoint.complete();
+            }
 
             totalStatistics.accumulate(producer.getStatistics());
             totalStatistics.accumulate(consumer.getStatistics());
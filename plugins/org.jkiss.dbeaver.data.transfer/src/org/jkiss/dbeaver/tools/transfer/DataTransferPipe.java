@@ -16,6 +16,7 @@
  */
 package org.jkiss.dbeaver.tools.transfer;
 
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.tools.transfer.registry.DataTransferProcessorDescriptor;
 
@@ -28,6 +29,7 @@ public class DataTransferPipe {
 
     private IDataTransferProducer producer;
     private IDataTransferConsumer consumer;
+    private DataTransferCheckpoint checkpoint;
 
     public DataTransferPipe(IDataTransferProducer producer, IDataTransferConsumer consumer)
     {
@@ -55,6 +57,15 @@ public class DataTransferPipe {
         this.consumer = consumer;
     }
 
+    @Nullable
+    public DataTransferCheckpoint getCheckpoint() {
+        return checkpoint;
+    }
+
+    public void setCheckpoint(@Nullable DataTransferCheckpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
     public void initPipe(DataTransferSettings settings, int pipeIndex, int totalPipes) throws DBException {
         if (consumer == null || producer == null) {
             throw new DBException("Empty pipe");
@@ -69,6 +80,7 @@ public class DataTransferPipe {
         parameters.orderNumber = pipeIndex;
         parameters.totalConsumers = totalPipes;
         parameters.startTimestamp = new Date();
+        parameters.checkpoint = checkpoint;
         consumer.initTransfer(
             producer.getDatabaseObject(),
             consumerSettings,
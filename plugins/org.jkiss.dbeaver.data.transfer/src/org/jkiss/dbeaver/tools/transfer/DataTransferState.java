@@ -16,6 +16,8 @@
  */
 package org.jkiss.dbeaver.tools.transfer;
 
+import org.jkiss.code.Nullable;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -25,6 +27,7 @@ import java.util.List;
 public class DataTransferState {
 
     private List<Throwable> loadErrors = new ArrayList<>();
+    private DataTransferCheckpointStore checkpoints;
 
     public List<Throwable> getLoadErrors() {
         return loadErrors;
@@ -37,4 +40,16 @@ public class DataTransferState {
     public boolean hasErrors() {
         return !loadErrors.isEmpty();
     }
+
+    /**
+     * Checkpoints of a resumable transfer or null if transfer can't be resumed
+     */
+    @Nullable
+    public DataTransferCheckpointStore getCheckpoints() {
+        return checkpoints;
+    }
+
+    public void setCheckpoints(@Nullable DataTransferCheckpointStore checkpoints) {
+        this.checkpoints = checkpoints;
+    }
 }
@@ -40,6 +40,7 @@ public interface IDataTransferConsumer<SETTINGS extends IDataTransferSettings, P
         public boolean isBinary;
         public boolean isHTML;
         public Date startTimestamp;
+        public DataTransferCheckpoint checkpoint;
 
         public TransferParameters() {
         }
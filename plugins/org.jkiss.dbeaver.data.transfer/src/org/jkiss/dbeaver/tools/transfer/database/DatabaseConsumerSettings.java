@@ -64,7 +64,12 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
     private boolean skipBindValues;
     private boolean disableUsingBatches = false;
     private boolean ignoreDuplicateRows;
+    private boolean resumeFromCheckpoint;
     private boolean useBulkLoad = false;
+    private boolean useBulkLoadStreaming = false;
+    private boolean useBulkLoadBinaryFormat = false;
+    private boolean bulkLoadTableLock = false;
+    private boolean bulkLoadCheckConstraints = false;
     private String onDuplicateKeyInsertMethodId;
     private boolean disableReferentialIntegrity;
     private final Map<String, Map<String, Object>> eventProcessors = new HashMap<>();
@@ -186,6 +191,17 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
         this.ignoreDuplicateRows = ignoreDuplicateRows;
     }
 
+    /**
+     * Save committed position of each table, so failed task may continue from the last commit
+     */
+    public boolean isResumeFromCheckpoint() {
+        return resumeFromCheckpoint;
+    }
+
+    public void setResumeFromCheckpoint(boolean resumeFromCheckpoint) {
+        this.resumeFromCheckpoint = resumeFromCheckpoint;
+    }
+
     public String getOnDuplicateKeyInsertMethodId() {
         return onDuplicateKeyInsertMethodId;
     }
@@ -210,6 +226,38 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
         this.useBulkLoad = useBulkLoad;
     }
 
+    public boolean isUseBulkLoadStreaming() {
+        return useBulkLoadStreaming;
+    }
+
+    public void setUseBulkLoadStreaming(boolean useBulkLoadStreaming) {
+        this.useBulkLoadStreaming = useBulkLoadStreaming;
+    }
+
+    public boolean isUseBulkLoadBinaryFormat() {
+        return useBulkLoadBinaryFormat;
+    }
+
+    public void setUseBulkLoadBinaryFormat(boolean useBulkLoadBinaryFormat) {
+        this.useBulkLoadBinaryFormat = useBulkLoadBinaryFormat;
+    }
+
+    public boolean isBulkLoadTableLock() {
+        return bulkLoadTableLock;
+    }
+
+    public void setBulkLoadTableLock(boolean bulkLoadTableLock) {
+        this.bulkLoadTableLock = bulkLoadTableLock;
+    }
+
+    public boolean isBulkLoadCheckConstraints() {
+        return bulkLoadCheckConstraints;
+    }
+
+    public void setBulkLoadCheckConstraints(boolean bulkLoadCheckConstraints) {
+        this.bulkLoadCheckConstraints = bulkLoadCheckConstraints;
+    }
+
     @Nullable
     public DBPDataSource getTargetDataSource(DatabaseMappingObject attrMapping) {
         DBSObjectContainer container = getContainer();
@@ -237,9 +285,14 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
         skipBindValues = CommonUtils.getBoolean(settings.get("skipBindValues"), skipBindValues);
         disableUsingBatches = CommonUtils.getBoolean(settings.get("disableUsingBatches"), disableUsingBatches);
         ignoreDuplicateRows = CommonUtils.getBoolean(settings.get("ignoreDuplicateRows"), ignoreDuplicateRows);
+        resumeFromCheckpoint = CommonUtils.getBoolean(settings.get("resumeFromCheckpoint"), resumeFromCheckpoint);
         transferAutoGeneratedColumns = CommonUtils.getBoolean(settings.get("transferAutoGeneratedColumns"), transferAutoGeneratedColumns);
         disableReferentialIntegrity = CommonUtils.getBoolean(settings.get("disableReferentialIntegrity"), disableReferentialIntegrity);
         useBulkLoad = CommonUtils.getBoolean(settings.get("useBulkLoad"), useBulkLoad);
+        useBulkLoadStreaming = CommonUtils.getBoolean(settings.get("useBulkLoadStreaming"), useBulkLoadStreaming);
+        useBulkLoadBinaryFormat = CommonUtils.getBoolean(settings.get("useBulkLoadBinaryFormat"), useBulkLoadBinaryFormat);
+        bulkLoadTableLock = CommonUtils.getBoolean(settings.get("bulkLoadTableLock"), bulkLoadTableLock);
+        bulkLoadCheckConstraints = CommonUtils.getBoolean(settings.get("bulkLoadCheckConstraints"), bulkLoadCheckConstraints);
         truncateBeforeLoad = CommonUtils.getBoolean(settings.get("truncateBeforeLoad"), truncateBeforeLoad);
         openTableOnFinish = CommonUtils.getBoolean(settings.get("openTableOnFinish"), openTableOnFinish);
 
@@ -310,10 +363,15 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
         settings.put("skipBindValues", skipBindValues);
         settings.put("disableUsingBatches", disableUsingBatches);
         settings.put("ignoreDuplicateRows", ignoreDuplicateRows);
+        settings.put("resumeFromCheckpoint", resumeFromCheckpoint);
         settings.put("onDuplicateKeyMethod", onDuplicateKeyInsertMethodId);
         settings.put("transferAutoGeneratedColumns", transferAutoGeneratedColumns);
         settings.put("disableReferentialIntegrity", disableReferentialIntegrity);
         settings.put("useBulkLoad", useBulkLoad);
+        settings.put("useBulkLoadStreaming", useBulkLoadStreaming);
+        settings.put("useBulkLoadBinaryFormat", useBulkLoadBinaryFormat);
+        settings.put("bulkLoadTableLock", bulkLoadTableLock);
+        settings.put("bulkLoadCheckConstraints", bulkLoadCheckConstraints);
         settings.put("truncateBeforeLoad", truncateBeforeLoad);
         settings.put("openTableOnFinish", openTableOnFinish);
 
@@ -344,6 +402,7 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
         if (useTransactions) {
             DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_commit_after, commitAfterRows);
         }
+        DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_resume_from_checkpoint, resumeFromCheckpoint);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_use_multi_insert, useMultiRowInsert);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_multi_insert_batch, multiRowInsertBatch);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_skip_bind_values, skipBindValues);
@@ -353,6 +412,12 @@ public class DatabaseConsumerSettings implements IDataTransferConsumerSettings {
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_transfer_auto_generated_columns, transferAutoGeneratedColumns);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_disable_referential_integrity, disableReferentialIntegrity);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_use_bulk_load, useBulkLoad);
+        if (useBulkLoad) {
+            DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_use_bulk_load_streaming, useBulkLoadStreaming);
+            DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_use_bulk_load_binary_format, useBulkLoadBinaryFormat);
+            DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_bulk_load_table_lock, bulkLoadTableLock);
+            DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_bulk_load_check_constraints, bulkLoadCheckConstraints);
+        }
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_truncate_before_load, truncateBeforeLoad);
 
         return summary.toString();
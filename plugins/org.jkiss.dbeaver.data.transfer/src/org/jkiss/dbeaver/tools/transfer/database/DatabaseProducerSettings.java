@@ -16,6 +16,7 @@
  */
 package org.jkiss.dbeaver.tools.transfer.database;
 
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableContext;
 import org.jkiss.dbeaver.tools.transfer.DTUtils;
 import org.jkiss.dbeaver.tools.transfer.DataTransferSettings;
@@ -46,6 +47,11 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
     private boolean selectedColumnsOnly = false;
     private ExtractType extractType = ExtractType.SINGLE_QUERY;
     private int fetchSize = DEFAULT_FETCH_SIZE;
+    private boolean pipelinedTransfer = false;
+    private boolean bufferNumericColumns = false;
+    private int partitionCount = 1;
+    @Nullable
+    private String partitionColumn;
 
     public DatabaseProducerSettings() {
     }
@@ -108,6 +114,54 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         this.extractType = extractType;
     }
 
+    /**
+     * Read source and write target in separate threads connected by a bounded rows queue.
+     */
+    public boolean isPipelinedTransfer() {
+        return pipelinedTransfer;
+    }
+
+    public void setPipelinedTransfer(boolean pipelinedTransfer) {
+        this.pipelinedTransfer = pipelinedTransfer;
+    }
+
+    /**
+     * Keep integer and floating point values of queued rows in primitive column buffers.
+     * Used by pipelined transfer only.
+     */
+    public boolean isBufferNumericColumns() {
+        return bufferNumericColumns;
+    }
+
+    public void setBufferNumericColumns(boolean bufferNumericColumns) {
+        this.bufferNumericColumns = bufferNumericColumns;
+    }
+
+    /**
+     * Number of key ranges a single table is split into and read in parallel.
+     * Values less than 2 disable partitioned reading.
+     */
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    public void setPartitionCount(int partitionCount) {
+        this.partitionCount = Math.max(1, partitionCount);
+    }
+
+    /**
+     * Numeric column used to split the table into key ranges.
+     * If not set then single-column numeric unique key is used.
+     */
+    @Nullable
+    public String getPartitionColumn() {
+        return partitionColumn;
+    }
+
+    public void setPartitionColumn(@Nullable String partitionColumn) {
+        this.partitionColumn = partitionColumn;
+    }
+
     @Override
     public void loadSettings(DBRRunnableContext runnableContext, DataTransferSettings dataTransferSettings, Map<String, Object> settings) {
         extractType = CommonUtils.valueOf(ExtractType.class, (String) settings.get("extractType"), extractType);
@@ -117,6 +171,10 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         queryRowCount = CommonUtils.toBoolean(settings.get("queryRowCount"));
         selectedColumnsOnly = CommonUtils.toBoolean(settings.get("selectedColumnsOnly"));
         selectedRowsOnly = CommonUtils.toBoolean(settings.get("selectedRowsOnly"));
+        pipelinedTransfer = CommonUtils.toBoolean(settings.get("pipelinedTransfer"));
+        bufferNumericColumns = CommonUtils.toBoolean(settings.get("bufferNumericColumns"));
+        partitionCount = Math.max(1, CommonUtils.toInt(settings.get("partitionCount"), 1));
+        partitionColumn = CommonUtils.nullIfEmpty(CommonUtils.toString(settings.get("partitionColumn"), null));
     }
 
     @Override
@@ -128,6 +186,12 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         settings.put("queryRowCount", queryRowCount);
         settings.put("selectedColumnsOnly", selectedColumnsOnly);
         settings.put("selectedRowsOnly", selectedRowsOnly);
+        settings.put("pipelinedTransfer", pipelinedTransfer);
+        settings.put("bufferNumericColumns", bufferNumericColumns);
+        settings.put("partitionCount", partitionCount);
+        if (partitionColumn != null) {
+            settings.put("partitionColumn", partitionColumn);
+        }
     }
 
     @Override
@@ -139,6 +203,16 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_select_row_count, queryRowCount);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_selected_rows_only, selectedRowsOnly);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_selected_columns_only, selectedColumnsOnly);
+        DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_pipelined_transfer, pipelinedTransfer);
+        if (pipelinedTransfer) {
+            DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_buffer_numeric_columns, bufferNumericColumns);
+        }
+        if (partitionCount > 1) {
+            DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_label_partition_count, partitionCount);
+            if (partitionColumn != null) {
+                DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_label_partition_column, partitionColumn);
+            }
+        }
 
         return summary.toString();
     }
@@ -0,0 +1,94 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.columnar.ColumnarRowSet;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.local.LocalResultSet;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+
+/**
+ * Result set which replays rows fetched from another result set.
+ * Values are already converted by value handlers so they are returned as is.
+ * Metadata of the original result set is kept, so consumers bind attributes the same way.
+ * Rows may be replayed from a columnar row set, then values are materialized only when consumer reads them.
+ */
+class DatabaseTransferBufferedResultSet extends LocalResultSet<DBCStatement> {
+
+    private final DBCResultSetMetaData meta;
+    private Object[] currentRow;
+    private ColumnarRowSet currentRowSet;
+    private int currentRowIndex;
+
+    DatabaseTransferBufferedResultSet(@NotNull DBCSession session, @NotNull DBCResultSetMetaData meta) {
+        super(session, null);
+        this.meta = meta;
+    }
+
+    void setCurrentRow(@NotNull Object[] row) {
+        this.currentRow = row;
+        this.currentRowSet = null;
+    }
+
+    void setCurrentRow(@NotNull ColumnarRowSet rowSet, int row) {
+        this.currentRow = null;
+        this.currentRowSet = rowSet;
+        this.currentRowIndex = row;
+    }
+
+    @Override
+    public Object getAttributeValue(int index) throws DBCException {
+        if (currentRowSet != null) {
+            if (index < 0 || index >= currentRowSet.getColumnCount()) {
+                throw new DBCException("Attribute index out of range (" + index + ")");
+            }
+            return currentRowSet.getValue(currentRowIndex, index);
+        }
+        if (currentRow == null || index >= currentRow.length) {
+            throw new DBCException("Attribute index out of range (" + index + ")");
+        }
+        return currentRow[index];
+    }
+
+    @NotNull
+    @Override
+    public DBCResultSetMetaData getMeta() {
+        return meta;
+    }
+
+    /**
+     * Reads current row of the source result set into values array indexed by attribute ordinal position.
+     */
+    @NotNull
+    static Object[] fetchRowValues(
+        @NotNull DBCSession session,
+        @NotNull DBCResultSet resultSet,
+        @NotNull DBDAttributeBinding[] bindings
+    ) throws DBCException {
+        Object[] row = new Object[bindings.length];
+        for (DBDAttributeBinding binding : bindings) {
+            DBSAttributeBase metaAttribute = binding.getMetaAttribute();
+            if (metaAttribute != null) {
+                row[binding.getOrdinalPosition()] = binding.getValueHandler().fetchValueObject(
+                    session, resultSet, metaAttribute, binding.getOrdinalPosition());
+            }
+        }
+        return row;
+    }
+}
@@ -53,6 +53,7 @@ import org.jkiss.dbeaver.tools.transfer.registry.DataTransferRegistry;
 import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -96,6 +97,12 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
     private DBDAttributeBinding[] rsAttributes;
     private DBSObjectContainer container;
 
+    private DataTransferCheckpoint checkpoint;
+    private long checkpointBaseRows;
+    private long checkpointRows;
+    private int checkpointKeyIndex = -1;
+    private Object checkpointKeyValue;
+
     public void setContainer(DBSObjectContainer container) {
         this.container = container;
     }
@@ -186,7 +193,8 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         AbstractExecutionSource executionSource = new AbstractExecutionSource(containerMapping.getSource(), targetContext, this);
 
         DBSDataManipulator targetObject = getTargetObject();
-        if (targetObject != null && !isPreview && offset <= 0 && settings.isTruncateBeforeLoad() && (containerMapping == null || containerMapping.getMappingType() == DatabaseMappingType.existing)) {
+        boolean resumed = checkpoint != null && checkpoint.isStarted();
+        if (targetObject != null && !isPreview && offset <= 0 && !resumed && settings.isTruncateBeforeLoad() && (containerMapping == null || containerMapping.getMappingType() == DatabaseMappingType.existing)) {
             // Truncate target tables
             // Note: all implementations support truncate in some way (e.g. DELETE FROM)
             // even if DBSDataManipulator.FEATURE_DATA_TRUNCATE is reported to be not supported.
@@ -281,12 +289,29 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         }
         DBSAttributeBase[] attributes = targetAttributes.toArray(new DBSAttributeBase[0]);
 
+        checkpointKeyIndex = -1;
+        if (checkpoint != null && checkpoint.getKeyAttribute() != null) {
+            for (int i = 0; i < rsAttributes.length; i++) {
+                if (checkpoint.getKeyAttribute().equals(rsAttributes[i].getName())) {
+                    checkpointKeyIndex = i;
+                    break;
+                }
+            }
+            if (checkpointKeyIndex < 0) {
+                throw new DBCException("Checkpoint key [" + checkpoint.getKeyAttribute() + "] not found in source result set");
+            }
+        }
+
         Map<String, Object> options = new HashMap<>();
         options.put(DBSDataManipulator.OPTION_USE_MULTI_INSERT, settings.isUseMultiRowInsert());
         options.put(DBSDataManipulator.OPTION_SKIP_BIND_VALUES, settings.isSkipBindValues());
 
         if (!isPreview && targetObject != null) {
             if (settings.isUseBulkLoad()) {
+                options.put(DBSDataBulkLoader.OPTION_STREAMING, settings.isUseBulkLoadStreaming());
+                options.put(DBSDataBulkLoader.OPTION_BINARY_FORMAT, settings.isUseBulkLoadBinaryFormat());
+                options.put(DBSDataBulkLoader.OPTION_TABLE_LOCK, settings.isBulkLoadTableLock());
+                options.put(DBSDataBulkLoader.OPTION_CHECK_CONSTRAINTS, settings.isBulkLoadCheckConstraints());
                 DBSDataBulkLoader bulkLoader = DBUtils.getAdapter(DBSDataBulkLoader.class, targetContext.getDataSource());
                 if (bulkLoader != null) {
                     try {
@@ -352,6 +377,9 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
                 // No value handler - get raw value
                 attrValue = resultSet.getAttributeValue(i);
             }
+            if (i == checkpointKeyIndex) {
+                checkpointKeyValue = attrValue;
+            }
 
             if (containerMapping != null && containerMapping.getTarget() instanceof DBSDocumentContainer) {
                 rowValues[column.targetIndex] = attrValue;
@@ -388,6 +416,11 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             }
         }
 
+        if (checkpointKeyIndex >= 0 && (columnMappings[checkpointKeyIndex] == null || columnMappings[checkpointKeyIndex].targetIndex < 0)) {
+            // Key column is not transferred
+            checkpointKeyValue = resultSet.getAttributeValue(checkpointKeyIndex);
+        }
+
         if (bulkLoadManager != null) {
             bulkLoadManager.addRow(targetSession, rowValues);
         } else {
@@ -414,6 +447,7 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
 
         if (bulkLoadManager != null) {
             if (needCommit) {
+                // Bulk loaders commit only when the load is finished, so checkpoint is saved in fetchEnd
                 bulkLoadManager.flushRows(targetSession);
             }
             return;
@@ -507,6 +541,44 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
                 txnManager.commit(targetSession);
             }
         }
+        if (needCommit && !targetSession.getProgressMonitor().isCanceled() && isChangesCommitted()) {
+            updateCheckpoint(force);
+        }
+    }
+
+    /**
+     * Checks that inserted rows are committed: either by an explicit commit or by auto-commit mode
+     */
+    private boolean isChangesCommitted() {
+        if (settings.isUseTransactions()) {
+            return true;
+        }
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(targetSession.getExecutionContext());
+        return txnManager == null || !txnManager.isSupportsTransactions() || txnManager.isAutoCommit();
+    }
+
+    /**
+     * Saves position of the last committed row
+     */
+    private void updateCheckpoint(boolean force) throws DBCException {
+        if (checkpoint == null || rowsExported == checkpointRows) {
+            return;
+        }
+        if (!force && rowsExported - checkpointRows < settings.getCommitAfterRows()) {
+            // Rows are committed one by one when duplicates are ignored. Do not save checkpoint on each row,
+            // rows committed after the checkpoint will be skipped as duplicates on resume.
+            return;
+        }
+        String lastKey = null;
+        if (checkpointKeyIndex >= 0) {
+            BigDecimal keyValue = DatabaseTransferPartitionReader.toDecimal(checkpointKeyValue);
+            if (keyValue == null) {
+                throw new DBCException("Bad checkpoint key [" + checkpoint.getKeyAttribute() + "] value: " + checkpointKeyValue);
+            }
+            lastKey = keyValue.toPlainString();
+        }
+        checkpoint.commit(checkpointBaseRows + rowsExported, lastKey);
+        checkpointRows = rowsExported;
     }
 
     @Override
@@ -517,6 +589,7 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             }
             if (bulkLoadManager != null) {
                 bulkLoadManager.finishBulkLoad(targetSession);
+                updateCheckpoint(true);
             } else if (executeBatch != null) {
                 executeBatch.close();
                 executeBatch = null;
@@ -624,6 +697,18 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
     public void initTransfer(@NotNull DBSObject sourceObject, @Nullable DatabaseConsumerSettings settings, @NotNull TransferParameters parameters, @Nullable IDataTransferProcessor processor, @Nullable Map<String, Object> processorProperties, @Nullable DBPProject project) {
         this.settings = settings;
         this.containerMapping = settings.getDataMapping((DBSDataContainer) sourceObject);
+        this.checkpoint = parameters.checkpoint;
+        if (checkpoint != null) {
+            checkpointBaseRows = checkpoint.getCommittedRows();
+        }
+    }
+
+    /**
+     * Returns checkpoint of a resumable transfer or null
+     */
+    @Nullable
+    public DataTransferCheckpoint getCheckpoint() {
+        return checkpoint;
     }
 
     @Override
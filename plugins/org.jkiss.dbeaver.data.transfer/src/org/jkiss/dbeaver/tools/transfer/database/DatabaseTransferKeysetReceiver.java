@@ -0,0 +1,134 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.data.DBDKeyset;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCResultSetMetaData;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+
+import java.util.List;
+
+/**
+ * Data receiver which remembers keyset values of the last fetched row,
+ * so the next segment may be read after this row instead of skipping all previous rows.
+ * Each row is read once and replayed to the target receiver.
+ * <p>
+ * Result sets with LOB columns are passed through directly, position is not tracked for them.
+ */
+class DatabaseTransferKeysetReceiver implements DBDDataReceiver {
+
+    private final DBDDataReceiver target;
+    private final DBSDataContainer dataContainer;
+    private final DBDKeyset keyset;
+
+    private DBDAttributeBinding[] bindings;
+    private int[] keyPositions;
+    private DatabaseTransferBufferedResultSet bufferedResultSet;
+    private Object[] lastRow;
+
+    DatabaseTransferKeysetReceiver(@NotNull DBDDataReceiver target, @NotNull DBSDataContainer dataContainer, @NotNull DBDKeyset keyset) {
+        this.target = target;
+        this.dataContainer = dataContainer;
+        this.keyset = keyset;
+    }
+
+    /**
+     * Returns keyset values of the last fetched row. Returns null if position is unknown.
+     */
+    @Nullable
+    Object[] getLastPosition() {
+        if (lastRow == null || keyPositions == null) {
+            return null;
+        }
+        Object[] position = new Object[keyPositions.length];
+        for (int i = 0; i < keyPositions.length; i++) {
+            Object value = lastRow[keyPositions[i]];
+            if (DBUtils.isNullValue(value)) {
+                return null;
+            }
+            position[i] = value;
+        }
+        return position;
+    }
+
+    @Override
+    public void fetchStart(@NotNull DBCSession session, @NotNull DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+        lastRow = null;
+        bufferedResultSet = null;
+        DBCResultSetMetaData meta = resultSet.getMeta();
+        bindings = DBUtils.getAttributeBindings(session, dataContainer, meta);
+        keyPositions = findKeyPositions();
+        if (keyPositions == null) {
+            target.fetchStart(session, resultSet, offset, maxRows);
+        } else {
+            bufferedResultSet = new DatabaseTransferBufferedResultSet(session, meta);
+            target.fetchStart(session, bufferedResultSet, offset, maxRows);
+        }
+    }
+
+    @Override
+    public void fetchRow(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+        if (bufferedResultSet == null) {
+            target.fetchRow(session, resultSet);
+            return;
+        }
+        Object[] row = DatabaseTransferBufferedResultSet.fetchRowValues(session, resultSet, bindings);
+        bufferedResultSet.setCurrentRow(row);
+        target.fetchRow(session, bufferedResultSet);
+        lastRow = row;
+    }
+
+    @Override
+    public void fetchEnd(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+        target.fetchEnd(session, bufferedResultSet == null ? resultSet : bufferedResultSet);
+    }
+
+    @Override
+    public void close() {
+        bufferedResultSet = null;
+        target.close();
+    }
+
+    @Nullable
+    private int[] findKeyPositions() {
+        for (DBDAttributeBinding binding : bindings) {
+            if (binding.getDataKind() == DBPDataKind.CONTENT) {
+                // LOB values can't be buffered
+                return null;
+            }
+        }
+        List<DBDKeyset.KeyAttribute> keyAttributes = keyset.getAttributes();
+        int[] positions = new int[keyAttributes.size()];
+        for (int i = 0; i < keyAttributes.size(); i++) {
+            DBDAttributeBinding binding = DBUtils.findObject(bindings, keyAttributes.get(i).attribute().getName());
+            if (binding == null || binding.getMetaAttribute() == null) {
+                return null;
+            }
+            positions[i] = binding.getOrdinalPosition();
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,500 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.utils.CommonUtils;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads a single table in parallel by splitting it into ranges of a numeric key column.
+ * Each range is read over its own isolated connection. Rows are handed over to the consumer
+ * in the calling thread so consumers do not need to be thread-safe.
+ * Tables with LOB columns are not partitioned: LOB values are bound to the reader connection.
+ */
+public class DatabaseTransferPartitionReader {
+
+    private static final Log log = Log.getLog(DatabaseTransferPartitionReader.class);
+
+    private static final int ROWS_QUEUE_CAPACITY = 10000;
+    private static final long QUEUE_POLL_TIMEOUT_MS = 100;
+    private static final Object[] END_OF_PARTITION = new Object[0];
+
+    private final DBSDataContainer dataContainer;
+    private final DBSEntity entity;
+    private final DBSEntityAttribute keyAttribute;
+    private final List<DBDDataFilter> partitionFilters;
+    private final int fetchSize;
+
+    private final BlockingQueue<Object[]> rowsQueue = new ArrayBlockingQueue<>(ROWS_QUEUE_CAPACITY);
+    private volatile boolean canceled;
+    private volatile DBCResultSetMetaData resultSetMeta;
+
+    private DatabaseTransferPartitionReader(
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSEntity entity,
+        @NotNull DBSEntityAttribute keyAttribute,
+        @NotNull List<DBDDataFilter> partitionFilters,
+        int fetchSize
+    ) {
+        this.dataContainer = dataContainer;
+        this.entity = entity;
+        this.keyAttribute = keyAttribute;
+        this.partitionFilters = partitionFilters;
+        this.fetchSize = fetchSize;
+    }
+
+    @NotNull
+    public DBSEntityAttribute getKeyAttribute() {
+        return keyAttribute;
+    }
+
+    public int getPartitionCount() {
+        return partitionFilters.size();
+    }
+
+    /**
+     * Prepares partitioned reader for the specified data container.
+     * Returns null if container can't be partitioned (not a table, no numeric key, LOB columns, empty table, etc).
+     */
+    @Nullable
+    public static DatabaseTransferPartitionReader create(
+        @NotNull DBCSession session,
+        @NotNull DBCExecutionSource source,
+        @NotNull DBSDataContainer dataContainer,
+        @Nullable DBDDataFilter dataFilter,
+        @NotNull DatabaseProducerSettings settings
+    ) throws DBException {
+        if (settings.getPartitionCount() < 2 || !(dataContainer instanceof DBSEntity entity)) {
+            return null;
+        }
+        if (dataFilter != null && dataFilter.hasOrdering()) {
+            // Ordered output can't be merged from parallel readers
+            return null;
+        }
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        DBSEntityAttribute keyAttribute = findNumericKeyAttribute(monitor, entity, settings.getPartitionColumn());
+        if (keyAttribute == null) {
+            log.debug("No numeric key found in '" + entity.getName() + "'. Partitioned read is disabled.");
+            return null;
+        }
+        if (hasContentAttributes(monitor, entity)) {
+            log.debug("'" + entity.getName() + "' contains LOB columns. Partitioned read is disabled.");
+            return null;
+        }
+        String columnName = DBUtils.getQuotedIdentifier(keyAttribute);
+        String query = "SELECT MIN(" + columnName + "),MAX(" + columnName + ") FROM " +
+            DBUtils.getObjectFullName(entity, DBPEvaluationContext.DML);
+
+        BigDecimal minValue, maxValue;
+        try (DBCStatement dbStat = DBUtils.makeStatement(source, session, DBCStatementType.QUERY, query, -1, -1)) {
+            if (!dbStat.executeStatement()) {
+                return null;
+            }
+            try (DBCResultSet dbResult = dbStat.openResultSet()) {
+                if (dbResult == null || !dbResult.nextRow()) {
+                    return null;
+                }
+                minValue = toDecimal(dbResult.getAttributeValue(0));
+                maxValue = toDecimal(dbResult.getAttributeValue(1));
+            }
+        }
+        if (minValue == null || maxValue == null) {
+            // Empty table
+            return null;
+        }
+        DatabaseTransferPartitionReader reader = create(dataContainer, entity, keyAttribute, minValue, maxValue, dataFilter, settings);
+        if (reader != null) {
+            log.debug("Read '" + entity.getName() + "' in " + reader.getPartitionCount() + " partitions by '" + keyAttribute.getName() +
+                "' [" + minValue.toPlainString() + " - " + maxValue.toPlainString() + "] (" + session.getDataSource().getName() + ")");
+        }
+        return reader;
+    }
+
+    /**
+     * Prepares partitioned reader for the known range of key values.
+     * Returns null if the range can't be split.
+     */
+    @Nullable
+    public static DatabaseTransferPartitionReader create(
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSEntity entity,
+        @NotNull DBSEntityAttribute keyAttribute,
+        @NotNull BigDecimal minValue,
+        @NotNull BigDecimal maxValue,
+        @Nullable DBDDataFilter dataFilter,
+        @NotNull DatabaseProducerSettings settings
+    ) {
+        String columnName = DBUtils.getQuotedIdentifier(keyAttribute);
+        boolean integral = isIntegral(keyAttribute) && isIntegral(minValue) && isIntegral(maxValue);
+        List<BigDecimal> bounds = splitKeyRange(minValue, maxValue, settings.getPartitionCount(), integral);
+        if (bounds.size() < 3) {
+            // Single range - nothing to parallelize
+            return null;
+        }
+
+        boolean nullable = !keyAttribute.isRequired();
+        List<DBDDataFilter> filters = new ArrayList<>(bounds.size() - 1);
+        for (int i = 0; i < bounds.size() - 1; i++) {
+            boolean last = i == bounds.size() - 2;
+            StringBuilder condition = new StringBuilder();
+            if (i == 0 && nullable) {
+                condition.append("(").append(columnName).append(" IS NULL OR ");
+            }
+            condition.append(columnName).append(">=").append(bounds.get(i).toPlainString())
+                .append(" AND ").append(columnName).append(last ? "<=" : "<").append(bounds.get(i + 1).toPlainString());
+            if (i == 0 && nullable) {
+                condition.append(")");
+            }
+            DBDDataFilter filter = dataFilter == null ? new DBDDataFilter() : new DBDDataFilter(dataFilter);
+            if (CommonUtils.isEmpty(filter.getWhere())) {
+                filter.setWhere(condition.toString());
+            } else {
+                filter.setWhere("(" + filter.getWhere() + ") AND (" + condition + ")");
+            }
+            filters.add(filter);
+        }
+        return new DatabaseTransferPartitionReader(dataContainer, entity, keyAttribute, filters, settings.getFetchSize());
+    }
+
+    /**
+     * Splits [min, max] into at most {@code count} ranges.
+     * Returns ordered list of range bounds. The first element is {@code min} and the last one is {@code max}.
+     * Each range includes its lower bound, the last range also includes the upper bound.
+     */
+    @NotNull
+    public static List<BigDecimal> splitKeyRange(@NotNull BigDecimal min, @NotNull BigDecimal max, int count, boolean integral) {
+        List<BigDecimal> bounds = new ArrayList<>(count + 1);
+        bounds.add(min);
+        if (count > 1 && max.compareTo(min) > 0) {
+            BigDecimal width = max.subtract(min);
+            BigDecimal partCount = BigDecimal.valueOf(count);
+            for (int i = 1; i < count; i++) {
+                BigDecimal offset = width.multiply(BigDecimal.valueOf(i));
+                offset = integral ?
+                    offset.divide(partCount, 0, RoundingMode.FLOOR) :
+                    offset.divide(partCount, MathContext.DECIMAL64);
+                BigDecimal bound = min.add(offset);
+                if (bound.compareTo(bounds.get(bounds.size() - 1)) > 0 && bound.compareTo(max) < 0) {
+                    bounds.add(bound);
+                }
+            }
+        }
+        bounds.add(max);
+        return bounds;
+    }
+
+    /**
+     * Reads all partitions in parallel and passes rows to the consumer.
+     * Consumer is invoked in the current thread only.
+     */
+    @NotNull
+    public DBCStatistics readData(
+        @NotNull DBCExecutionSource source,
+        @NotNull DBCSession session,
+        @NotNull DBDDataReceiver consumer,
+        long readFlags
+    ) throws DBException {
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        DBCExecutionContext mainContext = session.getExecutionContext();
+        DBCStatistics statistics = new DBCStatistics();
+        List<PartitionReadJob> jobs = new ArrayList<>(partitionFilters.size());
+        try {
+            for (int i = 0; i < partitionFilters.size(); i++) {
+                PartitionReadJob job = new PartitionReadJob(source, mainContext, partitionFilters.get(i), readFlags, i);
+                jobs.add(job);
+                job.schedule();
+            }
+
+            DatabaseTransferBufferedResultSet resultSet = null;
+            int activeCount = jobs.size();
+            try {
+                while (activeCount > 0) {
+                    if (monitor.isCanceled()) {
+                        break;
+                    }
+                    Object[] row;
+                    try {
+                        row = rowsQueue.poll(QUEUE_POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                    if (row == null) {
+                        continue;
+                    }
+                    if (row == END_OF_PARTITION) {
+                        activeCount--;
+                        continue;
+                    }
+                    if (resultSet == null) {
+                        resultSet = new DatabaseTransferBufferedResultSet(session, resultSetMeta);
+                        consumer.fetchStart(session, resultSet, -1, -1);
+                    }
+                    resultSet.setCurrentRow(row);
+                    consumer.fetchRow(session, resultSet);
+                }
+                if (resultSet == null && resultSetMeta != null && activeCount == 0) {
+                    // No rows at all. Let consumer write headers anyway.
+                    resultSet = new DatabaseTransferBufferedResultSet(session, resultSetMeta);
+                    consumer.fetchStart(session, resultSet, -1, -1);
+                }
+            } finally {
+                if (activeCount > 0) {
+                    cancelJobs(jobs);
+                }
+                for (PartitionReadJob job : jobs) {
+                    try {
+                        job.join();
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                }
+                if (resultSet != null) {
+                    try {
+                        consumer.fetchEnd(session, resultSet);
+                    } catch (Throwable e) {
+                        log.error("Error while finishing result set fetch", e);
+                    }
+                }
+                consumer.close();
+            }
+
+            Throwable error = null;
+            for (PartitionReadJob job : jobs) {
+                if (job.statistics != null) {
+                    statistics.accumulate(job.statistics);
+                }
+                if (job.error != null) {
+                    if (error == null) {
+                        error = job.error;
+                    } else {
+                        error.addSuppressed(job.error);
+                    }
+                }
+            }
+            if (error != null) {
+                throw new DBException("Error reading data partition of '" + entity.getName() + "'", error);
+            }
+        } finally {
+            for (PartitionReadJob job : jobs) {
+                job.closeContext();
+            }
+        }
+        return statistics;
+    }
+
+    private void cancelJobs(@NotNull List<PartitionReadJob> jobs) {
+        canceled = true;
+        for (PartitionReadJob job : jobs) {
+            job.cancel();
+        }
+        rowsQueue.clear();
+    }
+
+    private boolean enqueue(@NotNull Object[] row) {
+        try {
+            while (!canceled) {
+                if (rowsQueue.offer(row, QUEUE_POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            // Stop reading
+        }
+        return false;
+    }
+
+    /**
+     * Returns the specified attribute if it is numeric. If attribute is not specified then returns
+     * single-column numeric primary (or unique) key. Returns null if there is no such attribute.
+     */
+    @Nullable
+    static DBSEntityAttribute findNumericKeyAttribute(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSEntity entity,
+        @Nullable String attributeName
+    ) throws DBException {
+        if (!CommonUtils.isEmpty(attributeName)) {
+            DBSEntityAttribute attribute = entity.getAttribute(monitor, attributeName);
+            if (attribute == null) {
+                throw new DBException("Partition column '" + attributeName + "' not found in '" + entity.getName() + "'");
+            }
+            return attribute.getDataKind() == DBPDataKind.NUMERIC ? attribute : null;
+        }
+        List<? extends DBSEntityAttribute> identifier = DBUtils.getBestTableIdentifier(monitor, entity);
+        if (identifier.size() == 1 && identifier.get(0).getDataKind() == DBPDataKind.NUMERIC) {
+            return identifier.get(0);
+        }
+        return null;
+    }
+
+    private static boolean hasContentAttributes(@NotNull DBRProgressMonitor monitor, @NotNull DBSEntity entity) throws DBException {
+        for (DBSEntityAttribute attribute : CommonUtils.safeCollection(entity.getAttributes(monitor))) {
+            if (attribute.getDataKind() == DBPDataKind.CONTENT) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isIntegral(@NotNull DBSEntityAttribute attribute) {
+        Integer scale = attribute.getScale();
+        return scale == null || scale == 0;
+    }
+
+    private static boolean isIntegral(@NotNull BigDecimal value) {
+        return value.signum() == 0 || value.stripTrailingZeros().scale() <= 0;
+    }
+
+    @Nullable
+    static BigDecimal toDecimal(@Nullable Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        if (value instanceof Number) {
+            try {
+                return new BigDecimal(value.toString());
+            } catch (NumberFormatException e) {
+                // NaN or infinity
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private class PartitionReadJob extends AbstractJob implements DBDDataReceiver {
+        private final DBCExecutionSource source;
+        private final DBCExecutionContext mainContext;
+        private final DBDDataFilter filter;
+        private final long readFlags;
+        private DBCExecutionContext context;
+        private DBDAttributeBinding[] bindings;
+        private volatile DBCStatistics statistics;
+        private volatile Throwable error;
+
+        PartitionReadJob(
+            @NotNull DBCExecutionSource source,
+            @NotNull DBCExecutionContext mainContext,
+            @NotNull DBDDataFilter filter,
+            long readFlags,
+            int index
+        ) {
+            super("Read partition [" + index + "] of " + entity.getName());
+            this.source = source;
+            this.mainContext = mainContext;
+            this.filter = filter;
+            this.readFlags = readFlags;
+            setSystem(true);
+            setUser(false);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                context = DBUtils.getObjectOwnerInstance(entity).openIsolatedContext(monitor, "Data transfer partition reader", mainContext);
+                DBCTransactionManager txnManager = DBUtils.getTransactionManager(context);
+                if (txnManager != null && txnManager.isSupportsTransactions()) {
+                    // Some drivers read LOBs and cursors only in transactional mode
+                    txnManager.setAutoCommit(monitor, false);
+                }
+                try (DBCSession session = context.openSession(monitor, DBCExecutionPurpose.UTIL, getName())) {
+                    session.enableLogging(false);
+                    statistics = dataContainer.readData(source, session, this, filter, -1, -1, readFlags, fetchSize);
+                }
+            } catch (Throwable e) {
+                if (!canceled) {
+                    error = e;
+                }
+            } finally {
+                enqueue(END_OF_PARTITION);
+            }
+            return Status.OK_STATUS;
+        }
+
+        @Override
+        public void fetchStart(@NotNull DBCSession session, @NotNull DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+            DBCResultSetMetaData meta = resultSet.getMeta();
+            synchronized (DatabaseTransferPartitionReader.this) {
+                if (resultSetMeta == null) {
+                    resultSetMeta = meta;
+                }
+            }
+            bindings = DBUtils.getAttributeBindings(session, dataContainer, meta);
+        }
+
+        @Override
+        public void fetchRow(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+            if (canceled) {
+                return;
+            }
+            Object[] row = DatabaseTransferBufferedResultSet.fetchRowValues(session, resultSet, bindings);
+            for (Object value : row) {
+                if (value instanceof DBDContent) {
+                    // Content may be read only while the result set is open
+                    throw new DBCException("LOB values can't be read in parallel");
+                }
+            }
+            enqueue(row);
+        }
+
+        @Override
+        public void fetchEnd(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        void closeContext() {
+            if (context != null) {
+                try {
+                    context.close();
+                } catch (Throwable e) {
+                    log.debug("Error closing partition reader context", e);
+                }
+                context = null;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,370 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDDataFormatterProfile;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.data.columnar.ColumnarRowSet;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Data receiver which decouples source reading from target writing.
+ * Fetched rows are collected into columnar batches and put into a bounded queue.
+ * If numeric columns buffering is enabled, numeric values are kept unboxed until the target reads them.
+ * Separate job drains the queue into the target receiver, so source fetch and target writes overlap.
+ * Producer blocks when the queue is full.
+ * <p>
+ * Target is started and finished in the producer thread with the source session. Drain job passes
+ * already fetched values to the target with a detached session which can't execute statements,
+ * so the source connection is used by the producer thread only.
+ * <p>
+ * Result sets with LOB columns are passed through directly because LOB values
+ * may be valid only while the source cursor is positioned on the row.
+ */
+public class DatabaseTransferPipelinedReceiver implements DBDDataReceiver {
+
+    private static final Log log = Log.getLog(DatabaseTransferPipelinedReceiver.class);
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final int DEFAULT_QUEUE_CAPACITY = 8;
+
+    private static final long QUEUE_POLL_TIMEOUT_MS = 100;
+    private static final ColumnarRowSet END_OF_DATA = new ColumnarRowSet(new DBDAttributeBinding[0], 0, false);
+
+    private final DBDDataReceiver target;
+    private final DBSDataContainer dataContainer;
+    private final int batchSize;
+    private final BlockingQueue<ColumnarRowSet> batchQueue;
+
+    private DBDAttributeBinding[] bindings;
+    private boolean bufferNumericColumns;
+    private ColumnarRowSet currentBatch;
+    private DatabaseTransferBufferedResultSet bufferedResultSet;
+    private DrainJob drainJob;
+    private boolean passThrough;
+    private volatile boolean canceled;
+    private volatile Throwable drainError;
+
+    public DatabaseTransferPipelinedReceiver(@NotNull DBDDataReceiver target, @NotNull DBSDataContainer dataContainer) {
+        this(target, dataContainer, DEFAULT_BATCH_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public DatabaseTransferPipelinedReceiver(
+        @NotNull DBDDataReceiver target,
+        @NotNull DBSDataContainer dataContainer,
+        int batchSize,
+        int queueCapacity
+    ) {
+        this.target = target;
+        this.dataContainer = dataContainer;
+        this.batchSize = Math.max(1, batchSize);
+        this.batchQueue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+    }
+
+    /**
+     * Keep numeric values of queued batches in primitive column buffers. Must be set before fetch start.
+     */
+    public void setBufferNumericColumns(boolean bufferNumericColumns) {
+        this.bufferNumericColumns = bufferNumericColumns;
+    }
+
+    @Override
+    public void fetchStart(@NotNull DBCSession session, @NotNull DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+        DBCResultSetMetaData meta = resultSet.getMeta();
+        bindings = DBUtils.getAttributeBindings(session, dataContainer, meta);
+        passThrough = false;
+        for (DBDAttributeBinding binding : bindings) {
+            if (binding.getDataKind() == DBPDataKind.CONTENT) {
+                passThrough = true;
+                break;
+            }
+        }
+        if (passThrough) {
+            log.debug("Source of '" + dataContainer.getName() + "' contains LOB columns. Pipelined transfer is disabled.");
+            target.fetchStart(session, resultSet, offset, maxRows);
+            return;
+        }
+        canceled = false;
+        batchQueue.clear();
+        currentBatch = createBatch();
+        DrainSession drainSession = new DrainSession(session);
+        bufferedResultSet = new DatabaseTransferBufferedResultSet(drainSession, meta);
+        // Target may read metadata, so it is started in the producer thread
+        target.fetchStart(session, bufferedResultSet, offset, maxRows);
+        drainJob = new DrainJob(drainSession);
+        drainJob.schedule();
+    }
+
+    @Override
+    public void fetchRow(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+        if (passThrough) {
+            target.fetchRow(session, resultSet);
+            return;
+        }
+        checkError();
+        currentBatch.fetchRow(session, resultSet);
+        if (currentBatch.getRowCount() >= batchSize) {
+            putBatch(session.getProgressMonitor(), currentBatch);
+            currentBatch = createBatch();
+        }
+    }
+
+    @Override
+    public void fetchEnd(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+        if (passThrough) {
+            target.fetchEnd(session, resultSet);
+            return;
+        }
+        if (drainJob == null) {
+            return;
+        }
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        try {
+            if (currentBatch.getRowCount() > 0) {
+                putBatch(monitor, currentBatch);
+                currentBatch = createBatch();
+            }
+            putBatch(monitor, END_OF_DATA);
+        } finally {
+            if (monitor.isCanceled()) {
+                cancelDrain();
+            }
+            joinDrain();
+        }
+        target.fetchEnd(session, bufferedResultSet);
+        checkError();
+    }
+
+    @Override
+    public void close() {
+        if (drainJob != null) {
+            // Fetch was interrupted before fetchEnd
+            cancelDrain();
+            joinDrain();
+        }
+        bufferedResultSet = null;
+        currentBatch = null;
+        target.close();
+    }
+
+    /**
+     * Throws an error which occurred in the target receiver.
+     * Errors raised in fetchEnd are not propagated by data containers, so producer must check them explicitly.
+     */
+    public void checkError() throws DBCException {
+        Throwable error = drainError;
+        if (error != null) {
+            if (error instanceof DBCException dbce) {
+                throw dbce;
+            }
+            throw new DBCException("Error writing transferred data", error);
+        }
+    }
+
+    @NotNull
+    private ColumnarRowSet createBatch() {
+        return new ColumnarRowSet(bindings, batchSize, bufferNumericColumns);
+    }
+
+    private void putBatch(@NotNull DBRProgressMonitor monitor, @NotNull ColumnarRowSet batch) throws DBCException {
+        try {
+            while (!batchQueue.offer(batch, QUEUE_POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                checkError();
+                if (monitor.isCanceled() || canceled) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            cancelDrain();
+            throw new DBCException("Data transfer interrupted", e);
+        }
+    }
+
+    private void cancelDrain() {
+        canceled = true;
+        batchQueue.clear();
+        if (drainJob != null) {
+            drainJob.cancel();
+        }
+    }
+
+    private void joinDrain() {
+        if (drainJob == null) {
+            return;
+        }
+        try {
+            drainJob.join();
+        } catch (InterruptedException e) {
+            log.debug("Interrupted while waiting for pipelined transfer to finish");
+        }
+        drainJob = null;
+    }
+
+    private class DrainJob extends AbstractJob {
+        private final DrainSession session;
+
+        DrainJob(@NotNull DrainSession session) {
+            super("Write data of " + dataContainer.getName());
+            this.session = session;
+            setSystem(true);
+            setUser(false);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            DBRProgressMonitor sourceMonitor = session.getProgressMonitor();
+            try {
+                while (!canceled && !sourceMonitor.isCanceled()) {
+                    ColumnarRowSet batch = batchQueue.poll(QUEUE_POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                    if (batch == null) {
+                        continue;
+                    }
+                    if (batch == END_OF_DATA) {
+                        break;
+                    }
+                    for (int row = 0; row < batch.getRowCount(); row++) {
+                        if (canceled) {
+                            break;
+                        }
+                        bufferedResultSet.setCurrentRow(batch, row);
+                        target.fetchRow(session, bufferedResultSet);
+                    }
+                }
+            } catch (Throwable e) {
+                drainError = e;
+                batchQueue.clear();
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+    /**
+     * Session of the drain job. Provides source data source and format settings but doesn't allow to execute
+     * statements over the source connection.
+     */
+    private static class DrainSession implements DBCSession {
+        private final DBCSession sourceSession;
+
+        DrainSession(@NotNull DBCSession sourceSession) {
+            this.sourceSession = sourceSession;
+        }
+
+        @NotNull
+        @Override
+        public String getTaskTitle() {
+            return sourceSession.getTaskTitle();
+        }
+
+        @NotNull
+        @Override
+        public DBCExecutionContext getExecutionContext() {
+            return sourceSession.getExecutionContext();
+        }
+
+        @NotNull
+        @Override
+        public DBPDataSource getDataSource() {
+            return sourceSession.getDataSource();
+        }
+
+        @Override
+        public boolean isConnected() {
+            return sourceSession.isConnected();
+        }
+
+        @NotNull
+        @Override
+        public DBRProgressMonitor getProgressMonitor() {
+            return sourceSession.getProgressMonitor();
+        }
+
+        @NotNull
+        @Override
+        public DBCExecutionPurpose getPurpose() {
+            return sourceSession.getPurpose();
+        }
+
+        @NotNull
+        @Override
+        public DBCStatement prepareStatement(
+            @NotNull DBCStatementType type,
+            @NotNull String query,
+            boolean scrollable,
+            boolean updatable,
+            boolean returnGeneratedKeys
+        ) throws DBCException {
+            throw new DBCFeatureNotSupportedException("Source connection can't be used while data is fetched");
+        }
+
+        @Override
+        public boolean isLoggingEnabled() {
+            return false;
+        }
+
+        @Override
+        public void enableLogging(boolean enable) {
+            // Nothing is executed
+        }
+
+        @Override
+        public DBDDataFormatterProfile getDataFormatterProfile() {
+            return sourceSession.getDataFormatterProfile();
+        }
+
+        @Override
+        public boolean isUseNativeDateTimeFormat() {
+            return sourceSession.isUseNativeDateTimeFormat();
+        }
+
+        @Override
+        public boolean isUseNativeNumericFormat() {
+            return sourceSession.isUseNativeNumericFormat();
+        }
+
+        @Override
+        public boolean isUseScientificNumericFormat() {
+            return sourceSession.isUseScientificNumericFormat();
+        }
+
+        @NotNull
+        @Override
+        public DBDValueHandler getDefaultValueHandler() {
+            return sourceSession.getDefaultValueHandler();
+        }
+
+        @Override
+        public void close() {
+            // Source session is closed by the producer
+        }
+    }
+}
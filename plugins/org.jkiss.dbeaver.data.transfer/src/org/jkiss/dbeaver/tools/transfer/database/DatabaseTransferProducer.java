@@ -22,9 +22,12 @@ import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.*;
 import org.jkiss.dbeaver.model.app.DBPProject;
 import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.data.DBDKeyset;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
 import org.jkiss.dbeaver.model.impl.DataSourceContextProvider;
@@ -38,9 +41,11 @@ import org.jkiss.dbeaver.model.sql.SQLScriptElement;
 import org.jkiss.dbeaver.model.sql.data.SQLQueryDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
 import org.jkiss.dbeaver.model.task.DBTTask;
 import org.jkiss.dbeaver.model.task.DBTaskUtils;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.tools.transfer.DataTransferCheckpoint;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferNodePrimary;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferProcessor;
@@ -53,6 +58,7 @@ import org.jkiss.utils.CommonUtils;
 
 import java.io.PrintWriter;
 import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -185,6 +191,12 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
         DBPDataSource dataSource = databaseObject.getDataSource();
         assert (dataSource != null);
 
+        DataTransferCheckpoint checkpoint = consumer instanceof DatabaseTransferConsumer databaseConsumer ? databaseConsumer.getCheckpoint() : null;
+        if (checkpoint != null && checkpoint.isCompleted()) {
+            log.debug("'" + databaseObject.getName() + "' was transferred by the previous run of the task. Skip.");
+            return;
+        }
+
         DBExecUtils.tryExecuteRecover(monitor1, dataSource, monitor -> {
             long readFlags = DBSDataContainer.FLAG_NONE;
             if (settings.isSelectedColumnsOnly()) {
@@ -240,11 +252,21 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                             }
 
                         }
+                        DBDDataFilter readFilter = dataFilter;
+                        if (checkpoint != null) {
+                            readFilter = makeCheckpointFilter(session, checkpoint);
+                            if (readFilter == null) {
+                                readFilter = dataFilter;
+                            }
+                            if (checkpoint.isStarted()) {
+                                log.info("Resume transfer of '" + dataContainer.getName() + "' from checkpoint " + checkpoint);
+                            }
+                        }
                         long totalRows = 0;
                         if (settings.isQueryRowCount() && dataContainer.isFeatureSupported(DBSDataContainer.FEATURE_DATA_COUNT)) {
                             monitor.beginTask(DTMessages.data_transfer_wizard_job_task_retrieve, 1);
                             try {
-                                totalRows = dataContainer.countData(transferSource, session, dataFilter, readFlags);
+                                totalRows = dataContainer.countData(transferSource, session, readFilter, readFlags);
                             } catch (Throwable e) {
                                 log.warn("Can't retrieve row count from '" + dataContainer.getName() + "'", e);
                                 try {
@@ -265,25 +287,73 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                         try {
                             monitor.subTask("Read data");
 
+                            DatabaseTransferPartitionReader partitionReader = null;
+                            if (!selectiveExportFromUI && newConnection && checkpoint == null && settings.getPartitionCount() > 1) {
+                                try {
+                                    partitionReader = DatabaseTransferPartitionReader.create(session, transferSource, dataContainer, dataFilter, settings);
+                                } catch (Throwable e) {
+                                    log.warn("Can't split '" + dataContainer.getName() + "' into partitions, reading it in a single thread", e);
+                                    try {
+                                        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+                                        if (txnManager != null && !txnManager.isAutoCommit()) {
+                                            txnManager.rollback(session, savepoint);
+                                        }
+                                    } catch (Throwable e1) {
+                                        log.warn("Error rolling back transaction", e1);
+                                    }
+                                }
+                            }
+
+                            DBDDataReceiver dataReceiver = consumer;
+                            DatabaseTransferPipelinedReceiver pipelinedReceiver = null;
+                            if (settings.isPipelinedTransfer()) {
+                                // Write data in a separate thread while reading the next rows
+                                pipelinedReceiver = new DatabaseTransferPipelinedReceiver(consumer, dataContainer);
+                                pipelinedReceiver.setBufferNumericColumns(settings.isBufferNumericColumns());
+                                dataReceiver = pipelinedReceiver;
+                            }
+
                             // Perform export
-                            if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
+                            if (partitionReader != null) {
+                                // Read key ranges in parallel over isolated connections
+                                producerStatistics.accumulate(partitionReader.readData(transferSource, session, dataReceiver, readFlags));
+                            } else if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
                                 // Just do it in single query
-                                producerStatistics.accumulate(dataContainer.readData(transferSource, session, consumer, dataFilter, -1, -1, readFlags, settings.getFetchSize()));
+                                producerStatistics.accumulate(dataContainer.readData(transferSource, session, dataReceiver, readFilter, -1, -1, readFlags, settings.getFetchSize()));
                             } else {
                                 // Read all data by segments
                                 long offset = 0;
                                 int segmentSize = settings.getSegmentSize();
+                                DBDKeyset keyset = checkpoint == null ? getKeyset(session, readFilter) : null;
+                                DatabaseTransferKeysetReceiver keysetReceiver = keyset == null ?
+                                    null : new DatabaseTransferKeysetReceiver(dataReceiver, dataContainer, keyset);
+                                DBDKeyset segmentKeyset = keyset;
                                 for (; ; ) {
-                                    DBCStatistics statistics = dataContainer.readData(
-                                        transferSource, session, consumer, dataFilter, offset, segmentSize, readFlags, settings.getFetchSize());
+                                    DBCStatistics statistics;
+                                    if (keysetReceiver == null) {
+                                        statistics = dataContainer.readData(
+                                            transferSource, session, dataReceiver, readFilter, offset, segmentSize, readFlags, settings.getFetchSize());
+                                    } else {
+                                        // Read rows after the last key. Use offset if position of the last row is unknown.
+                                        statistics = dataContainer.readData(
+                                            transferSource, session, keysetReceiver, segmentKeyset.makeDataFilter(session.getDataSource(), readFilter),
+                                            segmentKeyset.getPosition() == null ? offset : 0, segmentSize, readFlags, settings.getFetchSize());
+                                    }
                                     if (statistics == null || statistics.getRowsFetched() < segmentSize) {
                                         // Done
                                         break;
                                     }
                                     producerStatistics.accumulate(statistics);
                                     offset += statistics.getRowsFetched();
+                                    if (keysetReceiver != null) {
+                                        Object[] position = keysetReceiver.getLastPosition();
+                                        segmentKeyset = position == null ? keyset : keyset.withPosition(position);
+                                    }
                                 }
                             }
+                            if (pipelinedReceiver != null) {
+                                pipelinedReceiver.checkError();
+                            }
                         } finally {
                             monitor.done();
                         }
@@ -314,6 +384,71 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
         });
     }
 
+    /**
+     * Returns keyset which is used to read segments of entity rows if keyset paging is enabled.
+     * Returns null if rows must be read by offset.
+     */
+    @Nullable
+    private DBDKeyset getKeyset(@NotNull DBCSession session, @Nullable DBDDataFilter filter) {
+        if (!(dataContainer instanceof DBSEntity entity) ||
+            !dataContainer.isFeatureSupported(DBSDataContainer.FEATURE_KEYSET_PAGING) ||
+            !session.getDataSource().getContainer().getPreferenceStore().getBoolean(ModelPreferences.RESULT_SET_KEYSET_PAGING))
+        {
+            return null;
+        }
+        try {
+            return DBDKeyset.resolve(session.getProgressMonitor(), entity, filter);
+        } catch (DBException e) {
+            log.debug("Can't resolve keyset of '" + dataContainer.getName() + "'", e);
+            return null;
+        }
+    }
+
+    /**
+     * Makes filter which continues reading after the last committed key.
+     * Rows are ordered by a mandatory numeric key, so each commit may be identified by the last key value.
+     * Returns null if there is no such key or rows have explicit ordering.
+     * Such transfer can't be resumed: without a stable order committed rows can't be told from the rest.
+     */
+    @Nullable
+    private DBDDataFilter makeCheckpointFilter(@NotNull DBCSession session, @NotNull DataTransferCheckpoint checkpoint) throws DBException {
+        DBSEntityAttribute keyAttribute = null;
+        if (dataContainer instanceof DBSEntity entity && (dataFilter == null || !dataFilter.hasOrdering())) {
+            keyAttribute = DatabaseTransferPartitionReader.findNumericKeyAttribute(session.getProgressMonitor(), entity, null);
+            if (keyAttribute != null && !keyAttribute.isRequired()) {
+                // Rows with null keys can't be positioned
+                keyAttribute = null;
+            }
+        }
+        String keyName = keyAttribute == null ? null : keyAttribute.getName();
+        if (checkpoint.isStarted() && !CommonUtils.equalObjects(keyName, checkpoint.getKeyAttribute())) {
+            throw new DBException("Checkpoint of '" + dataContainer.getName() + "' was made using a different key (" +
+                checkpoint.getKeyAttribute() + "). Transfer can't be resumed.");
+        }
+        if (keyAttribute == null && checkpoint.getCommittedRows() > 0) {
+            throw new DBException("'" + dataContainer.getName() + "' has no mandatory numeric key, " +
+                "rows committed by the previous run can't be identified. Transfer can't be resumed.");
+        }
+        checkpoint.setKeyAttribute(keyName);
+        if (keyAttribute == null) {
+            return null;
+        }
+        String columnName = DBUtils.getQuotedIdentifier(keyAttribute);
+        DBDDataFilter filter = dataFilter == null ? new DBDDataFilter() : new DBDDataFilter(dataFilter);
+        filter.setOrder(columnName);
+        String lastKey = checkpoint.getLastKey();
+        if (lastKey != null) {
+            // Key is numeric. Parse it to make sure checkpoint file contains no garbage
+            String condition = columnName + ">" + new BigDecimal(lastKey).toPlainString();
+            if (CommonUtils.isEmpty(filter.getWhere())) {
+                filter.setWhere(condition);
+            } else {
+                filter.setWhere("(" + filter.getWhere() + ") AND (" + condition + ")");
+            }
+        }
+        return filter;
+    }
+
     @Override
     public boolean equals(Object obj) {
         return obj instanceof DatabaseTransferProducer &&
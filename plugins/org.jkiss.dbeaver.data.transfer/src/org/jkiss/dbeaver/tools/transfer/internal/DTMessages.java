@@ -38,6 +38,8 @@ public class DTMessages extends NLS {
     public static String data_transfer_wizard_output_checkbox_select_row_count;
     public static String data_transfer_wizard_output_checkbox_selected_columns_only;
     public static String data_transfer_wizard_output_checkbox_selected_rows_only;
+    public static String data_transfer_wizard_output_checkbox_pipelined_transfer;
+    public static String data_transfer_wizard_output_checkbox_buffer_numeric_columns;
     public static String data_transfer_wizard_output_combo_extract_type_item_by_segments;
     public static String data_transfer_wizard_output_combo_extract_type_item_single_query;
     public static String data_transfer_wizard_output_description;
@@ -58,6 +60,8 @@ public class DTMessages extends NLS {
     public static String data_transfer_wizard_output_label_insert_bom_tooltip;
     public static String data_transfer_wizard_output_label_max_threads;
     public static String data_transfer_wizard_output_label_segment_size;
+    public static String data_transfer_wizard_output_label_partition_count;
+    public static String data_transfer_wizard_output_label_partition_column;
     public static String data_transfer_wizard_output_label_add_to_end_of_file;
     public static String data_transfer_wizard_output_label_add_to_end_of_file_tip;
     public static String data_transfer_wizard_output_error_empty_output_directory;
@@ -133,6 +137,7 @@ public class DTMessages extends NLS {
     public static String sql_script_task_page_settings_option_auto_commit;
     public static String database_consumer_settings_option_use_transactions;
     public static String database_consumer_settings_option_commit_after;
+    public static String database_consumer_settings_option_resume_from_checkpoint;
     public static String database_consumer_settings_option_use_multi_insert;
     public static String database_consumer_settings_option_multi_insert_batch;
     public static String database_consumer_settings_option_skip_bind_values;
@@ -142,6 +147,10 @@ public class DTMessages extends NLS {
     public static String database_consumer_settings_option_transfer_auto_generated_columns;
     public static String database_consumer_settings_option_disable_referential_integrity;
     public static String database_consumer_settings_option_use_bulk_load;
+    public static String database_consumer_settings_option_use_bulk_load_streaming;
+    public static String database_consumer_settings_option_use_bulk_load_binary_format;
+    public static String database_consumer_settings_option_bulk_load_table_lock;
+    public static String database_consumer_settings_option_bulk_load_check_constraints;
     public static String database_consumer_settings_option_truncate_before_load;
 
     public static String data_transfer_settings_title_find_producer;
@@ -17,9 +17,17 @@
 
 package org.jkiss.dbeaver.tools.transfer.stream;
 
+import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.utils.CommonUtils;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.*;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
 import java.util.Map;
 
 /**
@@ -42,4 +50,73 @@ public class StreamTransferUtils {
                     .replace("\\r", "\r");
         }
     }
+
+    /**
+     * Converts numeric value to BigDecimal. Non-numeric values are parsed from their string representation.
+     */
+    @NotNull
+    public static BigDecimal toBigDecimal(@NotNull Object value) {
+        if (value instanceof BigDecimal bd) {
+            return bd;
+        } else if (value instanceof BigInteger bi) {
+            return new BigDecimal(bi);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        } else if (value instanceof Number number) {
+            return BigDecimal.valueOf(number.doubleValue());
+        }
+        return new BigDecimal(value.toString().trim());
+    }
+
+    @NotNull
+    public static LocalDate toLocalDate(@NotNull Object value) {
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate();
+        } else if (value instanceof Date date) {
+            return LocalDate.ofInstant(date.toInstant(), ZoneId.systemDefault());
+        } else if (value instanceof TemporalAccessor temporal) {
+            return LocalDate.from(temporal);
+        }
+        return LocalDate.parse(value.toString().trim());
+    }
+
+    @NotNull
+    public static LocalTime toLocalTime(@NotNull Object value) {
+        if (value instanceof Date date) {
+            // java.sql.Time.toLocalTime() truncates milliseconds
+            return LocalTime.ofInstant(Instant.ofEpochMilli(date.getTime()), ZoneId.systemDefault());
+        } else if (value instanceof TemporalAccessor temporal) {
+            return temporal.isSupported(ChronoField.NANO_OF_DAY)
+                ? LocalTime.ofNanoOfDay(temporal.getLong(ChronoField.NANO_OF_DAY))
+                : LocalTime.from(temporal);
+        }
+        return LocalTime.parse(value.toString().trim());
+    }
+
+    /**
+     * Converts date/time value to instant.
+     * If {@code adjustedToUTC} is false then wall clock time of the value is returned as UTC time,
+     * this is how binary columnar formats store timestamps without time zone.
+     */
+    @NotNull
+    public static Instant toInstant(@NotNull Object value, boolean adjustedToUTC) {
+        if (value instanceof Timestamp timestamp) {
+            return adjustedToUTC ? timestamp.toInstant() : timestamp.toLocalDateTime().toInstant(ZoneOffset.UTC);
+        } else if (value instanceof Date date) {
+            return adjustedToUTC
+                ? date.toInstant()
+                : LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()).toInstant(ZoneOffset.UTC);
+        } else if (value instanceof Instant instant) {
+            return instant;
+        } else if (value instanceof OffsetDateTime dateTime) {
+            return adjustedToUTC ? dateTime.toInstant() : dateTime.toLocalDateTime().toInstant(ZoneOffset.UTC);
+        } else if (value instanceof ZonedDateTime dateTime) {
+            return adjustedToUTC ? dateTime.toInstant() : dateTime.toLocalDateTime().toInstant(ZoneOffset.UTC);
+        } else if (value instanceof LocalDateTime dateTime) {
+            return dateTime.toInstant(adjustedToUTC ? ZoneId.systemDefault().getRules().getOffset(dateTime) : ZoneOffset.UTC);
+        } else if (value instanceof LocalDate date) {
+            return date.atStartOfDay().toInstant(ZoneOffset.UTC);
+        }
+        return toInstant(Timestamp.valueOf(value.toString().trim()), adjustedToUTC);
+    }
 }
@@ -0,0 +1,177 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.arrow;
+
+import org.jkiss.code.NotNull;
+
+/**
+ * Arrow field (column) description.
+ */
+public class ArrowColumn {
+
+    public enum Kind {
+        BOOL(6),
+        INT32(2),
+        INT64(2),
+        FLOAT32(3),
+        FLOAT64(3),
+        DECIMAL(7),
+        DATE_DAY(8),
+        TIME_MICRO(9),
+        TIMESTAMP_MICRO(10),
+        UTF8(5),
+        BINARY(4);
+
+        // Arrow schema Type union id
+        private final byte typeId;
+
+        Kind(int typeId) {
+            this.typeId = (byte) typeId;
+        }
+    }
+
+    private static final short PRECISION_SINGLE = 1;
+    private static final short PRECISION_DOUBLE = 2;
+    private static final short DATE_UNIT_DAY = 0;
+    private static final short TIME_UNIT_MICROSECOND = 2;
+
+    private final String name;
+    private final Kind kind;
+    private final int precision;
+    private final int scale;
+    private final boolean adjustedToUTC;
+
+    private ArrowColumn(@NotNull String name, @NotNull Kind kind, int precision, int scale, boolean adjustedToUTC) {
+        this.name = name;
+        this.kind = kind;
+        this.precision = precision;
+        this.scale = scale;
+        this.adjustedToUTC = adjustedToUTC;
+    }
+
+    @NotNull
+    public static ArrowColumn of(@NotNull String name, @NotNull Kind kind) {
+        if (kind == Kind.DECIMAL) {
+            throw new IllegalArgumentException("Decimal column requires precision and scale");
+        }
+        return new ArrowColumn(name, kind, 0, 0, false);
+    }
+
+    @NotNull
+    public static ArrowColumn decimal(@NotNull String name, int precision, int scale) {
+        return new ArrowColumn(name, Kind.DECIMAL, precision, scale, false);
+    }
+
+    /**
+     * Timestamp column. Values of UTC-adjusted columns are instants, other columns store local date-time.
+     */
+    @NotNull
+    public static ArrowColumn timestamp(@NotNull String name, boolean adjustedToUTC) {
+        return new ArrowColumn(name, Kind.TIMESTAMP_MICRO, 0, 0, adjustedToUTC);
+    }
+
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    @NotNull
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public boolean isAdjustedToUTC() {
+        return adjustedToUTC;
+    }
+
+    @NotNull
+    ArrowVector createVector(int capacity) {
+        return switch (kind) {
+            case BOOL -> new ArrowVector.BooleanVector(capacity);
+            case INT32, DATE_DAY -> new ArrowVector.IntVector(this, capacity);
+            case INT64, TIME_MICRO, TIMESTAMP_MICRO -> new ArrowVector.LongVector(this, capacity);
+            case FLOAT32 -> new ArrowVector.FloatVector(capacity);
+            case FLOAT64 -> new ArrowVector.DoubleVector(capacity);
+            case DECIMAL -> new ArrowVector.DecimalVector(this, capacity);
+            case UTF8, BINARY -> new ArrowVector.VarWidthVector(capacity);
+        };
+    }
+
+    /**
+     * Writes Field table and returns its offset
+     */
+    int writeField(@NotNull ArrowFlatBufferBuilder builder) {
+        int nameOffset = builder.createString(name);
+        int typeOffset = writeType(builder);
+        int childrenOffset = builder.createOffsetVector(new int[0]);
+        builder.startTable(7);
+        builder.addOffsetField(0, nameOffset);
+        builder.addBooleanField(1, true);
+        builder.addByteField(2, kind.typeId);
+        builder.addOffsetField(3, typeOffset);
+        builder.addOffsetField(5, childrenOffset);
+        return builder.endTable();
+    }
+
+    private int writeType(@NotNull ArrowFlatBufferBuilder builder) {
+        switch (kind) {
+            case INT32, INT64 -> {
+                builder.startTable(2);
+                builder.addIntField(0, kind == Kind.INT32 ? 32 : 64);
+                builder.addBooleanField(1, true);
+            }
+            case FLOAT32, FLOAT64 -> {
+                builder.startTable(1);
+                builder.addShortField(0, kind == Kind.FLOAT32 ? PRECISION_SINGLE : PRECISION_DOUBLE);
+            }
+            case DECIMAL -> {
+                builder.startTable(3);
+                builder.addIntField(0, precision);
+                builder.addIntField(1, scale);
+                builder.addIntField(2, 128);
+            }
+            case DATE_DAY -> {
+                builder.startTable(1);
+                builder.addShortField(0, DATE_UNIT_DAY);
+            }
+            case TIME_MICRO -> {
+                builder.startTable(2);
+                builder.addShortField(0, TIME_UNIT_MICROSECOND);
+                builder.addIntField(1, 64);
+            }
+            case TIMESTAMP_MICRO -> {
+                // Timezone string must be created before the table
+                int timezoneOffset = adjustedToUTC ? builder.createString("UTC") : 0;
+                builder.startTable(2);
+                builder.addShortField(0, TIME_UNIT_MICROSECOND);
+                if (adjustedToUTC) {
+                    builder.addOffsetField(1, timezoneOffset);
+                }
+            }
+            default -> builder.startTable(0);
+        }
+        return builder.endTable();
+    }
+}
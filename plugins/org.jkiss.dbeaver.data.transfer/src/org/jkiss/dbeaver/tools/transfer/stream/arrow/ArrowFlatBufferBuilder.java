@@ -0,0 +1,227 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.arrow;
+
+import org.jkiss.code.NotNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Minimal FlatBuffers builder.
+ * Arrow IPC metadata (schema, record batch headers and file footer) is serialized as FlatBuffers.
+ * <p>
+ * Like the reference implementation, the buffer is filled from the end to the beginning,
+ * so referenced objects must be created before objects which refer to them.
+ * All offsets returned by this builder are measured from the end of the buffer.
+ */
+class ArrowFlatBufferBuilder {
+
+    private ByteBuffer buffer;
+    private int space;
+    private int minAlign = 1;
+    private int[] vtable;
+    private int vtableInUse;
+    private int objectStart;
+    private int vectorNumElements;
+
+    ArrowFlatBufferBuilder() {
+        this(1024);
+    }
+
+    ArrowFlatBufferBuilder(int initialSize) {
+        buffer = ByteBuffer.allocate(initialSize).order(ByteOrder.LITTLE_ENDIAN);
+        space = initialSize;
+    }
+
+    int offset() {
+        return buffer.capacity() - space;
+    }
+
+    /**
+     * Aligns buffer so that after {@code additionalBytes} the value of {@code size} bytes is properly aligned
+     */
+    void prep(int size, int additionalBytes) {
+        if (size > minAlign) {
+            minAlign = size;
+        }
+        int alignSize = (~(buffer.capacity() - space + additionalBytes) + 1) & (size - 1);
+        while (space < alignSize + size + additionalBytes) {
+            int oldCapacity = buffer.capacity();
+            ByteBuffer newBuffer = ByteBuffer.allocate(oldCapacity * 2).order(ByteOrder.LITTLE_ENDIAN);
+            newBuffer.position(oldCapacity);
+            newBuffer.put(buffer.array(), 0, oldCapacity);
+            buffer = newBuffer;
+            space += oldCapacity;
+        }
+        for (int i = 0; i < alignSize; i++) {
+            buffer.put(--space, (byte) 0);
+        }
+    }
+
+    void pad(int count) {
+        for (int i = 0; i < count; i++) {
+            buffer.put(--space, (byte) 0);
+        }
+    }
+
+    void putByte(byte value) {
+        buffer.put(space -= 1, value);
+    }
+
+    void putShort(short value) {
+        buffer.putShort(space -= 2, value);
+    }
+
+    void putInt(int value) {
+        buffer.putInt(space -= 4, value);
+    }
+
+    void putLong(long value) {
+        buffer.putLong(space -= 8, value);
+    }
+
+    void addByte(byte value) {
+        prep(1, 0);
+        putByte(value);
+    }
+
+    void addShort(short value) {
+        prep(2, 0);
+        putShort(value);
+    }
+
+    void addInt(int value) {
+        prep(4, 0);
+        putInt(value);
+    }
+
+    void addLong(long value) {
+        prep(8, 0);
+        putLong(value);
+    }
+
+    void addOffset(int offset) {
+        prep(4, 0);
+        putInt(offset() - offset + 4);
+    }
+
+    // Table fields. Values are always written, even if they are equal to the schema default.
+
+    void addBooleanField(int field, boolean value) {
+        addByte((byte) (value ? 1 : 0));
+        slot(field);
+    }
+
+    void addByteField(int field, byte value) {
+        addByte(value);
+        slot(field);
+    }
+
+    void addShortField(int field, short value) {
+        addShort(value);
+        slot(field);
+    }
+
+    void addIntField(int field, int value) {
+        addInt(value);
+        slot(field);
+    }
+
+    void addLongField(int field, long value) {
+        addLong(value);
+        slot(field);
+    }
+
+    void addOffsetField(int field, int offset) {
+        addOffset(offset);
+        slot(field);
+    }
+
+    private void slot(int field) {
+        vtable[field] = offset();
+    }
+
+    int createString(@NotNull String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        addByte((byte) 0);
+        startVector(1, bytes.length, 1);
+        space -= bytes.length;
+        buffer.position(space);
+        buffer.put(bytes);
+        return endVector();
+    }
+
+    void startVector(int elementSize, int numElements, int alignment) {
+        vectorNumElements = numElements;
+        prep(4, elementSize * numElements);
+        prep(alignment, elementSize * numElements);
+    }
+
+    int endVector() {
+        putInt(vectorNumElements);
+        return offset();
+    }
+
+    int createOffsetVector(@NotNull int[] offsets) {
+        startVector(4, offsets.length, 4);
+        for (int i = offsets.length - 1; i >= 0; i--) {
+            addOffset(offsets[i]);
+        }
+        return endVector();
+    }
+
+    void startTable(int numFields) {
+        if (vtable == null || vtable.length < numFields) {
+            vtable = new int[numFields];
+        } else {
+            Arrays.fill(vtable, 0);
+        }
+        vtableInUse = numFields;
+        objectStart = offset();
+    }
+
+    int endTable() {
+        addInt(0);
+        int vtableLocation = offset();
+        int i = vtableInUse - 1;
+        while (i >= 0 && vtable[i] == 0) {
+            i--;
+        }
+        int trimmedSize = i + 1;
+        for (; i >= 0; i--) {
+            addShort((short) (vtable[i] != 0 ? vtableLocation - vtable[i] : 0));
+        }
+        addShort((short) (vtableLocation - objectStart));
+        addShort((short) ((trimmedSize + 2) * 2));
+        buffer.putInt(buffer.capacity() - vtableLocation, offset() - vtableLocation);
+        vtableInUse = 0;
+        return vtableLocation;
+    }
+
+    /**
+     * Finishes the buffer and returns its content. Root table offset is written at the beginning.
+     */
+    @NotNull
+    byte[] finish(int rootTable) {
+        prep(minAlign, 4);
+        addOffset(rootTable);
+        return Arrays.copyOfRange(buffer.array(), space, buffer.capacity());
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.arrow;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Apache Arrow IPC writer.
+ * <p>
+ * Rows are accumulated in column vectors and written as record batches of {@code batchSize} rows.
+ * In file format the output starts with the {@code ARROW1} magic and ends with a footer
+ * which contains record batch locations, so the file may be memory-mapped and read randomly.
+ * All buffers are 8-byte aligned as required by the specification.
+ */
+public class ArrowStreamWriter {
+
+    static final byte[] MAGIC = "ARROW1".getBytes(StandardCharsets.US_ASCII);
+    static final int CONTINUATION = 0xFFFFFFFF;
+
+    private static final short METADATA_VERSION_V5 = 4;
+    private static final byte HEADER_SCHEMA = 1;
+    private static final byte HEADER_RECORD_BATCH = 3;
+    private static final int ALIGNMENT = 8;
+    private static final byte[] PADDING = new byte[ALIGNMENT];
+
+    private record Block(long offset, int metadataLength, long bodyLength) {
+    }
+
+    private final OutputStream out;
+    private final List<ArrowColumn> columns;
+    private final boolean fileFormat;
+    private final int batchSize;
+    private final ArrowVector[] vectors;
+    private final List<Block> recordBatches = new ArrayList<>();
+    private final byte[] intBuffer = new byte[Integer.BYTES];
+
+    private long position;
+    private int batchRowCount;
+    private long rowCount;
+    private boolean started;
+
+    public ArrowStreamWriter(@NotNull OutputStream out, @NotNull List<ArrowColumn> columns, boolean fileFormat, int batchSize) {
+        this.out = out;
+        this.columns = List.copyOf(columns);
+        this.fileFormat = fileFormat;
+        this.batchSize = Math.max(1, batchSize);
+        this.vectors = new ArrowVector[columns.size()];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = this.columns.get(i).createVector(this.batchSize);
+        }
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public void writeRow(@NotNull Object[] row) throws IOException {
+        if (!started) {
+            writeStart();
+        }
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i].set(batchRowCount, i < row.length ? row[i] : null);
+        }
+        batchRowCount++;
+        rowCount++;
+        if (batchRowCount >= batchSize) {
+            flushBatch();
+        }
+    }
+
+    /**
+     * Writes pending rows, end-of-stream marker and file footer
+     */
+    public void finish() throws IOException {
+        if (!started) {
+            writeStart();
+        }
+        flushBatch();
+        writeInt(CONTINUATION);
+        writeInt(0);
+        if (fileFormat) {
+            byte[] footer = buildFooter();
+            write(footer, footer.length);
+            writeInt(footer.length);
+            write(MAGIC, MAGIC.length);
+        }
+        out.flush();
+    }
+
+    private void writeStart() throws IOException {
+        started = true;
+        if (fileFormat) {
+            write(MAGIC, MAGIC.length);
+            writePadding(MAGIC.length);
+        }
+        ArrowFlatBufferBuilder builder = new ArrowFlatBufferBuilder();
+        int schema = writeSchema(builder);
+        writeMessage(builder, HEADER_SCHEMA, schema, null);
+    }
+
+    private void flushBatch() throws IOException {
+        if (batchRowCount == 0) {
+            return;
+        }
+        List<ByteBuffer> buffers = new ArrayList<>();
+        for (ArrowVector vector : vectors) {
+            vector.collectBuffers(batchRowCount, buffers);
+        }
+
+        ArrowFlatBufferBuilder builder = new ArrowFlatBufferBuilder();
+        // Structs are written back to front
+        builder.startVector(16, vectors.length, 8);
+        for (int i = vectors.length - 1; i >= 0; i--) {
+            builder.prep(8, 16);
+            builder.putLong(vectors[i].getNullCount());
+            builder.putLong(batchRowCount);
+        }
+        int nodes = builder.endVector();
+
+        long[] bufferOffsets = new long[buffers.size()];
+        long bodyLength = 0;
+        for (int i = 0; i < buffers.size(); i++) {
+            bufferOffsets[i] = bodyLength;
+            bodyLength += align(buffers.get(i).remaining());
+        }
+        builder.startVector(16, buffers.size(), 8);
+        for (int i = buffers.size() - 1; i >= 0; i--) {
+            builder.prep(8, 16);
+            builder.putLong(buffers.get(i).remaining());
+            builder.putLong(bufferOffsets[i]);
+        }
+        int bufferVector = builder.endVector();
+
+        builder.startTable(4);
+        builder.addLongField(0, batchRowCount);
+        builder.addOffsetField(1, nodes);
+        builder.addOffsetField(2, bufferVector);
+        int recordBatch = builder.endTable();
+
+        Block block = writeMessage(builder, HEADER_RECORD_BATCH, recordBatch, buffers);
+        recordBatches.add(block);
+
+        for (ArrowVector vector : vectors) {
+            vector.reset();
+        }
+        batchRowCount = 0;
+    }
+
+    private int writeSchema(@NotNull ArrowFlatBufferBuilder builder) {
+        int[] fields = new int[columns.size()];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = columns.get(i).writeField(builder);
+        }
+        int fieldVector = builder.createOffsetVector(fields);
+        builder.startTable(4);
+        builder.addShortField(0, (short) 0); // Little endian
+        builder.addOffsetField(1, fieldVector);
+        return builder.endTable();
+    }
+
+    /**
+     * Writes encapsulated message: continuation marker, metadata length, metadata flatbuffer and body
+     */
+    @NotNull
+    private Block writeMessage(
+        @NotNull ArrowFlatBufferBuilder builder,
+        byte headerType,
+        int header,
+        @Nullable List<ByteBuffer> body
+    ) throws IOException {
+        long bodyLength = 0;
+        if (body != null) {
+            for (ByteBuffer buffer : body) {
+                bodyLength += align(buffer.remaining());
+            }
+        }
+        builder.startTable(5);
+        builder.addLongField(3, bodyLength);
+        builder.addOffsetField(2, header);
+        builder.addShortField(0, METADATA_VERSION_V5);
+        builder.addByteField(1, headerType);
+        byte[] metadata = builder.finish(builder.endTable());
+
+        long offset = position;
+        int metadataLength = (int) align(2 * Integer.BYTES + metadata.length) - 2 * Integer.BYTES;
+        writeInt(CONTINUATION);
+        writeInt(metadataLength);
+        write(metadata, metadata.length);
+        writePadding(metadata.length);
+        if (body != null) {
+            for (ByteBuffer buffer : body) {
+                int length = buffer.remaining();
+                if (buffer.hasArray()) {
+                    out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
+                    position += length;
+                } else {
+                    byte[] bytes = new byte[length];
+                    buffer.get(bytes);
+                    write(bytes, length);
+                }
+                writePadding(length);
+            }
+        }
+        return new Block(offset, 2 * Integer.BYTES + metadataLength, bodyLength);
+    }
+
+    @NotNull
+    private byte[] buildFooter() {
+        ArrowFlatBufferBuilder builder = new ArrowFlatBufferBuilder();
+        int schema = writeSchema(builder);
+
+        builder.startVector(24, 0, 8);
+        int dictionaries = builder.endVector();
+
+        builder.startVector(24, recordBatches.size(), 8);
+        for (int i = recordBatches.size() - 1; i >= 0; i--) {
+            Block block = recordBatches.get(i);
+            builder.prep(8, 24);
+            builder.putLong(block.bodyLength());
+            builder.pad(4);
+            builder.putInt(block.metadataLength());
+            builder.putLong(block.offset());
+        }
+        int blocks = builder.endVector();
+
+        builder.startTable(4);
+        builder.addOffsetField(1, schema);
+        builder.addOffsetField(2, dictionaries);
+        builder.addOffsetField(3, blocks);
+        builder.addShortField(0, METADATA_VERSION_V5);
+        return builder.finish(builder.endTable());
+    }
+
+    private static long align(long length) {
+        return (length + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    private void writePadding(int length) throws IOException {
+        int padding = (int) (align(length) - length);
+        if (padding > 0) {
+            write(PADDING, padding);
+        }
+    }
+
+    private void writeInt(int value) throws IOException {
+        intBuffer[0] = (byte) value;
+        intBuffer[1] = (byte) (value >>> 8);
+        intBuffer[2] = (byte) (value >>> 16);
+        intBuffer[3] = (byte) (value >>> 24);
+        write(intBuffer, Integer.BYTES);
+    }
+
+    private void write(@NotNull byte[] bytes, int length) throws IOException {
+        out.write(bytes, 0, length);
+        position += length;
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.arrow;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamTransferUtils;
+
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Column values of a single record batch.
+ * Values are kept in primitive arrays and serialized as Arrow buffers when the batch is flushed.
+ */
+abstract class ArrowVector {
+
+    private static final ByteBuffer EMPTY_BUFFER = ByteBuffer.allocate(0);
+
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+    private static final long NANOS_PER_MICRO = 1_000L;
+
+    private final byte[] validity;
+    private int nullCount;
+
+    ArrowVector(int capacity) {
+        this.validity = new byte[(capacity + 7) / 8];
+    }
+
+    int getNullCount() {
+        return nullCount;
+    }
+
+    void set(int index, @Nullable Object value) {
+        if (value == null) {
+            nullCount++;
+            setNull(index);
+        } else {
+            setValue(index, value);
+            validity[index >> 3] |= (byte) (1 << (index & 7));
+        }
+    }
+
+    void reset() {
+        Arrays.fill(validity, (byte) 0);
+        nullCount = 0;
+    }
+
+    /**
+     * Adds buffers of the first {@code rowCount} values to the list.
+     * Validity bitmap may be omitted if there are no nulls.
+     */
+    void collectBuffers(int rowCount, @NotNull List<ByteBuffer> buffers) {
+        buffers.add(nullCount == 0 ? EMPTY_BUFFER : ByteBuffer.wrap(validity, 0, (rowCount + 7) / 8));
+        collectValueBuffers(rowCount, buffers);
+    }
+
+    void setNull(int index) {
+        // Value slot is left as is
+    }
+
+    abstract void setValue(int index, @NotNull Object value);
+
+    abstract void collectValueBuffers(int rowCount, @NotNull List<ByteBuffer> buffers);
+
+    @NotNull
+    private static ByteBuffer allocate(int size) {
+        return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    static class BooleanVector extends ArrowVector {
+        private final byte[] values;
+
+        BooleanVector(int capacity) {
+            super(capacity);
+            values = new byte[(capacity + 7) / 8];
+        }
+
+        @Override
+        void setNull(int index) {
+            values[index >> 3] &= (byte) ~(1 << (index & 7));
+        }
+
+        @Override
+        void setValue(int index, @NotNull Object value) {
+            boolean bool;
+            if (value instanceof Boolean b) {
+                bool = b;
+            } else if (value instanceof Number number) {
+                bool = number.intValue() != 0;
+            } else {
+                bool = Boolean.parseBoolean(value.toString());
+            }
+            if (bool) {
+                values[index >> 3] |= (byte) (1 << (index & 7));
+            } else {
+                setNull(index);
+            }
+        }
+
+        @Override
+        void collectValueBuffers(int rowCount, @NotNull List<ByteBuffer> buffers) {
+            buffers.add(ByteBuffer.wrap(values, 0, (rowCount + 7) / 8));
+        }
+    }
+
+    /**
+     * 32-bit integers and dates (days since epoch)
+     */
+    static class IntVector extends ArrowVector {
+        private final boolean date;
+        private final int[] values;
+
+        IntVector(@NotNull ArrowColumn column, int capacity) {
+            super(capacity);
+            date = column.getKind() == ArrowColumn.Kind.DATE_DAY;
+            values = new int[capacity];
+        }
+
+        @Override
+        void setValue(int index, @NotNull Object value) {
+            if (date) {
+                values[index] = Math.toIntExact(StreamTransferUtils.toLocalDate(value).toEpochDay());
+            } else {
+                values[index] = Math.toIntExact(
+                    value instanceof Number number ? number.longValue() : StreamTransferUtils.toBigDecimal(value).longValueExact());
+            }
+        }
+
+        @Override
+        void collectValueBuffers(int rowCount, @NotNull List<ByteBuffer> buffers) {
+            ByteBuffer buffer = allocate(rowCount * Integer.BYTES);
+            buffer.asIntBuffer().put(values, 0, rowCount);
+            buffers.add(buffer);
+        }
+    }
+
+    /**
+     * 64-bit integers, times and timestamps (microseconds)
+     */
+    static class LongVector extends ArrowVector {
+        private final ArrowColumn column;
+        private final long[] values;
+
+        LongVector(@NotNull ArrowColumn column, int capacity) {
+            super(capacity);
+            this.column = column;
+            values = new long[capacity];
+        }
+
+        @Override
+        void setValue(int index, @NotNull Object value) {
+            switch (column.getKind()) {
+                case TIME_MICRO -> values[index] = StreamTransferUtils.toLocalTime(value).toNanoOfDay() / NANOS_PER_MICRO;
+                case TIMESTAMP_MICRO -> {
+                    Instant instant = StreamTransferUtils.toInstant(value, column.isAdjustedToUTC());
+                    values[index] = Math.addExact(
+                        Math.multiplyExact(instant.getEpochSecond(), MICROS_PER_SECOND),
+                        instant.getNano() / NANOS_PER_MICRO);
+                }
+                default -> values[index] =
+                    value instanceof Number number ? number.longValue() : StreamTransferUtils.toBigDecimal(value).longValueExact();
+            }
+        }
+
+        @Override
+        void collectValueBuffers(int rowCount, @NotNull List<ByteBuffer> buffers) {
+            ByteBuffer buffer = allocate(rowCount * Long.BYTES);
+            buffer.asLongBuffer().put(values, 0, rowCount);
+            buffers.add(buffer);
+        }
+    }
+
+    static class FloatVector extends ArrowVector {
+        private final float[] values;
+
+        FloatVector(int capacity) {
+            super(capacity);
+            values = new float[capacity];
+        }
+
+        @Override
+        void setValue(int index, @NotNull Object value) {
+            values[index] = value instanceof Number number ? number.floatValue() : Float.parseFloat(value.toString());
+        }
+
+        @Override
+        void collectValueBuffers(int rowCount, @NotNull List<ByteBuffer> buffers) {
+            ByteBuffer buffer = allocate(rowCount * Float.BYTES);
+            buffer.asFloatBuffer().put(values, 0, rowCount);
+            buffers.add(buffer);
+        }
+    }
+
+    static class DoubleVector extends ArrowVector {
+        private final double[] values;
+
+        DoubleVector(int capacity) {
+            super(capacity);
+            values = new double[capacity];
+        }
+
+        @Override
+        void setValue(int index, @NotNull Object value) {
+            values[index] = value instanceof Number number ? number.doubleValue() : Double.parseDouble(value.toString());
+        }
+
+        @Override
+        void collectValueBuffers(int rowCount, @NotNull List<ByteBuffer> buffers) {
+            ByteBuffer buffer = allocate(rowCount * Double.BYTES);
+            buffer.asDoubleBuffer().put(values, 0, rowCount);
+            buffers.add(buffer);
+        }
+    }
+
+    /**
+     * Decimal128: 16-byte little-endian two's complement unscaled values
+     */
+    static class DecimalVector extends ArrowVector {
+        private static final int WIDTH = 16;
+
+        private final int scale;
+        private final byte[] values;
+
+        DecimalVector(@NotNull ArrowColumn column, int capacity) {
+            super(capacity);
+            scale = column.getScale();
+            values = new byte[capacity * WIDTH];
+        }
+
+        @Override
+        void setNull(int index) {
+            Arrays.fill(values, index * WIDTH, (index + 1) * WIDTH, (byte) 0);
+        }
+
+        @Override
+        void setValue(int index, @NotNull Object value) {
+            BigInteger unscaled = StreamTransferUtils.toBigDecimal(value).setScale(scale, RoundingMode.HALF_UP).unscaledValue();
+            byte[] bigEndian = unscaled.toByteArray();
+            if (bigEndian.length > WIDTH) {
+                throw new ArithmeticException("Decimal value " + value + " does not fit into 128 bits");
+            }
+            int offset = index * WIDTH;
+            byte sign = (byte) (unscaled.signum() < 0 ? -1 : 0);
+            for (int i = 0; i < WIDTH; i++) {
+                values[offset + i] = i < bigEndian.length ? bigEndian[bigEndian.length - 1 - i] : sign;
+            }
+        }
+
+        @Override
+        void collectValueBuffers(int rowCount, @NotNull List<ByteBuffer> buffers) {
+            buffers.add(ByteBuffer.wrap(values, 0, rowCount * WIDTH));
+        }
+    }
+
+    /**
+     * Utf8 and Binary: int32 offsets followed by the value bytes
+     */
+    static class VarWidthVector extends ArrowVector {
+        private final int[] offsets;
+        private byte[] data;
+
+        VarWidthVector(int capacity) {
+            super(capacity);
+            offsets = new int[capacity + 1];
+            data = new byte[Math.max(capacity, 16) * 8];
+        }
+
+        @Override
+        void setNull(int index) {
+            offsets[index + 1] = offsets[index];
+        }
+
+        @Override
+        void setValue(int index, @NotNull Object value) {
+            byte[] bytes;
+            if (value instanceof byte[] b) {
+                bytes = b;
+            } else {
+                bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+            }
+            int start = offsets[index];
+            int end = Math.addExact(start, bytes.length);
+            if (end > data.length) {
+                data = Arrays.copyOf(data, Math.max(end, (int) Math.min(Integer.MAX_VALUE - 8, data.length * 2L)));
+            }
+            System.arraycopy(bytes, 0, data, start, bytes.length);
+            offsets[index + 1] = end;
+        }
+
+        @Override
+        void reset() {
+            super.reset();
+            offsets[0] = 0;
+        }
+
+        @Override
+        void collectValueBuffers(int rowCount, @NotNull List<ByteBuffer> buffers) {
+            ByteBuffer offsetBuffer = allocate((rowCount + 1) * Integer.BYTES);
+            offsetBuffer.asIntBuffer().put(offsets, 0, rowCount + 1);
+            buffers.add(offsetBuffer);
+            buffers.add(ByteBuffer.wrap(data, 0, offsets[rowCount]));
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.data.DBDContentStorage;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.DTUtils;
+import org.jkiss.dbeaver.utils.ContentUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Types;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Abstract exporter of columnar formats (Arrow, Parquet).
+ * Maps attributes to format-neutral column types and prepares row values for the format writer.
+ * Values which have no counterpart in the format are exported as display strings.
+ */
+public abstract class ColumnarExporterAbstract<COLUMN> extends StreamExporterAbstract {
+
+    public enum ColumnType {
+        BOOLEAN,
+        INT32,
+        INT64,
+        FLOAT32,
+        FLOAT64,
+        DECIMAL,
+        DATE,
+        TIME,
+        TIMESTAMP,
+        TIMESTAMP_TZ,
+        STRING,
+        BINARY
+    }
+
+    private static final int MAX_DECIMAL_PRECISION = 38;
+
+    private DBDAttributeBinding[] columns;
+    private ColumnType[] columnTypes;
+    private boolean[] exportAsString;
+
+    @Override
+    public void exportHeader(DBCSession session) throws DBException, IOException {
+        columns = getSite().getAttributes();
+        columnTypes = new ColumnType[columns.length];
+        exportAsString = new boolean[columns.length];
+        List<COLUMN> schema = new ArrayList<>(columns.length);
+        for (int i = 0; i < columns.length; i++) {
+            DBDAttributeBinding column = columns[i];
+            String columnName = column.getLabel();
+            if (CommonUtils.isEmpty(columnName)) {
+                columnName = column.getName();
+            }
+            ColumnType columnType = getColumnType(column);
+            if (columnType == null) {
+                columnType = ColumnType.STRING;
+                exportAsString[i] = true;
+            }
+            columnTypes[i] = columnType;
+            schema.add(createColumn(columnName, columnType, column));
+        }
+        startExport(schema);
+    }
+
+    @Override
+    public void exportRow(DBCSession session, DBCResultSet resultSet, Object[] row) throws DBException, IOException {
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            Object value = row[i];
+            if (DBUtils.isNullValue(value)) {
+                continue;
+            }
+            if (value instanceof DBDContent content) {
+                try {
+                    values[i] = readContent(session.getProgressMonitor(), content, columnTypes[i] == ColumnType.STRING);
+                } finally {
+                    DTUtils.closeContents(resultSet, content);
+                }
+            } else if (exportAsString[i]) {
+                values[i] = super.getValueDisplayString(columns[i], value);
+            } else {
+                values[i] = value;
+            }
+        }
+        try {
+            writeRow(values);
+        } catch (NumberFormatException | ArithmeticException | ClassCastException | DateTimeException e) {
+            throw new DBException("Can't convert value for " + getFormatName() + " export", e);
+        }
+    }
+
+    /**
+     * Creates format column. Decimal precision and scale are taken from the attribute.
+     */
+    @NotNull
+    protected abstract COLUMN createColumn(@NotNull String name, @NotNull ColumnType type, @NotNull DBDAttributeBinding attribute);
+
+    protected abstract void startExport(@NotNull List<COLUMN> schema) throws DBException, IOException;
+
+    protected abstract void writeRow(@NotNull Object[] values) throws DBException, IOException;
+
+    @NotNull
+    protected abstract String getFormatName();
+
+    @Nullable
+    private static Object readContent(@NotNull DBRProgressMonitor monitor, @NotNull DBDContent content, boolean asString) throws DBException, IOException {
+        if (asString) {
+            return ContentUtils.getContentStringValue(monitor, content);
+        }
+        DBDContentStorage cs = content.getContents(monitor);
+        if (cs == null) {
+            return null;
+        }
+        try (InputStream stream = cs.getContentStream()) {
+            return stream.readAllBytes();
+        }
+    }
+
+    /**
+     * Returns column type for the attribute or null if the value should be exported as a display string
+     */
+    @Nullable
+    public static ColumnType getColumnType(@NotNull DBDAttributeBinding column) {
+        switch (column.getDataKind()) {
+            case BOOLEAN:
+                return ColumnType.BOOLEAN;
+            case NUMERIC:
+                switch (column.getTypeID()) {
+                    case Types.BIT:
+                    case Types.TINYINT:
+                    case Types.SMALLINT:
+                    case Types.INTEGER:
+                        return ColumnType.INT32;
+                    case Types.BIGINT:
+                        return ColumnType.INT64;
+                    case Types.REAL:
+                        return ColumnType.FLOAT32;
+                    case Types.FLOAT:
+                    case Types.DOUBLE:
+                        return ColumnType.FLOAT64;
+                    case Types.DECIMAL:
+                    case Types.NUMERIC: {
+                        Integer precision = column.getPrecision();
+                        Integer scale = column.getScale();
+                        if (precision != null && precision > 0 && precision <= MAX_DECIMAL_PRECISION
+                            && scale != null && scale >= 0 && scale <= precision)
+                        {
+                            return ColumnType.DECIMAL;
+                        }
+                        // Unconstrained numeric - keep all digits
+                        return null;
+                    }
+                    default:
+                        return ColumnType.FLOAT64;
+                }
+            case DATETIME:
+                switch (column.getTypeID()) {
+                    case Types.DATE:
+                        return ColumnType.DATE;
+                    case Types.TIME:
+                        return ColumnType.TIME;
+                    case Types.TIMESTAMP_WITH_TIMEZONE:
+                        return ColumnType.TIMESTAMP_TZ;
+                    case Types.TIMESTAMP:
+                        return ColumnType.TIMESTAMP;
+                    default:
+                        return null;
+                }
+            case STRING:
+                return ColumnType.STRING;
+            case BINARY:
+                return ColumnType.BINARY;
+            case CONTENT:
+                switch (column.getTypeID()) {
+                    case Types.CLOB:
+                    case Types.NCLOB:
+                    case Types.LONGVARCHAR:
+                    case Types.LONGNVARCHAR:
+                    case Types.SQLXML:
+                        return ColumnType.STRING;
+                    default:
+                        return ColumnType.BINARY;
+                }
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporterSite;
+import org.jkiss.dbeaver.tools.transfer.stream.arrow.ArrowColumn;
+import org.jkiss.dbeaver.tools.transfer.stream.arrow.ArrowStreamWriter;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Apache Arrow IPC exporter.
+ * Rows are accumulated into columnar record batches which are written in the file (random access) or stream format.
+ * Values which have no Arrow counterpart are exported as display strings.
+ */
+public class DataExporterArrow extends ColumnarExporterAbstract<ArrowColumn> {
+
+    private static final String PROP_FORMAT = "format";
+    private static final String PROP_BATCH_SIZE = "batchSize";
+
+    private static final String FORMAT_STREAM = "stream";
+
+    private ArrowStreamWriter writer;
+    private boolean fileFormat;
+    private int batchSize;
+
+    @Override
+    public void init(IStreamDataExporterSite site) throws DBException {
+        super.init(site);
+        Map<String, Object> properties = site.getProperties();
+        fileFormat = !FORMAT_STREAM.equalsIgnoreCase(CommonUtils.toString(properties.get(PROP_FORMAT)));
+        batchSize = Math.max(1, CommonUtils.toInt(properties.get(PROP_BATCH_SIZE), 65536));
+    }
+
+    @Override
+    public void exportFooter(DBRProgressMonitor monitor) throws DBException, IOException {
+        if (writer != null) {
+            writer.finish();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        writer = null;
+        super.dispose();
+    }
+
+    @NotNull
+    @Override
+    protected ArrowColumn createColumn(@NotNull String name, @NotNull ColumnType type, @NotNull DBDAttributeBinding attribute) {
+        return switch (type) {
+            case BOOLEAN -> ArrowColumn.of(name, ArrowColumn.Kind.BOOL);
+            case INT32 -> ArrowColumn.of(name, ArrowColumn.Kind.INT32);
+            case INT64 -> ArrowColumn.of(name, ArrowColumn.Kind.INT64);
+            case FLOAT32 -> ArrowColumn.of(name, ArrowColumn.Kind.FLOAT32);
+            case FLOAT64 -> ArrowColumn.of(name, ArrowColumn.Kind.FLOAT64);
+            case DECIMAL -> ArrowColumn.decimal(name, attribute.getPrecision(), attribute.getScale());
+            case DATE -> ArrowColumn.of(name, ArrowColumn.Kind.DATE_DAY);
+            case TIME -> ArrowColumn.of(name, ArrowColumn.Kind.TIME_MICRO);
+            case TIMESTAMP -> ArrowColumn.timestamp(name, false);
+            case TIMESTAMP_TZ -> ArrowColumn.timestamp(name, true);
+            case STRING -> ArrowColumn.of(name, ArrowColumn.Kind.UTF8);
+            case BINARY -> ArrowColumn.of(name, ArrowColumn.Kind.BINARY);
+        };
+    }
+
+    @Override
+    protected void startExport(@NotNull List<ArrowColumn> schema) throws IOException {
+        writer = new ArrowStreamWriter(getSite().getOutputStream(), schema, fileFormat, batchSize);
+    }
+
+    @Override
+    protected void writeRow(@NotNull Object[] values) throws IOException {
+        writer.writeRow(values);
+    }
+
+    @NotNull
+    @Override
+    protected String getFormatName() {
+        return "Arrow";
+    }
+}
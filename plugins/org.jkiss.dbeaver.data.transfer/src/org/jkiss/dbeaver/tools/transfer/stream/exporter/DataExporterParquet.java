@@ -0,0 +1,112 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporterSite;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetCodec;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetColumn;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetFileWriter;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetType;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Apache Parquet exporter.
+ * Columns are mapped to Parquet physical and logical types according to their data kinds.
+ * Values which have no Parquet counterpart are exported as display strings.
+ */
+public class DataExporterParquet extends ColumnarExporterAbstract<ParquetColumn> {
+
+    private static final String PROP_COMPRESSION = "compression";
+    private static final String PROP_ROW_GROUP_SIZE = "rowGroupSize";
+    private static final String PROP_PAGE_SIZE = "pageSize";
+    private static final String PROP_DICTIONARY = "dictionary";
+
+    private ParquetFileWriter writer;
+    private ParquetCodec codec;
+    private long rowGroupSize;
+    private int pageSize;
+    private boolean useDictionary;
+
+    @Override
+    public void init(IStreamDataExporterSite site) throws DBException {
+        super.init(site);
+        Map<String, Object> properties = site.getProperties();
+        codec = CommonUtils.valueOf(ParquetCodec.class, CommonUtils.toString(properties.get(PROP_COMPRESSION)), ParquetCodec.SNAPPY);
+        rowGroupSize = Math.max(1, CommonUtils.toInt(properties.get(PROP_ROW_GROUP_SIZE), 64)) * 1024L * 1024L;
+        pageSize = Math.max(1, CommonUtils.toInt(properties.get(PROP_PAGE_SIZE), 1024)) * 1024;
+        useDictionary = CommonUtils.getBoolean(properties.get(PROP_DICTIONARY), true);
+    }
+
+    @Override
+    public void exportFooter(DBRProgressMonitor monitor) throws DBException, IOException {
+        if (writer != null) {
+            writer.finish();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        writer = null;
+        super.dispose();
+    }
+
+    @NotNull
+    @Override
+    protected ParquetColumn createColumn(@NotNull String name, @NotNull ColumnType type, @NotNull DBDAttributeBinding attribute) {
+        return switch (type) {
+            case BOOLEAN -> ParquetColumn.primitive(name, ParquetType.BOOLEAN);
+            case INT32 -> ParquetColumn.primitive(name, ParquetType.INT32);
+            case INT64 -> ParquetColumn.primitive(name, ParquetType.INT64);
+            case FLOAT32 -> ParquetColumn.primitive(name, ParquetType.FLOAT);
+            case FLOAT64 -> ParquetColumn.primitive(name, ParquetType.DOUBLE);
+            case DECIMAL -> ParquetColumn.decimal(name, attribute.getPrecision(), attribute.getScale());
+            case DATE -> ParquetColumn.date(name);
+            case TIME -> ParquetColumn.time(name);
+            case TIMESTAMP -> ParquetColumn.timestamp(name, false);
+            case TIMESTAMP_TZ -> ParquetColumn.timestamp(name, true);
+            case STRING -> ParquetColumn.string(name);
+            case BINARY -> ParquetColumn.primitive(name, ParquetType.BYTE_ARRAY);
+        };
+    }
+
+    @Override
+    protected void startExport(@NotNull List<ParquetColumn> schema) throws IOException {
+        Map<String, String> metadata = new LinkedHashMap<>();
+        metadata.put("dbeaver.source", getSite().getSource().getName());
+        writer = new ParquetFileWriter(getSite().getOutputStream(), schema, codec, rowGroupSize, pageSize, useDictionary, metadata);
+    }
+
+    @Override
+    protected void writeRow(@NotNull Object[] values) throws IOException {
+        writer.writeRow(values);
+    }
+
+    @NotNull
+    @Override
+    protected String getFormatName() {
+        return "Parquet";
+    }
+}
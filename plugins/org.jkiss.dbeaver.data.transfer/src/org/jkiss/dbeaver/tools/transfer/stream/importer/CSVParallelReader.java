@@ -0,0 +1,342 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads CSV file in parallel.
+ * <p>
+ * A splitter thread scans the file bytes and cuts it into chunks of approximately {@code chunkSize} bytes.
+ * Chunks always end on a line feed outside of a quoted value, so each chunk contains whole records.
+ * Like in the CSV parser, the escape character only escapes a quote or another escape character inside a quoted value.
+ * Chunks are read, decoded and parsed on a pool of worker threads. Chunks are not memory-mapped because mapped
+ * buffers can't be released explicitly and keep the file locked until they are garbage collected.
+ * Parsed chunks are returned in file order or in order of completion.
+ * <p>
+ * The number of chunks in memory is limited to twice the number of workers.
+ * Byte scanning requires an ASCII-compatible charset, see {@link #isSupported(Charset, char...)}.
+ */
+public class CSVParallelReader implements AutoCloseable {
+
+    private static final int SCAN_BUFFER_SIZE = 1024 * 1024;
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+    private static final Future<Chunk> END_OF_FILE = CompletableFuture.completedFuture(null);
+
+    /**
+     * Parses records of a single chunk
+     */
+    @FunctionalInterface
+    public interface ChunkParser {
+        void parseChunk(@NotNull Reader reader, boolean firstChunk, @NotNull List<String[]> rows) throws IOException;
+    }
+
+    public static class Chunk {
+        private final long offset;
+        private final long length;
+        private final List<String[]> rows;
+
+        Chunk(long offset, long length, @NotNull List<String[]> rows) {
+            this.offset = offset;
+            this.length = length;
+            this.rows = rows;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        /**
+         * Chunk length in bytes
+         */
+        public long getLength() {
+            return length;
+        }
+
+        @NotNull
+        public List<String[]> getRows() {
+            return rows;
+        }
+    }
+
+    private final Path file;
+    private final Charset charset;
+    private final int threadCount;
+    private final long chunkSize;
+    private final boolean ordered;
+    private final byte quoteChar;
+    private final byte escapeChar;
+    private final ChunkParser parser;
+
+    private final BlockingQueue<Future<Chunk>> chunkQueue = new LinkedBlockingQueue<>();
+    private final Deque<Future<Chunk>> pendingChunks = new ArrayDeque<>();
+    private final Semaphore chunkPermits;
+    private FileChannel channel;
+    private ExecutorService workers;
+    private Thread splitter;
+    private volatile boolean closed;
+    private boolean splitFinished;
+
+    /**
+     * @param chunkSize  approximate chunk size in bytes
+     * @param ordered    return chunks in file order. Otherwise chunks are returned as soon as they are parsed
+     * @param quoteChar  quote character, must be ASCII
+     * @param escapeChar escape character, must be ASCII. Ignored if it is equal to the quote character or outside of quotes
+     */
+    public CSVParallelReader(
+        @NotNull Path file,
+        @NotNull Charset charset,
+        int threadCount,
+        long chunkSize,
+        boolean ordered,
+        char quoteChar,
+        char escapeChar,
+        @NotNull ChunkParser parser
+    ) {
+        if (!isSupported(charset, quoteChar, escapeChar)) {
+            throw new IllegalArgumentException("Parallel CSV reading is not supported for charset " + charset.name());
+        }
+        this.file = file;
+        this.charset = charset;
+        this.threadCount = Math.max(1, threadCount);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.ordered = ordered;
+        this.quoteChar = (byte) quoteChar;
+        this.escapeChar = (byte) escapeChar;
+        this.parser = parser;
+        this.chunkPermits = new Semaphore(this.threadCount * 2);
+    }
+
+    /**
+     * Checks that record boundaries may be found by scanning the raw bytes
+     * (all ASCII characters are encoded as single bytes and multibyte sequences never contain ASCII bytes).
+     */
+    public static boolean isSupported(@NotNull Charset charset, char... specialChars) {
+        for (char c : specialChars) {
+            if (c == 0 || c >= 0x80) {
+                return false;
+            }
+        }
+        if (charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII)) {
+            return true;
+        }
+        if (!charset.canEncode() || charset.newEncoder().maxBytesPerChar() != 1.0f) {
+            return false;
+        }
+        String probe = "\n\r\"'\\,;|\t";
+        return Arrays.equals(probe.getBytes(charset), probe.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public long getFileSize() throws IOException {
+        return channel.size();
+    }
+
+    public void start() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        AtomicInteger workerNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, "CSV import worker " + workerNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        splitter = new Thread(this::splitChunks, "CSV import splitter");
+        splitter.setDaemon(true);
+        splitter.start();
+    }
+
+    /**
+     * Returns next parsed chunk or null if the whole file was read
+     */
+    @Nullable
+    public Chunk nextChunk() throws IOException, InterruptedException {
+        while (true) {
+            for (Future<Chunk> future; (future = chunkQueue.poll()) != null; ) {
+                addPendingChunk(future);
+            }
+            if (pendingChunks.isEmpty()) {
+                if (splitFinished) {
+                    return null;
+                }
+                addPendingChunk(chunkQueue.take());
+                continue;
+            }
+            Future<Chunk> next = null;
+            if (!ordered) {
+                for (Future<Chunk> future : pendingChunks) {
+                    if (future.isDone()) {
+                        next = future;
+                        break;
+                    }
+                }
+            }
+            if (next == null) {
+                next = pendingChunks.peekFirst();
+            }
+            pendingChunks.remove(next);
+            try {
+                return next.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException ioe) {
+                    throw ioe;
+                } else if (cause instanceof RuntimeException re) {
+                    throw re;
+                }
+                throw new IOException("Error parsing CSV chunk", cause);
+            } finally {
+                chunkPermits.release();
+            }
+        }
+    }
+
+    private void addPendingChunk(@NotNull Future<Chunk> future) {
+        if (future == END_OF_FILE) {
+            splitFinished = true;
+        } else {
+            pendingChunks.add(future);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        if (splitter != null) {
+            splitter.interrupt();
+        }
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private void splitChunks() {
+        try {
+            long fileSize = channel.size();
+            long chunkStart = getDataStart();
+            long position = chunkStart;
+            boolean firstChunk = true;
+            boolean inQuotes = false;
+            boolean escaped = false;
+            boolean hasEscape = escapeChar != quoteChar;
+            ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+            while (!closed && position < fileSize) {
+                buffer.clear();
+                int count = channel.read(buffer, position);
+                if (count <= 0) {
+                    break;
+                }
+                byte[] bytes = buffer.array();
+                for (int i = 0; i < count; i++) {
+                    byte b = bytes[i];
+                    if (escaped) {
+                        escaped = false;
+                        if (b == quoteChar || b == escapeChar) {
+                            continue;
+                        }
+                    }
+                    if (hasEscape && inQuotes && b == escapeChar) {
+                        escaped = true;
+                    } else if (b == quoteChar) {
+                        inQuotes = !inQuotes;
+                    } else if (b == '\n' && !inQuotes && position + i + 1 - chunkStart >= chunkSize) {
+                        long chunkEnd = position + i + 1;
+                        submitChunk(chunkStart, chunkEnd, firstChunk);
+                        chunkStart = chunkEnd;
+                        firstChunk = false;
+                    }
+                }
+                position += count;
+            }
+            if (!closed && position > chunkStart) {
+                submitChunk(chunkStart, position, firstChunk);
+            }
+        } catch (InterruptedException e) {
+            // Reader was closed
+        } catch (Throwable e) {
+            chunkQueue.add(CompletableFuture.failedFuture(e));
+        } finally {
+            chunkQueue.add(END_OF_FILE);
+        }
+    }
+
+    private long getDataStart() throws IOException {
+        if (!charset.equals(StandardCharsets.UTF_8)) {
+            return 0;
+        }
+        ByteBuffer bom = ByteBuffer.allocate(UTF8_BOM.length);
+        while (bom.hasRemaining() && channel.read(bom, bom.position()) > 0) {
+            // Read first bytes
+        }
+        return Arrays.equals(bom.array(), UTF8_BOM) ? UTF8_BOM.length : 0;
+    }
+
+    private void submitChunk(long start, long end, boolean firstChunk) throws InterruptedException, IOException {
+        if (end - start > Integer.MAX_VALUE) {
+            throw new IOException("CSV record at offset " + start + " is too large for parallel import");
+        }
+        chunkPermits.acquire();
+        chunkQueue.add(workers.submit(() -> parseChunk(start, end, firstChunk)));
+    }
+
+    @NotNull
+    private Chunk parseChunk(long start, long end, boolean firstChunk) throws IOException {
+        ByteBuffer bytes = readBytes(start, (int) (end - start));
+        CharBuffer chars = charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE)
+            .decode(bytes);
+        List<String[]> rows = new ArrayList<>();
+        try (Reader reader = new CharArrayReader(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining())) {
+            parser.parseChunk(reader, firstChunk, rows);
+        }
+        return new Chunk(start, end - start, rows);
+    }
+
+    @NotNull
+    private ByteBuffer readBytes(long start, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file at offset " + (start + buffer.position()));
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.tools.transfer.stream.importer;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBFetchProgress;
@@ -33,13 +34,16 @@ import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferUtils;
 import org.jkiss.dbeaver.tools.transfer.stream.*;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.CommonUtils;
+import org.jkiss.utils.IOUtils;
 import org.jkiss.utils.Pair;
 import org.jkiss.utils.csv.CSVReader;
 import org.jkiss.utils.io.BOMInputStream;
 
 import java.io.*;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -57,7 +61,11 @@ public class DataImporterCSV extends StreamImporterAbstract {
     private static final String PROP_EMPTY_STRING_NULL = "emptyStringNull";
     private static final String PROP_ESCAPE_CHAR = "escapeChar";
     private static final String PROP_TRIM_WHITESPACES = "trimWhitespaces";
+    private static final String PROP_PARALLEL_THREADS = "parallelThreads";
+    private static final String PROP_PARALLEL_CHUNK_SIZE = "parallelChunkSize";
+    private static final String PROP_PARALLEL_ORDERED = "parallelOrdered";
     public static final int READ_BUFFER_SIZE = 255 * 1024;
+    private static final long PROGRESS_UNIT = 1024 * 1024;
 
     public enum HeaderPosition {
         none,
@@ -159,20 +167,31 @@ public class DataImporterCSV extends StreamImporterAbstract {
 
     private CSVReader openCSVReader(Reader reader, Map<String, Object> processorProperties) {
         String delimiter = StreamTransferUtils.getDelimiterString(processorProperties, PROP_DELIMITER);
+        return new CSVReader(reader, delimiter.charAt(0), getQuoteChar(processorProperties), getEscapeChar(processorProperties));
+    }
+
+    private static char getQuoteChar(Map<String, Object> processorProperties) {
         String quoteChar = CommonUtils.toString(processorProperties.get(PROP_QUOTE_CHAR));
         if (CommonUtils.isEmpty(quoteChar)) {
             quoteChar = "'";
         }
+        return quoteChar.charAt(0);
+    }
+
+    private static char getEscapeChar(Map<String, Object> processorProperties) {
         String escapeChar = CommonUtils.toString(processorProperties.get(PROP_ESCAPE_CHAR));
         if (CommonUtils.isEmpty(escapeChar)) {
             escapeChar = "\\";
         }
-        return new CSVReader(reader, delimiter.charAt(0), quoteChar.charAt(0), escapeChar.charAt(0));
+        return escapeChar.charAt(0);
+    }
+
+    private static Charset getCharset(Map<String, Object> processorProperties) {
+        return Charset.forName(CommonUtils.toString(processorProperties.get(PROP_ENCODING), GeneralUtils.UTF8_ENCODING));
     }
 
     private Reader openStreamReader(InputStream inputStream, Map<String, Object> processorProperties, boolean useBufferedStream) throws UnsupportedEncodingException {
-        final String encoding = CommonUtils.toString(processorProperties.get(PROP_ENCODING), GeneralUtils.UTF8_ENCODING);
-        final Charset charset = Charset.forName(encoding);
+        final Charset charset = getCharset(processorProperties);
         if (useBufferedStream) {
             inputStream = new BufferedInputStream(inputStream, READ_BUFFER_SIZE);
         }
@@ -202,10 +221,12 @@ public class DataImporterCSV extends StreamImporterAbstract {
         IStreamDataImporterSite site = getSite();
         StreamEntityMapping entityMapping = site.getSourceObject();
         Map<String, Object> properties = site.getProcessorProperties();
-        HeaderPosition headerPosition = getHeaderPosition(properties);
-        boolean emptyStringNull = CommonUtils.getBoolean(properties.get(PROP_EMPTY_STRING_NULL), false);
-        boolean trimWhitespaces = CommonUtils.getBoolean(properties.get(PROP_TRIM_WHITESPACES), false);
-        String nullValueMark = CommonUtils.toString(properties.get(PROP_NULL_STRING));
+        int parallelThreads = CommonUtils.toInt(properties.get(PROP_PARALLEL_THREADS), 1);
+        LineProcessor lineProcessor = new LineProcessor(
+            entityMapping.getStreamColumns().size(),
+            CommonUtils.getBoolean(properties.get(PROP_TRIM_WHITESPACES), false),
+            CommonUtils.getBoolean(properties.get(PROP_EMPTY_STRING_NULL), false),
+            CommonUtils.toString(properties.get(PROP_NULL_STRING)));
 
         DBCExecutionContext context = streamDataSource.getDefaultInstance().getDefaultContext(monitor, false);
         try (DBCSession producerSession = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Transfer stream data")) {
@@ -216,72 +237,15 @@ public class DataImporterCSV extends StreamImporterAbstract {
 
             applyTransformHints(resultSet, consumer, properties, PROP_TIMESTAMP_FORMAT, PROP_TIMESTAMP_ZONE);
 
-            try (Reader reader = openStreamReader(inputStream, properties, true)) {
-                try (CSVReader csvReader = openCSVReader(reader, properties)) {
-
-                    int maxRows = site.getSettings().getMaxRows();
-                    int targetAttrSize = entityMapping.getStreamColumns().size();
-                    boolean headerRead = false;
-                    for (long lineNum = 0; ; ) {
-                        if (monitor.isCanceled()) {
-                            break;
-                        }
-                        String[] line = csvReader.readNext();
-                        if (line == null) {
-                            if (csvReader.getParser().isPending()) {
-                                throw new IOException("Un-terminated quote sequence was detected");
-                            }
-                            break;
-                        }
-                        if (line.length == 0) {
-                            continue;
-                        }
-                        if (headerPosition != HeaderPosition.none && !headerRead) {
-                            // First line is a header
-                            headerRead = true;
-                            continue;
-                        }
-                        if (maxRows > 0 && lineNum >= maxRows) {
-                            break;
-                        }
-
-                        if (line.length < targetAttrSize) {
-                            // Stream row may be shorter than header
-                            String[] newLine = new String[targetAttrSize];
-                            System.arraycopy(line, 0, newLine, 0, line.length);
-                            for (int i = line.length; i < targetAttrSize; i++) {
-                                newLine[i] = null;
-                            }
-                            line = newLine;
-                        }
-                        if (trimWhitespaces) {
-                            for (int i = 0; i < line.length; i++) {
-                                line[i] = line[i].trim();
-                            }
-                        }
-                        if (emptyStringNull) {
-                            for (int i = 0; i < line.length; i++) {
-                                if ("".equals(line[i])) {
-                                    line[i] = null;
-                                }
-                            }
-                        }
-                        if (!CommonUtils.isEmpty(nullValueMark)) {
-                            for (int i = 0; i < line.length; i++) {
-                                if (nullValueMark.equals(line[i])) {
-                                    line[i] = null;
-                                }
-                            }
-                        }
-
-                        resultSet.setStreamRow(line);
-                        consumer.fetchRow(producerSession, resultSet);
-                        lineNum++;
-
-                        if (DBFetchProgress.monitorFetchProgress(lineNum)) {
-                            monitor.subTask(Long.toUnsignedString(lineNum) + " rows processed");
-                        }
-                    }
+            try {
+                Path inputFile = entityMapping.getInputFile();
+                String delimiter = StreamTransferUtils.getDelimiterString(properties, PROP_DELIMITER);
+                if (parallelThreads > 1 && IOUtils.isLocalPath(inputFile) &&
+                    CSVParallelReader.isSupported(getCharset(properties), delimiter.charAt(0), getQuoteChar(properties), getEscapeChar(properties)))
+                {
+                    importParallel(monitor, producerSession, resultSet, consumer, inputFile, parallelThreads, lineProcessor);
+                } else {
+                    importSequential(monitor, producerSession, resultSet, consumer, inputStream, lineProcessor);
                 }
             } catch (IOException e) {
                 throw new DBException("IO error reading CSV", e);
@@ -296,4 +260,162 @@ public class DataImporterCSV extends StreamImporterAbstract {
 
     }
 
+    private void importSequential(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBCSession producerSession,
+        @NotNull StreamTransferResultSet resultSet,
+        @NotNull IDataTransferConsumer consumer,
+        @NotNull InputStream inputStream,
+        @NotNull LineProcessor lineProcessor
+    ) throws IOException, DBException {
+        Map<String, Object> properties = getSite().getProcessorProperties();
+        HeaderPosition headerPosition = getHeaderPosition(properties);
+        try (Reader reader = openStreamReader(inputStream, properties, true)) {
+            try (CSVReader csvReader = openCSVReader(reader, properties)) {
+
+                int maxRows = getSite().getSettings().getMaxRows();
+                boolean headerRead = false;
+                for (long lineNum = 0; ; ) {
+                    if (monitor.isCanceled()) {
+                        break;
+                    }
+                    String[] line = csvReader.readNext();
+                    if (line == null) {
+                        if (csvReader.getParser().isPending()) {
+                            throw new IOException("Un-terminated quote sequence was detected");
+                        }
+                        break;
+                    }
+                    if (line.length == 0) {
+                        continue;
+                    }
+                    if (headerPosition != HeaderPosition.none && !headerRead) {
+                        // First line is a header
+                        headerRead = true;
+                        continue;
+                    }
+                    if (maxRows > 0 && lineNum >= maxRows) {
+                        break;
+                    }
+
+                    resultSet.setStreamRow(lineProcessor.process(line));
+                    consumer.fetchRow(producerSession, resultSet);
+                    lineNum++;
+
+                    if (DBFetchProgress.monitorFetchProgress(lineNum)) {
+                        monitor.subTask(Long.toUnsignedString(lineNum) + " rows processed");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses the file in chunks on several threads. Rows are passed to the consumer on the current thread.
+     * The monitor task is already started by the transfer job, so progress is reported as a sub-task.
+     */
+    private void importParallel(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBCSession producerSession,
+        @NotNull StreamTransferResultSet resultSet,
+        @NotNull IDataTransferConsumer consumer,
+        @NotNull Path inputFile,
+        int threadCount,
+        @NotNull LineProcessor lineProcessor
+    ) throws IOException, DBException {
+        Map<String, Object> properties = getSite().getProcessorProperties();
+        HeaderPosition headerPosition = getHeaderPosition(properties);
+        long chunkSize = Math.max(1, CommonUtils.toInt(properties.get(PROP_PARALLEL_CHUNK_SIZE), 16)) * 1024L * 1024L;
+        boolean ordered = CommonUtils.getBoolean(properties.get(PROP_PARALLEL_ORDERED), true);
+        int maxRows = getSite().getSettings().getMaxRows();
+
+        CSVParallelReader.ChunkParser chunkParser = (reader, firstChunk, rows) -> {
+            try (CSVReader csvReader = openCSVReader(reader, properties)) {
+                boolean headerRead = !firstChunk || headerPosition == HeaderPosition.none;
+                for (String[] line; (line = getNextLine(csvReader)) != null; ) {
+                    if (!headerRead) {
+                        // First line is a header
+                        headerRead = true;
+                        continue;
+                    }
+                    rows.add(lineProcessor.process(line));
+                }
+                if (csvReader.getParser().isPending()) {
+                    throw new IOException("Un-terminated quote sequence was detected");
+                }
+            }
+        };
+
+        try (CSVParallelReader csvReader = new CSVParallelReader(
+            inputFile, getCharset(properties), threadCount, chunkSize, ordered,
+            getQuoteChar(properties), getEscapeChar(properties), chunkParser))
+        {
+            csvReader.start();
+            long fileSize = csvReader.getFileSize();
+            monitor.subTask("Import CSV data (" + threadCount + " threads)");
+            long bytesProcessed = 0;
+            long rowNum = 0;
+            readLoop:
+            for (CSVParallelReader.Chunk chunk; (chunk = csvReader.nextChunk()) != null; ) {
+                for (String[] line : chunk.getRows()) {
+                    if (monitor.isCanceled() || (maxRows > 0 && rowNum >= maxRows)) {
+                        break readLoop;
+                    }
+                    resultSet.setStreamRow(line);
+                    consumer.fetchRow(producerSession, resultSet);
+                    rowNum++;
+                }
+                bytesProcessed += chunk.getLength();
+                monitor.subTask(
+                    bytesProcessed / PROGRESS_UNIT + " of " + fileSize / PROGRESS_UNIT + " MB (" +
+                    (fileSize == 0 ? 100 : bytesProcessed * 100 / fileSize) + "%) processed, " +
+                    Long.toUnsignedString(rowNum) + " rows");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DBException("CSV import was interrupted", e);
+        }
+    }
+
+    /**
+     * Normalizes parsed line according to the importer settings
+     */
+    private static class LineProcessor {
+        private final int targetAttrSize;
+        private final boolean trimWhitespaces;
+        private final boolean emptyStringNull;
+        private final String nullValueMark;
+
+        LineProcessor(int targetAttrSize, boolean trimWhitespaces, boolean emptyStringNull, @Nullable String nullValueMark) {
+            this.targetAttrSize = targetAttrSize;
+            this.trimWhitespaces = trimWhitespaces;
+            this.emptyStringNull = emptyStringNull;
+            this.nullValueMark = nullValueMark;
+        }
+
+        @NotNull
+        String[] process(@NotNull String[] line) {
+            if (line.length < targetAttrSize) {
+                // Stream row may be shorter than header
+                line = Arrays.copyOf(line, targetAttrSize);
+            }
+            for (int i = 0; i < line.length; i++) {
+                String value = line[i];
+                if (value == null) {
+                    continue;
+                }
+                if (trimWhitespaces) {
+                    value = value.trim();
+                }
+                if ((emptyStringNull && value.isEmpty()) ||
+                    (!CommonUtils.isEmpty(nullValueMark) && nullValueMark.equals(value)))
+                {
+                    value = null;
+                }
+                line[i] = value;
+            }
+            return line;
+        }
+    }
+
 }
@@ -0,0 +1,181 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBFetchProgress;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.impl.local.LocalStatement;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataImporterSite;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamDataImporterColumnInfo;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamEntityMapping;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamTransferResultSet;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetColumn;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetFileReader;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Apache Parquet importer.
+ * <p>
+ * Parquet metadata is stored at the end of the file, so the importer reads the input file directly
+ * instead of the provided input stream. Row groups are read one by one.
+ */
+public class DataImporterParquet extends StreamImporterAbstract {
+
+    @NotNull
+    @Override
+    public List<StreamDataImporterColumnInfo> readColumnsInfo(StreamEntityMapping entityMapping, @NotNull InputStream inputStream) throws DBException {
+        Map<String, Object> processorProperties = getSite().getProcessorProperties();
+        final int columnSamplesCount = Math.max(CommonUtils.toInt(processorProperties.get(PROP_COLUMN_TYPE_SAMPLES), 100), 0);
+        final int columnMinimalLength = Math.max(CommonUtils.toInt(processorProperties.get(PROP_COLUMN_TYPE_LENGTH), 1), 1);
+        final boolean columnIsByteLength = CommonUtils.getBoolean(processorProperties.get(PROP_COLUMN_IS_BYTE_LENGTH), false);
+
+        List<StreamDataImporterColumnInfo> columnsInfo = new ArrayList<>();
+        try (ParquetFileReader reader = new ParquetFileReader(entityMapping.getInputFile())) {
+            List<ParquetColumn> columns = reader.getColumns();
+            for (int i = 0; i < columns.size(); i++) {
+                ParquetColumn column = columns.get(i);
+                StreamDataImporterColumnInfo columnInfo = new StreamDataImporterColumnInfo(
+                    entityMapping, i, column.getName(), null, columnMinimalLength, DBPDataKind.UNKNOWN);
+                columnInfo.setMappingMetadataPresent(true);
+                columnInfo.setRequired(column.isRequired());
+                setColumnType(columnInfo, column);
+                columnsInfo.add(columnInfo);
+            }
+
+            // Sample string lengths from the first row group
+            if (columnSamplesCount > 0 && reader.getRowGroupCount() > 0) {
+                Object[][] rowGroup = reader.readRowGroup(0);
+                for (int i = 0; i < columnsInfo.size(); i++) {
+                    StreamDataImporterColumnInfo columnInfo = columnsInfo.get(i);
+                    if (columnInfo.getDataKind() != DBPDataKind.STRING) {
+                        continue;
+                    }
+                    Object[] values = rowGroup[i];
+                    for (int row = 0; row < Math.min(values.length, columnSamplesCount); row++) {
+                        if (values[row] instanceof String str) {
+                            columnInfo.updateMaxLength(
+                                entityMapping.getDataSource(),
+                                columnIsByteLength ? str.getBytes(StandardCharsets.UTF_8).length : str.length());
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new DBException("IO error reading Parquet file", e);
+        }
+        return columnsInfo;
+    }
+
+    private static void setColumnType(@NotNull StreamDataImporterColumnInfo columnInfo, @NotNull ParquetColumn column) {
+        switch (column.getLogicalType()) {
+            case STRING, JSON, ENUM, UUID -> columnInfo.updateType(DBPDataKind.STRING, "VARCHAR");
+            case DECIMAL -> {
+                columnInfo.updateType(DBPDataKind.NUMERIC, "NUMERIC");
+                columnInfo.setPrecision(column.getPrecision());
+                columnInfo.setScale(column.getScale());
+            }
+            case DATE -> columnInfo.updateType(DBPDataKind.DATETIME, "DATE");
+            case TIME -> columnInfo.updateType(DBPDataKind.DATETIME, "TIME");
+            case TIMESTAMP -> columnInfo.updateType(DBPDataKind.DATETIME, "TIMESTAMP");
+            case INTEGER -> columnInfo.updateType(
+                DBPDataKind.NUMERIC,
+                column.getBitWidth() < 32 || (column.getBitWidth() == 32 && column.isSigned()) ? "INTEGER" : "BIGINT");
+            default -> {
+                switch (column.getType()) {
+                    case BOOLEAN -> columnInfo.updateType(DBPDataKind.BOOLEAN, "BOOLEAN");
+                    case INT32 -> columnInfo.updateType(DBPDataKind.NUMERIC, "INTEGER");
+                    case INT64 -> columnInfo.updateType(DBPDataKind.NUMERIC, "BIGINT");
+                    case INT96 -> columnInfo.updateType(DBPDataKind.DATETIME, "TIMESTAMP");
+                    case FLOAT -> columnInfo.updateType(DBPDataKind.NUMERIC, "REAL");
+                    case DOUBLE -> columnInfo.updateType(DBPDataKind.NUMERIC, "DOUBLE");
+                    default -> columnInfo.updateType(DBPDataKind.BINARY, "BINARY");
+                }
+            }
+        }
+    }
+
+    @Override
+    public void runImport(@NotNull DBRProgressMonitor monitor, @NotNull DBPDataSource streamDataSource, @NotNull InputStream inputStream, @NotNull IDataTransferConsumer consumer) throws DBException {
+        IStreamDataImporterSite site = getSite();
+        StreamEntityMapping entityMapping = site.getSourceObject();
+        Map<String, Object> properties = site.getProcessorProperties();
+
+        DBCExecutionContext context = streamDataSource.getDefaultInstance().getDefaultContext(monitor, false);
+        try (DBCSession producerSession = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Transfer stream data")) {
+            LocalStatement localStatement = new LocalStatement(producerSession, "SELECT * FROM Stream");
+            StreamTransferResultSet resultSet = new StreamTransferResultSet(producerSession, localStatement, entityMapping);
+
+            consumer.fetchStart(producerSession, resultSet, -1, -1);
+
+            applyTransformHints(resultSet, consumer, properties, null, null);
+
+            try (ParquetFileReader reader = new ParquetFileReader(entityMapping.getInputFile())) {
+                int maxRows = site.getSettings().getMaxRows();
+                int targetAttrSize = entityMapping.getStreamColumns().size();
+                long rowNum = 0;
+                readLoop:
+                for (int group = 0; group < reader.getRowGroupCount(); group++) {
+                    if (monitor.isCanceled()) {
+                        break;
+                    }
+                    Object[][] columns = reader.readRowGroup(group);
+                    int groupRows = columns.length == 0 ? 0 : columns[0].length;
+                    for (int i = 0; i < groupRows; i++) {
+                        if (monitor.isCanceled() || (maxRows > 0 && rowNum >= maxRows)) {
+                            break readLoop;
+                        }
+                        Object[] row = new Object[Math.max(targetAttrSize, columns.length)];
+                        for (int col = 0; col < columns.length; col++) {
+                            row[col] = columns[col][i];
+                        }
+                        resultSet.setStreamRow(row);
+                        consumer.fetchRow(producerSession, resultSet);
+                        rowNum++;
+
+                        if (DBFetchProgress.monitorFetchProgress(rowNum)) {
+                            monitor.subTask(Long.toUnsignedString(rowNum) + " rows processed");
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new DBException("IO error reading Parquet file", e);
+            } finally {
+                try {
+                    consumer.fetchEnd(producerSession, resultSet);
+                } finally {
+                    consumer.close();
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,269 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Parquet page compression codecs.
+ * Only codecs which can be implemented without native libraries are supported.
+ */
+public enum ParquetCodec {
+
+    UNCOMPRESSED(0),
+    SNAPPY(1),
+    GZIP(2);
+
+    private final int id;
+
+    ParquetCodec(int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    @Nullable
+    public static ParquetCodec getById(int id) {
+        for (ParquetCodec codec : values()) {
+            if (codec.id == id) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    @NotNull
+    byte[] compress(@NotNull byte[] data) throws IOException {
+        switch (this) {
+            case SNAPPY:
+                return Snappy.compress(data);
+            case GZIP: {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 64);
+                try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                    gzip.write(data);
+                }
+                return out.toByteArray();
+            }
+            default:
+                return data;
+        }
+    }
+
+    @NotNull
+    byte[] decompress(@NotNull byte[] data, int uncompressedSize) throws IOException {
+        switch (this) {
+            case SNAPPY:
+                return Snappy.decompress(data, uncompressedSize);
+            case GZIP: {
+                try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
+                    byte[] result = gzip.readNBytes(uncompressedSize);
+                    if (result.length != uncompressedSize) {
+                        throw new IOException("Bad GZIP page size: " + result.length + " (expected " + uncompressedSize + ")");
+                    }
+                    return result;
+                }
+            }
+            default:
+                return data;
+        }
+    }
+
+    /**
+     * Raw Snappy block format (no framing).
+     */
+    static final class Snappy {
+
+        private static final int BLOCK_SIZE = 1 << 16;
+        private static final int HASH_BITS = 14;
+        private static final int MIN_MATCH = 4;
+        private static final int MAX_COPY_LENGTH = 64;
+
+        private Snappy() {
+        }
+
+        @NotNull
+        static byte[] compress(@NotNull byte[] data) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 32);
+            ParquetEncoding.writeVarInt(out, data.length);
+            int[] table = new int[1 << HASH_BITS];
+            for (int blockStart = 0; blockStart < data.length; blockStart += BLOCK_SIZE) {
+                compressBlock(data, blockStart, Math.min(data.length, blockStart + BLOCK_SIZE), table, out);
+            }
+            return out.toByteArray();
+        }
+
+        private static void compressBlock(@NotNull byte[] data, int start, int end, @NotNull int[] table, @NotNull ByteArrayOutputStream out) {
+            java.util.Arrays.fill(table, -1);
+            int literalStart = start;
+            int pos = start;
+            while (pos + MIN_MATCH <= end) {
+                int hash = hash(data, pos);
+                int candidate = table[hash];
+                table[hash] = pos;
+                if (candidate >= start && pos - candidate < BLOCK_SIZE && sameInt(data, candidate, pos)) {
+                    writeLiteral(data, literalStart, pos - literalStart, out);
+                    int matchLength = MIN_MATCH;
+                    while (pos + matchLength < end && data[candidate + matchLength] == data[pos + matchLength]) {
+                        matchLength++;
+                    }
+                    int offset = pos - candidate;
+                    int remaining = matchLength;
+                    while (remaining > 0) {
+                        int length = Math.min(remaining, MAX_COPY_LENGTH);
+                        if (remaining - length > 0 && remaining - length < MIN_MATCH) {
+                            // Do not leave a tail which is too short to be a copy
+                            length = remaining - MIN_MATCH;
+                        }
+                        out.write(((length - 1) << 2) | 2);
+                        out.write(offset & 0xFF);
+                        out.write((offset >>> 8) & 0xFF);
+                        remaining -= length;
+                    }
+                    pos += matchLength;
+                    literalStart = pos;
+                } else {
+                    pos++;
+                }
+            }
+            writeLiteral(data, literalStart, end - literalStart, out);
+        }
+
+        private static void writeLiteral(@NotNull byte[] data, int offset, int length, @NotNull ByteArrayOutputStream out) {
+            if (length == 0) {
+                return;
+            }
+            int n = length - 1;
+            if (n < 60) {
+                out.write(n << 2);
+            } else if (n < 0x100) {
+                out.write(60 << 2);
+                out.write(n);
+            } else if (n < 0x10000) {
+                out.write(61 << 2);
+                out.write(n & 0xFF);
+                out.write((n >>> 8) & 0xFF);
+            } else {
+                out.write(62 << 2);
+                out.write(n & 0xFF);
+                out.write((n >>> 8) & 0xFF);
+                out.write((n >>> 16) & 0xFF);
+            }
+            out.write(data, offset, length);
+        }
+
+        private static int hash(@NotNull byte[] data, int pos) {
+            return (readInt(data, pos) * 0x1E35A7BD) >>> (32 - HASH_BITS);
+        }
+
+        private static boolean sameInt(@NotNull byte[] data, int pos1, int pos2) {
+            return readInt(data, pos1) == readInt(data, pos2);
+        }
+
+        private static int readInt(@NotNull byte[] data, int pos) {
+            return (data[pos] & 0xFF) | (data[pos + 1] & 0xFF) << 8 | (data[pos + 2] & 0xFF) << 16 | (data[pos + 3] & 0xFF) << 24;
+        }
+
+        @NotNull
+        static byte[] decompress(@NotNull byte[] data, int expectedSize) throws IOException {
+            int pos = 0;
+            int length = 0;
+            for (int shift = 0; ; shift += 7) {
+                if (pos >= data.length || shift > 28) {
+                    throw new IOException("Malformed Snappy header");
+                }
+                int b = data[pos++] & 0xFF;
+                length |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    break;
+                }
+            }
+            if (length != expectedSize) {
+                throw new IOException("Bad Snappy page size: " + length + " (expected " + expectedSize + ")");
+            }
+            byte[] result = new byte[length];
+            int outPos = 0;
+            try {
+                while (pos < data.length) {
+                    int tag = data[pos++] & 0xFF;
+                    switch (tag & 3) {
+                        case 0: {
+                            int literalLength = tag >>> 2;
+                            if (literalLength >= 60) {
+                                int bytes = literalLength - 59;
+                                literalLength = 0;
+                                for (int i = 0; i < bytes; i++) {
+                                    literalLength |= (data[pos++] & 0xFF) << (i * 8);
+                                }
+                            }
+                            literalLength++;
+                            System.arraycopy(data, pos, result, outPos, literalLength);
+                            pos += literalLength;
+                            outPos += literalLength;
+                            continue;
+                        }
+                        case 1: {
+                            int copyLength = ((tag >>> 2) & 7) + 4;
+                            int offset = ((tag & 0xE0) << 3) | (data[pos++] & 0xFF);
+                            outPos = copy(result, outPos, offset, copyLength);
+                            continue;
+                        }
+                        case 2: {
+                            int copyLength = (tag >>> 2) + 1;
+                            int offset = (data[pos] & 0xFF) | (data[pos + 1] & 0xFF) << 8;
+                            pos += 2;
+                            outPos = copy(result, outPos, offset, copyLength);
+                            continue;
+                        }
+                        default: {
+                            int copyLength = (tag >>> 2) + 1;
+                            int offset = (data[pos] & 0xFF) | (data[pos + 1] & 0xFF) << 8 | (data[pos + 2] & 0xFF) << 16 | (data[pos + 3] & 0xFF) << 24;
+                            pos += 4;
+                            outPos = copy(result, outPos, offset, copyLength);
+                        }
+                    }
+                }
+            } catch (IndexOutOfBoundsException e) {
+                throw new IOException("Malformed Snappy data", e);
+            }
+            if (outPos != length) {
+                throw new IOException("Truncated Snappy data");
+            }
+            return result;
+        }
+
+        private static int copy(@NotNull byte[] result, int outPos, int offset, int length) throws IOException {
+            if (offset <= 0 || offset > outPos) {
+                throw new IOException("Bad Snappy copy offset: " + offset);
+            }
+            // Copies may overlap, so copy byte by byte
+            for (int i = 0; i < length; i++) {
+                result[outPos] = result[outPos - offset];
+                outPos++;
+            }
+            return outPos;
+        }
+    }
+}
@@ -0,0 +1,557 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamTransferUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.*;
+import java.util.UUID;
+
+/**
+ * Column of the flat Parquet schema.
+ * Converts values between Java objects and Parquet physical values according to the column logical type.
+ * <p>
+ * Physical values are represented as Boolean, Integer, Long, Float, Double or byte[].
+ */
+public class ParquetColumn {
+
+    public enum LogicalType {
+        NONE,
+        STRING,
+        JSON,
+        ENUM,
+        UUID,
+        DECIMAL,
+        DATE,
+        TIME,
+        TIMESTAMP,
+        INTEGER
+    }
+
+    public enum TimeUnit {
+        MILLIS(1_000L),
+        MICROS(1_000_000L),
+        NANOS(1_000_000_000L);
+
+        private final long unitsPerSecond;
+
+        TimeUnit(long unitsPerSecond) {
+            this.unitsPerSecond = unitsPerSecond;
+        }
+    }
+
+    private static final int REPETITION_REQUIRED = 0;
+    private static final int REPETITION_OPTIONAL = 1;
+    private static final int REPETITION_REPEATED = 2;
+
+    private static final int CONVERTED_UTF8 = 0;
+    private static final int CONVERTED_ENUM = 4;
+    private static final int CONVERTED_DECIMAL = 5;
+    private static final int CONVERTED_DATE = 6;
+    private static final int CONVERTED_TIME_MILLIS = 7;
+    private static final int CONVERTED_TIME_MICROS = 8;
+    private static final int CONVERTED_TIMESTAMP_MILLIS = 9;
+    private static final int CONVERTED_TIMESTAMP_MICROS = 10;
+    private static final int CONVERTED_UINT_8 = 11;
+    private static final int CONVERTED_INT_64 = 18;
+    private static final int CONVERTED_JSON = 19;
+
+    private static final long JULIAN_EPOCH_DAY = 2_440_588L;
+    private static final long NANOS_PER_DAY = 86_400_000_000_000L;
+
+    @NotNull
+    private final String name;
+    @NotNull
+    private final ParquetType type;
+    private final int typeLength;
+    private final boolean required;
+    @NotNull
+    private final LogicalType logicalType;
+    @NotNull
+    private final TimeUnit timeUnit;
+    private final boolean adjustedToUTC;
+    private final int precision;
+    private final int scale;
+    private final int bitWidth;
+    private final boolean signed;
+
+    private ParquetColumn(
+        @NotNull String name,
+        @NotNull ParquetType type,
+        int typeLength,
+        boolean required,
+        @NotNull LogicalType logicalType,
+        @NotNull TimeUnit timeUnit,
+        boolean adjustedToUTC,
+        int precision,
+        int scale,
+        int bitWidth,
+        boolean signed
+    ) {
+        this.name = name;
+        this.type = type;
+        this.typeLength = typeLength;
+        this.required = required;
+        this.logicalType = logicalType;
+        this.timeUnit = timeUnit;
+        this.adjustedToUTC = adjustedToUTC;
+        this.precision = precision;
+        this.scale = scale;
+        this.bitWidth = bitWidth;
+        this.signed = signed;
+    }
+
+    /**
+     * Optional column of the specified physical type without logical type annotation
+     */
+    @NotNull
+    public static ParquetColumn primitive(@NotNull String name, @NotNull ParquetType type) {
+        return new ParquetColumn(name, type, 0, false, LogicalType.NONE, TimeUnit.MICROS, false, 0, 0, 0, true);
+    }
+
+    @NotNull
+    public static ParquetColumn string(@NotNull String name) {
+        return new ParquetColumn(name, ParquetType.BYTE_ARRAY, 0, false, LogicalType.STRING, TimeUnit.MICROS, false, 0, 0, 0, true);
+    }
+
+    /**
+     * Decimal column. Values with precision up to 18 are stored as INT64, bigger values as big-endian byte arrays.
+     */
+    @NotNull
+    public static ParquetColumn decimal(@NotNull String name, int precision, int scale) {
+        ParquetType type = precision <= 18 ? ParquetType.INT64 : ParquetType.BYTE_ARRAY;
+        return new ParquetColumn(name, type, 0, false, LogicalType.DECIMAL, TimeUnit.MICROS, false, precision, scale, 0, true);
+    }
+
+    @NotNull
+    public static ParquetColumn date(@NotNull String name) {
+        return new ParquetColumn(name, ParquetType.INT32, 0, false, LogicalType.DATE, TimeUnit.MICROS, false, 0, 0, 0, true);
+    }
+
+    @NotNull
+    public static ParquetColumn time(@NotNull String name) {
+        return new ParquetColumn(name, ParquetType.INT64, 0, false, LogicalType.TIME, TimeUnit.MICROS, false, 0, 0, 0, true);
+    }
+
+    @NotNull
+    public static ParquetColumn timestamp(@NotNull String name, boolean adjustedToUTC) {
+        return new ParquetColumn(name, ParquetType.INT64, 0, false, LogicalType.TIMESTAMP, TimeUnit.MICROS, adjustedToUTC, 0, 0, 0, true);
+    }
+
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    @NotNull
+    public ParquetType getType() {
+        return type;
+    }
+
+    public int getTypeLength() {
+        return typeLength;
+    }
+
+    public boolean isRequired() {
+        return required;
+    }
+
+    @NotNull
+    public LogicalType getLogicalType() {
+        return logicalType;
+    }
+
+    @NotNull
+    public TimeUnit getTimeUnit() {
+        return timeUnit;
+    }
+
+    public boolean isAdjustedToUTC() {
+        return adjustedToUTC;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public int getBitWidth() {
+        return bitWidth;
+    }
+
+    public boolean isSigned() {
+        return signed;
+    }
+
+    /**
+     * Writes SchemaElement. Both legacy converted type and logical type are written for compatibility with older readers.
+     */
+    void writeSchemaElement(@NotNull ParquetThriftWriter writer) {
+        writer.writeStructBegin();
+        writer.writeI32Field(1, type.getId());
+        if (type == ParquetType.FIXED_LEN_BYTE_ARRAY) {
+            writer.writeI32Field(2, typeLength);
+        }
+        writer.writeI32Field(3, required ? REPETITION_REQUIRED : REPETITION_OPTIONAL);
+        writer.writeStringField(4, name);
+        int convertedType = getConvertedType();
+        if (convertedType >= 0) {
+            writer.writeI32Field(6, convertedType);
+        }
+        if (logicalType == LogicalType.DECIMAL) {
+            writer.writeI32Field(7, scale);
+            writer.writeI32Field(8, precision);
+        }
+        if (logicalType != LogicalType.NONE) {
+            writer.writeStructFieldBegin(10);
+            switch (logicalType) {
+                case STRING -> writer.writeEmptyStructField(1);
+                case ENUM -> writer.writeEmptyStructField(4);
+                case DECIMAL -> {
+                    writer.writeStructFieldBegin(5);
+                    writer.writeI32Field(1, scale);
+                    writer.writeI32Field(2, precision);
+                    writer.writeStructEnd();
+                }
+                case DATE -> writer.writeEmptyStructField(6);
+                case TIME, TIMESTAMP -> {
+                    writer.writeStructFieldBegin(logicalType == LogicalType.TIME ? 7 : 8);
+                    writer.writeBoolField(1, adjustedToUTC);
+                    writer.writeStructFieldBegin(2);
+                    writer.writeEmptyStructField(timeUnit.ordinal() + 1);
+                    writer.writeStructEnd();
+                    writer.writeStructEnd();
+                }
+                case INTEGER -> {
+                    writer.writeStructFieldBegin(10);
+                    writer.writeByteField(1, (byte) bitWidth);
+                    writer.writeBoolField(2, signed);
+                    writer.writeStructEnd();
+                }
+                case JSON -> writer.writeEmptyStructField(12);
+                case UUID -> writer.writeEmptyStructField(14);
+                default -> {
+                    // No annotation
+                }
+            }
+            writer.writeStructEnd();
+        }
+        writer.writeStructEnd();
+    }
+
+    private int getConvertedType() {
+        switch (logicalType) {
+            case STRING:
+                return CONVERTED_UTF8;
+            case ENUM:
+                return CONVERTED_ENUM;
+            case JSON:
+                return CONVERTED_JSON;
+            case DECIMAL:
+                return CONVERTED_DECIMAL;
+            case DATE:
+                return CONVERTED_DATE;
+            case TIME:
+                // Converted types imply UTC normalization
+                if (adjustedToUTC && timeUnit != TimeUnit.NANOS) {
+                    return timeUnit == TimeUnit.MILLIS ? CONVERTED_TIME_MILLIS : CONVERTED_TIME_MICROS;
+                }
+                return -1;
+            case TIMESTAMP:
+                if (adjustedToUTC && timeUnit != TimeUnit.NANOS) {
+                    return timeUnit == TimeUnit.MILLIS ? CONVERTED_TIMESTAMP_MILLIS : CONVERTED_TIMESTAMP_MICROS;
+                }
+                return -1;
+            case INTEGER: {
+                if (bitWidth != 8 && bitWidth != 16 && bitWidth != 32 && bitWidth != 64) {
+                    return -1;
+                }
+                int sizeIndex = Integer.numberOfTrailingZeros(bitWidth) - 3;
+                return (signed ? CONVERTED_INT_64 - 3 : CONVERTED_UINT_8) + sizeIndex;
+            }
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Reads column from SchemaElement of the flat schema
+     */
+    @NotNull
+    static ParquetColumn readSchemaElement(@NotNull ParquetThriftReader.Struct element) throws IOException {
+        String name = element.getString(4);
+        if (name == null) {
+            throw new IOException("Parquet schema element without name");
+        }
+        ParquetType type = ParquetType.getById(element.getInt(1, -1));
+        if (type == null) {
+            throw new IOException("Nested Parquet schemas are not supported (group column '" + name + "')");
+        }
+        int repetition = element.getInt(3, REPETITION_OPTIONAL);
+        if (repetition == REPETITION_REPEATED) {
+            throw new IOException("Repeated Parquet columns are not supported (column '" + name + "')");
+        }
+        int typeLength = element.getInt(2, 0);
+
+        LogicalType logicalType = LogicalType.NONE;
+        TimeUnit timeUnit = TimeUnit.MICROS;
+        boolean adjustedToUTC = false;
+        int precision = element.getInt(8, 0);
+        int scale = element.getInt(7, 0);
+        int bitWidth = 0;
+        boolean signed = true;
+
+        ParquetThriftReader.Struct logical = element.getStruct(10);
+        if (logical != null) {
+            if (logical.has(1)) {
+                logicalType = LogicalType.STRING;
+            } else if (logical.has(4)) {
+                logicalType = LogicalType.ENUM;
+            } else if (logical.has(5)) {
+                logicalType = LogicalType.DECIMAL;
+                ParquetThriftReader.Struct decimal = logical.getStruct(5);
+                if (decimal != null) {
+                    scale = decimal.getInt(1, scale);
+                    precision = decimal.getInt(2, precision);
+                }
+            } else if (logical.has(6)) {
+                logicalType = LogicalType.DATE;
+            } else if (logical.has(7) || logical.has(8)) {
+                logicalType = logical.has(7) ? LogicalType.TIME : LogicalType.TIMESTAMP;
+                ParquetThriftReader.Struct time = logical.getStruct(logical.has(7) ? 7 : 8);
+                if (time != null) {
+                    adjustedToUTC = time.getBoolean(1, false);
+                    ParquetThriftReader.Struct unit = time.getStruct(2);
+                    if (unit != null) {
+                        timeUnit = unit.has(1) ? TimeUnit.MILLIS : unit.has(3) ? TimeUnit.NANOS : TimeUnit.MICROS;
+                    }
+                }
+            } else if (logical.has(10)) {
+                logicalType = LogicalType.INTEGER;
+                ParquetThriftReader.Struct integer = logical.getStruct(10);
+                if (integer != null) {
+                    bitWidth = integer.getInt(1, 0);
+                    signed = integer.getBoolean(2, true);
+                }
+            } else if (logical.has(12)) {
+                logicalType = LogicalType.JSON;
+            } else if (logical.has(14)) {
+                logicalType = LogicalType.UUID;
+            }
+        } else if (element.has(6)) {
+            int convertedType = element.getInt(6, -1);
+            switch (convertedType) {
+                case CONVERTED_UTF8 -> logicalType = LogicalType.STRING;
+                case CONVERTED_ENUM -> logicalType = LogicalType.ENUM;
+                case CONVERTED_JSON -> logicalType = LogicalType.JSON;
+                case CONVERTED_DECIMAL -> logicalType = LogicalType.DECIMAL;
+                case CONVERTED_DATE -> logicalType = LogicalType.DATE;
+                case CONVERTED_TIME_MILLIS, CONVERTED_TIME_MICROS -> {
+                    logicalType = LogicalType.TIME;
+                    timeUnit = convertedType == CONVERTED_TIME_MILLIS ? TimeUnit.MILLIS : TimeUnit.MICROS;
+                    adjustedToUTC = true;
+                }
+                case CONVERTED_TIMESTAMP_MILLIS, CONVERTED_TIMESTAMP_MICROS -> {
+                    logicalType = LogicalType.TIMESTAMP;
+                    timeUnit = convertedType == CONVERTED_TIMESTAMP_MILLIS ? TimeUnit.MILLIS : TimeUnit.MICROS;
+                    adjustedToUTC = true;
+                }
+                default -> {
+                    if (convertedType >= CONVERTED_UINT_8 && convertedType <= CONVERTED_INT_64) {
+                        logicalType = LogicalType.INTEGER;
+                        signed = convertedType > CONVERTED_INT_64 - 4;
+                        bitWidth = 8 << ((convertedType - CONVERTED_UINT_8) % 4);
+                    }
+                }
+            }
+        }
+        return new ParquetColumn(
+            name, type, typeLength, repetition == REPETITION_REQUIRED,
+            logicalType, timeUnit, adjustedToUTC, precision, scale, bitWidth, signed);
+    }
+
+    /**
+     * Converts Java value into the physical value of this column
+     */
+    @NotNull
+    Object toPhysical(@NotNull Object value) {
+        switch (logicalType) {
+            case STRING:
+            case JSON:
+            case ENUM:
+                return value instanceof byte[] ? value : value.toString().getBytes(StandardCharsets.UTF_8);
+            case UUID: {
+                UUID uuid = value instanceof UUID u ? u : UUID.fromString(value.toString());
+                return ByteBuffer.allocate(16)
+                    .putLong(uuid.getMostSignificantBits())
+                    .putLong(uuid.getLeastSignificantBits())
+                    .array();
+            }
+            case DECIMAL: {
+                BigInteger unscaled = StreamTransferUtils.toBigDecimal(value).setScale(scale, RoundingMode.HALF_UP).unscaledValue();
+                return switch (type) {
+                    case INT32 -> unscaled.intValue();
+                    case INT64 -> unscaled.longValue();
+                    case FIXED_LEN_BYTE_ARRAY -> toFixedLength(unscaled.toByteArray(), unscaled.signum() < 0);
+                    default -> unscaled.toByteArray();
+                };
+            }
+            case DATE:
+                return (int) StreamTransferUtils.toLocalDate(value).toEpochDay();
+            case TIME: {
+                long nanos = StreamTransferUtils.toLocalTime(value).toNanoOfDay();
+                long units = nanos / (TimeUnit.NANOS.unitsPerSecond / timeUnit.unitsPerSecond);
+                return type == ParquetType.INT32 ? (Object) (int) units : (Object) units;
+            }
+            case TIMESTAMP: {
+                Instant instant = StreamTransferUtils.toInstant(value, adjustedToUTC);
+                return Math.addExact(
+                    Math.multiplyExact(instant.getEpochSecond(), timeUnit.unitsPerSecond),
+                    instant.getNano() / (TimeUnit.NANOS.unitsPerSecond / timeUnit.unitsPerSecond));
+            }
+            default:
+                break;
+        }
+        switch (type) {
+            case BOOLEAN:
+                if (value instanceof Boolean) {
+                    return value;
+                } else if (value instanceof Number number) {
+                    return number.intValue() != 0;
+                }
+                return Boolean.parseBoolean(value.toString());
+            case INT32:
+                return Math.toIntExact(value instanceof Number number ? number.longValue() : StreamTransferUtils.toBigDecimal(value).longValueExact());
+            case INT64:
+                return value instanceof Number number ? number.longValue() : StreamTransferUtils.toBigDecimal(value).longValueExact();
+            case FLOAT:
+                return value instanceof Number number ? number.floatValue() : Float.parseFloat(value.toString());
+            case DOUBLE:
+                return value instanceof Number number ? number.doubleValue() : Double.parseDouble(value.toString());
+            default:
+                return value instanceof byte[] ? value : value.toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Converts physical value read from the file into the Java value
+     */
+    @Nullable
+    Object toLogical(@Nullable Object physical) {
+        if (physical == null) {
+            return null;
+        }
+        switch (logicalType) {
+            case STRING:
+            case JSON:
+            case ENUM:
+                return physical instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : physical.toString();
+            case UUID:
+                if (physical instanceof byte[] bytes && bytes.length == 16) {
+                    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                    return new UUID(buffer.getLong(), buffer.getLong()).toString();
+                }
+                return physical;
+            case DECIMAL:
+                if (physical instanceof byte[] bytes) {
+                    return new BigDecimal(bytes.length == 0 ? BigInteger.ZERO : new BigInteger(bytes), scale);
+                }
+                return BigDecimal.valueOf(((Number) physical).longValue(), scale);
+            case DATE:
+                return java.sql.Date.valueOf(LocalDate.ofEpochDay(((Number) physical).longValue()));
+            case TIME: {
+                long nanos = ((Number) physical).longValue() * (TimeUnit.NANOS.unitsPerSecond / timeUnit.unitsPerSecond);
+                LocalTime localTime = LocalTime.ofNanoOfDay(Math.floorMod(nanos, NANOS_PER_DAY));
+                return new Time(Timestamp.valueOf(LocalDateTime.of(LocalDate.EPOCH, localTime)).getTime());
+            }
+            case TIMESTAMP:
+                if (physical instanceof byte[] bytes) {
+                    return toTimestamp(int96ToInstant(bytes), adjustedToUTC);
+                }
+                long units = ((Number) physical).longValue();
+                return toTimestamp(
+                    Instant.ofEpochSecond(
+                        Math.floorDiv(units, timeUnit.unitsPerSecond),
+                        Math.floorMod(units, timeUnit.unitsPerSecond) * (TimeUnit.NANOS.unitsPerSecond / timeUnit.unitsPerSecond)),
+                    adjustedToUTC);
+            case INTEGER:
+                if (!signed && bitWidth == 32 && physical instanceof Integer intValue) {
+                    return Integer.toUnsignedLong(intValue);
+                } else if (!signed && bitWidth == 64 && physical instanceof Long longValue) {
+                    return new BigInteger(Long.toUnsignedString(longValue));
+                }
+                return physical;
+            default:
+                if (type == ParquetType.INT96 && physical instanceof byte[] bytes) {
+                    // Legacy timestamps (Hive, Impala, Spark) are always UTC-normalized
+                    return toTimestamp(int96ToInstant(bytes), true);
+                }
+                return physical;
+        }
+    }
+
+    @NotNull
+    private byte[] toFixedLength(@NotNull byte[] bytes, boolean negative) {
+        if (bytes.length == typeLength) {
+            return bytes;
+        }
+        byte[] result = new byte[typeLength];
+        int copyLength = Math.min(bytes.length, typeLength);
+        System.arraycopy(bytes, bytes.length - copyLength, result, typeLength - copyLength, copyLength);
+        if (negative) {
+            for (int i = 0; i < typeLength - copyLength; i++) {
+                result[i] = (byte) 0xFF;
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    private static Timestamp toTimestamp(@NotNull Instant instant, boolean adjustedToUTC) {
+        if (adjustedToUTC) {
+            return Timestamp.from(instant);
+        }
+        // Local timestamps keep wall clock time
+        return Timestamp.valueOf(LocalDateTime.ofEpochSecond(instant.getEpochSecond(), instant.getNano(), ZoneOffset.UTC));
+    }
+
+    @NotNull
+    private static Instant int96ToInstant(@NotNull byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(java.nio.ByteOrder.LITTLE_ENDIAN);
+        long nanosOfDay = buffer.getLong();
+        long julianDay = buffer.getInt() & 0xFFFFFFFFL;
+        return Instant.ofEpochSecond((julianDay - JULIAN_EPOCH_DAY) * 86_400L).plusNanos(nanosOfDay);
+    }
+
+    @Override
+    public String toString() {
+        return name + " " + type + (logicalType == LogicalType.NONE ? "" : " (" + logicalType + ")");
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Parquet value encodings: RLE/bit-packing hybrid (levels and dictionary indices) and little-endian helpers.
+ */
+final class ParquetEncoding {
+
+    static final int PLAIN = 0;
+    static final int PLAIN_DICTIONARY = 2;
+    static final int RLE = 3;
+    static final int BIT_PACKED = 4;
+    static final int RLE_DICTIONARY = 8;
+
+    static final int PAGE_DATA = 0;
+    static final int PAGE_DICTIONARY = 2;
+    static final int PAGE_DATA_V2 = 3;
+
+    private ParquetEncoding() {
+    }
+
+    /**
+     * Minimal number of bits required to store values in range [0, maxValue]
+     */
+    static int getBitWidth(int maxValue) {
+        return 32 - Integer.numberOfLeadingZeros(maxValue);
+    }
+
+    /**
+     * Encodes values with RLE/bit-packing hybrid encoding.
+     * Runs of 8 or more equal values are written as RLE runs, other values are bit-packed in groups of 8.
+     */
+    static void writeRleHybrid(@NotNull ByteArrayOutputStream out, @NotNull int[] values, int count, int bitWidth) {
+        int pendingStart = 0;
+        int i = 0;
+        while (i < count) {
+            int runEnd = i + 1;
+            while (runEnd < count && values[runEnd] == values[i]) {
+                runEnd++;
+            }
+            int runLength = runEnd - i;
+            if (runLength >= 8 && (i - pendingStart) % 8 == 0) {
+                writeBitPacked(out, values, pendingStart, i - pendingStart, bitWidth);
+                writeVarInt(out, runLength << 1);
+                writeRleValue(out, values[i], bitWidth);
+                i = runEnd;
+                pendingStart = i;
+            } else {
+                i++;
+            }
+        }
+        writeBitPacked(out, values, pendingStart, count - pendingStart, bitWidth);
+    }
+
+    private static void writeBitPacked(@NotNull ByteArrayOutputStream out, @NotNull int[] values, int offset, int count, int bitWidth) {
+        if (count == 0) {
+            return;
+        }
+        int groups = (count + 7) / 8;
+        writeVarInt(out, (groups << 1) | 1);
+        if (bitWidth == 0) {
+            return;
+        }
+        long accumulator = 0;
+        int accumulatedBits = 0;
+        for (int i = 0; i < groups * 8; i++) {
+            int value = i < count ? values[offset + i] : 0;
+            accumulator |= ((long) value & ((1L << bitWidth) - 1)) << accumulatedBits;
+            accumulatedBits += bitWidth;
+            while (accumulatedBits >= 8) {
+                out.write((int) (accumulator & 0xFF));
+                accumulator >>>= 8;
+                accumulatedBits -= 8;
+            }
+        }
+    }
+
+    private static void writeRleValue(@NotNull ByteArrayOutputStream out, int value, int bitWidth) {
+        int byteWidth = (bitWidth + 7) / 8;
+        for (int i = 0; i < byteWidth; i++) {
+            out.write((value >>> (i * 8)) & 0xFF);
+        }
+    }
+
+    /**
+     * Decodes {@code count} values encoded with RLE/bit-packing hybrid encoding.
+     * Reads at most {@code length} bytes from the buffer.
+     */
+    static void readRleHybrid(@NotNull ByteBuffer buffer, int length, int bitWidth, @NotNull int[] values, int count) throws IOException {
+        int end = buffer.position() + length;
+        int byteWidth = (bitWidth + 7) / 8;
+        int index = 0;
+        while (index < count) {
+            if (buffer.position() >= end) {
+                throw new IOException("Unexpected end of RLE data (" + index + " of " + count + " values read)");
+            }
+            int header = readVarInt(buffer);
+            if ((header & 1) == 0) {
+                int runLength = header >>> 1;
+                int value = 0;
+                for (int i = 0; i < byteWidth; i++) {
+                    value |= (buffer.get() & 0xFF) << (i * 8);
+                }
+                int runEnd = Math.min(count, index + runLength);
+                while (index < runEnd) {
+                    values[index++] = value;
+                }
+            } else {
+                int valueCount = (header >>> 1) * 8;
+                long accumulator = 0;
+                int accumulatedBits = 0;
+                int mask = bitWidth == 32 ? -1 : (1 << bitWidth) - 1;
+                for (int i = 0; i < valueCount; i++) {
+                    while (accumulatedBits < bitWidth) {
+                        accumulator |= (long) (buffer.get() & 0xFF) << accumulatedBits;
+                        accumulatedBits += 8;
+                    }
+                    int value = (int) (accumulator & mask);
+                    accumulator >>>= bitWidth;
+                    accumulatedBits -= bitWidth;
+                    if (index < count) {
+                        values[index++] = value;
+                    }
+                }
+            }
+        }
+        buffer.position(end);
+    }
+
+    static void writeVarInt(@NotNull ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    static int readVarInt(@NotNull ByteBuffer buffer) throws IOException {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffer.get();
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    static void writeIntLE(@NotNull ByteArrayOutputStream out, int value) {
+        out.write(value & 0xFF);
+        out.write((value >>> 8) & 0xFF);
+        out.write((value >>> 16) & 0xFF);
+        out.write((value >>> 24) & 0xFF);
+    }
+
+    static void writeLongLE(@NotNull ByteArrayOutputStream out, long value) {
+        for (int i = 0; i < 8; i++) {
+            out.write((int) (value >>> (i * 8)) & 0xFF);
+        }
+    }
+
+}
@@ -0,0 +1,365 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads Parquet files with flat schema.
+ * <p>
+ * File footer is read on open. Row groups are read one by one on demand,
+ * so memory consumption is limited by the row group size.
+ */
+public class ParquetFileReader implements Closeable {
+
+    private static final int FOOTER_TAIL_LENGTH = 8;
+
+    private final FileChannel channel;
+    private final List<ParquetColumn> columns = new ArrayList<>();
+    private final List<ParquetThriftReader.Struct> rowGroups = new ArrayList<>();
+    private final long rowCount;
+
+    public ParquetFileReader(@NotNull Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ParquetThriftReader.Struct metadata = readFooter();
+            List<?> schema = metadata.getList(2);
+            if (schema.isEmpty()) {
+                throw new IOException("Parquet file has no schema");
+            }
+            for (int i = 1; i < schema.size(); i++) {
+                ParquetThriftReader.Struct element = (ParquetThriftReader.Struct) schema.get(i);
+                if (element.getInt(5, 0) > 0) {
+                    throw new IOException("Nested Parquet schemas are not supported (group '" + element.getString(4) + "')");
+                }
+                columns.add(ParquetColumn.readSchemaElement(element));
+            }
+            for (Object rowGroup : metadata.getList(4)) {
+                rowGroups.add((ParquetThriftReader.Struct) rowGroup);
+            }
+            this.rowCount = metadata.getLong(3, 0);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @NotNull
+    public List<ParquetColumn> getColumns() {
+        return Collections.unmodifiableList(columns);
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public int getRowGroupCount() {
+        return rowGroups.size();
+    }
+
+    /**
+     * Reads row group. Returns values as array of columns, each column holds values of all rows of the group.
+     */
+    @NotNull
+    public Object[][] readRowGroup(int index) throws IOException {
+        ParquetThriftReader.Struct rowGroup = rowGroups.get(index);
+        int numRows = Math.toIntExact(rowGroup.getLong(3, 0));
+        List<?> chunks = rowGroup.getList(1);
+        if (chunks.size() != columns.size()) {
+            throw new IOException("Row group " + index + " has " + chunks.size() + " columns (expected " + columns.size() + ")");
+        }
+        Object[][] result = new Object[columns.size()][];
+        for (int i = 0; i < columns.size(); i++) {
+            result[i] = readColumnChunk(columns.get(i), (ParquetThriftReader.Struct) chunks.get(i), numRows);
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @NotNull
+    private ParquetThriftReader.Struct readFooter() throws IOException {
+        long fileSize = channel.size();
+        if (fileSize < ParquetFileWriter.MAGIC.length + FOOTER_TAIL_LENGTH) {
+            throw new IOException("File is too small to be a Parquet file");
+        }
+        ByteBuffer head = readFully(0, ParquetFileWriter.MAGIC.length);
+        ByteBuffer tail = readFully(fileSize - FOOTER_TAIL_LENGTH, FOOTER_TAIL_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        int footerLength = tail.getInt();
+        byte[] tailMagic = new byte[ParquetFileWriter.MAGIC.length];
+        tail.get(tailMagic);
+        if (!Arrays.equals(tailMagic, ParquetFileWriter.MAGIC) || !Arrays.equals(head.array(), ParquetFileWriter.MAGIC)) {
+            throw new IOException("Not a Parquet file (bad magic)");
+        }
+        if (footerLength <= 0 || footerLength > fileSize - FOOTER_TAIL_LENGTH - ParquetFileWriter.MAGIC.length) {
+            throw new IOException("Bad Parquet footer length: " + footerLength);
+        }
+        ByteBuffer footer = readFully(fileSize - FOOTER_TAIL_LENGTH - footerLength, footerLength);
+        return new ParquetThriftReader(footer).readStruct();
+    }
+
+    @NotNull
+    private Object[] readColumnChunk(@NotNull ParquetColumn column, @NotNull ParquetThriftReader.Struct chunk, int numRows) throws IOException {
+        if (chunk.getString(1) != null) {
+            throw new IOException("Column chunks in external files are not supported");
+        }
+        ParquetThriftReader.Struct meta = chunk.getStruct(3);
+        if (meta == null) {
+            throw new IOException("Column chunk of '" + column.getName() + "' has no metadata");
+        }
+        ParquetCodec codec = ParquetCodec.getById(meta.getInt(4, 0));
+        if (codec == null) {
+            throw new IOException("Unsupported Parquet compression codec " + meta.getInt(4, 0) + " (column '" + column.getName() + "')");
+        }
+        long dataPageOffset = meta.getLong(9, 0);
+        long dictionaryPageOffset = meta.getLong(11, 0);
+        // Some writers put garbage into dictionary offset, so it is validated against data offset
+        long chunkOffset = dictionaryPageOffset > 0 && dictionaryPageOffset < dataPageOffset ? dictionaryPageOffset : dataPageOffset;
+        long compressedSize = meta.getLong(7, 0);
+        if (compressedSize <= 0 || compressedSize > Integer.MAX_VALUE) {
+            throw new IOException("Bad column chunk size: " + compressedSize);
+        }
+        long valueCount = meta.getLong(5, 0);
+        ByteBuffer buffer = readFully(chunkOffset, (int) compressedSize);
+
+        Object[] values = new Object[numRows];
+        Object[] dictionary = null;
+        int valueIndex = 0;
+        try {
+            while (valueIndex < valueCount && buffer.hasRemaining()) {
+                ParquetThriftReader.Struct header = new ParquetThriftReader(buffer).readStruct();
+                int pageType = header.getInt(1, -1);
+                int uncompressedSize = header.getInt(2, 0);
+                int pageCompressedSize = header.getInt(3, 0);
+                if (pageCompressedSize < 0 || pageCompressedSize > buffer.remaining()) {
+                    throw new IOException("Bad page size: " + pageCompressedSize);
+                }
+                byte[] pageData = new byte[pageCompressedSize];
+                buffer.get(pageData);
+                switch (pageType) {
+                    case ParquetEncoding.PAGE_DICTIONARY -> {
+                        ParquetThriftReader.Struct dictionaryHeader = header.getStruct(7);
+                        int dictionarySize = dictionaryHeader == null ? 0 : dictionaryHeader.getInt(1, 0);
+                        ByteBuffer data = ByteBuffer.wrap(codec.decompress(pageData, uncompressedSize));
+                        dictionary = new Object[dictionarySize];
+                        readPlainValues(column, data, dictionary, dictionarySize);
+                    }
+                    case ParquetEncoding.PAGE_DATA -> {
+                        ParquetThriftReader.Struct dataHeader = header.getStruct(5);
+                        if (dataHeader == null) {
+                            throw new IOException("Data page without header");
+                        }
+                        int pageValues = dataHeader.getInt(1, 0);
+                        ByteBuffer data = ByteBuffer.wrap(codec.decompress(pageData, uncompressedSize));
+                        int[] definitionLevels = null;
+                        if (!column.isRequired()) {
+                            int levelsEncoding = dataHeader.getInt(3, ParquetEncoding.RLE);
+                            if (levelsEncoding != ParquetEncoding.RLE) {
+                                throw new IOException("Unsupported definition levels encoding: " + levelsEncoding);
+                            }
+                            int levelsLength = data.order(ByteOrder.LITTLE_ENDIAN).getInt();
+                            definitionLevels = new int[pageValues];
+                            ParquetEncoding.readRleHybrid(data, levelsLength, 1, definitionLevels, pageValues);
+                        }
+                        readPageValues(column, data, dataHeader.getInt(2, ParquetEncoding.PLAIN), dictionary, values, valueIndex, definitionLevels, pageValues);
+                        valueIndex += pageValues;
+                    }
+                    case ParquetEncoding.PAGE_DATA_V2 -> {
+                        ParquetThriftReader.Struct dataHeader = header.getStruct(8);
+                        if (dataHeader == null) {
+                            throw new IOException("Data page without header");
+                        }
+                        int pageValues = dataHeader.getInt(1, 0);
+                        int levelsLength = dataHeader.getInt(5, 0);
+                        int repetitionLength = dataHeader.getInt(6, 0);
+                        ByteBuffer levels = ByteBuffer.wrap(pageData, repetitionLength, levelsLength).slice();
+                        int[] definitionLevels = null;
+                        if (!column.isRequired()) {
+                            definitionLevels = new int[pageValues];
+                            ParquetEncoding.readRleHybrid(levels, levelsLength, 1, definitionLevels, pageValues);
+                        }
+                        // In v2 pages levels are never compressed
+                        int levelsSize = repetitionLength + levelsLength;
+                        byte[] valuesData = Arrays.copyOfRange(pageData, levelsSize, pageData.length);
+                        if (dataHeader.getBoolean(7, true)) {
+                            valuesData = codec.decompress(valuesData, uncompressedSize - levelsSize);
+                        }
+                        readPageValues(column, ByteBuffer.wrap(valuesData), dataHeader.getInt(4, ParquetEncoding.PLAIN), dictionary, values, valueIndex, definitionLevels, pageValues);
+                        valueIndex += pageValues;
+                    }
+                    default -> {
+                        // Index pages and unknown page types are skipped
+                    }
+                }
+                if (valueIndex > numRows) {
+                    throw new IOException("Column '" + column.getName() + "' has more values than rows in row group");
+                }
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | ClassCastException e) {
+            throw new IOException("Corrupted column chunk of '" + column.getName() + "'", e);
+        }
+        if (valueIndex != numRows) {
+            throw new IOException("Column '" + column.getName() + "' has " + valueIndex + " values (expected " + numRows + ")");
+        }
+        for (int i = 0; i < values.length; i++) {
+            values[i] = column.toLogical(values[i]);
+        }
+        return values;
+    }
+
+    private void readPageValues(
+        @NotNull ParquetColumn column,
+        @NotNull ByteBuffer data,
+        int encoding,
+        @Nullable Object[] dictionary,
+        @NotNull Object[] values,
+        int offset,
+        @Nullable int[] definitionLevels,
+        int count
+    ) throws IOException {
+        int nonNullCount = count;
+        if (definitionLevels != null) {
+            nonNullCount = 0;
+            for (int i = 0; i < count; i++) {
+                nonNullCount += definitionLevels[i];
+            }
+        }
+        Object[] pageValues = new Object[nonNullCount];
+        switch (encoding) {
+            case ParquetEncoding.PLAIN -> readPlainValues(column, data, pageValues, nonNullCount);
+            case ParquetEncoding.PLAIN_DICTIONARY, ParquetEncoding.RLE_DICTIONARY -> {
+                if (dictionary == null) {
+                    throw new IOException("Dictionary page is missing (column '" + column.getName() + "')");
+                }
+                int[] indices = new int[nonNullCount];
+                if (nonNullCount > 0) {
+                    int bitWidth = data.get() & 0xFF;
+                    ParquetEncoding.readRleHybrid(data, data.remaining(), bitWidth, indices, nonNullCount);
+                }
+                for (int i = 0; i < nonNullCount; i++) {
+                    pageValues[i] = dictionary[indices[i]];
+                }
+            }
+            case ParquetEncoding.RLE -> {
+                if (column.getType() != ParquetType.BOOLEAN) {
+                    throw new IOException("RLE encoding is not supported for " + column.getType());
+                }
+                int length = data.order(ByteOrder.LITTLE_ENDIAN).getInt();
+                int[] bits = new int[nonNullCount];
+                ParquetEncoding.readRleHybrid(data, length, 1, bits, nonNullCount);
+                for (int i = 0; i < nonNullCount; i++) {
+                    pageValues[i] = bits[i] != 0;
+                }
+            }
+            default -> throw new IOException("Unsupported Parquet encoding " + encoding + " (column '" + column.getName() + "')");
+        }
+        for (int i = 0, valueIndex = 0; i < count; i++) {
+            if (definitionLevels == null || definitionLevels[i] != 0) {
+                values[offset + i] = pageValues[valueIndex++];
+            }
+        }
+    }
+
+    private static void readPlainValues(
+        @NotNull ParquetColumn column,
+        @NotNull ByteBuffer data,
+        @NotNull Object[] values,
+        int count
+    ) throws IOException {
+        data.order(ByteOrder.LITTLE_ENDIAN);
+        switch (column.getType()) {
+            case BOOLEAN -> {
+                int current = 0;
+                for (int i = 0; i < count; i++) {
+                    if (i % 8 == 0) {
+                        current = data.get();
+                    }
+                    values[i] = ((current >>> (i % 8)) & 1) != 0;
+                }
+            }
+            case INT32 -> {
+                for (int i = 0; i < count; i++) {
+                    values[i] = data.getInt();
+                }
+            }
+            case INT64 -> {
+                for (int i = 0; i < count; i++) {
+                    values[i] = data.getLong();
+                }
+            }
+            case FLOAT -> {
+                for (int i = 0; i < count; i++) {
+                    values[i] = data.getFloat();
+                }
+            }
+            case DOUBLE -> {
+                for (int i = 0; i < count; i++) {
+                    values[i] = data.getDouble();
+                }
+            }
+            case BYTE_ARRAY -> {
+                for (int i = 0; i < count; i++) {
+                    int length = data.getInt();
+                    if (length < 0 || length > data.remaining()) {
+                        throw new IOException("Bad byte array length: " + length);
+                    }
+                    byte[] bytes = new byte[length];
+                    data.get(bytes);
+                    values[i] = bytes;
+                }
+            }
+            default -> {
+                int length = column.getType() == ParquetType.INT96 ? 12 : column.getTypeLength();
+                for (int i = 0; i < count; i++) {
+                    byte[] bytes = new byte[length];
+                    data.get(bytes);
+                    values[i] = bytes;
+                }
+            }
+        }
+    }
+
+    @NotNull
+    private ByteBuffer readFully(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of Parquet file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
@@ -0,0 +1,483 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Writes rows into Parquet file.
+ * <p>
+ * Rows are buffered column by column. When buffered data exceeds the row group size,
+ * all column chunks are flushed into the output stream. Each column chunk consists of
+ * an optional dictionary page followed by v1 data pages. Dictionary encoding is used
+ * until the dictionary grows too big, after that the rest of the chunk is PLAIN-encoded.
+ * <p>
+ * Only flat schemas (no nested or repeated columns) are supported.
+ */
+public class ParquetFileWriter {
+
+    public static final long DEFAULT_ROW_GROUP_SIZE = 64L * 1024 * 1024;
+    public static final int DEFAULT_PAGE_SIZE = 1024 * 1024;
+
+    static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int MAX_DICTIONARY_SIZE = 1024 * 1024;
+    private static final int FILE_FORMAT_VERSION = 1;
+
+    private final OutputStream out;
+    private final List<ParquetColumn> columns;
+    private final ParquetCodec codec;
+    private final long rowGroupSize;
+    private final int pageSize;
+    private final Map<String, String> keyValueMetadata;
+    private final ColumnChunkWriter[] chunkWriters;
+    private final List<RowGroupInfo> rowGroups = new ArrayList<>();
+
+    private long position;
+    private long rowGroupRows;
+    private long totalRows;
+    private boolean finished;
+
+    public ParquetFileWriter(
+        @NotNull OutputStream out,
+        @NotNull List<ParquetColumn> columns,
+        @NotNull ParquetCodec codec,
+        long rowGroupSize,
+        int pageSize,
+        boolean useDictionary,
+        @Nullable Map<String, String> keyValueMetadata
+    ) throws IOException {
+        if (columns.isEmpty()) {
+            throw new IOException("Parquet file must have at least one column");
+        }
+        this.out = out;
+        this.columns = new ArrayList<>(columns);
+        this.codec = codec;
+        this.rowGroupSize = rowGroupSize > 0 ? rowGroupSize : DEFAULT_ROW_GROUP_SIZE;
+        this.pageSize = pageSize > 0 ? pageSize : DEFAULT_PAGE_SIZE;
+        this.keyValueMetadata = keyValueMetadata == null ? Collections.emptyMap() : keyValueMetadata;
+        this.chunkWriters = new ColumnChunkWriter[columns.size()];
+        for (int i = 0; i < chunkWriters.length; i++) {
+            ParquetColumn column = columns.get(i);
+            chunkWriters[i] = new ColumnChunkWriter(column, useDictionary && column.getType() != ParquetType.BOOLEAN);
+        }
+        write(MAGIC);
+    }
+
+    /**
+     * Writes row. Values are Java objects which are converted according to column logical types.
+     */
+    public void writeRow(@NotNull Object[] values) throws IOException {
+        if (finished) {
+            throw new IOException("Parquet file is already finished");
+        }
+        long bufferedSize = 0;
+        for (int i = 0; i < chunkWriters.length; i++) {
+            Object value = i < values.length ? values[i] : null;
+            ColumnChunkWriter chunkWriter = chunkWriters[i];
+            chunkWriter.add(value == null ? null : chunkWriter.column.toPhysical(value));
+            bufferedSize += chunkWriter.getBufferedSize();
+        }
+        rowGroupRows++;
+        totalRows++;
+        if (bufferedSize >= rowGroupSize) {
+            flushRowGroup();
+        }
+    }
+
+    /**
+     * Flushes buffered rows and writes file footer. Doesn't close the underlying stream.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        if (rowGroupRows > 0) {
+            flushRowGroup();
+        }
+        ParquetThriftWriter footer = new ParquetThriftWriter();
+        footer.writeStructBegin();
+        footer.writeI32Field(1, FILE_FORMAT_VERSION);
+        footer.writeListFieldBegin(2, ParquetThriftWriter.TYPE_STRUCT, columns.size() + 1);
+        {
+            // Root element
+            footer.writeStructBegin();
+            footer.writeStringField(4, "schema");
+            footer.writeI32Field(5, columns.size());
+            footer.writeStructEnd();
+        }
+        for (ParquetColumn column : columns) {
+            column.writeSchemaElement(footer);
+        }
+        footer.writeI64Field(3, totalRows);
+        footer.writeListFieldBegin(4, ParquetThriftWriter.TYPE_STRUCT, rowGroups.size());
+        for (RowGroupInfo rowGroup : rowGroups) {
+            rowGroup.write(footer);
+        }
+        if (!keyValueMetadata.isEmpty()) {
+            footer.writeListFieldBegin(5, ParquetThriftWriter.TYPE_STRUCT, keyValueMetadata.size());
+            for (Map.Entry<String, String> entry : keyValueMetadata.entrySet()) {
+                footer.writeStructBegin();
+                footer.writeStringField(1, entry.getKey());
+                footer.writeStringField(2, entry.getValue());
+                footer.writeStructEnd();
+            }
+        }
+        footer.writeStringField(6, "DBeaver");
+        footer.writeStructEnd();
+
+        byte[] footerBytes = footer.toByteArray();
+        write(footerBytes);
+        ByteArrayOutputStream tail = new ByteArrayOutputStream(8);
+        ParquetEncoding.writeIntLE(tail, footerBytes.length);
+        tail.write(MAGIC, 0, MAGIC.length);
+        write(tail.toByteArray());
+        out.flush();
+        finished = true;
+    }
+
+    public long getRowCount() {
+        return totalRows;
+    }
+
+    private void flushRowGroup() throws IOException {
+        RowGroupInfo rowGroup = new RowGroupInfo(rowGroupRows, position);
+        for (ColumnChunkWriter chunkWriter : chunkWriters) {
+            rowGroup.chunks.add(chunkWriter.flush());
+        }
+        rowGroups.add(rowGroup);
+        rowGroupRows = 0;
+    }
+
+    private void write(@NotNull byte[] bytes) throws IOException {
+        out.write(bytes);
+        position += bytes.length;
+    }
+
+    private class ColumnChunkWriter {
+        private final ParquetColumn column;
+        private final boolean optional;
+        private final List<byte[]> pages = new ArrayList<>();
+        private final Set<Integer> encodings = new LinkedHashSet<>();
+
+        private boolean useDictionary;
+        private Map<Object, Integer> dictionary;
+        private ByteArrayOutputStream dictionaryValues;
+        private int[] dictionaryIndices;
+
+        // Current page
+        private int[] definitionLevels = new int[1024];
+        private final ByteArrayOutputStream plainValues = new ByteArrayOutputStream();
+        private int pageValueCount;
+        private int pageNonNullCount;
+        private int booleanBits;
+        private int booleanBitCount;
+
+        private long chunkValueCount;
+        private long chunkUncompressedSize;
+        private long chunkCompressedSize;
+        private long pagesSize;
+
+        ColumnChunkWriter(@NotNull ParquetColumn column, boolean useDictionary) {
+            this.column = column;
+            this.optional = !column.isRequired();
+            this.useDictionary = useDictionary;
+            resetDictionary();
+        }
+
+        long getBufferedSize() {
+            return pagesSize + getPageSize() + (dictionaryValues == null ? 0 : dictionaryValues.size());
+        }
+
+        private int getPageSize() {
+            return useDictionary ? pageNonNullCount * 4 + pageValueCount / 8 : plainValues.size() + pageValueCount / 8;
+        }
+
+        void add(@Nullable Object value) throws IOException {
+            if (value == null && !optional) {
+                throw new IOException("Null value in required column '" + column.getName() + "'");
+            }
+            if (value != null && useDictionary && dictionaryValues.size() >= MAX_DICTIONARY_SIZE
+                && !dictionary.containsKey(getDictionaryKey(value)))
+            {
+                // Dictionary is too big. Write collected indices and switch to plain encoding for the rest of the chunk.
+                flushPage();
+                useDictionary = false;
+            }
+            if (pageValueCount == definitionLevels.length) {
+                definitionLevels = Arrays.copyOf(definitionLevels, definitionLevels.length * 2);
+            }
+            definitionLevels[pageValueCount++] = value == null ? 0 : 1;
+            if (value != null) {
+                if (useDictionary) {
+                    addDictionaryValue(value);
+                } else {
+                    writePlainValue(plainValues, value);
+                }
+                pageNonNullCount++;
+            }
+            if (getPageSize() >= pageSize) {
+                flushPage();
+            }
+        }
+
+        private void addDictionaryValue(@NotNull Object value) {
+            Object key = getDictionaryKey(value);
+            Integer index = dictionary.get(key);
+            if (index == null) {
+                index = dictionary.size();
+                dictionary.put(key, index);
+                writePlainValue(dictionaryValues, value);
+            }
+            if (pageNonNullCount == dictionaryIndices.length) {
+                dictionaryIndices = Arrays.copyOf(dictionaryIndices, dictionaryIndices.length * 2);
+            }
+            dictionaryIndices[pageNonNullCount] = index;
+        }
+
+        @NotNull
+        private Object getDictionaryKey(@NotNull Object value) {
+            return value instanceof byte[] bytes ? ByteBuffer.wrap(bytes) : value;
+        }
+
+        private void writePlainValue(@NotNull ByteArrayOutputStream buffer, @NotNull Object value) {
+            switch (column.getType()) {
+                case BOOLEAN -> {
+                    if ((Boolean) value) {
+                        booleanBits |= 1 << booleanBitCount;
+                    }
+                    if (++booleanBitCount == 8) {
+                        buffer.write(booleanBits);
+                        booleanBits = 0;
+                        booleanBitCount = 0;
+                    }
+                }
+                case INT32 -> ParquetEncoding.writeIntLE(buffer, (Integer) value);
+                case INT64 -> ParquetEncoding.writeLongLE(buffer, (Long) value);
+                case FLOAT -> ParquetEncoding.writeIntLE(buffer, Float.floatToIntBits((Float) value));
+                case DOUBLE -> ParquetEncoding.writeLongLE(buffer, Double.doubleToLongBits((Double) value));
+                case BYTE_ARRAY -> {
+                    byte[] bytes = (byte[]) value;
+                    ParquetEncoding.writeIntLE(buffer, bytes.length);
+                    buffer.write(bytes, 0, bytes.length);
+                }
+                default -> {
+                    // INT96 and FIXED_LEN_BYTE_ARRAY
+                    byte[] bytes = (byte[]) value;
+                    buffer.write(bytes, 0, bytes.length);
+                }
+            }
+        }
+
+        private void flushPage() throws IOException {
+            if (pageValueCount == 0) {
+                return;
+            }
+            ByteArrayOutputStream page = new ByteArrayOutputStream(getPageSize() + 16);
+            if (optional) {
+                ByteArrayOutputStream levels = new ByteArrayOutputStream(pageValueCount / 8 + 8);
+                ParquetEncoding.writeRleHybrid(levels, definitionLevels, pageValueCount, 1);
+                ParquetEncoding.writeIntLE(page, levels.size());
+                levels.writeTo(page);
+            }
+            int encoding;
+            if (useDictionary) {
+                encoding = ParquetEncoding.RLE_DICTIONARY;
+                int bitWidth = ParquetEncoding.getBitWidth(Math.max(0, dictionary.size() - 1));
+                page.write(bitWidth);
+                ParquetEncoding.writeRleHybrid(page, dictionaryIndices, pageNonNullCount, bitWidth);
+            } else {
+                encoding = ParquetEncoding.PLAIN;
+                if (booleanBitCount > 0) {
+                    plainValues.write(booleanBits);
+                    booleanBits = 0;
+                    booleanBitCount = 0;
+                }
+                plainValues.writeTo(page);
+            }
+            encodings.add(encoding);
+
+            addPage(ParquetEncoding.PAGE_DATA, page.toByteArray(), pageValueCount, encoding);
+
+            chunkValueCount += pageValueCount;
+            pageValueCount = 0;
+            pageNonNullCount = 0;
+            plainValues.reset();
+        }
+
+        /**
+         * Compresses page and prepends page header
+         */
+        private void addPage(int pageType, @NotNull byte[] data, int valueCount, int encoding) throws IOException {
+            byte[] compressed = codec.compress(data);
+            ParquetThriftWriter header = new ParquetThriftWriter();
+            header.writeStructBegin();
+            header.writeI32Field(1, pageType);
+            header.writeI32Field(2, data.length);
+            header.writeI32Field(3, compressed.length);
+            if (pageType == ParquetEncoding.PAGE_DICTIONARY) {
+                header.writeStructFieldBegin(7);
+                header.writeI32Field(1, valueCount);
+                header.writeI32Field(2, encoding);
+            } else {
+                header.writeStructFieldBegin(5);
+                header.writeI32Field(1, valueCount);
+                header.writeI32Field(2, encoding);
+                header.writeI32Field(3, ParquetEncoding.RLE);
+                header.writeI32Field(4, ParquetEncoding.RLE);
+            }
+            header.writeStructEnd();
+            header.writeStructEnd();
+            byte[] headerBytes = header.toByteArray();
+
+            byte[] pageBytes = new byte[headerBytes.length + compressed.length];
+            System.arraycopy(headerBytes, 0, pageBytes, 0, headerBytes.length);
+            System.arraycopy(compressed, 0, pageBytes, headerBytes.length, compressed.length);
+            pages.add(pageBytes);
+            pagesSize += pageBytes.length;
+            chunkUncompressedSize += headerBytes.length + data.length;
+            chunkCompressedSize += pageBytes.length;
+        }
+
+        @NotNull
+        ColumnChunkInfo flush() throws IOException {
+            flushPage();
+            ColumnChunkInfo chunk = new ColumnChunkInfo(column, codec);
+            long chunkStart = position;
+            if (dictionary != null && !dictionary.isEmpty()) {
+                // Dictionary page goes first, so it is written after data pages are complete
+                List<byte[]> dataPages = new ArrayList<>(pages);
+                long dataPagesSize = pagesSize;
+                pages.clear();
+                pagesSize = 0;
+                addPage(ParquetEncoding.PAGE_DICTIONARY, dictionaryValues.toByteArray(), dictionary.size(), ParquetEncoding.PLAIN);
+                encodings.add(ParquetEncoding.PLAIN);
+                chunk.dictionaryPageOffset = chunkStart;
+                pages.addAll(dataPages);
+                pagesSize += dataPagesSize;
+            }
+            chunk.dataPageOffset = chunk.dictionaryPageOffset > 0 ? chunkStart + pages.get(0).length : chunkStart;
+            for (byte[] page : pages) {
+                write(page);
+            }
+            encodings.add(ParquetEncoding.RLE);
+            chunk.encodings.addAll(encodings);
+            chunk.valueCount = chunkValueCount;
+            chunk.uncompressedSize = chunkUncompressedSize;
+            chunk.compressedSize = chunkCompressedSize;
+
+            pages.clear();
+            encodings.clear();
+            pagesSize = 0;
+            chunkValueCount = 0;
+            chunkUncompressedSize = 0;
+            chunkCompressedSize = 0;
+            useDictionary = dictionary != null;
+            resetDictionary();
+            return chunk;
+        }
+
+        private void resetDictionary() {
+            if (useDictionary) {
+                dictionary = new HashMap<>();
+                dictionaryValues = new ByteArrayOutputStream();
+                dictionaryIndices = new int[1024];
+            } else {
+                dictionary = null;
+                dictionaryValues = null;
+                dictionaryIndices = null;
+            }
+        }
+    }
+
+    private static class ColumnChunkInfo {
+        private final ParquetColumn column;
+        private final ParquetCodec codec;
+        private final Set<Integer> encodings = new LinkedHashSet<>();
+        private long valueCount;
+        private long uncompressedSize;
+        private long compressedSize;
+        private long dataPageOffset;
+        private long dictionaryPageOffset;
+
+        ColumnChunkInfo(@NotNull ParquetColumn column, @NotNull ParquetCodec codec) {
+            this.column = column;
+            this.codec = codec;
+        }
+
+        void write(@NotNull ParquetThriftWriter writer) {
+            writer.writeStructBegin();
+            writer.writeI64Field(2, dictionaryPageOffset > 0 ? dictionaryPageOffset : dataPageOffset);
+            writer.writeStructFieldBegin(3);
+            writer.writeI32Field(1, column.getType().getId());
+            writer.writeListFieldBegin(2, ParquetThriftWriter.TYPE_I32, encodings.size());
+            for (Integer encoding : encodings) {
+                writer.writeI32(encoding);
+            }
+            writer.writeListFieldBegin(3, ParquetThriftWriter.TYPE_BINARY, 1);
+            writer.writeString(column.getName());
+            writer.writeI32Field(4, codec.getId());
+            writer.writeI64Field(5, valueCount);
+            writer.writeI64Field(6, uncompressedSize);
+            writer.writeI64Field(7, compressedSize);
+            writer.writeI64Field(9, dataPageOffset);
+            if (dictionaryPageOffset > 0) {
+                writer.writeI64Field(11, dictionaryPageOffset);
+            }
+            writer.writeStructEnd();
+            writer.writeStructEnd();
+        }
+    }
+
+    private static class RowGroupInfo {
+        private final long rowCount;
+        private final long fileOffset;
+        private final List<ColumnChunkInfo> chunks = new ArrayList<>();
+
+        RowGroupInfo(long rowCount, long fileOffset) {
+            this.rowCount = rowCount;
+            this.fileOffset = fileOffset;
+        }
+
+        void write(@NotNull ParquetThriftWriter writer) {
+            long totalUncompressed = 0;
+            long totalCompressed = 0;
+            for (ColumnChunkInfo chunk : chunks) {
+                totalUncompressed += chunk.uncompressedSize;
+                totalCompressed += chunk.compressedSize;
+            }
+            writer.writeStructBegin();
+            writer.writeListFieldBegin(1, ParquetThriftWriter.TYPE_STRUCT, chunks.size());
+            for (ColumnChunkInfo chunk : chunks) {
+                chunk.write(writer);
+            }
+            writer.writeI64Field(2, totalUncompressed);
+            writer.writeI64Field(3, rowCount);
+            writer.writeI64Field(5, fileOffset);
+            writer.writeI64Field(6, totalCompressed);
+            writer.writeStructEnd();
+        }
+    }
+}
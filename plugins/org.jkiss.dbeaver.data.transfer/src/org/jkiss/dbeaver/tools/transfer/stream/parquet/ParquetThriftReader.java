@@ -0,0 +1,221 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetThriftWriter.*;
+
+/**
+ * Minimal Thrift compact protocol reader.
+ * Reads structs into generic field maps, unknown fields are kept and simply ignored by callers.
+ */
+class ParquetThriftReader {
+
+    private static final int MAX_NESTING_DEPTH = 64;
+
+    private final ByteBuffer buffer;
+
+    ParquetThriftReader(@NotNull ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Reads struct from the current buffer position. Buffer position is moved after the struct end.
+     */
+    @NotNull
+    Struct readStruct() throws IOException {
+        try {
+            return readStruct(0);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Unexpected end of Thrift data", e);
+        }
+    }
+
+    @NotNull
+    private Struct readStruct(int depth) throws IOException {
+        if (depth > MAX_NESTING_DEPTH) {
+            throw new IOException("Thrift structure is too deep");
+        }
+        Struct struct = new Struct();
+        short lastFieldId = 0;
+        for (;;) {
+            int header = buffer.get() & 0xFF;
+            byte type = (byte) (header & 0x0F);
+            if (type == TYPE_STOP) {
+                break;
+            }
+            int delta = header >>> 4;
+            short fieldId;
+            if (delta != 0) {
+                fieldId = (short) (lastFieldId + delta);
+            } else {
+                fieldId = (short) unzigzag32((int) readVarLong());
+            }
+            lastFieldId = fieldId;
+            Object value;
+            if (type == TYPE_BOOLEAN_TRUE) {
+                value = Boolean.TRUE;
+            } else if (type == TYPE_BOOLEAN_FALSE) {
+                value = Boolean.FALSE;
+            } else {
+                value = readValue(type, depth);
+            }
+            struct.fields.put(fieldId, value);
+        }
+        return struct;
+    }
+
+    @Nullable
+    private Object readValue(byte type, int depth) throws IOException {
+        switch (type) {
+            case TYPE_BOOLEAN_TRUE:
+            case TYPE_BOOLEAN_FALSE:
+                // Element of collection
+                return buffer.get() == TYPE_BOOLEAN_TRUE;
+            case TYPE_BYTE:
+                return buffer.get();
+            case TYPE_I16:
+            case TYPE_I32:
+                return unzigzag32((int) readVarLong());
+            case TYPE_I64:
+                return unzigzag64(readVarLong());
+            case TYPE_DOUBLE: {
+                long bits = 0;
+                for (int i = 0; i < 8; i++) {
+                    bits |= (long) (buffer.get() & 0xFF) << (i * 8);
+                }
+                return Double.longBitsToDouble(bits);
+            }
+            case TYPE_BINARY: {
+                int length = (int) readVarLong();
+                if (length < 0 || length > buffer.remaining()) {
+                    throw new IOException("Bad Thrift binary length: " + length);
+                }
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                return bytes;
+            }
+            case TYPE_LIST:
+            case TYPE_SET: {
+                int header = buffer.get() & 0xFF;
+                int size = header >>> 4;
+                byte elementType = (byte) (header & 0x0F);
+                if (size == 15) {
+                    size = (int) readVarLong();
+                }
+                if (size < 0 || size > buffer.remaining()) {
+                    throw new IOException("Bad Thrift list size: " + size);
+                }
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(elementType, depth + 1));
+                }
+                return list;
+            }
+            case TYPE_MAP: {
+                int size = (int) readVarLong();
+                Map<Object, Object> map = new LinkedHashMap<>();
+                if (size > 0) {
+                    int types = buffer.get() & 0xFF;
+                    byte keyType = (byte) (types >>> 4);
+                    byte valueType = (byte) (types & 0x0F);
+                    for (int i = 0; i < size; i++) {
+                        map.put(readValue(keyType, depth + 1), readValue(valueType, depth + 1));
+                    }
+                }
+                return map;
+            }
+            case TYPE_STRUCT:
+                return readStruct(depth + 1);
+            default:
+                throw new IOException("Unsupported Thrift type: " + type);
+        }
+    }
+
+    private long readVarLong() throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed Thrift varint");
+    }
+
+    private static int unzigzag32(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long unzigzag64(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Generic Thrift struct
+     */
+    static class Struct {
+        private final Map<Short, Object> fields = new HashMap<>();
+
+        boolean has(int fieldId) {
+            return fields.containsKey((short) fieldId);
+        }
+
+        int getInt(int fieldId, int defaultValue) {
+            Object value = fields.get((short) fieldId);
+            return value instanceof Number number ? number.intValue() : defaultValue;
+        }
+
+        long getLong(int fieldId, long defaultValue) {
+            Object value = fields.get((short) fieldId);
+            return value instanceof Number number ? number.longValue() : defaultValue;
+        }
+
+        boolean getBoolean(int fieldId, boolean defaultValue) {
+            Object value = fields.get((short) fieldId);
+            return value instanceof Boolean bool ? bool : defaultValue;
+        }
+
+        @Nullable
+        String getString(int fieldId) {
+            Object value = fields.get((short) fieldId);
+            return value instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : null;
+        }
+
+        @Nullable
+        Struct getStruct(int fieldId) {
+            Object value = fields.get((short) fieldId);
+            return value instanceof Struct struct ? struct : null;
+        }
+
+        @NotNull
+        List<?> getList(int fieldId) {
+            Object value = fields.get((short) fieldId);
+            return value instanceof List<?> list ? list : Collections.emptyList();
+        }
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Minimal Thrift compact protocol writer.
+ * Parquet file footer and page headers are Thrift structures serialized with the compact protocol.
+ */
+class ParquetThriftWriter {
+
+    static final byte TYPE_STOP = 0;
+    static final byte TYPE_BOOLEAN_TRUE = 1;
+    static final byte TYPE_BOOLEAN_FALSE = 2;
+    static final byte TYPE_BYTE = 3;
+    static final byte TYPE_I16 = 4;
+    static final byte TYPE_I32 = 5;
+    static final byte TYPE_I64 = 6;
+    static final byte TYPE_DOUBLE = 7;
+    static final byte TYPE_BINARY = 8;
+    static final byte TYPE_LIST = 9;
+    static final byte TYPE_SET = 10;
+    static final byte TYPE_MAP = 11;
+    static final byte TYPE_STRUCT = 12;
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+    private final Deque<Short> fieldIdStack = new ArrayDeque<>();
+    private short lastFieldId;
+
+    @NotNull
+    byte[] toByteArray() {
+        return buffer.toByteArray();
+    }
+
+    void writeI32Field(int fieldId, int value) {
+        writeFieldHeader(fieldId, TYPE_I32);
+        writeVarLong(zigzag(value));
+    }
+
+    void writeI64Field(int fieldId, long value) {
+        writeFieldHeader(fieldId, TYPE_I64);
+        writeVarLong(zigzag(value));
+    }
+
+    void writeByteField(int fieldId, byte value) {
+        writeFieldHeader(fieldId, TYPE_BYTE);
+        buffer.write(value);
+    }
+
+    void writeBoolField(int fieldId, boolean value) {
+        writeFieldHeader(fieldId, value ? TYPE_BOOLEAN_TRUE : TYPE_BOOLEAN_FALSE);
+    }
+
+    void writeStringField(int fieldId, @NotNull String value) {
+        writeFieldHeader(fieldId, TYPE_BINARY);
+        writeString(value);
+    }
+
+    /**
+     * Writes header of the nested struct field. Must be followed by {@link #writeStructEnd()}.
+     */
+    void writeStructFieldBegin(int fieldId) {
+        writeFieldHeader(fieldId, TYPE_STRUCT);
+        writeStructBegin();
+    }
+
+    /**
+     * Writes empty struct field. Used for union members without parameters (e.g. StringType).
+     */
+    void writeEmptyStructField(int fieldId) {
+        writeStructFieldBegin(fieldId);
+        writeStructEnd();
+    }
+
+    void writeListFieldBegin(int fieldId, byte elementType, int size) {
+        writeFieldHeader(fieldId, TYPE_LIST);
+        if (size < 15) {
+            buffer.write((size << 4) | elementType);
+        } else {
+            buffer.write(0xF0 | elementType);
+            writeVarLong(size);
+        }
+    }
+
+    /**
+     * Starts struct. Used for top-level structs and for struct elements of lists.
+     */
+    void writeStructBegin() {
+        fieldIdStack.push(lastFieldId);
+        lastFieldId = 0;
+    }
+
+    void writeStructEnd() {
+        buffer.write(TYPE_STOP);
+        lastFieldId = fieldIdStack.isEmpty() ? 0 : fieldIdStack.pop();
+    }
+
+    void writeI32(int value) {
+        writeVarLong(zigzag(value));
+    }
+
+    void writeString(@NotNull String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length);
+        buffer.write(bytes, 0, bytes.length);
+    }
+
+    private void writeFieldHeader(int fieldId, byte type) {
+        int delta = fieldId - lastFieldId;
+        if (delta > 0 && delta <= 15) {
+            buffer.write((delta << 4) | type);
+        } else {
+            buffer.write(type);
+            writeVarLong(zigzag((short) fieldId));
+        }
+        lastFieldId = (short) fieldId;
+    }
+
+    private void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.write((int) value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long zigzag(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+
+}
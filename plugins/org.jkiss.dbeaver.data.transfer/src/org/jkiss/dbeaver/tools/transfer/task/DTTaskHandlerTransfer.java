@@ -23,15 +23,18 @@ import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.exec.DBCStatistics;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableContext;
 import org.jkiss.dbeaver.model.runtime.ProxyProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.task.*;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.tools.transfer.*;
 import org.jkiss.dbeaver.tools.transfer.database.DatabaseConsumerSettings;
 import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferConsumer;
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferProducer;
 import org.jkiss.dbeaver.tools.transfer.internal.DTMessages;
 
 import java.io.PrintStream;
@@ -92,8 +95,12 @@ public class DTTaskHandlerTransfer implements DBTTaskHandler, DBTTaskInfoCollect
         listener.taskStarted(task);
         int indexOfLastPipeWithDisabledReferentialIntegrity = -1;
         try {
+            DataTransferCheckpointStore checkpoints = prepareCheckpoints(task, settings, log);
             indexOfLastPipeWithDisabledReferentialIntegrity = initializePipes(runnableContext, settings, task);
             Throwable error = runDataTransferJobs(runnableContext, task, locale, log, logStream, listener, settings);
+            if (checkpoints != null) {
+                finishCheckpoints(checkpoints, settings, error, log);
+            }
             listener.taskFinished(task, null, error, settings);
         } catch (InvocationTargetException e) {
             DBWorkbench.getPlatformUI().showError(
@@ -112,6 +119,58 @@ public class DTTaskHandlerTransfer implements DBTTaskHandler, DBTTaskInfoCollect
         }
     }
 
+    /**
+     * Assigns checkpoints to pipes of a resumable task. Only database-to-database pipes may be resumed.
+     */
+    @Nullable
+    private static DataTransferCheckpointStore prepareCheckpoints(
+        @Nullable DBTTask task,
+        @NotNull DataTransferSettings settings,
+        @NotNull Log log
+    ) {
+        if (task == null || task.isTemporary() ||
+            !(settings.getNodeSettings(settings.getConsumer()) instanceof DatabaseConsumerSettings consumerSettings) ||
+            !consumerSettings.isResumeFromCheckpoint())
+        {
+            return null;
+        }
+        DataTransferCheckpointStore checkpoints = DataTransferCheckpointStore.forTask(task);
+        List<DataTransferPipe> dataPipes = settings.getDataPipes();
+        for (int i = 0; i < dataPipes.size(); i++) {
+            DataTransferPipe pipe = dataPipes.get(i);
+            if (pipe.getProducer() instanceof DatabaseTransferProducer producer && pipe.getConsumer() instanceof DatabaseTransferConsumer) {
+                DBSObject source = producer.getDatabaseObject();
+                String pipeId = i + ":" + (source == null ? producer.getObjectName() : DBUtils.getObjectFullId(source));
+                pipe.setCheckpoint(checkpoints.getCheckpoint(pipeId));
+            }
+        }
+        if (checkpoints.hasProgress()) {
+            log.info("Resume data transfer from checkpoints " + checkpoints.getFile());
+        }
+        settings.getState().setCheckpoints(checkpoints);
+        return checkpoints;
+    }
+
+    private static void finishCheckpoints(
+        @NotNull DataTransferCheckpointStore checkpoints,
+        @NotNull DataTransferSettings settings,
+        @Nullable Throwable error,
+        @NotNull Log log
+    ) {
+        boolean completed = error == null;
+        for (DataTransferPipe pipe : settings.getDataPipes()) {
+            if (pipe.getCheckpoint() != null && !pipe.getCheckpoint().isCompleted()) {
+                completed = false;
+                break;
+            }
+        }
+        if (completed) {
+            checkpoints.clear();
+        } else {
+            log.info("Data transfer is not completed. Next run of the task will continue from the last commit.");
+        }
+    }
+
     private int initializePipes(
         @NotNull DBRRunnableContext runnableContext,
         @NotNull DataTransferSettings settings,
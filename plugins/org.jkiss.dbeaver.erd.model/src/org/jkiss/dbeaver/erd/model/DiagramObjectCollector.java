@@ -26,6 +26,7 @@ import org.jkiss.dbeaver.model.app.DBPProject;
 import org.jkiss.dbeaver.model.exec.DBExecUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.*;
+import org.jkiss.dbeaver.model.struct.cache.MetadataLoader;
 import org.jkiss.dbeaver.model.struct.rdb.DBSTablePartition;
 import org.jkiss.utils.CommonUtils;
 
@@ -76,15 +77,27 @@ public class DiagramObjectCollector {
         boolean showPartitions = settings.isShowPartitions();
         boolean showViews = settings.isShowViews();
 
+        List<DBSObject> resolvedRoots = new ArrayList<>(roots.size());
+        List<DBSObjectContainer> rootContainers = new ArrayList<>();
         for (DBSObject root : roots) {
-            if (monitor.isCanceled()) {
-                break;
-            }
             root = DBUtils.getPublicObject(root);
             if (root instanceof DBSAlias) {
                 root = ((DBSAlias) root).getTargetObject(monitor);
             }
+            if (root != null) {
+                resolvedRoots.add(root);
+                if (root instanceof DBSObjectContainer) {
+                    rootContainers.add((DBSObjectContainer) root);
+                }
+            }
+        }
+        cacheStructure(monitor, rootContainers);
 
+        List<DBSEntity> rootTables = new ArrayList<>();
+        for (DBSObject root : resolvedRoots) {
+            if (monitor.isCanceled()) {
+                break;
+            }
             if (root instanceof DBSFolder) {
                 collectTables(monitor, ((DBSFolder) root).getChildrenObjects(monitor), tables, settings, false);
             } else if (root instanceof DBSEntity) {
@@ -92,11 +105,14 @@ public class DiagramObjectCollector {
                     continue;
                 }
                 tables.add((DBSEntity) root);
+                rootTables.add((DBSEntity) root);
             }
             if (root instanceof DBSObjectContainer) {
                 collectTables(monitor, (DBSObjectContainer) root, tables, showViews, showPartitions);
             }
         }
+        // Containers cache their structure themselves. Separately selected tables are cached by their containers
+        DBStructUtils.prefetchStructure(monitor, rootTables, DBSObjectContainer.STRUCT_ALL);
     }
 
     private static void collectTables(
@@ -110,11 +126,20 @@ public class DiagramObjectCollector {
         if (monitor.isCanceled()) {
             return;
         }
-        container.cacheStructure(monitor, DBSObjectContainer.STRUCT_ALL);
+        // Structure is already cached by the parent
         final Collection<? extends DBSObject> children = container.getChildren(monitor);
         if (!CommonUtils.isEmpty(children)) {
             Class<? extends DBSObject> childType = container.getPrimaryChildType(monitor);
             DBSObjectFilter objectFilter = container.getDataSource().getContainer().getObjectFilter(childType, container, true);
+            List<DBSObjectContainer> childContainers = new ArrayList<>();
+            for (DBSObject entity : children) {
+                if (!(entity instanceof DBSEntity) && entity instanceof DBSObjectContainer childContainer &&
+                    (objectFilter == null || objectFilter.matches(entity.getName())))
+                {
+                    childContainers.add(childContainer);
+                }
+            }
+            cacheStructure(monitor, childContainers);
             for (DBSObject entity : children) {
                 if (monitor.isCanceled()) {
                     break;
@@ -140,6 +165,14 @@ public class DiagramObjectCollector {
         }
     }
 
+    /**
+     * Caches structure of all containers at once. Independent containers are read in parallel.
+     */
+    private static void cacheStructure(DBRProgressMonitor monitor, List<DBSObjectContainer> containers) throws DBException {
+        MetadataLoader.loadObjects(monitor, containers, "Cache diagram objects structure",
+            (loadMonitor, container) -> container.cacheStructure(loadMonitor, DBSObjectContainer.STRUCT_ALL));
+    }
+
     public void generateDiagramObjects(
         DBRProgressMonitor monitor,
         Collection<? extends DBSObject> roots,
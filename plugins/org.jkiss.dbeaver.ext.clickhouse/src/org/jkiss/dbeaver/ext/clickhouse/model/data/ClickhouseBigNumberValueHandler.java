@@ -16,8 +16,10 @@
  */
 package org.jkiss.dbeaver.ext.clickhouse.model.data;
 
+import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.model.data.DBDFormatSettings;
+import org.jkiss.dbeaver.model.data.columnar.ColumnReader;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
@@ -47,4 +49,11 @@ public class ClickhouseBigNumberValueHandler extends JDBCNumberValueHandler {
             return super.fetchColumnValue(session, resultSet, type, index);
         }
     }
+
+    @Nullable
+    @Override
+    public ColumnReader getColumnReader(@NotNull DBSTypedObject type) {
+        // Values are read as BigDecimal
+        return null;
+    }
 }
@@ -16,8 +16,10 @@
  */
 package org.jkiss.dbeaver.ext.db2.data;
 
+import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.model.data.DBDFormatSettings;
+import org.jkiss.dbeaver.model.data.columnar.ColumnReader;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
@@ -54,6 +56,13 @@ public class DB2DecFloatValueHandler extends JDBCNumberValueHandler {
         }
     }
 
+    @Nullable
+    @Override
+    public ColumnReader getColumnReader(@NotNull DBSTypedObject type) {
+        // Values are read as BigDecimal
+        return null;
+    }
+
     @Override
     protected void bindParameter(JDBCSession session, JDBCPreparedStatement statement, DBSTypedObject paramType, int paramIndex, Object value) throws SQLException, DBCException {
         if (value instanceof BigDecimal) {
@@ -66,6 +66,28 @@ public class ExasolTablePartitionColumnCache extends AbstractObjectCache<ExasolT
 		tablePartitionColumns.clear();
 	}
 
+	// Base cache keeps its own copy of objects, so the columns list must be updated too
+
+	@Override
+	public void setCache(@NotNull List<ExasolTablePartitionColumn> objects) {
+		super.setCache(objects);
+		if (objects != tablePartitionColumns) {
+			tablePartitionColumns = new ArrayList<>(objects);
+		}
+	}
+
+	@Override
+	public void cacheObject(@NotNull ExasolTablePartitionColumn object) {
+		super.cacheObject(object);
+		tablePartitionColumns.add(object);
+	}
+
+	@Override
+	public void removeObject(@NotNull ExasolTablePartitionColumn object, boolean resetFullCache) {
+		super.removeObject(object, resetFullCache);
+		tablePartitionColumns.remove(object);
+	}
+
 	@Override
 	public ExasolTablePartitionColumn getObject(@NotNull DBRProgressMonitor monitor, @NotNull ExasolTable owner, @NotNull String name)
 			throws DBException {
@@ -49,6 +49,7 @@ import org.jkiss.dbeaver.model.struct.DBSDataType;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectFilter;
 import org.jkiss.dbeaver.model.struct.DBSStructureAssistant;
+import org.jkiss.dbeaver.model.struct.cache.MetadataLoader;
 import org.jkiss.dbeaver.model.struct.cache.SimpleObjectCache;
 import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.time.ExtendedDateFormat;
@@ -713,9 +714,11 @@ public class GenericDataSource extends JDBCDataSource implements DBPTermProvider
     @Override
     public void cacheStructure(@NotNull DBRProgressMonitor monitor, int scope) throws DBException {
         if (!CommonUtils.isEmpty(catalogs)) {
-            for (GenericCatalog catalog : catalogs) catalog.cacheStructure(monitor, scope);
+            MetadataLoader.loadObjects(monitor, catalogs, "Cache catalogs structure",
+                (loadMonitor, catalog) -> catalog.cacheStructure(loadMonitor, scope));
         } else if (schemas != null && !schemas.isEmpty()) {
-            for (GenericSchema schema : schemas.getCachedObjects()) schema.cacheStructure(monitor, scope);
+            MetadataLoader.loadObjects(monitor, schemas.getCachedObjects(), "Cache schemas structure",
+                (loadMonitor, schema) -> schema.cacheStructure(loadMonitor, scope));
         } else if (structureContainer != null) {
             structureContainer.cacheStructure(monitor, scope);
         }
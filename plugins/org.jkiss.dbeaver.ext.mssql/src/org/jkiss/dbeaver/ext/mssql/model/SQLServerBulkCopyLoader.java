@@ -0,0 +1,325 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mssql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCTransactionManager;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.utils.ContentUtils;
+import org.jkiss.utils.ArrayUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Types;
+import java.util.*;
+
+/**
+ * Bulk loader based on SQLServerBulkCopy (Microsoft JDBC driver).
+ *
+ * All driver classes are accessed with reflection, so other drivers (jTDS) don't break.
+ * Rows are buffered up to flush (commit boundary) and then written with
+ * SQLServerBulkCopy.writeToServer over an ISQLServerBulkRecord proxy.
+ */
+public class SQLServerBulkCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
+
+    private static final Log log = Log.getLog(SQLServerBulkCopyLoader.class);
+
+    private static final String BULK_COPY_CLASS = "com.microsoft.sqlserver.jdbc.SQLServerBulkCopy";
+    private static final String BULK_COPY_OPTIONS_CLASS = "com.microsoft.sqlserver.jdbc.SQLServerBulkCopyOptions";
+    private static final String[] BULK_DATA_INTERFACES = {
+        "com.microsoft.sqlserver.jdbc.ISQLServerBulkData",
+        "com.microsoft.sqlserver.jdbc.ISQLServerBulkRecord"
+    };
+
+    private final SQLServerDataSource dataSource;
+    private SQLServerTableBase table;
+    private AttrMapping[] mappings;
+    private ClassLoader driverClassLoader;
+    private Class<?>[] bulkDataInterfaces;
+    private Object bulkCopy;
+    private Method writeToServerMethod;
+    private final List<Object[]> rows = new ArrayList<>();
+    private long totalRows;
+
+    private static class AttrMapping {
+        SQLServerTableColumn tableAttr;
+        DBDValueHandler valueHandler;
+        int srcPos;
+
+        AttrMapping(SQLServerTableColumn tableAttr, DBDValueHandler valueHandler, int srcPos) {
+            this.tableAttr = tableAttr;
+            this.valueHandler = valueHandler;
+            this.srcPos = srcPos;
+        }
+    }
+
+    public SQLServerBulkCopyLoader(SQLServerDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @NotNull
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source,
+        int batchSize,
+        Map<String, Object> options) throws DBCException
+    {
+        this.table = (SQLServerTableBase) dataContainer;
+        try {
+            List<AttrMapping> mappingList = new ArrayList<>();
+            boolean hasIdentity = false;
+            for (SQLServerTableColumn attr : table.getAttributes(session.getProgressMonitor())) {
+                int srcPos = ArrayUtils.indexOf(attributes, attr);
+                if (srcPos >= 0) {
+                    mappingList.add(new AttrMapping(attr, DBUtils.findValueHandler(session, attr), srcPos));
+                    hasIdentity |= attr.isIdentity();
+                }
+            }
+            mappings = mappingList.toArray(new AttrMapping[0]);
+
+            // Use reflection to create bulk copy
+            Connection connection = ((JDBCSession) session).getOriginal();
+            driverClassLoader = connection.getClass().getClassLoader();
+
+            Class<?> bulkCopyClass = Class.forName(BULK_COPY_CLASS, true, driverClassLoader);
+            Class<?> optionsClass = Class.forName(BULK_COPY_OPTIONS_CLASS, true, driverClassLoader);
+
+            Object copyOptions = optionsClass.getConstructor().newInstance();
+            optionsClass.getMethod("setBatchSize", Integer.TYPE).invoke(copyOptions, batchSize);
+            optionsClass.getMethod("setBulkCopyTimeout", Integer.TYPE).invoke(copyOptions, 0);
+            optionsClass.getMethod("setTableLock", Boolean.TYPE).invoke(
+                copyOptions, options != null && CommonUtils.getBoolean(options.get(OPTION_TABLE_LOCK), false));
+            optionsClass.getMethod("setCheckConstraints", Boolean.TYPE).invoke(
+                copyOptions, options != null && CommonUtils.getBoolean(options.get(OPTION_CHECK_CONSTRAINTS), false));
+            optionsClass.getMethod("setKeepIdentity", Boolean.TYPE).invoke(copyOptions, hasIdentity);
+            // Rows must be a part of the current transaction which is committed in finishBulkLoad
+            optionsClass.getMethod("setUseInternalTransaction", Boolean.TYPE).invoke(copyOptions, false);
+
+            bulkCopy = bulkCopyClass.getConstructor(Connection.class).newInstance(connection);
+            bulkCopyClass.getMethod("setBulkCopyOptions", optionsClass).invoke(bulkCopy, copyOptions);
+            bulkCopyClass.getMethod("setDestinationTableName", String.class).invoke(
+                bulkCopy, table.getFullyQualifiedName(DBPEvaluationContext.DML));
+            Method addColumnMappingMethod = bulkCopyClass.getMethod("addColumnMapping", Integer.TYPE, String.class);
+            for (int i = 0; i < mappings.length; i++) {
+                addColumnMappingMethod.invoke(bulkCopy, i + 1, mappings[i].tableAttr.getName());
+            }
+
+            List<Class<?>> interfaces = new ArrayList<>();
+            for (String interfaceName : BULK_DATA_INTERFACES) {
+                try {
+                    interfaces.add(Class.forName(interfaceName, true, driverClassLoader));
+                } catch (ClassNotFoundException e) {
+                    // Older driver versions have only ISQLServerBulkRecord
+                }
+            }
+            bulkDataInterfaces = interfaces.toArray(new Class[0]);
+            for (Method method : bulkCopyClass.getMethods()) {
+                if (method.getName().equals("writeToServer") && method.getParameterCount() == 1 &&
+                    interfaces.contains(method.getParameterTypes()[0])) {
+                    writeToServerMethod = method;
+                    break;
+                }
+            }
+            if (writeToServerMethod == null) {
+                throw new DBCException("Bulk data write method not found in " + bulkCopyClass.getName());
+            }
+        } catch (ClassNotFoundException e) {
+            throw new DBCException("Bulk copy is supported only by Microsoft SQL Server JDBC driver", e);
+        } catch (DBCException e) {
+            throw e;
+        } catch (Exception e) {
+            if (e instanceof InvocationTargetException) {
+                throw new DBCException("Can't instantiate SQLServerBulkCopy", ((InvocationTargetException) e).getTargetException());
+            }
+            throw new DBCException("Can't instantiate SQLServerBulkCopy", e);
+        }
+        return this;
+    }
+
+    @Override
+    public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        Object[] row = new Object[mappings.length];
+        for (int i = 0; i < mappings.length; i++) {
+            AttrMapping mapping = mappings[i];
+            Object value = attributeValues[mapping.srcPos];
+            if (DBUtils.isNullValue(value)) {
+                value = null;
+            } else if (value instanceof DBDContent) {
+                if (ContentUtils.isTextContent((DBDContent) value)) {
+                    value = ContentUtils.getContentStringValue(session.getProgressMonitor(), (DBDContent) value);
+                } else {
+                    value = ContentUtils.getContentBinaryValue(session.getProgressMonitor(), (DBDContent) value);
+                }
+            } else if (!isDriverValue(value)) {
+                value = mapping.valueHandler.getValueDisplayString(mapping.tableAttr, value, DBDDisplayFormat.NATIVE);
+            }
+            row[i] = value;
+        }
+        rows.add(row);
+    }
+
+    private static boolean isDriverValue(@NotNull Object value) {
+        return value instanceof String || value instanceof Number || value instanceof Boolean ||
+            value instanceof byte[] || value instanceof java.util.Date || value instanceof java.time.temporal.Temporal ||
+            value instanceof UUID;
+    }
+
+    @Override
+    public void flushRows(@NotNull DBCSession session) throws DBCException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        session.getProgressMonitor().subTask("Bulk copy into " + table.getFullyQualifiedName(DBPEvaluationContext.DML) +
+            " (" + (totalRows + rows.size()) + ")");
+        try {
+            Object bulkData = Proxy.newProxyInstance(driverClassLoader, bulkDataInterfaces, new BulkRecordHandler(rows));
+            writeToServerMethod.invoke(bulkCopy, bulkData);
+            totalRows += rows.size();
+        } catch (Throwable e) {
+            if (e instanceof InvocationTargetException) {
+                e = ((InvocationTargetException) e).getTargetException();
+            }
+            throw new DBCException("Error copying dataset on remote server", e);
+        } finally {
+            rows.clear();
+        }
+    }
+
+    @Override
+    public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        flushRows(session);
+
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        if (txnManager != null && !txnManager.isAutoCommit()) {
+            session.getProgressMonitor().subTask("Commit bulk copy");
+            txnManager.commit(session);
+        }
+        log.debug("Bulk copy has been finished (" + totalRows + ")");
+    }
+
+    @Override
+    public void close() {
+        rows.clear();
+        if (bulkCopy != null) {
+            try {
+                bulkCopy.getClass().getMethod("close").invoke(bulkCopy);
+            } catch (Throwable e) {
+                log.debug("Error closing bulk copy", e);
+            }
+            bulkCopy = null;
+        }
+    }
+
+    /**
+     * ISQLServerBulkRecord implementation over buffered rows
+     */
+    private class BulkRecordHandler implements java.lang.reflect.InvocationHandler {
+        private final Iterator<Object[]> iterator;
+        private Object[] currentRow;
+
+        BulkRecordHandler(List<Object[]> rows) {
+            this.iterator = rows.iterator();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "getColumnOrdinals": {
+                    Set<Integer> ordinals = new LinkedHashSet<>();
+                    for (int i = 1; i <= mappings.length; i++) {
+                        ordinals.add(i);
+                    }
+                    return ordinals;
+                }
+                case "getColumnName":
+                    return getColumn(args).getName();
+                case "getColumnType":
+                    return getColumnType(getColumn(args));
+                case "getPrecision":
+                    return getPrecision(getColumn(args));
+                case "getScale":
+                    return CommonUtils.toInt(getColumn(args).getScale());
+                case "isAutoIncrement":
+                    return false;
+                case "next":
+                    if (iterator.hasNext()) {
+                        currentRow = iterator.next();
+                        return true;
+                    }
+                    currentRow = null;
+                    return false;
+                case "getRowData":
+                    return currentRow;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "Bulk data of " + table.getName();
+                default: {
+                    // Optional methods (date/time formatters, metadata setters)
+                    Class<?> returnType = method.getReturnType();
+                    if (returnType == Boolean.TYPE) {
+                        return false;
+                    } else if (returnType == Integer.TYPE) {
+                        return 0;
+                    }
+                    return null;
+                }
+            }
+        }
+
+        private SQLServerTableColumn getColumn(Object[] args) {
+            return mappings[((Integer) args[0]) - 1].tableAttr;
+        }
+
+        private int getColumnType(SQLServerTableColumn column) {
+            int typeID = column.getTypeID();
+            // Driver doesn't know DBeaver-specific type codes
+            return typeID == Types.OTHER ? Types.VARCHAR : typeID;
+        }
+
+        private int getPrecision(SQLServerTableColumn column) {
+            Integer precision = column.getPrecision();
+            if (precision != null && precision > 0) {
+                return precision;
+            }
+            long maxLength = column.getMaxLength();
+            // (max) types have no length
+            return maxLength <= 0 ? Integer.MAX_VALUE : (int) Math.min(maxLength, Integer.MAX_VALUE);
+        }
+    }
+
+}
@@ -479,6 +479,11 @@ public class SQLServerDataSource extends JDBCDataSource implements DBSInstanceCo
             return adapter.cast(new SQLServerSessionManager(this));
         } else if (adapter == DBAUserPasswordManager.class) {
             return adapter.cast(new SQLServerLoginPasswordManager(this));
+        } else if (adapter == DBSDataBulkLoader.class) {
+            // SQLServerBulkCopy is available only in Microsoft driver
+            if (SQLServerUtils.isDriverSqlServer(getContainer().getDriver())) {
+                return adapter.cast(new SQLServerBulkCopyLoader(this));
+            }
         }
         return super.getAdapter(adapter);
     }
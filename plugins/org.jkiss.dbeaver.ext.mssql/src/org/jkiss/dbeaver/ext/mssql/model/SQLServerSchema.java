@@ -179,7 +179,7 @@ public class SQLServerSchema implements DBSSchema, DBPSaveableObject, DBPQualifi
 
     @Override
     public DBSObject refreshObject(@NotNull DBRProgressMonitor monitor) throws DBException {
-        tableCache.clearCache();
+        tableCache.refreshChangedObjects(monitor, this);
         indexCache.clearCache();
         uniqueConstraintCache.clearCache();
         foreignKeyCache.clearCache();
@@ -287,12 +287,12 @@ public class SQLServerSchema implements DBSSchema, DBPSaveableObject, DBPQualifi
             synonymCache.getAllObjects(monitor, this);
         }
         if ((scope & STRUCT_ATTRIBUTES) == STRUCT_ATTRIBUTES) {
-            tableCache.getChildren(monitor, this, null);
+            tableCache.prefetchChildren(monitor, this);
         }
         if ((scope & STRUCT_ASSOCIATIONS) == STRUCT_ASSOCIATIONS) {
-            indexCache.getAllObjects(monitor, this);
-            uniqueConstraintCache.getAllObjects(monitor, this);
-            foreignKeyCache.getAllObjects(monitor, this);
+            indexCache.prefetchObjects(monitor, this);
+            uniqueConstraintCache.prefetchObjects(monitor, this);
+            foreignKeyCache.prefetchObjects(monitor, this);
         }
     }
 
@@ -378,7 +378,6 @@ public class SQLServerSchema implements DBSSchema, DBPSaveableObject, DBPQualifi
         @Override
         public JDBCStatement prepareLookupStatement(@NotNull JDBCSession session, @NotNull SQLServerSchema owner, @Nullable SQLServerTableBase object, @Nullable String objectName) throws SQLException {
             StringBuilder sql = new StringBuilder();
-            SQLServerDataSource dataSource = owner.getDataSource();
             sql.append("SELECT o.*,ep.value as description");
             if (owner.getDataSource().supportsExternalTables(session)) {
                 sql.append(",t.is_external");
@@ -392,28 +391,52 @@ public class SQLServerSchema implements DBSSchema, DBPSaveableObject, DBPQualifi
             if (object != null || objectName != null) {
                 sql.append(" AND o.name = ").append(SQLUtils.quoteString(session.getDataSource(), object != null ? object.getName() : objectName));
             } else {
-                DBSObjectFilter tableFilters = dataSource.getContainer().getObjectFilter(SQLServerTableBase.class, owner, false);
-                if (tableFilters != null && !tableFilters.isEmpty()) {
-                    sql.append(" AND (");
-                    boolean hasCond = false;
-                    for (String incName : CommonUtils.safeCollection(tableFilters.getInclude())) {
-                        if (hasCond) sql.append(" OR ");
-                        hasCond = true;
-                        sql.append(" o.name LIKE ").append(SQLUtils.quoteString(session.getDataSource(), incName));
-                    }
-                    hasCond = false;
-                    for (String incName : CommonUtils.safeCollection(tableFilters.getExclude())) {
-                        if (hasCond) sql.append(" OR ");
-                        hasCond = true;
-                        sql.append(" o.name NOT LIKE ").append(SQLUtils.quoteString(session.getDataSource(), incName));
-                    }
-                    sql.append(")");
-                }
+                appendTableFilters(session, owner, sql);
             }
 
             return session.prepareStatement(sql.toString());
         }
 
+        @Override
+        protected boolean supportsIncrementalRefresh(@NotNull SQLServerSchema owner) {
+            // Babelfish doesn't track modification time
+            return !SQLServerUtils.isDriverBabelfish(owner.getDataSource().getContainer().getDriver());
+        }
+
+        @NotNull
+        @Override
+        protected JDBCStatement prepareChangeStampsStatement(@NotNull JDBCSession session, @NotNull SQLServerSchema owner) throws SQLException {
+            // modify_date is changed by ALTER statements (including column changes).
+            // Descriptions are stored in extended properties and do not affect it.
+            StringBuilder sql = new StringBuilder();
+            sql.append("SELECT o.name,CONVERT(varchar(30), o.modify_date, 126) + ':' + ISNULL((SELECT CAST(CHECKSUM_AGG(CHECKSUM(ep.minor_id, CAST(ep.value AS nvarchar(4000)))) AS varchar(20))");
+            sql.append(" FROM ").append(SQLServerUtils.getExtendedPropsTableName(owner.getDatabase())).append(" ep WHERE ep.class=").append(SQLServerObjectClass.OBJECT_OR_COLUMN.getClassId()).append(" AND ep.major_id=o.object_id AND ep.name='").append(SQLServerConstants.PROP_MS_DESCRIPTION).append("'),'') AS change_stamp");
+            sql.append(" FROM ").append(SQLServerUtils.getSystemTableName(owner.getDatabase(), "all_objects")).append(" o");
+            sql.append("\nWHERE o.type IN ('U','S','V','TT') AND o.schema_id = ").append(owner.getObjectId());
+            appendTableFilters(session, owner, sql);
+            return session.prepareStatement(sql.toString());
+        }
+
+        private static void appendTableFilters(@NotNull JDBCSession session, @NotNull SQLServerSchema owner, @NotNull StringBuilder sql) {
+            DBSObjectFilter tableFilters = owner.getDataSource().getContainer().getObjectFilter(SQLServerTableBase.class, owner, false);
+            if (tableFilters != null && !tableFilters.isEmpty()) {
+                sql.append(" AND (");
+                boolean hasCond = false;
+                for (String incName : CommonUtils.safeCollection(tableFilters.getInclude())) {
+                    if (hasCond) sql.append(" OR ");
+                    hasCond = true;
+                    sql.append(" o.name LIKE ").append(SQLUtils.quoteString(session.getDataSource(), incName));
+                }
+                hasCond = false;
+                for (String incName : CommonUtils.safeCollection(tableFilters.getExclude())) {
+                    if (hasCond) sql.append(" OR ");
+                    hasCond = true;
+                    sql.append(" o.name NOT LIKE ").append(SQLUtils.quoteString(session.getDataSource(), incName));
+                }
+                sql.append(")");
+            }
+        }
+
         @Override
         protected SQLServerTableBase fetchObject(@NotNull JDBCSession session, @NotNull SQLServerSchema owner, @NotNull JDBCResultSet dbResult) {
             String name = JDBCUtils.safeGetString(dbResult, "name");
@@ -435,13 +435,15 @@ public class MySQLCatalog implements
         getTableCache().getAllObjects(monitor, this);
         if ((scope & STRUCT_ATTRIBUTES) != 0) {
             monitor.subTask("Cache table columns");
-            getTableCache().loadChildren(monitor, this, null);
+            getTableCache().prefetchChildren(monitor, this);
         }
         if ((scope & STRUCT_ASSOCIATIONS) != 0) {
+            monitor.subTask("Cache table indexes");
+            indexCache.prefetchObjects(monitor, this);
             monitor.subTask("Cache table constraints");
-            uniqueKeyCache.getAllObjects(monitor, this);
+            uniqueKeyCache.prefetchObjects(monitor, this);
             if (getDataSource().supportsCheckConstraints()) {
-                checkConstraintCache.getAllObjects(monitor, this);
+                checkConstraintCache.prefetchObjects(monitor, this);
             }
         }
     }
@@ -514,7 +516,7 @@ public class MySQLCatalog implements
     {
         hasStatistics = false;
         databaseDDL = null;
-        getTableCache().clearCache();
+        getTableCache().refreshChangedObjects(monitor, this);
         indexCache.clearCache();
         uniqueKeyCache.clearCache();
         if (getDataSource().supportsCheckConstraints()) {
@@ -629,6 +631,50 @@ public class MySQLCatalog implements
             }
         }
 
+        @Override
+        protected boolean supportsIncrementalRefresh(@NotNull MySQLCatalog owner) {
+            return owner.getDataSource().isServerVersionAtLeast(5, 0);
+        }
+
+        @Nullable
+        @Override
+        protected DBSObjectFilter getObjectFilter(@NotNull MySQLCatalog owner) {
+            return owner.getDataSource().getContainer().getObjectFilter(MySQLTable.class, owner, true);
+        }
+
+        @Nullable
+        @Override
+        protected String getSnapshotType(@NotNull MySQLCatalog owner) {
+            // Server side filters change the table list, so each filter has its own snapshot
+            DBPDataSourceContainer container = owner.getDataSource().getContainer();
+            DBSObjectFilter tableFilters = getObjectFilter(owner);
+            if (!container.getPreferenceStore().getBoolean(ModelPreferences.META_USE_SERVER_SIDE_FILTERS) ||
+                tableFilters == null || tableFilters.isNotApplicable())
+            {
+                return "tables";
+            }
+            return "tables-" + Integer.toHexString(Objects.hash(tableFilters.getInclude(), tableFilters.getExclude()));
+        }
+
+        @NotNull
+        @Override
+        protected JDBCStatement prepareChangeStampsStatement(@NotNull JDBCSession session, @NotNull MySQLCatalog owner) throws SQLException {
+            // There is no reliable DDL time (UPDATE_TIME is changed by data modifications and isn't persistent).
+            // Use creation time (changed by table rebuild) and checksums of table properties, columns and view definitions.
+            JDBCPreparedStatement dbStat = session.prepareStatement(
+                "SELECT t.TABLE_NAME,CONCAT_WS(':',t.TABLE_TYPE,t.ENGINE,t.CREATE_TIME,t.TABLE_COLLATION,t.CREATE_OPTIONS," +
+                    "CRC32(t.TABLE_COMMENT),c.COLUMNS_CHECKSUM,CRC32(v.VIEW_DEFINITION)) AS CHANGE_STAMP\n" +
+                    "FROM " + MySQLConstants.META_TABLE_TABLES + " t\n" +
+                    "LEFT OUTER JOIN (SELECT TABLE_NAME,CONCAT(COUNT(*),'/',SUM(CRC32(CONCAT_WS(',',COLUMN_NAME,ORDINAL_POSITION," +
+                    "COLUMN_TYPE,IS_NULLABLE,COLUMN_DEFAULT,EXTRA,COLUMN_COMMENT,COLLATION_NAME)))) AS COLUMNS_CHECKSUM\n" +
+                    "\tFROM " + MySQLConstants.META_TABLE_COLUMNS + " WHERE TABLE_SCHEMA=? GROUP BY TABLE_NAME) c ON c.TABLE_NAME=t.TABLE_NAME\n" +
+                    "LEFT OUTER JOIN " + MySQLConstants.META_TABLE_VIEWS + " v ON v.TABLE_SCHEMA=t.TABLE_SCHEMA AND v.TABLE_NAME=t.TABLE_NAME\n" +
+                    "WHERE t.TABLE_SCHEMA=?");
+            dbStat.setString(1, owner.getName());
+            dbStat.setString(2, owner.getName());
+            return dbStat;
+        }
+
         @Override
         protected JDBCStatement prepareChildrenStatement(@NotNull JDBCSession session, @NotNull MySQLCatalog owner, @Nullable MySQLTableBase forTable)
             throws SQLException
@@ -657,6 +703,13 @@ public class MySQLCatalog implements
             return new MySQLTableColumn(table, dbResult);
         }
 
+        @Nullable
+        @Override
+        protected String getChildrenSnapshotType(@NotNull MySQLCatalog owner) {
+            // Columns are read with a single owner query, they do not depend on table filters
+            return "columns";
+        }
+
     }
 
     /**
@@ -751,6 +804,12 @@ public class MySQLCatalog implements
         {
             index.setColumns(rows);
         }
+
+        @Nullable
+        @Override
+        protected String getSnapshotType(@NotNull MySQLCatalog owner) {
+            return "indexes";
+        }
     }
 
     /**
@@ -0,0 +1,396 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mysql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCTransactionManager;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.utils.ContentUtils;
+import org.jkiss.utils.ArrayUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bulk loader based on LOAD DATA LOCAL INFILE.
+ *
+ * Rows are encoded in tab-separated format and fed to the driver with Statement.setLocalInfileInputStream
+ * (supported by MySQL Connector/J and MariaDB Connector/J 2.x), so no client file is used.
+ * Data is sent by chunks on each flush (commit boundary) or when buffer becomes too big.
+ * Connection must have local infile enabled (allowLoadLocalInfile=true for MySQL driver)
+ * and server must have local_infile=ON.
+ *
+ * With LOCAL the server can't stop reading the stream, so it behaves as if IGNORE was specified:
+ * rows with duplicate keys are skipped and invalid values are truncated or converted with warnings,
+ * even in strict SQL mode. Therefore the load fails if the server loaded fewer rows than were sent
+ * or reported any warnings.
+ */
+public class MySQLLoadDataLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
+
+    private static final Log log = Log.getLog(MySQLLoadDataLoader.class);
+
+    private static final int MAX_BUFFER_SIZE = 16 * 1024 * 1024;
+    private static final byte[] NULL_VALUE = {'\\', 'N'};
+    private static final byte[] HEX_DIGITS = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_REPORTED_WARNINGS = 10;
+
+    private final MySQLDataSource dataSource;
+    private MySQLTableBase table;
+    private AttrMapping[] mappings;
+    private String loadQuery;
+    private Method setInputStreamMethod;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+    private long bufferedRows;
+    private long totalRows;
+
+    private enum ValueFormat {
+        TEXT,
+        HEX,
+        BIT
+    }
+
+    private static class AttrMapping {
+        MySQLTableColumn tableAttr;
+        DBDValueHandler valueHandler;
+        ValueFormat format;
+        int srcPos;
+
+        AttrMapping(MySQLTableColumn tableAttr, DBDValueHandler valueHandler, ValueFormat format, int srcPos) {
+            this.tableAttr = tableAttr;
+            this.valueHandler = valueHandler;
+            this.format = format;
+            this.srcPos = srcPos;
+        }
+    }
+
+    public MySQLLoadDataLoader(MySQLDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @NotNull
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source,
+        int batchSize,
+        Map<String, Object> options) throws DBCException
+    {
+        this.table = (MySQLTableBase) dataContainer;
+        try {
+            List<MySQLTableColumn> tableAttrs = table.getAttributes(session.getProgressMonitor());
+            mappings = new AttrMapping[tableAttrs.size()];
+            for (int i = 0; i < tableAttrs.size(); i++) {
+                MySQLTableColumn attr = tableAttrs.get(i);
+                mappings[i] = new AttrMapping(
+                    attr,
+                    DBUtils.findValueHandler(session, attr),
+                    getValueFormat(attr),
+                    ArrayUtils.indexOf(attributes, attr));
+            }
+        } catch (Exception e) {
+            throw new DBCException("Error reading table columns", e);
+        }
+        loadQuery = buildLoadQuery();
+        return this;
+    }
+
+    private static ValueFormat getValueFormat(@NotNull MySQLTableColumn attr) {
+        String typeName = CommonUtils.notEmpty(attr.getTypeName()).toLowerCase(Locale.ENGLISH);
+        switch (typeName) {
+            case "binary":
+            case "varbinary":
+            case "tinyblob":
+            case "blob":
+            case "mediumblob":
+            case "longblob":
+                return ValueFormat.HEX;
+            case "bit":
+                return ValueFormat.BIT;
+            default:
+                return ValueFormat.TEXT;
+        }
+    }
+
+    private String buildLoadQuery() {
+        StringBuilder columns = new StringBuilder();
+        StringBuilder setClause = new StringBuilder();
+        for (AttrMapping mapping : mappings) {
+            if (mapping.srcPos < 0) {
+                continue;
+            }
+            if (columns.length() > 0) {
+                columns.append(",");
+            }
+            String columnName = DBUtils.getQuotedIdentifier(mapping.tableAttr);
+            if (mapping.format == ValueFormat.TEXT) {
+                columns.append(columnName);
+            } else {
+                // Binary values are sent in hex and bits as numbers, both are converted back by SET clause
+                String varName = "@v" + mapping.srcPos;
+                columns.append(varName);
+                if (setClause.length() > 0) {
+                    setClause.append(",");
+                }
+                setClause.append(columnName).append("=");
+                if (mapping.format == ValueFormat.HEX) {
+                    setClause.append("UNHEX(").append(varName).append(")");
+                } else {
+                    setClause.append("CAST(").append(varName).append(" AS UNSIGNED)");
+                }
+            }
+        }
+        StringBuilder query = new StringBuilder();
+        query.append("LOAD DATA LOCAL INFILE 'stream' INTO TABLE ")
+            .append(table.getFullyQualifiedName(DBPEvaluationContext.DML))
+            .append(" CHARACTER SET utf8mb4")
+            .append(" FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\'")
+            .append(" LINES TERMINATED BY '\\n'")
+            .append(" (").append(columns).append(")");
+        if (setClause.length() > 0) {
+            query.append(" SET ").append(setClause);
+        }
+        return query.toString();
+    }
+
+    @Override
+    public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        boolean hasCell = false;
+        for (AttrMapping mapping : mappings) {
+            if (mapping.srcPos < 0) {
+                continue;
+            }
+            if (hasCell) {
+                buffer.write('\t');
+            }
+            hasCell = true;
+            Object value = attributeValues[mapping.srcPos];
+            if (DBUtils.isNullValue(value)) {
+                buffer.writeBytes(NULL_VALUE);
+                continue;
+            }
+            switch (mapping.format) {
+                case HEX: {
+                    byte[] bytes = getBinaryValue(session, mapping, value);
+                    for (byte b : bytes) {
+                        buffer.write(HEX_DIGITS[(b >> 4) & 0xF]);
+                        buffer.write(HEX_DIGITS[b & 0xF]);
+                    }
+                    break;
+                }
+                case BIT:
+                    writeEscaped(getBitValue(value));
+                    break;
+                default:
+                    if (value instanceof Number) {
+                        writeEscaped(value.toString());
+                    } else if (value instanceof Boolean) {
+                        buffer.write((Boolean) value ? '1' : '0');
+                    } else if (value instanceof DBDContent) {
+                        String strValue = ContentUtils.getContentStringValue(session.getProgressMonitor(), (DBDContent) value);
+                        if (strValue == null) {
+                            buffer.writeBytes(NULL_VALUE);
+                        } else {
+                            writeEscaped(strValue);
+                        }
+                    } else {
+                        writeEscaped(mapping.valueHandler.getValueDisplayString(mapping.tableAttr, value, DBDDisplayFormat.NATIVE));
+                    }
+                    break;
+            }
+        }
+        buffer.write('\n');
+        bufferedRows++;
+        if (buffer.size() >= MAX_BUFFER_SIZE) {
+            loadBuffer(session);
+        }
+    }
+
+    @NotNull
+    private byte[] getBinaryValue(@NotNull DBCSession session, @NotNull AttrMapping mapping, @NotNull Object value) throws DBCException {
+        if (value instanceof byte[]) {
+            return (byte[]) value;
+        } else if (value instanceof DBDContent) {
+            byte[] bytes = ContentUtils.getContentBinaryValue(session.getProgressMonitor(), (DBDContent) value);
+            return bytes == null ? new byte[0] : bytes;
+        } else {
+            return mapping.valueHandler.getValueDisplayString(mapping.tableAttr, value, DBDDisplayFormat.NATIVE)
+                .getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Returns BIT value as unsigned number, it is converted back by SET clause.
+     * Drivers read BIT(1) as boolean and wider bit strings as big-endian byte arrays.
+     */
+    @NotNull
+    static String getBitValue(@NotNull Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value ? "1" : "0";
+        } else if (value instanceof byte[]) {
+            return new BigInteger(1, (byte[]) value).toString();
+        } else if (value instanceof BitSet) {
+            // BitSet bytes are little-endian
+            byte[] bytes = ((BitSet) value).toByteArray();
+            for (int i = 0, j = bytes.length - 1; i < j; i++, j--) {
+                byte b = bytes[i];
+                bytes[i] = bytes[j];
+                bytes[j] = b;
+            }
+            return new BigInteger(1, bytes).toString();
+        } else {
+            return value.toString();
+        }
+    }
+
+    private void writeEscaped(@NotNull String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        for (byte b : bytes) {
+            switch (b) {
+                case '\\':
+                    buffer.write('\\');
+                    buffer.write('\\');
+                    break;
+                case '\t':
+                    buffer.write('\\');
+                    buffer.write('t');
+                    break;
+                case '\n':
+                    buffer.write('\\');
+                    buffer.write('n');
+                    break;
+                case '\r':
+                    buffer.write('\\');
+                    buffer.write('r');
+                    break;
+                case 0:
+                    buffer.write('\\');
+                    buffer.write('0');
+                    break;
+                default:
+                    buffer.write(b);
+                    break;
+            }
+        }
+    }
+
+    private void loadBuffer(@NotNull DBCSession session) throws DBCException {
+        if (bufferedRows == 0) {
+            return;
+        }
+        session.getProgressMonitor().subTask("Load data into " + table.getFullyQualifiedName(DBPEvaluationContext.DML) +
+            " (" + (totalRows + bufferedRows) + ")");
+        try (Statement dbStat = ((JDBCSession) session).getOriginal().createStatement()) {
+            if (setInputStreamMethod == null) {
+                try {
+                    setInputStreamMethod = dbStat.getClass().getMethod("setLocalInfileInputStream", InputStream.class);
+                } catch (NoSuchMethodException e) {
+                    throw new DBCException("Driver " + dbStat.getClass().getName() + " doesn't support LOAD DATA LOCAL INFILE streams");
+                }
+            }
+            setInputStreamMethod.invoke(dbStat, new ByteArrayInputStream(buffer.toByteArray()));
+            long rowCount = dbStat.executeLargeUpdate(loadQuery);
+            SQLWarning warning = dbStat.getWarnings();
+            if (rowCount != bufferedRows || warning != null) {
+                // LOCAL implies IGNORE, rows and values are dropped silently
+                throw new DBCException(getLoadErrorMessage(rowCount, bufferedRows, warning), warning);
+            }
+            totalRows += bufferedRows;
+        } catch (DBCException e) {
+            throw e;
+        } catch (SQLException e) {
+            throw new DBCException("Error loading data (make sure local infile is enabled on driver and server)", e, session.getExecutionContext());
+        } catch (Throwable e) {
+            if (e instanceof InvocationTargetException) {
+                e = ((InvocationTargetException) e).getTargetException();
+            }
+            throw new DBCException("Error loading data", e);
+        } finally {
+            buffer.reset();
+            bufferedRows = 0;
+        }
+    }
+
+    @NotNull
+    static String getLoadErrorMessage(long loadedRows, long sentRows, @Nullable SQLWarning warning) {
+        StringBuilder message = new StringBuilder();
+        message.append("LOAD DATA loaded ").append(loadedRows).append(" of ").append(sentRows).append(" rows");
+        if (warning != null) {
+            message.append(" with warnings:");
+            int count = 0;
+            for (SQLWarning w = warning; w != null; w = w.getNextWarning(), count++) {
+                if (count == MAX_REPORTED_WARNINGS) {
+                    message.append("\n...");
+                    break;
+                }
+                message.append("\n").append(w.getMessage());
+            }
+        }
+        message.append("\nRows with duplicate keys or invalid values are skipped or truncated by the server in LOCAL mode");
+        return message.toString();
+    }
+
+    @Override
+    public void flushRows(@NotNull DBCSession session) throws DBCException {
+        loadBuffer(session);
+    }
+
+    @Override
+    public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        loadBuffer(session);
+
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        if (txnManager != null && !txnManager.isAutoCommit()) {
+            session.getProgressMonitor().subTask("Commit LOAD DATA");
+            txnManager.commit(session);
+        }
+        log.debug("LOAD DATA has been finished (" + totalRows + ")");
+    }
+
+    @Override
+    public void close() {
+        buffer.reset();
+        bufferedRows = 0;
+    }
+}
@@ -328,7 +328,10 @@ public class MySQLTable extends MySQLTableBase
         if (getDataSource().supportsCheckConstraints()) {
             List<MySQLTableConstraint> checkConstraintObjects = getContainer().checkConstraintCache.getObjects(monitor, getContainer(), this);
             if (!CommonUtils.isEmpty(checkConstraintObjects)) {
-                constraintObjects.addAll(checkConstraintObjects);
+                // Don't modify the cached list
+                List<MySQLTableConstraint> allConstraints = new ArrayList<>(CommonUtils.safeCollection(constraintObjects));
+                allConstraints.addAll(checkConstraintObjects);
+                return allConstraints;
             }
             return constraintObjects;
         }
@@ -37,6 +37,7 @@ import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
+import org.jkiss.dbeaver.model.struct.DBSObjectFilter;
 import org.jkiss.dbeaver.model.struct.rdb.DBSProcedureContainer;
 import org.jkiss.dbeaver.model.struct.rdb.DBSProcedureType;
 import org.jkiss.dbeaver.model.struct.rdb.DBSSchema;
@@ -417,14 +418,14 @@ public class OracleSchema extends OracleGlobalObject implements
         tableCache.getAllObjects(monitor, this);
         if ((scope & STRUCT_ATTRIBUTES) != 0) {
             monitor.subTask("Cache table columns");
-            tableCache.loadChildren(monitor, this, null);
+            tableCache.prefetchChildren(monitor, this);
         }
         if ((scope & STRUCT_ASSOCIATIONS) != 0) {
             monitor.subTask("Cache table indexes");
-            indexCache.getObjects(monitor, this, null);
+            indexCache.prefetchObjects(monitor, this);
             monitor.subTask("Cache table constraints");
-            constraintCache.getObjects(monitor, this, null);
-            foreignKeyCache.getObjects(monitor, this, null);
+            constraintCache.prefetchObjects(monitor, this);
+            foreignKeyCache.prefetchObjects(monitor, this);
             tableTriggerCache.getAllObjects(monitor, this);
         }
     }
@@ -434,7 +435,7 @@ public class OracleSchema extends OracleGlobalObject implements
         throws DBException
     {
         hasStatistics = false;
-        tableCache.clearCache();
+        tableCache.refreshChangedObjects(monitor, this);
         foreignKeyCache.clearCache();
         constraintCache.clearCache();
         indexCache.clearCache();
@@ -675,6 +676,41 @@ public class OracleSchema extends OracleGlobalObject implements
             }
         }
 
+        @Override
+        protected boolean supportsIncrementalRefresh(@NotNull OracleSchema owner) {
+            return true;
+        }
+
+        @Nullable
+        @Override
+        protected DBSObjectFilter getObjectFilter(@NotNull OracleSchema owner) {
+            return owner.getDataSource().getContainer().getObjectFilter(OracleTable.class, owner, true);
+        }
+
+        @Nullable
+        @Override
+        protected String getSnapshotType(@NotNull OracleSchema owner) {
+            // Alternative query returns different columns
+            boolean useAlternativeQuery = CommonUtils.toBoolean(owner.getDataSource().getContainer().getConnectionConfiguration()
+                .getProviderProperty(OracleConstants.PROP_METADATA_USE_ALTERNATIVE_TABLE_QUERY));
+            return useAlternativeQuery ? "tables-alt" : "tables";
+        }
+
+        @NotNull
+        @Override
+        protected JDBCStatement prepareChangeStampsStatement(@NotNull JDBCSession session, @NotNull OracleSchema owner) throws SQLException {
+            // LAST_DDL_TIME is changed by any DDL (including column changes and comments).
+            // Materialized view has two objects with the same name.
+            JDBCPreparedStatement dbStat = session.prepareStatement(
+                "SELECT " + OracleUtils.getSysCatalogHint(owner.getDataSource()) +
+                    " O.OBJECT_NAME,MAX(TO_CHAR(O.LAST_DDL_TIME,'YYYYMMDDHH24MISS')) || ':' || MIN(O.STATUS) || ':' || COUNT(*) AS CHANGE_STAMP\n" +
+                    "FROM " + OracleUtils.getAdminAllViewPrefix(session.getProgressMonitor(), getDataSource(), "OBJECTS") + " O\n" +
+                    "WHERE O.OWNER=? AND O.OBJECT_TYPE IN ('TABLE', 'VIEW', 'MATERIALIZED VIEW')\n" +
+                    "GROUP BY O.OBJECT_NAME");
+            dbStat.setString(1, owner.getName());
+            return dbStat;
+        }
+
         @Override
         protected JDBCStatement prepareChildrenStatement(@NotNull JDBCSession session, @NotNull OracleSchema owner, @Nullable OracleTableBase forTable)
             throws SQLException
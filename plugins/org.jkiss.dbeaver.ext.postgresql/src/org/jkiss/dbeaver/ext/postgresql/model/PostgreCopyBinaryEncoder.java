@@ -0,0 +1,404 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.utils.ContentUtils;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Encoder of PGCOPY binary format (COPY ... FROM STDIN WITH (FORMAT binary)).
+ *
+ * Each tuple is a 16-bit field count followed by fields. Each field is a 32-bit length (-1 for NULL)
+ * followed by the value in the type's binary send/receive representation.
+ */
+public class PostgreCopyBinaryEncoder {
+
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+
+    // 2000-01-01 - PostgreSQL epoch
+    private static final long PG_EPOCH_SECONDS = 946684800L;
+    private static final long PG_EPOCH_DAYS = 10957L;
+
+    private static final int JSONB_VERSION = 1;
+
+    private static final short NUMERIC_POS = 0x0000;
+    private static final short NUMERIC_NEG = 0x4000;
+    private static final short NUMERIC_NAN = (short) 0xC000;
+
+    private static final long MAX_OID = 0xFFFFFFFFL;
+
+    /**
+     * Writes a single non-null field value (including its length prefix)
+     */
+    public interface FieldWriter {
+        void writeField(@NotNull DBCSession session, @NotNull DataOutputStream out, @NotNull Object value) throws IOException, DBCException;
+    }
+
+    public static void writeHeader(@NotNull DataOutputStream out) throws IOException {
+        out.write(SIGNATURE);
+        // Flags
+        out.writeInt(0);
+        // Header extension length
+        out.writeInt(0);
+    }
+
+    public static void writeTupleStart(@NotNull DataOutputStream out, int fieldCount) throws IOException {
+        out.writeShort(fieldCount);
+    }
+
+    public static void writeNull(@NotNull DataOutputStream out) throws IOException {
+        out.writeInt(-1);
+    }
+
+    public static void writeTrailer(@NotNull DataOutputStream out) throws IOException {
+        out.writeShort(-1);
+    }
+
+    /**
+     * Returns binary writer for the specified column or null if column type has no binary representation we can produce.
+     * Text-like types (text, varchar, json, xml, enums, etc.) are rendered by the value handler, their binary form
+     * is the same as text one.
+     */
+    @Nullable
+    public static FieldWriter getFieldWriter(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull PostgreTableColumn attr,
+        @NotNull DBDValueHandler valueHandler
+    ) {
+        PostgreDataType dataType = attr.getDataType();
+        long typeId = attr.getTypeId();
+        if (dataType != null) {
+            for (int i = 0; i < 10 && dataType.getTypeType() == PostgreTypeType.d; i++) {
+                // Domains use base type binary format
+                PostgreDataType baseType = dataType.getBaseType(monitor);
+                if (baseType == null) {
+                    break;
+                }
+                dataType = baseType;
+            }
+            if (dataType.getTypeType() == PostgreTypeType.e) {
+                return textWriter(attr, valueHandler, false);
+            }
+            typeId = dataType.getObjectId();
+        }
+        switch ((int) typeId) {
+            case PostgreOid.BOOL:
+                return (session, out, value) -> {
+                    out.writeInt(1);
+                    out.writeByte(toBoolean(value) ? 1 : 0);
+                };
+            case PostgreOid.INT2:
+                return (session, out, value) -> {
+                    out.writeInt(2);
+                    out.writeShort((short) toInteger(value, Short.MIN_VALUE, Short.MAX_VALUE, "smallint"));
+                };
+            case PostgreOid.INT4:
+                return (session, out, value) -> {
+                    out.writeInt(4);
+                    out.writeInt((int) toInteger(value, Integer.MIN_VALUE, Integer.MAX_VALUE, "integer"));
+                };
+            case PostgreOid.OID:
+                return (session, out, value) -> {
+                    // Unsigned 32-bit value
+                    out.writeInt(4);
+                    out.writeInt((int) toInteger(value, 0, MAX_OID, "oid"));
+                };
+            case PostgreOid.INT8:
+                return (session, out, value) -> {
+                    out.writeInt(8);
+                    out.writeLong(toInteger(value, Long.MIN_VALUE, Long.MAX_VALUE, "bigint"));
+                };
+            case PostgreOid.FLOAT4:
+                return (session, out, value) -> {
+                    out.writeInt(4);
+                    out.writeFloat(toNumber(value).floatValue());
+                };
+            case PostgreOid.FLOAT8:
+                return (session, out, value) -> {
+                    out.writeInt(8);
+                    out.writeDouble(toNumber(value).doubleValue());
+                };
+            case PostgreOid.NUMERIC:
+                return (session, out, value) -> writeNumeric(out, toNumber(value));
+            case PostgreOid.DATE:
+                return (session, out, value) -> {
+                    out.writeInt(4);
+                    out.writeInt((int) (toLocalDate(value).toEpochDay() - PG_EPOCH_DAYS));
+                };
+            case PostgreOid.TIMESTAMP:
+                return (session, out, value) -> {
+                    out.writeInt(8);
+                    out.writeLong(toPgMicros(toLocalDateTime(value).toInstant(ZoneOffset.UTC)));
+                };
+            case PostgreOid.TIMESTAMPTZ:
+                return (session, out, value) -> {
+                    out.writeInt(8);
+                    out.writeLong(toPgMicros(toInstant(value)));
+                };
+            case PostgreOid.UUID:
+                return (session, out, value) -> {
+                    UUID uuid = value instanceof UUID ? (UUID) value : UUID.fromString(value.toString().trim());
+                    out.writeInt(16);
+                    out.writeLong(uuid.getMostSignificantBits());
+                    out.writeLong(uuid.getLeastSignificantBits());
+                };
+            case PostgreOid.BYTEA:
+                return (session, out, value) -> {
+                    byte[] bytes;
+                    if (value instanceof byte[]) {
+                        bytes = (byte[]) value;
+                    } else if (value instanceof DBDContent) {
+                        bytes = ContentUtils.getContentBinaryValue(session.getProgressMonitor(), (DBDContent) value);
+                        if (bytes == null) {
+                            writeNull(out);
+                            return;
+                        }
+                    } else {
+                        throw new DBCException("Unsupported bytea value type: " + value.getClass().getName());
+                    }
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                };
+            case PostgreOid.JSONB:
+                return textWriter(attr, valueHandler, true);
+            case PostgreOid.TEXT:
+            case PostgreOid.VARCHAR:
+            case PostgreOid.BPCHAR:
+            case PostgreOid.NAME:
+            case PostgreOid.JSON:
+            case PostgreOid.XML:
+                return textWriter(attr, valueHandler, false);
+            default:
+                return null;
+        }
+    }
+
+    private static FieldWriter textWriter(@NotNull PostgreTableColumn attr, @NotNull DBDValueHandler valueHandler, boolean jsonb) {
+        return (session, out, value) -> {
+            String strValue = value instanceof String ?
+                (String) value :
+                valueHandler.getValueDisplayString(attr, value, DBDDisplayFormat.NATIVE);
+            byte[] bytes = strValue.getBytes(StandardCharsets.UTF_8);
+            if (jsonb) {
+                out.writeInt(bytes.length + 1);
+                out.writeByte(JSONB_VERSION);
+            } else {
+                out.writeInt(bytes.length);
+            }
+            out.write(bytes);
+        };
+    }
+
+    /**
+     * Numeric is sent as base-10000 digits: ndigits, weight, sign, dscale, digits[ndigits]
+     */
+    private static void writeNumeric(@NotNull DataOutputStream out, @NotNull Number number) throws IOException, DBCException {
+        if ((number instanceof Double && ((Double) number).isNaN()) || (number instanceof Float && ((Float) number).isNaN())) {
+            out.writeInt(8);
+            out.writeShort(0);
+            out.writeShort(0);
+            out.writeShort(NUMERIC_NAN);
+            out.writeShort(0);
+            return;
+        }
+        BigDecimal value = toBigDecimal(number);
+        if (value.scale() < 0) {
+            value = value.setScale(0);
+        }
+        String plain = value.abs().toPlainString();
+        int dotPos = plain.indexOf('.');
+        String intPart = dotPos < 0 ? plain : plain.substring(0, dotPos);
+        String fracPart = dotPos < 0 ? "" : plain.substring(dotPos + 1);
+        int dscale = fracPart.length();
+
+        intPart = "0".repeat((4 - intPart.length() % 4) % 4) + intPart;
+        fracPart = fracPart + "0".repeat((4 - fracPart.length() % 4) % 4);
+        String digitsText = intPart + fracPart;
+
+        short[] digits = new short[digitsText.length() / 4];
+        for (int i = 0; i < digits.length; i++) {
+            digits[i] = Short.parseShort(digitsText.substring(i * 4, i * 4 + 4));
+        }
+        int weight = intPart.length() / 4 - 1;
+        int first = 0, last = digits.length;
+        while (first < last && digits[first] == 0) {
+            first++;
+            weight--;
+        }
+        while (last > first && digits[last - 1] == 0) {
+            last--;
+        }
+        int ndigits = last - first;
+        if (ndigits == 0) {
+            weight = 0;
+        }
+
+        out.writeInt(8 + ndigits * 2);
+        out.writeShort(ndigits);
+        out.writeShort(weight);
+        out.writeShort(value.signum() < 0 ? NUMERIC_NEG : NUMERIC_POS);
+        out.writeShort(dscale);
+        for (int i = first; i < last; i++) {
+            out.writeShort(digits[i]);
+        }
+    }
+
+    private static long toPgMicros(@NotNull Instant instant) {
+        return (instant.getEpochSecond() - PG_EPOCH_SECONDS) * 1_000_000L + instant.getNano() / 1000;
+    }
+
+    private static boolean toBoolean(@NotNull Object value) throws DBCException {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        } else if (value instanceof Number) {
+            return ((Number) value).intValue() != 0;
+        } else if (value instanceof String) {
+            String str = ((String) value).trim();
+            return str.equalsIgnoreCase("true") || str.equalsIgnoreCase("t") || str.equals("1");
+        }
+        throw new DBCException("Unsupported boolean value type: " + value.getClass().getName());
+    }
+
+    @NotNull
+    private static Number toNumber(@NotNull Object value) throws DBCException {
+        if (value instanceof Number) {
+            return (Number) value;
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        } else if (value instanceof String) {
+            String str = ((String) value).trim();
+            if (str.equalsIgnoreCase("NaN")) {
+                return Double.NaN;
+            }
+            try {
+                return new BigDecimal(str);
+            } catch (NumberFormatException e) {
+                throw new DBCException("Bad numeric value '" + value + "'", e);
+            }
+        }
+        throw new DBCException("Unsupported numeric value type: " + value.getClass().getName());
+    }
+
+    /**
+     * Converts value to an integer of the target type. Fractions are rounded as the server does it,
+     * values which don't fit the type are rejected instead of being truncated.
+     */
+    private static long toInteger(@NotNull Object value, long minValue, long maxValue, @NotNull String typeName) throws DBCException {
+        Number number = toNumber(value);
+        long result;
+        if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte) {
+            result = number.longValue();
+        } else {
+            try {
+                result = toBigDecimal(number).setScale(0, RoundingMode.HALF_UP).longValueExact();
+            } catch (ArithmeticException e) {
+                throw new DBCException("Value " + value + " is out of range for type " + typeName, e);
+            }
+        }
+        if (result < minValue || result > maxValue) {
+            throw new DBCException("Value " + value + " is out of range for type " + typeName);
+        }
+        return result;
+    }
+
+    @NotNull
+    private static BigDecimal toBigDecimal(@NotNull Number number) throws DBCException {
+        if (number instanceof BigDecimal) {
+            return (BigDecimal) number;
+        } else if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte) {
+            return BigDecimal.valueOf(number.longValue());
+        }
+        try {
+            return new BigDecimal(number.toString());
+        } catch (NumberFormatException e) {
+            // NaN and infinite values
+            throw new DBCException("Value " + number + " can't be converted to a number", e);
+        }
+    }
+
+    @NotNull
+    private static LocalDate toLocalDate(@NotNull Object value) throws DBCException {
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate();
+        } else if (value instanceof Date) {
+            return toLocalDateTime(value).toLocalDate();
+        } else if (value instanceof TemporalAccessor) {
+            return LocalDate.from((TemporalAccessor) value);
+        }
+        throw new DBCException("Unsupported date value type: " + value.getClass().getName());
+    }
+
+    @NotNull
+    private static LocalDateTime toLocalDateTime(@NotNull Object value) throws DBCException {
+        if (value instanceof java.sql.Timestamp) {
+            return ((java.sql.Timestamp) value).toLocalDateTime();
+        } else if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate().atStartOfDay();
+        } else if (value instanceof Date) {
+            return LocalDateTime.ofInstant(((Date) value).toInstant(), ZoneId.systemDefault());
+        } else if (value instanceof OffsetDateTime) {
+            return ((OffsetDateTime) value).toLocalDateTime();
+        } else if (value instanceof ZonedDateTime) {
+            return ((ZonedDateTime) value).toLocalDateTime();
+        } else if (value instanceof LocalDate) {
+            return ((LocalDate) value).atStartOfDay();
+        } else if (value instanceof TemporalAccessor) {
+            return LocalDateTime.from((TemporalAccessor) value);
+        }
+        throw new DBCException("Unsupported timestamp value type: " + value.getClass().getName());
+    }
+
+    @NotNull
+    private static Instant toInstant(@NotNull Object value) throws DBCException {
+        if (value instanceof java.sql.Timestamp) {
+            return ((java.sql.Timestamp) value).toInstant();
+        } else if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate().atStartOfDay(ZoneId.systemDefault()).toInstant();
+        } else if (value instanceof Date) {
+            return ((Date) value).toInstant();
+        } else if (value instanceof Instant) {
+            return (Instant) value;
+        } else if (value instanceof OffsetDateTime) {
+            return ((OffsetDateTime) value).toInstant();
+        } else if (value instanceof ZonedDateTime) {
+            return ((ZonedDateTime) value).toInstant();
+        } else if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).atZone(ZoneId.systemDefault()).toInstant();
+        } else if (value instanceof LocalDate) {
+            return ((LocalDate) value).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        }
+        throw new DBCException("Unsupported timestamp value type: " + value.getClass().getName());
+    }
+
+}
@@ -34,16 +34,14 @@ import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
-import java.io.BufferedWriter;
-import java.io.IOException;
-import java.io.Reader;
-import java.io.Writer;
+import java.io.*;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.Connection;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -55,6 +53,10 @@ import java.util.Map;
  * //                "COPY table1 FROM STDIN (FORMAT csv)",
  * //                new BufferedReader(new FileReader("data.csv"))
  * //            );
+ *
+ * In streaming mode rows are written directly into PGCopyOutputStream (COPY FROM STDIN
+ * starts in createBulkLoad and ends in finishBulkLoad) so no intermediate file is used.
+ * In binary mode rows are encoded in PGCOPY binary format (see {@link PostgreCopyBinaryEncoder}).
  */
 public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
 
@@ -65,15 +67,21 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
     private Object copyManager;
     private Method copyInMethod;
     private Writer csvWriter;
-    private Path csvFile;
+    private DataOutputStream binaryWriter;
+    private Path dataFile;
+    private boolean streaming;
+    private boolean binary;
+    private OutputStream copyStream;
 
     private AttrMapping[] mappings;
+    private int mappedAttrCount;
 
     private int copyBufferSize = 100 * 1024;
 
     private static class AttrMapping {
         PostgreTableColumn tableAttr;
         DBDValueHandler valueHandler;
+        PostgreCopyBinaryEncoder.FieldWriter binaryWriter;
         int srcPos;
 
         AttrMapping(PostgreTableColumn tableAttr, DBDValueHandler valueHandler, int srcPos) {
@@ -98,35 +106,14 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
         Map<String, Object> options) throws DBCException
     {
         this.table = (PostgreTableReal) dataContainer;
+        this.streaming = options != null && CommonUtils.getBoolean(options.get(OPTION_STREAMING), false);
+        this.binary = options != null && CommonUtils.getBoolean(options.get(OPTION_BINARY_FORMAT), false);
         try {
-            // Use reflection to create copy manager
-            Connection pgConnection = ((JDBCSession) session).getOriginal();
-            ClassLoader driverClassLoader = pgConnection.getClass().getClassLoader();
-
-            Class<?> baseConnectionClass = Class.forName("org.postgresql.core.BaseConnection", true, driverClassLoader);
-            Class<?> copyManagerClass = Class.forName("org.postgresql.copy.CopyManager", true, driverClassLoader);
-
-            // Get method copyIn(final String sql, Reader from, int bufferSize)
-            copyInMethod = copyManagerClass.getMethod("copyIn", String.class, Reader.class, Integer.TYPE);
-
-            copyManager = copyManagerClass.getConstructor(baseConnectionClass).newInstance(pgConnection);
-
-            Path tempFolder = DBWorkbench.getPlatform().getTempFolder(session.getProgressMonitor(), "postgesql-copy-datasets");
-            csvFile = tempFolder.resolve(CommonUtils.escapeFileName(table.getFullyQualifiedName(DBPEvaluationContext.DML)) + "-" + System.currentTimeMillis() + ".csv");  //$NON-NLS-1$ //$NON-NLS-2$
-            try {
-                Files.createFile(csvFile);
-            } catch (IOException ex) {
-                throw new IOException("Can't create CSV file " + csvFile);
-            }
-
-            csvWriter = new BufferedWriter(
-                Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8),
-                copyBufferSize
-                );
-
-            List<? extends PostgreTableColumn> tableAttrs = CommonUtils.safeList(table.getAttributes(session.getProgressMonitor()));
+            // Cached attributes list is read-only
+            List<PostgreTableColumn> tableAttrs = new ArrayList<>(CommonUtils.safeCollection(table.getAttributes(session.getProgressMonitor())));
             tableAttrs.removeIf(a -> a.getOrdinalPosition() < 0);
             mappings = new AttrMapping[tableAttrs.size()];
+            mappedAttrCount = 0;
 
             for (int i = 0; i < tableAttrs.size(); i++) {
                 PostgreTableColumn attr = tableAttrs.get(i);
@@ -136,9 +123,73 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
                     valueHandler,
                     ArrayUtils.indexOf(attributes, attr)
                 );
+                if (mapping.srcPos >= 0) {
+                    mappedAttrCount++;
+                    if (binary) {
+                        mapping.binaryWriter = PostgreCopyBinaryEncoder.getFieldWriter(session.getProgressMonitor(), attr, valueHandler);
+                        if (mapping.binaryWriter == null) {
+                            // Binary COPY can't mix formats - the whole dataset goes in text format
+                            log.debug("Column " + attr.getName() + " type " + attr.getFullTypeName() + " has no binary writer. Use CSV format for COPY.");
+                            binary = false;
+                        }
+                    }
+                }
                 mappings[i] = mapping;
             }
+
+            // Use reflection to create copy manager
+            Connection pgConnection = ((JDBCSession) session).getOriginal();
+            ClassLoader driverClassLoader = pgConnection.getClass().getClassLoader();
+
+            if (streaming) {
+                // PGCopyOutputStream(PGConnection connection, String sql, int bufferSize) starts COPY immediately
+                Class<?> pgConnectionClass = Class.forName("org.postgresql.PGConnection", true, driverClassLoader);
+                Class<?> copyStreamClass = Class.forName("org.postgresql.copy.PGCopyOutputStream", true, driverClassLoader);
+
+                copyStream = (OutputStream) copyStreamClass.getConstructor(pgConnectionClass, String.class, Integer.TYPE)
+                    .newInstance(pgConnection, getCopyQuery(), copyBufferSize);
+                if (binary) {
+                    binaryWriter = new DataOutputStream(new BufferedOutputStream(copyStream, copyBufferSize));
+                } else {
+                    csvWriter = new BufferedWriter(
+                        new OutputStreamWriter(copyStream, StandardCharsets.UTF_8),
+                        copyBufferSize
+                    );
+                }
+            } else {
+                Class<?> baseConnectionClass = Class.forName("org.postgresql.core.BaseConnection", true, driverClassLoader);
+                Class<?> copyManagerClass = Class.forName("org.postgresql.copy.CopyManager", true, driverClassLoader);
+
+                // Get method copyIn(final String sql, Reader/InputStream from, int bufferSize)
+                copyInMethod = copyManagerClass.getMethod("copyIn", String.class, binary ? InputStream.class : Reader.class, Integer.TYPE);
+
+                copyManager = copyManagerClass.getConstructor(baseConnectionClass).newInstance(pgConnection);
+
+                Path tempFolder = DBWorkbench.getPlatform().getTempFolder(session.getProgressMonitor(), "postgesql-copy-datasets");
+                dataFile = tempFolder.resolve(CommonUtils.escapeFileName(table.getFullyQualifiedName(DBPEvaluationContext.DML)) + "-" + System.currentTimeMillis() + (binary ? ".bin" : ".csv"));  //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                try {
+                    Files.createFile(dataFile);
+                } catch (IOException ex) {
+                    throw new IOException("Can't create data file " + dataFile);
+                }
+
+                if (binary) {
+                    binaryWriter = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(dataFile), copyBufferSize));
+                } else {
+                    csvWriter = new BufferedWriter(
+                        Files.newBufferedWriter(dataFile, StandardCharsets.UTF_8),
+                        copyBufferSize
+                        );
+                }
+            }
+            if (binary) {
+                PostgreCopyBinaryEncoder.writeHeader(binaryWriter);
+            }
         } catch (Exception e) {
+            if (e instanceof InvocationTargetException) {
+                throw new DBCException("Can't start COPY", ((InvocationTargetException) e).getTargetException());
+            }
             throw new DBCException("Can't instantiate CopyManager", e);
         }
         return this;
@@ -146,6 +197,10 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
 
     @Override
     public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        if (binary) {
+            addBinaryRow(session, attributeValues);
+            return;
+        }
         StringBuilder line = new StringBuilder();
         boolean hasCell = false;
         for (AttrMapping mapping : mappings) {
@@ -171,7 +226,25 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
         try {
             csvWriter.write(line.toString());
         } catch (IOException e) {
-            throw new DBCException("Error writing CSV line", e);
+            throw new DBCException(streaming ? "Error writing COPY data" : "Error writing CSV line", e);
+        }
+    }
+
+    private void addBinaryRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        try {
+            PostgreCopyBinaryEncoder.writeTupleStart(binaryWriter, mappedAttrCount);
+            for (AttrMapping mapping : mappings) {
+                if (mapping.srcPos >= 0) {
+                    Object srcValue = attributeValues[mapping.srcPos];
+                    if (DBUtils.isNullValue(srcValue)) {
+                        PostgreCopyBinaryEncoder.writeNull(binaryWriter);
+                    } else {
+                        mapping.binaryWriter.writeField(session, binaryWriter, srcValue);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new DBCException("Error writing COPY data", e);
         }
     }
 
@@ -181,45 +254,99 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
             '"';
     }
 
+    private String getCopyQuery() {
+        StringBuilder query = new StringBuilder();
+        query.append("COPY ").append(table.getFullyQualifiedName(DBPEvaluationContext.DML)).append(" (");
+        boolean hasColumn = false;
+        for (AttrMapping mapping : mappings) {
+            if (mapping.srcPos >= 0) {
+                if (hasColumn) {
+                    query.append(",");
+                }
+                query.append(DBUtils.getQuotedIdentifier(mapping.tableAttr));
+                hasColumn = true;
+            }
+        }
+        query.append(") FROM STDIN ");
+        if (binary) {
+            query.append("(FORMAT BINARY)");
+        } else {
+            query.append("(FORMAT CSV, ESCAPE '\\')");
+        }
+        return query.toString();
+    }
+
     @Override
     public void flushRows(@NotNull DBCSession session) throws DBCException {
         try {
-            csvWriter.flush();
+            if (binary) {
+                binaryWriter.flush();
+            } else {
+                csvWriter.flush();
+            }
         } catch (IOException e) {
-            throw new DBCException("Error saving CSV data", e);
+            throw new DBCException(streaming ? "Error sending COPY data" : "Error saving COPY data file", e);
         }
     }
 
     @Override
     public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        if (streaming) {
+            session.getProgressMonitor().subTask("Finish copy into " + table.getFullyQualifiedName(DBPEvaluationContext.DML));
+            try {
+                // Closing the writer ends COPY and reports server-side errors (if any)
+                if (binary) {
+                    PostgreCopyBinaryEncoder.writeTrailer(binaryWriter);
+                    binaryWriter.close();
+                } else {
+                    csvWriter.close();
+                }
+            } catch (IOException e) {
+                throw new DBCException("Error copying dataset on remote server", e);
+            } finally {
+                csvWriter = null;
+                binaryWriter = null;
+                copyStream = null;
+            }
+            commitChanges(session);
+            log.debug("COPY stream has been finished");
+            return;
+        }
         try {
-            csvWriter.flush();
-            csvWriter.close();
+            if (binary) {
+                PostgreCopyBinaryEncoder.writeTrailer(binaryWriter);
+                binaryWriter.close();
+            } else {
+                csvWriter.flush();
+                csvWriter.close();
+            }
         } catch (IOException e) {
             log.debug(e);
         }
         csvWriter = null;
+        binaryWriter = null;
 
         String tableFQN = table.getFullyQualifiedName(DBPEvaluationContext.DML);
 
         session.getProgressMonitor().subTask("Copy into " + tableFQN);
 
-        String queryText = "COPY " + tableFQN + " FROM STDIN (FORMAT CSV, ESCAPE '\\')";
+        String queryText = getCopyQuery();
 
         try {
             Object rowCount;
-            try (Reader csvReader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
-                rowCount = copyInMethod.invoke(copyManager, queryText, csvReader, copyBufferSize);
+            if (binary) {
+                try (InputStream dataStream = Files.newInputStream(dataFile)) {
+                    rowCount = copyInMethod.invoke(copyManager, queryText, dataStream, copyBufferSize);
+                }
+            } else {
+                try (Reader csvReader = Files.newBufferedReader(dataFile, StandardCharsets.UTF_8)) {
+                    rowCount = copyInMethod.invoke(copyManager, queryText, csvReader, copyBufferSize);
+                }
             }
 
-            // Commit changes
-            DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
-            if (txnManager != null && !txnManager.isAutoCommit()) {
-                session.getProgressMonitor().subTask("Commit COPY");
-                txnManager.commit(session);
-            }
+            commitChanges(session);
 
-            log.debug("CSV has been imported (" + rowCount + ")");
+            log.debug("Data file has been imported (" + rowCount + ")");
         } catch (Throwable e) {
             if (e instanceof InvocationTargetException) {
                 e = ((InvocationTargetException) e).getTargetException();
@@ -228,15 +355,34 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
         }
     }
 
-    @Override
+    private void commitChanges(@NotNull DBCSession session) throws DBCException {
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        if (txnManager != null && !txnManager.isAutoCommit()) {
+            session.getProgressMonitor().subTask("Commit COPY");
+            txnManager.commit(session);
+        }
+    }
 
+    @Override
     public void close() {
-        if (csvFile != null && Files.exists(csvFile)) {
+        if (copyStream != null) {
+            // COPY wasn't finished (error or cancel) - abort it so connection can be reused
+            try {
+                Method cancelMethod = copyStream.getClass().getMethod("cancelCopy");
+                cancelMethod.invoke(copyStream);
+            } catch (Throwable e) {
+                log.debug("Error cancelling COPY", e);
+            }
+            copyStream = null;
+            csvWriter = null;
+            binaryWriter = null;
+        }
+        if (dataFile != null && Files.exists(dataFile)) {
             try {
-                Files.delete(csvFile);
+                Files.delete(dataFile);
             } catch (IOException e) {
-                log.debug("Error deleting CSV file " + csvFile, e);
-                csvFile.toFile().deleteOnExit();
+                log.debug("Error deleting COPY data file " + dataFile, e);
+                dataFile.toFile().deleteOnExit();
             }
         }
     }
@@ -156,6 +156,24 @@ public class PostgreDataTypeCache extends JDBCObjectCache<PostgreSchema, Postgre
         }
     }
 
+    @Override
+    public void cacheObjects(@NotNull Collection<? extends PostgreDataType> objects) {
+        // Skip already cached names, as cacheObject does
+        Set<String> names = new HashSet<>();
+        List<PostgreDataType> newTypes = new ArrayList<>(objects.size());
+        for (PostgreDataType object : objects) {
+            if (getCachedObject(object.getName()) == null && names.add(object.getName())) {
+                newTypes.add(object);
+            }
+        }
+        super.cacheObjects(newTypes);
+        for (PostgreDataType object : newTypes) {
+            if (!object.isAlias() || object.isExtraDataType()) {
+                dataTypeMap.put(object.getObjectId(), object);
+            }
+        }
+    }
+
     @Override
     public void setCache(@NotNull List<PostgreDataType> postgreDataTypes) {
         super.setCache(postgreDataTypes);
@@ -88,7 +88,8 @@ public class PostgreSchema implements
 
     private final ExtensionCache extensionCache;
     private final AggregateCache aggregateCache;
-    private final TableCache tableCache;
+    // Transient: tables must survive schema reload in refreshObject, they are refreshed incrementally
+    private final transient TableCache tableCache;
     private final ConstraintCache constraintCache;
     private final ProceduresCache proceduresCache;
     private final IndexCache indexCache;
@@ -414,14 +415,14 @@ public class PostgreSchema implements
         getTableCache().getAllObjects(monitor, this);
         if ((scope & STRUCT_ATTRIBUTES) != 0) {
             monitor.subTask("Cache table columns");
-            getTableCache().loadChildren(monitor, this, null);
+            getTableCache().prefetchChildren(monitor, this);
         }
         if ((scope & STRUCT_ASSOCIATIONS) != 0) {
             monitor.subTask("Cache constraints");
-            constraintCache.getAllObjects(monitor, this);
+            constraintCache.prefetchObjects(monitor, this);
             monitor.subTask("Cache indexes");
             if (indexCache != null) {
-                indexCache.getAllObjects(monitor, this);
+                indexCache.prefetchObjects(monitor, this);
             }
             if (getDataSource().getServerType().supportsInheritance()) {
                 monitor.subTask("Cache inheritance");
@@ -492,7 +493,7 @@ public class PostgreSchema implements
     public synchronized DBSObject refreshObject(@NotNull DBRProgressMonitor monitor)
         throws DBException {
         extensionCache.clearCache();
-        tableCache.clearCache();
+        tableCache.refreshChangedObjects(monitor, this);
         constraintCache.clearCache();
         proceduresCache.clearCache();
         if (indexCache != null) {
@@ -873,6 +874,35 @@ public class PostgreSchema implements
             return JDBCUtils.safeGetBoolean(dbResult, "relispartition");
         }
 
+        @Override
+        protected boolean supportsIncrementalRefresh(@NotNull PostgreTableContainer container) {
+            return getDataSource().getServerType().supportsCatalogChangeStamps();
+        }
+
+        @Nullable
+        @Override
+        protected DBSObjectFilter getObjectFilter(@NotNull PostgreTableContainer container) {
+            return getDataSource().getContainer().getObjectFilter(PostgreTable.class, PostgreSchema.this, true);
+        }
+
+        @NotNull
+        @Override
+        protected JDBCStatement prepareChangeStampsStatement(@NotNull JDBCSession session, @NotNull PostgreTableContainer container)
+            throws SQLException {
+            // DDL updates catalog rows of the relation, its attributes, defaults or comments, so their xmin changes.
+            // Counts catch removed rows.
+            JDBCPreparedStatement dbStat = session.prepareStatement(
+                "SELECT c.relname,c.xmin::text" +
+                    " || ':' || COALESCE((SELECT MAX(a.xmin::text::bigint) || '/' || COUNT(*) FROM pg_catalog.pg_attribute a WHERE a.attrelid=c.oid),'')" +
+                    " || ':' || COALESCE((SELECT MAX(ad.xmin::text::bigint) || '/' || COUNT(*) FROM pg_catalog.pg_attrdef ad WHERE ad.adrelid=c.oid),'')" +
+                    " || ':' || COALESCE((SELECT MAX(d.xmin::text::bigint) || '/' || COUNT(*) FROM pg_catalog.pg_description d WHERE d.objoid=c.oid AND d.classoid='pg_class'::regclass),'')" +
+                    " as change_stamp" +
+                    "\nFROM pg_catalog.pg_class c" +
+                    "\nWHERE c.relnamespace=? AND c.relkind not in ('i','I','c')");
+            dbStat.setLong(1, getObjectId());
+            return dbStat;
+        }
+
         @Override
         protected JDBCStatement prepareChildrenStatement(@NotNull JDBCSession session, @NotNull PostgreTableContainer container, @Nullable PostgreTableBase forTable)
             throws SQLException {
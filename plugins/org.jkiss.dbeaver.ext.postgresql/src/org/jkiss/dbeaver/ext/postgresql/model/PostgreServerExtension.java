@@ -155,6 +155,9 @@ public interface PostgreServerExtension {
     /** True if supports special "Has OIDs" metadata column*/
     boolean supportsHasOidsColumn();
 
+    /** True if system catalog rows have xmin which changes on DDL. Used for incremental metadata refresh */
+    boolean supportsCatalogChangeStamps();
+
     /** True if supports NULL/NOT NULL column data types modifiers */
     boolean supportsColumnsRequiring();
 
@@ -484,6 +484,11 @@ public abstract class PostgreServerExtensionBase implements PostgreServerExtensi
         return true;
     }
 
+    @Override
+    public boolean supportsCatalogChangeStamps() {
+        return false;
+    }
+
     @Override
     public boolean supportsColumnsRequiring() {
         return true;
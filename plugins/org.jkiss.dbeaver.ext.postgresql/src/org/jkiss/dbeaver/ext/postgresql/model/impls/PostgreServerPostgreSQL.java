@@ -50,6 +50,11 @@ public class PostgreServerPostgreSQL extends PostgreServerExtensionBase {
         return !dataSource.isServerVersionAtLeast(12, 0);
     }
 
+    @Override
+    public boolean supportsCatalogChangeStamps() {
+        return true;
+    }
+
     @Override
     public boolean supportsRowLevelSecurity() {
         return dataSource.isServerVersionAtLeast(10, 0);
@@ -37,6 +37,11 @@ public class PostgreServerTimescale extends PostgreServerExtensionBase {
         return true;
     }
 
+    @Override
+    public boolean supportsCatalogChangeStamps() {
+        return true;
+    }
+
     @Override
     public String getServerTypeName() {
         return "Timescale";
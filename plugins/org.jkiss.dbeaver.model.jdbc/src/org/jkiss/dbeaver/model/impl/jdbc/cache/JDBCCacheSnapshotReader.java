@@ -0,0 +1,330 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.*;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCResultSetImpl;
+import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
+import org.jkiss.dbeaver.model.navigator.DBNEvent;
+import org.jkiss.dbeaver.model.navigator.DBNUtils;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.cache.MetadataSnapshot;
+import org.jkiss.dbeaver.model.struct.cache.MetadataSnapshotStore;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Executes metadata query of a cache.
+ * <p>
+ * If metadata snapshots are enabled then rows are read from the snapshot (on the first read after connect)
+ * or read from the database and saved in a new snapshot. Live rows are streamed to the cache and recorded
+ * in the new snapshot as the cache fetches them, so large catalogs are not buffered in memory twice.
+ * Snapshot rows are revalidated against the live catalog in background. If catalog was changed then
+ * the snapshot is replaced and the owner navigator node is refreshed.
+ */
+final class JDBCCacheSnapshotReader implements AutoCloseable {
+
+    private static final Log log = Log.getLog(JDBCCacheSnapshotReader.class);
+
+    // Give connect and navigator a chance to finish before we run the same queries again
+    private static final long REVALIDATION_DELAY = 1000;
+
+    @FunctionalInterface
+    interface StatementProvider {
+        @NotNull
+        JDBCStatement prepareStatement(@NotNull JDBCSession session) throws SQLException;
+    }
+
+    private final JDBCSession session;
+    private final DBSObject owner;
+    private final String snapshotType;
+    private final StatementProvider statementProvider;
+    private final MetadataSnapshotStore store;
+
+    private JDBCStatement statement;
+    private JDBCResultSet liveResult;
+    private MetadataSnapshot snapshot;
+    private boolean fromSnapshot;
+    // All live rows were fetched and recorded
+    private boolean recorded;
+
+    /**
+     * @param snapshotType snapshot type (unique within cache owner) or null if snapshot mustn't be used
+     */
+    JDBCCacheSnapshotReader(
+        @NotNull JDBCSession session,
+        @NotNull DBSObject owner,
+        @Nullable String snapshotType,
+        @NotNull StatementProvider statementProvider
+    ) {
+        this.session = session;
+        this.owner = owner;
+        this.snapshotType = snapshotType;
+        this.statementProvider = statementProvider;
+        this.store = snapshotType == null || !owner.isPersisted() ? null : MetadataSnapshotStore.getStore(owner);
+    }
+
+    /**
+     * Returns true if rows were read from the persisted snapshot
+     */
+    boolean isFromSnapshot() {
+        return fromSnapshot;
+    }
+
+    /**
+     * Returns metadata rows. Result set must be closed by the caller.
+     */
+    @Nullable
+    JDBCResultSet executeQuery() throws SQLException {
+        if (store != null) {
+            snapshot = store.readSnapshot(owner, snapshotType);
+            if (snapshot != null) {
+                fromSnapshot = true;
+                return openSnapshot(session, snapshot);
+            }
+        }
+        statement = statementProvider.prepareStatement(session);
+        statement.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+        statement.executeStatement();
+        JDBCResultSet dbResult = statement.getResultSet();
+        if (dbResult == null || store == null) {
+            return dbResult;
+        }
+        if (!isSnapshotSupported(dbResult.getMetaData())) {
+            log.debug("Metadata snapshot is not supported for " + snapshotType + ": unsupported column types");
+            return dbResult;
+        }
+        liveResult = dbResult;
+        snapshot = createSnapshot(dbResult.getMetaData());
+        ResultSet recorder = (ResultSet) Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class[]{ResultSet.class},
+            new RowRecorder(dbResult.getOriginal(), snapshot));
+        return JDBCResultSetImpl.makeResultSet(session, statement, recorder, "Metadata query", true);
+    }
+
+    /**
+     * Must be called after all rows were successfully read by the cache.
+     * Saves new snapshot or schedules revalidation of the used one.
+     */
+    void complete() {
+        if (store == null || snapshot == null || session.getProgressMonitor().isCanceled()) {
+            return;
+        }
+        if (!fromSnapshot) {
+            if (recorded) {
+                store.saveSnapshot(owner, snapshotType, snapshot);
+            }
+        } else if (!snapshot.isValidated() && isRevalidationEnabled()) {
+            new RevalidateJob(snapshot).schedule(REVALIDATION_DELAY);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (liveResult != null) {
+            liveResult.close();
+            liveResult = null;
+        }
+        if (statement != null) {
+            statement.close();
+            statement = null;
+        }
+    }
+
+    private boolean isRevalidationEnabled() {
+        DBPDataSourceContainer container = DBUtils.getContainer(owner);
+        return container != null && container.getPreferenceStore().getBoolean(ModelPreferences.META_SNAPSHOT_REVALIDATE);
+    }
+
+    @NotNull
+    private static JDBCResultSet openSnapshot(@NotNull JDBCSession session, @NotNull MetadataSnapshot snapshot) throws SQLException {
+        return JDBCResultSetImpl.makeResultSet(session, null, JDBCSnapshotResultSet.create(snapshot), "Metadata snapshot", true);
+    }
+
+    /**
+     * Complex values can't be restored from snapshot. Such caches always read the live catalog.
+     * Temporal values with time zone are not supported too: java.sql.Time/Timestamp lose the offset.
+     * Long and LOB values are not supported because some drivers can read them only once, while both
+     * the snapshot recorder and the cache read each value.
+     */
+    private static boolean isSnapshotSupported(@NotNull ResultSetMetaData metaData) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            switch (metaData.getColumnType(i)) {
+                case Types.ARRAY, Types.STRUCT, Types.REF, Types.DISTINCT, Types.JAVA_OBJECT, Types.OTHER,
+                    Types.SQLXML, Types.DATALINK, Types.ROWID, Types.REF_CURSOR,
+                    Types.TIME_WITH_TIMEZONE, Types.TIMESTAMP_WITH_TIMEZONE,
+                    Types.LONGVARCHAR, Types.LONGNVARCHAR, Types.LONGVARBINARY, Types.CLOB, Types.NCLOB, Types.BLOB -> {
+                    return false;
+                }
+                default -> {
+                    // Scalar type
+                }
+            }
+        }
+        return true;
+    }
+
+    @NotNull
+    private static MetadataSnapshot createSnapshot(@NotNull ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        String[] labels = new String[columnCount];
+        int[] types = new int[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            labels[i] = metaData.getColumnLabel(i + 1);
+            types[i] = metaData.getColumnType(i + 1);
+        }
+        return new MetadataSnapshot(labels, types);
+    }
+
+    @NotNull
+    private static MetadataSnapshot readSnapshot(@NotNull DBRProgressMonitor monitor, @NotNull JDBCResultSet dbResult) throws SQLException {
+        MetadataSnapshot snapshot = createSnapshot(dbResult.getMetaData());
+        while (dbResult.next() && !monitor.isCanceled()) {
+            snapshot.addRow(readRow(dbResult, snapshot));
+        }
+        return snapshot;
+    }
+
+    @NotNull
+    private static Object[] readRow(@NotNull ResultSet dbResult, @NotNull MetadataSnapshot snapshot) throws SQLException {
+        Object[] row = new Object[snapshot.getColumnCount()];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = readValue(dbResult, i + 1, snapshot.getColumnType(i));
+        }
+        return row;
+    }
+
+    @Nullable
+    private static Object readValue(@NotNull ResultSet dbResult, int index, int type) throws SQLException {
+        Object value = switch (type) {
+            case Types.BIT, Types.BOOLEAN -> dbResult.getBoolean(index);
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT -> dbResult.getLong(index);
+            case Types.REAL, Types.FLOAT, Types.DOUBLE -> dbResult.getDouble(index);
+            case Types.NUMERIC, Types.DECIMAL -> dbResult.getBigDecimal(index);
+            case Types.DATE -> dbResult.getDate(index);
+            case Types.TIME -> dbResult.getTime(index);
+            case Types.TIMESTAMP -> dbResult.getTimestamp(index);
+            case Types.BINARY, Types.VARBINARY -> dbResult.getBytes(index);
+            default -> dbResult.getString(index);
+        };
+        return dbResult.wasNull() ? null : value;
+    }
+
+    /**
+     * Delegates to the live result set and records each fetched row in the snapshot
+     * before the cache reads it.
+     */
+    private class RowRecorder implements InvocationHandler {
+        private final ResultSet original;
+        private final MetadataSnapshot rowsSnapshot;
+
+        RowRecorder(@NotNull ResultSet original, @NotNull MetadataSnapshot rowsSnapshot) {
+            this.original = original;
+            this.rowsSnapshot = rowsSnapshot;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result;
+            try {
+                result = method.invoke(original, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            if (method.getName().equals("next") && method.getParameterCount() == 0) {
+                if (Boolean.TRUE.equals(result)) {
+                    rowsSnapshot.addRow(readRow(original, rowsSnapshot));
+                } else {
+                    recorded = true;
+                }
+            }
+            return result;
+        }
+    }
+
+    private class RevalidateJob extends AbstractJob {
+        private final MetadataSnapshot usedSnapshot;
+
+        RevalidateJob(@NotNull MetadataSnapshot usedSnapshot) {
+            super("Revalidate metadata snapshot of " + DBUtils.getObjectFullName(owner, DBPEvaluationContext.UI));
+            this.usedSnapshot = usedSnapshot;
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            DBPDataSource dataSource = owner.getDataSource();
+            if (dataSource == null || !dataSource.getContainer().isConnected()) {
+                return Status.OK_STATUS;
+            }
+            try {
+                MetadataSnapshot actualSnapshot = null;
+                try (JDBCSession metaSession = DBUtils.openMetaSession(monitor, owner, "Revalidate metadata snapshot")) {
+                    try (JDBCStatement dbStat = statementProvider.prepareStatement(metaSession)) {
+                        dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+                        dbStat.executeStatement();
+                        try (JDBCResultSet dbResult = dbStat.getResultSet()) {
+                            if (dbResult != null) {
+                                actualSnapshot = readSnapshot(monitor, dbResult);
+                            }
+                        }
+                    }
+                }
+                if (actualSnapshot == null || monitor.isCanceled()) {
+                    return Status.OK_STATUS;
+                }
+                store.saveSnapshot(owner, snapshotType, actualSnapshot);
+                if (actualSnapshot.hasSameContent(usedSnapshot)) {
+                    return Status.OK_STATUS;
+                }
+                log.debug("Metadata of " + DBUtils.getObjectFullName(owner, DBPEvaluationContext.UI) + " was changed since the last snapshot (" + snapshotType + ")");
+                if (owner instanceof DBPDataSource) {
+                    // Do not refresh the whole connection. New snapshot will be used after reconnect
+                    return Status.OK_STATUS;
+                }
+                DBNDatabaseNode ownerNode = DBNUtils.getNodeByObject(owner);
+                if (ownerNode != null) {
+                    // Let the refresh read the new snapshot instead of querying the catalog once again
+                    store.markValidated(owner, snapshotType);
+                    ownerNode.refreshNode(monitor, DBNEvent.FORCE_REFRESH);
+                }
+            } catch (Exception e) {
+                log.debug("Error revalidating metadata snapshot of " + owner.getName(), e);
+            }
+            return Status.OK_STATUS;
+        }
+    }
+}
@@ -21,7 +21,6 @@ import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBDatabaseException;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
-import org.jkiss.dbeaver.model.DBConstants;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPObjectWithOrdinalPosition;
 import org.jkiss.dbeaver.model.DBUtils;
@@ -108,6 +107,15 @@ public abstract class JDBCCompositeCache<
         return false;
     }
 
+    /**
+     * Returns type of the persistent metadata snapshot of this cache (unique within the cache owner).
+     * Null (default) means that cache objects must be always read from the database.
+     */
+    @Nullable
+    protected String getSnapshotType(@NotNull OWNER owner) {
+        return null;
+    }
+
     @NotNull
     @Override
     public List<OBJECT> getAllObjects(@NotNull DBRProgressMonitor monitor, @Nullable OWNER owner)
@@ -125,6 +133,29 @@ public abstract class JDBCCompositeCache<
         return getCachedObjects(forParent);
     }
 
+    /**
+     * Reads objects of all parents of the owner with a single query.
+     * Used before walking through many parents (e.g. by diagrams or schema compare) to avoid reading
+     * objects of each parent separately. Does nothing if objects of all parents are already cached.
+     */
+    public void prefetchObjects(@NotNull DBRProgressMonitor monitor, @NotNull OWNER owner)
+        throws DBException
+    {
+        if (monitor.isCanceled() || monitor.isForceCacheUsage() || isFullyCached()) {
+            return;
+        }
+        if (parentCache.isFullyCached()) {
+            List<PARENT> parents = parentCache.getTypedObjects(monitor, owner, parentType);
+            synchronized (objectCache) {
+                if (objectCache.keySet().containsAll(parents)) {
+                    // Objects of each parent were read separately
+                    return;
+                }
+            }
+        }
+        loadObjects(monitor, owner, null);
+    }
+
     public <TYPE extends OBJECT> List<TYPE > getTypedObjects(@NotNull DBRProgressMonitor monitor, OWNER owner, PARENT forParent, Class<TYPE> type)
         throws DBException
     {
@@ -199,6 +230,17 @@ public abstract class JDBCCompositeCache<
         }
     }
 
+    @Override
+    public void cacheObjects(@NotNull Collection<? extends OBJECT> objects)
+    {
+        super.cacheObjects(objects);
+        synchronized (objectCache) {
+            for (OBJECT object : objects) {
+                objectCache.computeIfAbsent(getParent(object), k -> new ArrayList<>()).add(object);
+            }
+        }
+    }
+
     @Override
     public void removeObject(@NotNull OBJECT object, boolean resetFullCache)
     {
@@ -300,11 +342,12 @@ public abstract class JDBCCompositeCache<
         monitor.beginTask("Load composite cache", 1);
         try (JDBCSession session = DBUtils.openMetaSession(monitor, owner, "Load composite objects")) {
 
-            JDBCStatement dbStat = prepareObjectsStatement(session, owner, forParent);
-            dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
-            try {
-                dbStat.executeStatement();
-                JDBCResultSet dbResult = dbStat.getResultSet();
+            // Only the complete objects list may be restored from snapshot
+            String snapshotType = forParent == null ? getSnapshotType(owner) : null;
+            try (JDBCCacheSnapshotReader reader = new JDBCCacheSnapshotReader(
+                session, owner, snapshotType, s -> prepareObjectsStatement(s, owner, forParent)))
+            {
+                JDBCResultSet dbResult = reader.executeQuery();
                 if (dbResult != null) try {
                     while (dbResult.next()) {
                         if (monitor.isCanceled()) {
@@ -378,14 +421,12 @@ public abstract class JDBCCompositeCache<
                             }
                         }
                     }
+                    reader.complete();
                 }
                 finally {
                     dbResult.close();
                 }
             }
-            finally {
-                dbStat.close();
-            }
         }
         catch (SQLException ex) {
             if (ex instanceof SQLFeatureNotSupportedException) {
@@ -21,7 +21,6 @@ import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBDatabaseException;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
-import org.jkiss.dbeaver.model.DBConstants;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
@@ -50,6 +49,8 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
 
     // Maximum number of objects in cache
     private int maximumCacheSize = DEFAULT_MAX_CACHE_SIZE;
+    // Objects were read from the persistent metadata snapshot
+    private volatile boolean loadedFromSnapshot;
 
     protected JDBCObjectCache() {
     }
@@ -105,11 +106,11 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
             try {
                 try (JDBCSession session = DBUtils.openMetaSession(monitor, owner, "Load objects from " + owner.getName())) {
                     beforeCacheLoading(session, owner);
-                    try (JDBCStatement dbStat = prepareObjectsStatement(session, owner)) {
+                    try (JDBCCacheSnapshotReader reader = new JDBCCacheSnapshotReader(
+                        session, owner, getSnapshotType(owner), s -> prepareObjectsStatement(s, owner)))
+                    {
                         monitor.subTask("Load " + getCacheName());
-                        dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
-                        dbStat.executeStatement();
-                        JDBCResultSet dbResult = dbStat.getResultSet();
+                        JDBCResultSet dbResult = reader.executeQuery();
                         if (dbResult != null) {
                             try {
                                 while (dbResult.next()) {
@@ -133,6 +134,8 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
                             } finally {
                                 dbResult.close();
                             }
+                            reader.complete();
+                            loadedFromSnapshot = reader.isFromSnapshot();
                         }
                     } finally {
                         afterCacheLoading(session, owner);
@@ -160,9 +163,23 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
 
         detectCaseSensitivity(owner);
         mergeCache(tmpObjectList);
+        indexOwner(owner);
         this.invalidateObjects(monitor, owner, new CacheIterator());
     }
 
+    @Override
+    public void clearCache() {
+        super.clearCache();
+        this.loadedFromSnapshot = false;
+    }
+
+    /**
+     * Returns true if cached objects were read from the persistent metadata snapshot rather than from the live catalog
+     */
+    protected boolean isLoadedFromSnapshot() {
+        return loadedFromSnapshot;
+    }
+
     public void beforeCacheLoading(JDBCSession session, OWNER owner) throws DBException {
         // Do nothing
     }
@@ -175,6 +192,17 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
         return getClass().getSimpleName();
     }
 
+    /**
+     * Returns type of the persistent metadata snapshot of this cache (unique within the cache owner).
+     * Null (default) means that cache objects must be always read from the database.
+     * Only caches which read all objects with a single query depending on the owner only may use snapshots.
+     * If the query depends on other settings (e.g. server side filters) then they must be a part of the type.
+     */
+    @Nullable
+    protected String getSnapshotType(@NotNull OWNER owner) {
+        return null;
+    }
+
     // Can be implemented to provide custom cache error handler
     protected boolean handleCacheReadError(Exception error) {
         return false;
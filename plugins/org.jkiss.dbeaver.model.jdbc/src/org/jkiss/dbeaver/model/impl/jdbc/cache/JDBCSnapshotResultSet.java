@@ -0,0 +1,455 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.struct.cache.MetadataSnapshot;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Read-only forward-only result set over metadata snapshot rows.
+ * Caches only iterate rows and read values, so the result set is a proxy which supports
+ * value getters (by index and by label) and basic navigation. Other methods are not supported.
+ * Performs the same value conversions as JDBC drivers do for metadata queries.
+ */
+final class JDBCSnapshotResultSet implements InvocationHandler {
+
+    private final MetadataSnapshot snapshot;
+    private final List<Object[]> rows;
+    private final Map<String, Integer> columnIndexes = new HashMap<>();
+    private int position = -1;
+    private boolean lastNull;
+    private boolean closed;
+
+    private JDBCSnapshotResultSet(@NotNull MetadataSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.rows = snapshot.getRows();
+        for (int i = snapshot.getColumnCount(); i > 0; i--) {
+            // Labels are case insensitive. First column wins if there are duplicates.
+            columnIndexes.put(snapshot.getColumnLabel(i - 1).toUpperCase(Locale.ENGLISH), i);
+        }
+    }
+
+    @NotNull
+    static ResultSet create(@NotNull MetadataSnapshot snapshot) {
+        return (ResultSet) Proxy.newProxyInstance(
+            JDBCSnapshotResultSet.class.getClassLoader(),
+            new Class[]{ResultSet.class},
+            new JDBCSnapshotResultSet(snapshot));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        int argCount = args == null ? 0 : args.length;
+        switch (name) {
+            case "next":
+                checkOpen();
+                if (position < rows.size()) {
+                    position++;
+                }
+                return position < rows.size();
+            case "close":
+                closed = true;
+                return null;
+            case "isClosed":
+                return closed;
+            case "wasNull":
+                return lastNull;
+            case "findColumn":
+                return findColumn((String) args[0]);
+            case "getMetaData":
+                return new SnapshotMetaData();
+            case "getRow":
+                return position >= 0 && position < rows.size() ? position + 1 : 0;
+            case "isBeforeFirst":
+                return position < 0 && !rows.isEmpty();
+            case "isAfterLast":
+                return position >= rows.size() && !rows.isEmpty();
+            case "getType":
+                return ResultSet.TYPE_FORWARD_ONLY;
+            case "getConcurrency":
+                return ResultSet.CONCUR_READ_ONLY;
+            case "getHoldability":
+                return ResultSet.HOLD_CURSORS_OVER_COMMIT;
+            case "getFetchDirection":
+                return ResultSet.FETCH_FORWARD;
+            case "getFetchSize":
+                return rows.size();
+            case "setFetchSize", "setFetchDirection", "clearWarnings", "getWarnings", "getStatement", "getCursorName":
+                return null;
+            case "isWrapperFor":
+                return false;
+            case "unwrap":
+                throw new SQLException("Not a wrapper for " + ((Class<?>) args[0]).getName());
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "Metadata snapshot " + snapshot.getColumnCount() + "x" + rows.size();
+            default:
+                break;
+        }
+        if (name.startsWith("get") && argCount > 0 && (args[0] instanceof Integer || args[0] instanceof String)) {
+            int columnIndex = args[0] instanceof String label ? findColumn(label) : (Integer) args[0];
+            return getColumnValue(name, columnIndex, argCount > 1 ? args[1] : null);
+        }
+        throw new SQLFeatureNotSupportedException("Metadata snapshot doesn't support " + name);
+    }
+
+    private int findColumn(@Nullable String columnLabel) throws SQLException {
+        Integer index = columnLabel == null ? null : columnIndexes.get(columnLabel.toUpperCase(Locale.ENGLISH));
+        if (index == null) {
+            throw new SQLException("Column '" + columnLabel + "' not found in metadata snapshot");
+        }
+        return index;
+    }
+
+    /**
+     * Reads column value as the getter does.
+     *
+     * @param option second getter argument (calendar, scale, type map or target class)
+     */
+    @Nullable
+    private Object getColumnValue(@NotNull String getter, int columnIndex, @Nullable Object option) throws SQLException {
+        switch (getter) {
+            case "getString", "getNString":
+                return getString(columnIndex);
+            case "getBoolean":
+                return getBoolean(columnIndex);
+            case "getByte": {
+                Number number = getNumber(columnIndex);
+                return number == null ? (byte) 0 : number.byteValue();
+            }
+            case "getShort": {
+                Number number = getNumber(columnIndex);
+                return number == null ? (short) 0 : number.shortValue();
+            }
+            case "getInt": {
+                Number number = getNumber(columnIndex);
+                return number == null ? 0 : number.intValue();
+            }
+            case "getLong": {
+                Number number = getNumber(columnIndex);
+                return number == null ? 0L : number.longValue();
+            }
+            case "getFloat": {
+                Number number = getNumber(columnIndex);
+                return number == null ? 0f : number.floatValue();
+            }
+            case "getDouble": {
+                Number number = getNumber(columnIndex);
+                return number == null ? 0d : number.doubleValue();
+            }
+            case "getBigDecimal": {
+                BigDecimal value = getBigDecimal(columnIndex);
+                return value == null || !(option instanceof Integer scale) ? value : value.setScale(scale, RoundingMode.HALF_UP);
+            }
+            case "getBytes":
+                return getBytes(columnIndex);
+            case "getBinaryStream", "getAsciiStream": {
+                byte[] bytes = getBytes(columnIndex);
+                return bytes == null ? null : new ByteArrayInputStream(bytes);
+            }
+            case "getCharacterStream", "getNCharacterStream": {
+                String value = getString(columnIndex);
+                return value == null ? null : new StringReader(value);
+            }
+            case "getDate": {
+                java.util.Date value = getDateValue(columnIndex);
+                return value == null || value instanceof Date ? value : new Date(value.getTime());
+            }
+            case "getTime": {
+                java.util.Date value = getDateValue(columnIndex);
+                return value == null || value instanceof Time ? value : new Time(value.getTime());
+            }
+            case "getTimestamp": {
+                java.util.Date value = getDateValue(columnIndex);
+                return value == null || value instanceof Timestamp ? value : new Timestamp(value.getTime());
+            }
+            case "getObject":
+                if (option instanceof Class<?> type) {
+                    return getObject(columnIndex, type);
+                }
+                return getValue(columnIndex);
+            default:
+                throw new SQLFeatureNotSupportedException("Metadata snapshot doesn't support " + getter);
+        }
+    }
+
+    @Nullable
+    private Object getValue(int columnIndex) throws SQLException {
+        checkOpen();
+        if (position < 0 || position >= rows.size()) {
+            throw new SQLException("Result set is not positioned on a row");
+        }
+        Object[] row = rows.get(position);
+        if (columnIndex < 1 || columnIndex > row.length) {
+            throw new SQLException("Column index " + columnIndex + " is out of range (1.." + row.length + ")");
+        }
+        Object value = row[columnIndex - 1];
+        lastNull = value == null;
+        return value;
+    }
+
+    @Nullable
+    private String getString(int columnIndex) throws SQLException {
+        Object value = getValue(columnIndex);
+        if (value instanceof byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        } else if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        return value == null ? null : value.toString();
+    }
+
+    private boolean getBoolean(int columnIndex) throws SQLException {
+        Object value = getValue(columnIndex);
+        if (value instanceof Boolean bool) {
+            return bool;
+        } else if (value instanceof Number number) {
+            return number.intValue() != 0;
+        } else if (value instanceof String str) {
+            str = str.trim();
+            return str.equals("1") || str.equalsIgnoreCase("true") || str.equalsIgnoreCase("Y") || str.equalsIgnoreCase("YES");
+        }
+        return false;
+    }
+
+    @Nullable
+    private Number getNumber(int columnIndex) throws SQLException {
+        Object value = getValue(columnIndex);
+        if (value == null || value instanceof Number) {
+            return (Number) value;
+        } else if (value instanceof Boolean bool) {
+            return bool ? 1 : 0;
+        } else if (value instanceof String str) {
+            try {
+                return new BigDecimal(str.trim());
+            } catch (NumberFormatException e) {
+                throw new SQLException("Can't convert value '" + str + "' to number", e);
+            }
+        }
+        throw new SQLException("Can't convert " + value.getClass().getSimpleName() + " to number");
+    }
+
+    @Nullable
+    private BigDecimal getBigDecimal(int columnIndex) throws SQLException {
+        Number number = getNumber(columnIndex);
+        if (number == null || number instanceof BigDecimal) {
+            return (BigDecimal) number;
+        } else if (number instanceof Double || number instanceof Float) {
+            return BigDecimal.valueOf(number.doubleValue());
+        }
+        return BigDecimal.valueOf(number.longValue());
+    }
+
+    @Nullable
+    private byte[] getBytes(int columnIndex) throws SQLException {
+        Object value = getValue(columnIndex);
+        if (value == null || value instanceof byte[]) {
+            return (byte[]) value;
+        }
+        return getString(columnIndex).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Nullable
+    private java.util.Date getDateValue(int columnIndex) throws SQLException {
+        Object value = getValue(columnIndex);
+        if (value == null || value instanceof java.util.Date) {
+            return (java.util.Date) value;
+        } else if (value instanceof Number number) {
+            return new Timestamp(number.longValue());
+        } else if (value instanceof String str) {
+            try {
+                return Timestamp.valueOf(str.trim());
+            } catch (IllegalArgumentException e) {
+                throw new SQLException("Can't convert value '" + str + "' to timestamp", e);
+            }
+        }
+        throw new SQLException("Can't convert " + value.getClass().getSimpleName() + " to timestamp");
+    }
+
+    @Nullable
+    private Object getObject(int columnIndex, @NotNull Class<?> type) throws SQLException {
+        Object value = getValue(columnIndex);
+        if (value == null || type.isInstance(value)) {
+            return value;
+        }
+        String getter = type == String.class ? "getString" :
+            type == Integer.class ? "getInt" :
+            type == Long.class ? "getLong" :
+            type == Short.class ? "getShort" :
+            type == Double.class ? "getDouble" :
+            type == Float.class ? "getFloat" :
+            type == BigDecimal.class ? "getBigDecimal" :
+            type == Boolean.class ? "getBoolean" :
+            type == Date.class ? "getDate" :
+            type == Time.class ? "getTime" :
+            type == Timestamp.class ? "getTimestamp" :
+            type == byte[].class ? "getBytes" : null;
+        if (getter == null) {
+            throw new SQLException("Can't convert " + value.getClass().getSimpleName() + " to " + type.getSimpleName());
+        }
+        return getColumnValue(getter, columnIndex, null);
+    }
+
+    private void checkOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException("Result set is closed");
+        }
+    }
+
+    private class SnapshotMetaData implements ResultSetMetaData {
+
+        @Override
+        public int getColumnCount() throws SQLException {
+            return snapshot.getColumnCount();
+        }
+
+        @Override
+        public boolean isAutoIncrement(int column) throws SQLException {
+            return false;
+        }
+
+        @Override
+        public boolean isCaseSensitive(int column) throws SQLException {
+            return true;
+        }
+
+        @Override
+        public boolean isSearchable(int column) throws SQLException {
+            return false;
+        }
+
+        @Override
+        public boolean isCurrency(int column) throws SQLException {
+            return false;
+        }
+
+        @Override
+        public int isNullable(int column) throws SQLException {
+            return columnNullableUnknown;
+        }
+
+        @Override
+        public boolean isSigned(int column) throws SQLException {
+            return true;
+        }
+
+        @Override
+        public int getColumnDisplaySize(int column) throws SQLException {
+            return 0;
+        }
+
+        @Override
+        public String getColumnLabel(int column) throws SQLException {
+            return snapshot.getColumnLabel(column - 1);
+        }
+
+        @Override
+        public String getColumnName(int column) throws SQLException {
+            return snapshot.getColumnLabel(column - 1);
+        }
+
+        @Override
+        public String getSchemaName(int column) throws SQLException {
+            return "";
+        }
+
+        @Override
+        public int getPrecision(int column) throws SQLException {
+            return 0;
+        }
+
+        @Override
+        public int getScale(int column) throws SQLException {
+            return 0;
+        }
+
+        @Override
+        public String getTableName(int column) throws SQLException {
+            return "";
+        }
+
+        @Override
+        public String getCatalogName(int column) throws SQLException {
+            return "";
+        }
+
+        @Override
+        public int getColumnType(int column) throws SQLException {
+            return snapshot.getColumnType(column - 1);
+        }
+
+        @Override
+        public String getColumnTypeName(int column) throws SQLException {
+            try {
+                return JDBCType.valueOf(getColumnType(column)).getName();
+            } catch (IllegalArgumentException e) {
+                // Vendor-specific type
+                return JDBCType.OTHER.getName();
+            }
+        }
+
+        @Override
+        public boolean isReadOnly(int column) throws SQLException {
+            return true;
+        }
+
+        @Override
+        public boolean isWritable(int column) throws SQLException {
+            return false;
+        }
+
+        @Override
+        public boolean isDefinitelyWritable(int column) throws SQLException {
+            return false;
+        }
+
+        @Override
+        public String getColumnClassName(int column) throws SQLException {
+            return Object.class.getName();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            throw new SQLException("Not a wrapper for " + iface.getName());
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) throws SQLException {
+            return false;
+        }
+    }
+}
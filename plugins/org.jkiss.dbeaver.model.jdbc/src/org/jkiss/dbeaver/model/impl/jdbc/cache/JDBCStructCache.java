@@ -21,7 +21,6 @@ import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBDatabaseException;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
-import org.jkiss.dbeaver.model.DBConstants;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
@@ -89,13 +88,14 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
             throw new DBException(ModelMessages.error_not_connected_to_database);
         }
         try (JDBCSession session = DBUtils.openMetaSession(monitor, owner, "Load child objects")) {
-            Map<OBJECT, List<CHILD>> objectMap = new HashMap<>();
+            Map<OBJECT, List<CHILD>> objectMap = new IdentityHashMap<>();
 
-            // Load columns
-            try (JDBCStatement dbStat = prepareChildrenStatement(session, owner, forObject)) {
-                dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
-                dbStat.executeStatement();
-                JDBCResultSet dbResult = dbStat.getResultSet();
+            // Load columns. Only the complete children list may be restored from snapshot
+            String snapshotType = forObject == null ? getChildrenSnapshotType(owner) : null;
+            try (JDBCCacheSnapshotReader reader = new JDBCCacheSnapshotReader(
+                session, owner, snapshotType, s -> prepareChildrenStatement(s, owner, forObject)))
+            {
+                JDBCResultSet dbResult = reader.executeQuery();
                 if (dbResult != null) {
                     try {
                         while (dbResult.next()) {
@@ -166,6 +166,7 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
                     } finally {
                         dbResult.close();
                     }
+                    reader.complete();
                 }
             }
         } catch (SQLException ex) {
@@ -173,6 +174,32 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
         }
     }
 
+    @Override
+    public void prefetchChildren(@NotNull DBRProgressMonitor monitor, @NotNull OWNER owner) throws DBException {
+        if (this.childrenCached) {
+            return;
+        }
+        if (isFullyCached()) {
+            synchronized (childrenCache) {
+                if (childrenCache.keySet().containsAll(getCachedObjects())) {
+                    // Children of each object were read separately
+                    return;
+                }
+            }
+        }
+        loadChildren(monitor, owner, null);
+    }
+
+    /**
+     * Returns type of the persistent metadata snapshot of all children.
+     * Null means that children must be always read from the database.
+     */
+    @Nullable
+    protected String getChildrenSnapshotType(@NotNull OWNER owner) {
+        String snapshotType = getSnapshotType(owner);
+        return snapshotType == null ? null : snapshotType + "#children";
+    }
+
     @Override
     public void removeObject(@NotNull OBJECT object, boolean resetFullCache) {
         super.removeObject(object, resetFullCache);
@@ -231,8 +258,13 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
     public void clearChildrenCache(OBJECT forParent) {
         synchronized (childrenCache) {
             if (forParent != null) {
-                this.childrenCache.remove(forParent);
+                SimpleObjectCache<OBJECT, CHILD> removed = this.childrenCache.remove(forParent);
+                if (removed != null) {
+                    removed.clearCache();
+                }
             } else {
+                // Clear nested caches to drop their children from the name index
+                this.childrenCache.values().forEach(SimpleObjectCache::clearCache);
                 this.childrenCache.clear();
             }
             childrenCached = false;
@@ -20,29 +20,44 @@ import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBDatabaseException;
 import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBConstants;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPNamedObject2;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.DBSObjectFilter;
 
 import java.sql.SQLException;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 /**
  * Struct cache with ability to load/search single object by name.
+ * <p>
+ * Caches which can read object change stamps (e.g. last DDL time) support incremental refresh:
+ * see {@link #refreshChangedObjects(DBRProgressMonitor, DBSObject)}.
+ * Stamps are read only on refresh, so the first refresh always reloads all objects.
  */
 public abstract class JDBCStructLookupCache<OWNER extends DBSObject, OBJECT extends DBSObject, CHILD extends DBSObject>
     extends JDBCStructCache<OWNER, OBJECT, CHILD>
     implements JDBCObjectLookup<OWNER, OBJECT>
 {
+    private static final Log log = Log.getLog(JDBCStructLookupCache.class);
+
+    // Incremental refresh reloads changed objects one by one. Full reload is cheaper for large changes.
+    private static final int MAX_INCREMENTAL_RELOADS = 50;
+
     private final Set<String> missingNames = new HashSet<>();
+    // Object change stamps read right before the last load. Null if incremental refresh is not possible.
+    private Map<String, String> changeStamps;
+    // Stamps read by the last refresh, they become change stamps of the next load
+    private Map<String, String> loadStamps;
 
     public JDBCStructLookupCache(Object objectNameColumn) {
         super(objectNameColumn);
@@ -98,6 +113,164 @@ public abstract class JDBCStructLookupCache<OWNER extends DBSObject, OBJECT exte
     }
 
 
+    /**
+     * Refreshes only objects which were changed since they were loaded.
+     * Changed objects are reloaded (and their children are cleared), dropped objects are removed and
+     * new objects are added. Unchanged objects and their children stay in the cache.
+     * If incremental refresh is not supported or there are too many changes then the cache is cleared.
+     *
+     * @return true if cache was refreshed incrementally, false if it was cleared and will be fully reloaded on the next read
+     */
+    public synchronized boolean refreshChangedObjects(@NotNull DBRProgressMonitor monitor, @NotNull OWNER owner)
+        throws DBException
+    {
+        Map<String, String> oldStamps = changeStamps;
+        Map<String, String> newStamps = !monitor.isForceCacheUsage() && supportsIncrementalRefresh(owner) ?
+            readChangeStamps(monitor, owner) : null;
+        // Snapshot objects may differ from the catalog state at the time stamps were read
+        if (oldStamps == null || newStamps == null || !isFullyCached() || isLoadedFromSnapshot()) {
+            resetCache(newStamps);
+            return false;
+        }
+
+        List<OBJECT> objects = new ArrayList<>();
+        List<OBJECT> changedObjects = new ArrayList<>();
+        Set<String> newNames = new LinkedHashSet<>(newStamps.keySet());
+        for (OBJECT object : getCachedObjects()) {
+            String objectName = object.getName();
+            if (!newNames.remove(objectName)) {
+                if (!object.isPersisted()) {
+                    objects.add(object);
+                } else {
+                    // Dropped
+                    clearChildrenCache(object);
+                }
+                continue;
+            }
+            if (!Objects.equals(oldStamps.get(objectName), newStamps.get(objectName))) {
+                changedObjects.add(object);
+            }
+            objects.add(object);
+        }
+        // Objects which weren't loaded with the same stamp were either created or changed (e.g. renamed back).
+        // Objects filtered out during load keep their stamps and aren't read again.
+        newNames.removeIf(name -> Objects.equals(oldStamps.get(name), newStamps.get(name)));
+        DBSObjectFilter objectFilter = getObjectFilter(owner);
+        if (objectFilter != null && !objectFilter.isNotApplicable()) {
+            // Stamps are read for all objects, objects excluded by the filter must not be cached
+            newNames.removeIf(name -> !objectFilter.matches(name));
+        }
+        if (changedObjects.size() + newNames.size() > MAX_INCREMENTAL_RELOADS) {
+            log.debug("Too many changed objects in " + owner.getName() + " (" + (changedObjects.size() + newNames.size()) + "). Reload all.");
+            resetCache(newStamps);
+            return false;
+        }
+
+        for (OBJECT object : changedObjects) {
+            if (monitor.isCanceled()) {
+                resetCache(newStamps);
+                return false;
+            }
+            OBJECT newObject = reloadObject(monitor, owner, object, null);
+            clearChildrenCache(object);
+            if (newObject == null) {
+                // Object type might be changed (e.g. table was replaced with view). Lookup by name.
+                objects.remove(object);
+                newNames.add(object.getName());
+            } else if (newObject.getClass() != object.getClass()) {
+                objects.set(objects.indexOf(object), newObject);
+            } else {
+                deepCopyCachedObject(newObject, object);
+            }
+        }
+        for (String objectName : newNames) {
+            if (monitor.isCanceled()) {
+                resetCache(newStamps);
+                return false;
+            }
+            OBJECT newObject = reloadObject(monitor, owner, null, objectName);
+            if (newObject != null) {
+                objects.add(newObject);
+            }
+        }
+
+        Comparator<OBJECT> comparator = getListOrderComparator();
+        if (comparator != null) {
+            objects.sort(comparator);
+        }
+        setCache(objects);
+        changeStamps = newStamps;
+        return true;
+    }
+
+    /**
+     * Clears the cache. Stamps were read before objects are reloaded, so any concurrent change
+     * will be detected by the next refresh.
+     */
+    private void resetCache(@Nullable Map<String, String> stamps) {
+        clearCache();
+        loadStamps = stamps;
+    }
+
+    /**
+     * Returns true if object change stamps can be read for this owner.
+     * Caches which override this method must also implement {@link #prepareChangeStampsStatement(JDBCSession, DBSObject)}.
+     */
+    protected boolean supportsIncrementalRefresh(@NotNull OWNER owner) {
+        return false;
+    }
+
+    /**
+     * Returns filter of owner objects. New objects which don't match it are skipped by the incremental refresh.
+     */
+    @Nullable
+    protected DBSObjectFilter getObjectFilter(@NotNull OWNER owner) {
+        return null;
+    }
+
+    /**
+     * Prepares statement which reads change stamps of all owner objects.
+     * Result set must contain object name in the first column and change stamp in the second one.
+     * Stamp may be any value which changes after DDL of the object or its children (e.g. last DDL time).
+     */
+    @NotNull
+    protected JDBCStatement prepareChangeStampsStatement(@NotNull JDBCSession session, @NotNull OWNER owner)
+        throws SQLException
+    {
+        throw new SQLException("Incremental refresh is not supported by " + getCacheName());
+    }
+
+    /**
+     * Reads change stamps of all owner objects. Returns null if stamps can't be read.
+     */
+    @Nullable
+    protected Map<String, String> readChangeStamps(@NotNull DBRProgressMonitor monitor, @NotNull OWNER owner) {
+        try (JDBCSession session = DBUtils.openMetaSession(monitor, owner, "Read change stamps of " + owner.getName())) {
+            try (JDBCStatement dbStat = prepareChangeStampsStatement(session, owner)) {
+                dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+                dbStat.executeStatement();
+                Map<String, String> stamps = new HashMap<>();
+                try (JDBCResultSet dbResult = dbStat.getResultSet()) {
+                    if (dbResult != null) {
+                        while (dbResult.next()) {
+                            if (monitor.isCanceled()) {
+                                return null;
+                            }
+                            String objectName = JDBCUtils.safeGetString(dbResult, 1);
+                            if (objectName != null) {
+                                stamps.put(objectName, JDBCUtils.safeGetString(dbResult, 2));
+                            }
+                        }
+                    }
+                }
+                return stamps;
+            }
+        } catch (Exception e) {
+            log.debug("Error reading change stamps of " + owner.getName() + ". Incremental refresh is disabled.", e);
+            return null;
+        }
+    }
+
     protected OBJECT reloadObject(@NotNull DBRProgressMonitor monitor, @NotNull OWNER owner, @Nullable OBJECT object, @Nullable String objectName)
         throws DBException
     {
@@ -155,6 +328,19 @@ public abstract class JDBCStructLookupCache<OWNER extends DBSObject, OBJECT exte
         return prepareLookupStatement(session, owner, null, null);
     }
 
+    @Override
+    protected synchronized void loadObjects(DBRProgressMonitor monitor, OWNER owner)
+        throws DBException
+    {
+        if (isFullyCached() || monitor.isForceCacheUsage() || monitor.isCanceled()) {
+            return;
+        }
+        Map<String, String> stamps = loadStamps;
+        loadStamps = null;
+        super.loadObjects(monitor, owner);
+        changeStamps = isFullyCached() ? stamps : null;
+    }
+
     @Override
     public void setCache(@NotNull List<OBJECT> objects) {
         super.setCache(objects);
@@ -165,6 +351,7 @@ public abstract class JDBCStructLookupCache<OWNER extends DBSObject, OBJECT exte
     public void clearCache() {
         super.clearCache();
         this.missingNames.clear();
+        this.changeStamps = null;
     }
 
 }
@@ -24,7 +24,10 @@ import org.jkiss.dbeaver.model.data.DBDDataFormatter;
 import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
 import org.jkiss.dbeaver.model.data.DBDFormatSettings;
 import org.jkiss.dbeaver.model.data.DBDValueDefaultGenerator;
+import org.jkiss.dbeaver.model.data.DBDValueHandlerColumnar;
 import org.jkiss.dbeaver.model.data.DBDValueHandlerConfigurable;
+import org.jkiss.dbeaver.model.data.columnar.ColumnReader;
+import org.jkiss.dbeaver.model.data.columnar.LongColumnBuffer;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
@@ -43,7 +46,7 @@ import java.util.Date;
 /**
  * JDBC number value handler
  */
-public class JDBCNumberValueHandler extends JDBCAbstractValueHandler implements DBDValueHandlerConfigurable, DBDValueDefaultGenerator {
+public class JDBCNumberValueHandler extends JDBCAbstractValueHandler implements DBDValueHandlerConfigurable, DBDValueDefaultGenerator, DBDValueHandlerColumnar {
 
     private static final Log log = Log.getLog(JDBCNumberValueHandler.class);
 
@@ -213,6 +216,29 @@ public class JDBCNumberValueHandler extends JDBCAbstractValueHandler implements
         return false;
     }
 
+    /**
+     * Reads the same value types as {@link #fetchColumnValue}, but without boxing.
+     * Subclasses which read values differently must override this method.
+     */
+    @Nullable
+    @Override
+    public ColumnReader getColumnReader(@NotNull DBSTypedObject type) {
+        switch (type.getTypeID()) {
+            case Types.INTEGER:
+                return new JDBCPrimitiveColumnReader.LongReader(this, type, LongColumnBuffer.BoxType.LONG);
+            case Types.SMALLINT:
+                return new JDBCPrimitiveColumnReader.LongReader(this, type, LongColumnBuffer.BoxType.INTEGER);
+            case Types.TINYINT:
+                return new JDBCPrimitiveColumnReader.LongReader(this, type, LongColumnBuffer.BoxType.SHORT);
+            case Types.DOUBLE:
+            case Types.REAL:
+            case Types.FLOAT:
+                return isReadDecimalsAsDouble() ? new JDBCPrimitiveColumnReader.DoubleReader(this, type) : null;
+            default:
+                return null;
+        }
+    }
+
     @Override
     protected void bindParameter(JDBCSession session, JDBCPreparedStatement statement, DBSTypedObject paramType,
                                  int paramIndex, Object value) throws SQLException, DBCException {
@@ -0,0 +1,138 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.data.handlers;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.data.columnar.ColumnBuffer;
+import org.jkiss.dbeaver.model.data.columnar.ColumnReader;
+import org.jkiss.dbeaver.model.data.columnar.DoubleColumnBuffer;
+import org.jkiss.dbeaver.model.data.columnar.LongColumnBuffer;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.struct.DBSTypedObject;
+
+import java.sql.SQLException;
+
+/**
+ * Reads primitive JDBC values without boxing.
+ * Values which can't be read as primitives are read with {@link java.sql.ResultSet#getObject(int)}, the same way
+ * value handler does it.
+ */
+abstract class JDBCPrimitiveColumnReader implements ColumnReader {
+
+    private final DBDValueHandler valueHandler;
+    private final DBSTypedObject type;
+
+    JDBCPrimitiveColumnReader(@NotNull DBDValueHandler valueHandler, @NotNull DBSTypedObject type) {
+        this.valueHandler = valueHandler;
+        this.type = type;
+    }
+
+    @Override
+    public void readValue(@NotNull DBCSession session, @NotNull DBCResultSet resultSet, int index, @NotNull ColumnBuffer buffer)
+        throws DBCException {
+        if (!(resultSet instanceof JDBCResultSet jdbcResultSet)) {
+            buffer.appendObject(valueHandler.fetchValueObject(session, resultSet, type, index));
+            return;
+        }
+        // JDBC uses 1-based indexes
+        int columnIndex = index + 1;
+        try {
+            try {
+                if (readPrimitive(jdbcResultSet, columnIndex, buffer)) {
+                    return;
+                }
+            } catch (SQLException | ClassCastException | NumberFormatException e) {
+                // Fallback to object value
+            }
+            Object value = jdbcResultSet.getObject(columnIndex);
+            buffer.appendObject(jdbcResultSet.wasNull() ? null : value);
+        } catch (SQLException e) {
+            throw new DBCException(e, session.getExecutionContext());
+        }
+    }
+
+    /**
+     * Appends primitive value of the current row. Returns false if value must be read as object.
+     */
+    protected abstract boolean readPrimitive(@NotNull JDBCResultSet resultSet, int columnIndex, @NotNull ColumnBuffer buffer)
+        throws SQLException;
+
+    static class LongReader extends JDBCPrimitiveColumnReader {
+        private final LongColumnBuffer.BoxType boxType;
+
+        LongReader(@NotNull DBDValueHandler valueHandler, @NotNull DBSTypedObject type, @NotNull LongColumnBuffer.BoxType boxType) {
+            super(valueHandler, type);
+            this.boxType = boxType;
+        }
+
+        @NotNull
+        @Override
+        public ColumnBuffer createBuffer(int capacity) {
+            return new LongColumnBuffer(capacity, boxType);
+        }
+
+        @Override
+        protected boolean readPrimitive(@NotNull JDBCResultSet resultSet, int columnIndex, @NotNull ColumnBuffer buffer) throws SQLException {
+            if (!(buffer instanceof LongColumnBuffer longBuffer)) {
+                return false;
+            }
+            long value = switch (boxType) {
+                case BYTE -> resultSet.getByte(columnIndex);
+                case SHORT -> resultSet.getShort(columnIndex);
+                case INTEGER -> resultSet.getInt(columnIndex);
+                case LONG -> resultSet.getLong(columnIndex);
+            };
+            if (resultSet.wasNull()) {
+                longBuffer.appendNull();
+            } else {
+                longBuffer.append(value);
+            }
+            return true;
+        }
+    }
+
+    static class DoubleReader extends JDBCPrimitiveColumnReader {
+
+        DoubleReader(@NotNull DBDValueHandler valueHandler, @NotNull DBSTypedObject type) {
+            super(valueHandler, type);
+        }
+
+        @NotNull
+        @Override
+        public ColumnBuffer createBuffer(int capacity) {
+            return new DoubleColumnBuffer(capacity);
+        }
+
+        @Override
+        protected boolean readPrimitive(@NotNull JDBCResultSet resultSet, int columnIndex, @NotNull ColumnBuffer buffer) throws SQLException {
+            if (!(buffer instanceof DoubleColumnBuffer doubleBuffer)) {
+                return false;
+            }
+            double value = resultSet.getDouble(columnIndex);
+            if (resultSet.wasNull()) {
+                doubleBuffer.appendNull();
+            } else {
+                doubleBuffer.append(value);
+            }
+            return true;
+        }
+    }
+}
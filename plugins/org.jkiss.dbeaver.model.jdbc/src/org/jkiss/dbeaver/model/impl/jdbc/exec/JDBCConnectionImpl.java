@@ -261,6 +261,10 @@ public class JDBCConnectionImpl extends AbstractSession implements JDBCSession,
     public JDBCPreparedStatement prepareStatement(String sql)
         throws SQLException
     {
+        JDBCStatementCache statementCache = getStatementCache();
+        if (statementCache != null) {
+            return prepareCachedStatement(statementCache, sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        }
         return createPreparedStatementImpl(getOriginal().prepareStatement(sql), sql);
     }
 
@@ -422,6 +426,10 @@ public class JDBCConnectionImpl extends AbstractSession implements JDBCSession,
     public JDBCPreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency)
         throws SQLException
     {
+        JDBCStatementCache statementCache = getStatementCache();
+        if (statementCache != null) {
+            return prepareCachedStatement(statementCache, sql, resultSetType, resultSetConcurrency);
+        }
         return createPreparedStatementImpl(
             getOriginal().prepareStatement(sql, resultSetType, resultSetConcurrency),
             sql);
@@ -723,6 +731,47 @@ public class JDBCConnectionImpl extends AbstractSession implements JDBCSession,
         }
     }
 
+    /**
+     * Statements cache is used only for internal (metadata and utility) queries.
+     * User queries may be affected by the server side changes made by the user, so they are always prepared again.
+     */
+    @Nullable
+    private JDBCStatementCache getStatementCache() {
+        return getPurpose().isUser() ? null : context.getStatementCache();
+    }
+
+    @NotNull
+    private JDBCPreparedStatement prepareCachedStatement(
+        @NotNull JDBCStatementCache statementCache,
+        @NotNull String sql,
+        int resultSetType,
+        int resultSetConcurrency
+    ) throws SQLException {
+        JDBCStatementCache.Key key = new JDBCStatementCache.Key(sql, resultSetType, resultSetConcurrency);
+        PreparedStatement original = statementCache.acquire(key);
+        if (isLoggingEnabled()) {
+            QMUtils.getDefaultHandler().handleStatementCacheAccess(context, original != null);
+        }
+        if (original == null) {
+            if (resultSetType == ResultSet.TYPE_FORWARD_ONLY && resultSetConcurrency == ResultSet.CONCUR_READ_ONLY) {
+                original = getOriginal().prepareStatement(sql);
+            } else {
+                original = getOriginal().prepareStatement(sql, resultSetType, resultSetConcurrency);
+            }
+        }
+        JDBCPreparedStatement statement;
+        try {
+            statement = createPreparedStatementImpl(original, sql);
+        } catch (SQLException | RuntimeException e) {
+            original.close();
+            throw e;
+        }
+        if (statement instanceof JDBCStatementImpl<?> statementImpl) {
+            statementImpl.setStatementCache(statementCache, key);
+        }
+        return statement;
+    }
+
     protected JDBCStatement createStatementImpl(Statement original)
         throws SQLException,IllegalArgumentException
     {
@@ -0,0 +1,152 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.exec;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Cache of prepared statements of a single JDBC connection.
+ * <p>
+ * Statement is removed from the cache while it is used by a session and is returned back when session closes it.
+ * Least recently used statements are closed when cache size exceeds the limit.
+ * Cache is closed together with the connection, statements released after that are closed immediately.
+ */
+public class JDBCStatementCache {
+
+    private static final Log log = Log.getLog(JDBCStatementCache.class);
+
+    public record Key(@NotNull String query, int resultSetType, int resultSetConcurrency) {
+    }
+
+    private final int maxSize;
+    private final LinkedHashMap<Key, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+    private long hitCount;
+    private long missCount;
+    private boolean closed;
+
+    public JDBCStatementCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized int size() {
+        return statements.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Takes statement from the cache. Returns null if there is no statement for the specified key,
+     * then a new statement must be prepared by caller.
+     */
+    @Nullable
+    public synchronized PreparedStatement acquire(@NotNull Key key) {
+        PreparedStatement statement = closed ? null : statements.remove(key);
+        if (statement != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return statement;
+    }
+
+    /**
+     * Returns statement to the cache.
+     * Returns false if statement can't be cached, then caller must close it.
+     */
+    public boolean release(@NotNull Key key, @NotNull PreparedStatement statement) {
+        try {
+            if (statement.isClosed()) {
+                return false;
+            }
+            // Reset statement state, parameters and limits must not affect next executions
+            statement.clearParameters();
+            statement.clearWarnings();
+            if (statement.getMaxRows() != 0) {
+                statement.setMaxRows(0);
+            }
+            if (statement.getQueryTimeout() != 0) {
+                statement.setQueryTimeout(0);
+            }
+        } catch (Throwable e) {
+            log.debug("Can't reset cached statement: " + e.getMessage());
+            return false;
+        }
+        PreparedStatement evicted = null;
+        synchronized (this) {
+            if (closed || statements.containsKey(key)) {
+                return false;
+            }
+            statements.put(key, statement);
+            if (statements.size() > maxSize) {
+                Iterator<PreparedStatement> iterator = statements.values().iterator();
+                evicted = iterator.next();
+                iterator.remove();
+            }
+        }
+        if (evicted != null) {
+            closeStatement(evicted);
+        }
+        return true;
+    }
+
+    /**
+     * Closes all cached statements. Statements released after that are not cached.
+     */
+    public void close() {
+        List<PreparedStatement> toClose;
+        synchronized (this) {
+            closed = true;
+            toClose = new ArrayList<>(statements.values());
+            statements.clear();
+        }
+        for (PreparedStatement statement : toClose) {
+            closeStatement(statement);
+        }
+    }
+
+    private static void closeStatement(@NotNull PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            log.debug("Error closing cached statement: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Statement cache (size=" + maxSize + ", hits=" + getHitCount() + ", misses=" + getMissCount() + ")";
+    }
+}
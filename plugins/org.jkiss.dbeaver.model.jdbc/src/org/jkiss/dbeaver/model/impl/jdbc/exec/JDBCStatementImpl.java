@@ -34,6 +34,7 @@ import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.DBSQLException;
 import org.jkiss.utils.CommonUtils;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLWarning;
@@ -60,6 +61,11 @@ public class JDBCStatementImpl<STATEMENT extends Statement> extends AbstractStat
     private long updateCount;
     private Throwable executeError;
 
+    @Nullable
+    private JDBCStatementCache statementCache;
+    @Nullable
+    private JDBCStatementCache.Key statementCacheKey;
+
     public JDBCStatementImpl(@NotNull JDBCSession connection, @NotNull STATEMENT original, boolean disableLogging)
     {
         super(connection);
@@ -75,6 +81,14 @@ public class JDBCStatementImpl<STATEMENT extends Statement> extends AbstractStat
         return original;
     }
 
+    /**
+     * Original statement was taken from the statement cache and must be returned there on close
+     */
+    void setStatementCache(@NotNull JDBCStatementCache statementCache, @NotNull JDBCStatementCache.Key key) {
+        this.statementCache = statementCache;
+        this.statementCacheKey = key;
+    }
+
     protected boolean isQMLoggingEnabled() {
         return !disableLogging;
     }
@@ -495,6 +509,15 @@ public class JDBCStatementImpl<STATEMENT extends Statement> extends AbstractStat
             QMUtils.getDefaultHandler().handleStatementClose(this, updateCount);
         }
 
+        if (statementCacheKey != null) {
+            // Return statement to the cache. Statement may be closed only once.
+            JDBCStatementCache cache = statementCache;
+            statementCache = null;
+            if (cache == null || (getOriginal() instanceof PreparedStatement ps && cache.release(statementCacheKey, ps))) {
+                return;
+            }
+        }
+
         // Close statement
         try {
             getOriginal().close();
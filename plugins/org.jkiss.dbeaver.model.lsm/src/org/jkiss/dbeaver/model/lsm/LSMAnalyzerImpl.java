@@ -16,28 +16,48 @@
  */
 package org.jkiss.dbeaver.model.lsm;
 
-import org.antlr.v4.runtime.ConsoleErrorListener;
-import org.antlr.v4.runtime.Lexer;
-import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.*;
 import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
-import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.stm.STMErrorListener;
 import org.jkiss.dbeaver.model.stm.STMParserOverrides;
+import org.jkiss.dbeaver.model.stm.STMSkippingErrorListener;
 import org.jkiss.dbeaver.model.stm.STMSource;
 import org.jkiss.dbeaver.model.stm.STMTreeRuleNode;
 import org.jkiss.utils.Pair;
 
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Base analyzer implementation.
+ * <p>
+ * Query is parsed in two stages: first with the fast SLL prediction, which gives up on the first syntax error,
+ * then, only if it failed, with the full LL prediction and error recovery.
+ * Generated parsers keep their DFA caches in static fields, so the caches are shared by all analyzers of a grammar.
+ * They are warmed up in background when the first analyzer of a grammar is created.
+ */
 public abstract class LSMAnalyzerImpl<TLexer extends Lexer, TParser extends STMParserOverrides> implements LSMAnalyzer {
 
     private static final Log log = Log.getLog(LSMAnalyzerImpl.class);
-    
+
+    private static final Set<Class<?>> warmedUpAnalyzers = ConcurrentHashMap.newKeySet();
+
     private final LSMAnalyzerParameters parameters;
     
     public LSMAnalyzerImpl(@NotNull LSMAnalyzerParameters parameters) {
         this.parameters = parameters;
+        if (warmedUpAnalyzers.add(getClass())) {
+            new WarmUpJob().schedule();
+        }
     }
 
     @NotNull
@@ -46,6 +66,14 @@ public abstract class LSMAnalyzerImpl<TLexer extends Lexer, TParser extends STMP
     @NotNull
     protected abstract STMTreeRuleNode parseSqlQueryImpl(@NotNull TParser parser);
 
+    /**
+     * Queries which are parsed to fill parser DFA caches before the first real query is parsed.
+     */
+    @NotNull
+    protected List<String> getWarmUpQueries() {
+        return List.of();
+    }
+
     @NotNull
     protected TParser prepareParser(@NotNull STMSource source, @Nullable STMErrorListener errorListener) {
         Pair<TLexer, TParser> pair = this.createParser(source, this.parameters);
@@ -59,8 +87,6 @@ public abstract class LSMAnalyzerImpl<TLexer extends Lexer, TParser extends STMP
             parser.addErrorListener(errorListener);
         }
         
-        parser.getInterpreter().setPredictionMode(PredictionMode.LL);
-        
         return parser;
     }
 
@@ -69,7 +95,7 @@ public abstract class LSMAnalyzerImpl<TLexer extends Lexer, TParser extends STMP
     public STMTreeRuleNode parseSqlQueryTree(@NotNull STMSource source, @Nullable STMErrorListener errorListener) {
         try {
             TParser parser = prepareParser(source, errorListener);
-            STMTreeRuleNode result = parseSqlQueryImpl(parser);
+            STMTreeRuleNode result = parseTwoStage(parser);
             result.fixup(parser);
             return result;
         } catch (RecognitionException e) {
@@ -78,4 +104,46 @@ public abstract class LSMAnalyzerImpl<TLexer extends Lexer, TParser extends STMP
         }
     }
 
+    @NotNull
+    private STMTreeRuleNode parseTwoStage(@NotNull TParser parser) {
+        // Errors are reported only by the second stage
+        List<? extends ANTLRErrorListener> errorListeners = List.copyOf(parser.getErrorListeners());
+        ANTLRErrorStrategy errorHandler = parser.getErrorHandler();
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        try {
+            return parseSqlQueryImpl(parser);
+        } catch (ParseCancellationException e) {
+            // Syntax error or SLL conflict. Tokens are already buffered, so the lexer doesn't run again
+            parser.setErrorHandler(errorHandler);
+            parser.reset();
+            errorListeners.forEach(parser::addErrorListener);
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            return parseSqlQueryImpl(parser);
+        }
+    }
+
+    private class WarmUpJob extends AbstractJob {
+        WarmUpJob() {
+            super("Warm up SQL parser");
+            setSystem(true);
+            setUser(false);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            for (String query : getWarmUpQueries()) {
+                if (monitor.isCanceled()) {
+                    break;
+                }
+                try {
+                    parseTwoStage(prepareParser(STMSource.fromString(query), new STMSkippingErrorListener()));
+                } catch (Exception e) {
+                    log.debug("Error parsing warm up query", e);
+                }
+            }
+            return Status.OK_STATUS;
+        }
+    }
 }
@@ -26,9 +26,22 @@ import org.jkiss.dbeaver.model.stm.STMSource;
 import org.jkiss.dbeaver.model.stm.STMTreeRuleNode;
 import org.jkiss.utils.Pair;
 
+import java.util.List;
+
 
 public class SQLStandardAnalyzer extends LSMAnalyzerImpl<SQLStandardLexer, SQLStandardParser> {
 
+    private static final List<String> WARM_UP_QUERIES = List.of(
+        "SELECT a.id, b.name AS n, count(*) FROM s.t1 a JOIN t2 b ON a.id = b.id " +
+            "WHERE a.x > 1 AND b.y IN (SELECT z FROM t3) GROUP BY a.id, b.name HAVING count(*) > 1 ORDER BY 1 DESC",
+        "WITH q AS (SELECT * FROM t1) SELECT DISTINCT q.* FROM q LEFT OUTER JOIN t2 ON q.a = t2.a UNION ALL SELECT * FROM t3",
+        "INSERT INTO t1 (a, b) VALUES (1, 'x')",
+        "UPDATE t1 SET a = a + 1, b = NULL WHERE c BETWEEN 1 AND 10",
+        "DELETE FROM t1 WHERE NOT EXISTS (SELECT 1 FROM t2 WHERE t2.a = t1.a)",
+        "CREATE TABLE t1 (a INTEGER NOT NULL PRIMARY KEY, b VARCHAR(100))",
+        "DROP TABLE t1"
+    );
+
     public SQLStandardAnalyzer(LSMAnalyzerParameters parameters) {
         super(parameters);
     }
@@ -51,4 +64,10 @@ public class SQLStandardAnalyzer extends LSMAnalyzerImpl<SQLStandardLexer, SQLSt
     protected STMTreeRuleNode parseSqlQueryImpl(@NotNull SQLStandardParser parser) {
         return parser.sqlQuery();
     }
+
+    @NotNull
+    @Override
+    protected List<String> getWarmUpQueries() {
+        return WARM_UP_QUERIES;
+    }
 }
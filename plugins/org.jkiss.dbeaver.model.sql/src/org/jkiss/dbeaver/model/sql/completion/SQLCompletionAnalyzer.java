@@ -49,6 +49,7 @@ import org.jkiss.dbeaver.model.sql.completion.hippie.HippieProposalProcessor;
 import org.jkiss.dbeaver.model.sql.parser.SQLParserPartitions;
 import org.jkiss.dbeaver.model.sql.parser.SQLWordPartDetector;
 import org.jkiss.dbeaver.model.struct.*;
+import org.jkiss.dbeaver.model.struct.cache.DBSObjectNameIndex;
 import org.jkiss.dbeaver.model.struct.rdb.*;
 import org.jkiss.dbeaver.model.text.TextUtils;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
@@ -903,9 +904,14 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
                             );
                             params.setCaseSensitive(request.getWordDetector().isQuoted(token));
                             params.setMaxResults(2);
-                            Collection<DBSObjectReference> references = structureAssistant.findObjectsByMask(monitor, executionContext, params);
-                            if (!references.isEmpty()) {
-                                childObject = references.iterator().next().resolveObject(monitor);
+                            List<DBSObject> indexedObjects = findIndexedObjects(sc.getDataSource(), params);
+                            if (!CommonUtils.isEmpty(indexedObjects)) {
+                                childObject = indexedObjects.get(0);
+                            } else {
+                                Collection<DBSObjectReference> references = structureAssistant.findObjectsByMask(monitor, executionContext, params);
+                                if (!references.isEmpty()) {
+                                    childObject = references.iterator().next().resolveObject(monitor);
+                                }
                             }
                         }
                     }
@@ -1179,17 +1185,60 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
         assistantParams.setCaseSensitive(request.getWordDetector().isQuoted(objectName));
         assistantParams.setGlobalSearch(request.getContext().isSearchGlobally());
         assistantParams.setMaxResults(MAX_STRUCT_PROPOSALS);
+        // Index contains only cached objects. It replaces the database search only if the scope is fully loaded,
+        // otherwise cached objects are proposed without resolving them again and the rest come from the assistant
+        DBPDataSource dataSource = request.getContext().getDataSource();
+        DBSObjectNameIndex nameIndex = dataSource == null ? null : DBSObjectNameIndex.getIndex(dataSource);
+        List<DBSObject> indexedObjects = nameIndex == null ? null : nameIndex.findObjects(assistantParams);
+        Set<String> indexedNames = new HashSet<>();
+        int structProposals = 0;
+        if (indexedObjects != null) {
+            for (DBSObject object : indexedObjects) {
+                SQLCompletionProposalBase proposal = makeProposalsFromObject(object, !(rootSC instanceof DBPDataSource), params);
+                if (proposal != null) {
+                    proposals.add(proposal);
+                    indexedNames.add(DBUtils.getObjectFullName(object, DBPEvaluationContext.DDL));
+                    structProposals++;
+                }
+            }
+            if (rootSC != null && !assistantParams.isGlobalSearch() && nameIndex.isScopeIndexed(rootSC, assistantParams.getObjectTypes())) {
+                return;
+            }
+        }
+        if (structProposals >= MAX_STRUCT_PROPOSALS) {
+            return;
+        }
         Collection<DBSObjectReference> references = assistant.findObjectsByMask(monitor, request.getContext().getExecutionContext(), assistantParams);
         for (DBSObjectReference reference : references) {
+            if (structProposals >= MAX_STRUCT_PROPOSALS) {
+                break;
+            }
+            if (!indexedNames.isEmpty() && indexedNames.contains(reference.getFullyQualifiedName(DBPEvaluationContext.DDL))) {
+                continue;
+            }
             proposals.add(
                 makeProposalsFromObject(
                     reference,
                     !(rootSC instanceof DBPDataSource),
                     reference.getObjectType().getImage(),
                     params));
+            structProposals++;
         }
     }
 
+    /**
+     * Searches objects in the name index of cached metadata.
+     * Result contains only cached objects. Returns null if the index can't perform the search.
+     */
+    @Nullable
+    private static List<DBSObject> findIndexedObjects(
+        @Nullable DBPDataSource dataSource,
+        @NotNull DBSStructureAssistant.ObjectsSearchParams params
+    ) {
+        DBSObjectNameIndex nameIndex = dataSource == null ? null : DBSObjectNameIndex.getIndex(dataSource);
+        return nameIndex == null ? null : nameIndex.findObjects(params);
+    }
+
     private String makeObjectNameMask(String objectName, @Nullable DBSObjectContainer rootSC) {
         SQLWordPartDetector wordDetector = request.getWordDetector();
         if (wordDetector.containsSeparator(objectName)) {
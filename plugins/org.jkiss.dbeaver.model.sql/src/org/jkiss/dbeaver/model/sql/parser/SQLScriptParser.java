@@ -1029,6 +1029,24 @@ public class SQLScriptParser {
         return SQLScriptParser.extractScriptQueries(parserContext, 0, sqlScriptContent.length(), true, false, true);
     }
 
+    /**
+     * Returns the number of characters between the script element and the fragment,
+     * or zero if the element intersects the fragment.
+     *
+     * @param fragmentStart first offset of the fragment
+     * @param fragmentEnd   last offset of the fragment (inclusive)
+     */
+    public static int getDistanceToFragment(@NotNull SQLScriptElement element, int fragmentStart, int fragmentEnd) {
+        int elementEnd = element.getOffset() + element.getLength();
+        if (elementEnd < fragmentStart) {
+            return fragmentStart - elementEnd;
+        } else if (element.getOffset() > fragmentEnd) {
+            return element.getOffset() - fragmentEnd;
+        } else {
+            return 0;
+        }
+    }
+
     @NotNull
     private static SQLParserContext prepareSqlParserContext(
         DBPDataSource dataSource,
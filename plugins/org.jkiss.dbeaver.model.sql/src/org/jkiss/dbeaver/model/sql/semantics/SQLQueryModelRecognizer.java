@@ -153,7 +153,8 @@ public class SQLQueryModelRecognizer {
         if (contents != null) {
             SQLQueryModel model = new SQLQueryModel(tree, contents, symbolEntries);
 
-            model.propagateContext(this.queryDataContext, this.recognitionContext);
+            // Parsing and model building don't read metadata, so only the semantic resolution is serialized
+            this.recognitionContext.readMetadata(() -> model.propagateContext(this.queryDataContext, this.recognitionContext));
 
             int actualTailPosition = model.getSyntaxNode().getRealInterval().b;
             SQLQueryNodeModel tailNode = model.findNodeContaining(actualTailPosition);
@@ -198,7 +199,7 @@ public class SQLQueryModelRecognizer {
             return forced;
         };
 
-        this.traverseForIdentifiers(tree,
+        this.recognitionContext.readMetadata(() -> this.traverseForIdentifiers(tree,
             (e, c) -> {
                 if (c.isNotClassified() && (e != null || !tryFallbackForStringLiteral.test(c))) {
                     c.getSymbol().setSymbolClass(SQLQuerySymbolClass.COLUMN);
@@ -226,7 +227,7 @@ public class SQLQueryModelRecognizer {
                 return table;
             },
             false
-        );
+        ));
         return new SQLQueryModel(tree, null, symbolEntries);
     }
 
@@ -293,23 +294,8 @@ public class SQLQueryModelRecognizer {
                     DBDPseudoAttribute.PropagationPolicy.GLOBAL_VARIABLE, v.description()
                 )).collect(Collectors.toMap(c -> c.symbol.getName(), c -> c));;
 
-            Function<SQLQueryRowsSourceModel, List<SQLQueryResultPseudoColumn>> rowsetPseudoColumns;
-            if (this.executionContext.getDataSource() instanceof DBDPseudoAttributeContainer pac) {
-                try {
-                    DBDPseudoAttribute[] pc = pac.getAllPseudoAttributes(this.recognitionContext.getMonitor());
-                    List<DBDPseudoAttribute> rowsetsPc = Stream.of(pc).filter(a -> a.getPropagationPolicy().providedByRowset).toList();
-                    rowsetPseudoColumns = rowsetsPc.isEmpty() ? s -> Collections.emptyList() : (
-                        s -> SQLQueryRowsTableDataModel.prepareResultPseudoColumnsList(
-                            this.dialect, s, null, rowsetsPc.stream()
-                        )
-                    );
-                } catch (DBException e) {
-                    this.recognitionContext.appendError(root, "Failed to obtain global pseudo-columns information", e);
-                    rowsetPseudoColumns = s -> Collections.emptyList();
-                }
-            } else {
-                rowsetPseudoColumns = s -> Collections.emptyList();
-            }
+            Function<SQLQueryRowsSourceModel, List<SQLQueryResultPseudoColumn>> rowsetPseudoColumns =
+                this.recognitionContext.readMetadata(() -> this.prepareRowsetPseudoColumns(root));
             return new SQLQueryDataSourceContext(this.dialect, this.executionContext, globalPseudoColumns, rowsetPseudoColumns);
         } else {
             Set<String> allColumnNames = new HashSet<>();
@@ -324,6 +310,24 @@ public class SQLQueryModelRecognizer {
         }
     }
 
+    @NotNull
+    private Function<SQLQueryRowsSourceModel, List<SQLQueryResultPseudoColumn>> prepareRowsetPseudoColumns(@NotNull STMTreeNode root) {
+        if (this.executionContext.getDataSource() instanceof DBDPseudoAttributeContainer pac) {
+            try {
+                DBDPseudoAttribute[] pc = pac.getAllPseudoAttributes(this.recognitionContext.getMonitor());
+                List<DBDPseudoAttribute> rowsetsPc = Stream.of(pc).filter(a -> a.getPropagationPolicy().providedByRowset).toList();
+                return rowsetsPc.isEmpty() ? s -> Collections.emptyList() : (
+                    s -> SQLQueryRowsTableDataModel.prepareResultPseudoColumnsList(
+                        this.dialect, s, null, rowsetsPc.stream()
+                    )
+                );
+            } catch (DBException e) {
+                this.recognitionContext.appendError(root, "Failed to obtain global pseudo-columns information", e);
+            }
+        }
+        return s -> Collections.emptyList();
+    }
+
     @NotNull
     public SQLQueryRowsSourceModel collectQueryExpression(@NotNull STMTreeNode tree) {
         // expression mapper is a stateful thing, so it cannot be reused for multiple subtrees and should be local only
@@ -29,6 +29,8 @@ import java.util.ArrayList;
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
 
 /**
  * Accumulates the statistics about recognition process
@@ -49,6 +51,9 @@ public class SQLQueryRecognitionContext {
     @NotNull
     private final SQLDialect dialect;
 
+    @Nullable
+    private final Lock metadataLock;
+
     @NotNull
     private final Deque<SQLQueryRecognitionProblemInfo> problems = new LinkedList<>();
 
@@ -60,12 +65,27 @@ public class SQLQueryRecognitionContext {
         boolean useRealMetadata,
         @NotNull SQLSyntaxManager syntaxManager,
         @NotNull SQLDialect dialect
+    ) {
+        this(monitor, executionContext, useRealMetadata, syntaxManager, dialect, null);
+    }
+
+    /**
+     * @param metadataLock lock shared by recognitions which run in parallel and read metadata of the same connection
+     */
+    public SQLQueryRecognitionContext(
+        @NotNull DBRProgressMonitor monitor,
+        @Nullable DBCExecutionContext executionContext,
+        boolean useRealMetadata,
+        @NotNull SQLSyntaxManager syntaxManager,
+        @NotNull SQLDialect dialect,
+        @Nullable Lock metadataLock
     ) {
         this.monitor = monitor;
         this.executionContext = executionContext;
         this.useRealMetadata = useRealMetadata;
         this.syntaxManager = syntaxManager;
         this.dialect = dialect;
+        this.metadataLock = metadataLock;
     }
 
     public void setTreatErrorAsWarnings(boolean errorsAsWarnings) {
@@ -100,6 +120,29 @@ public class SQLQueryRecognitionContext {
         return this.dialect;
     }
 
+    /**
+     * Runs the step which reads database metadata.
+     * Metadata caches are not safe for concurrent reads, so steps of recognitions sharing the metadata lock run one at a time.
+     */
+    <T> T readMetadata(@NotNull Supplier<T> step) {
+        if (this.metadataLock == null) {
+            return step.get();
+        }
+        this.metadataLock.lock();
+        try {
+            return step.get();
+        } finally {
+            this.metadataLock.unlock();
+        }
+    }
+
+    void readMetadata(@NotNull Runnable step) {
+        this.readMetadata(() -> {
+            step.run();
+            return null;
+        });
+    }
+
     @NotNull
     public List<SQLQueryRecognitionProblemInfo> getProblems() {
         return new ArrayList<>(this.problems);
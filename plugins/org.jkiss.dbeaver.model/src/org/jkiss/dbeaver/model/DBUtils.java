@@ -46,6 +46,7 @@ import org.jkiss.dbeaver.model.sql.SQLQuery;
 import org.jkiss.dbeaver.model.sql.SQLQueryType;
 import org.jkiss.dbeaver.model.sql.SQLUtils;
 import org.jkiss.dbeaver.model.struct.*;
+import org.jkiss.dbeaver.model.struct.cache.MetadataLoader;
 import org.jkiss.dbeaver.model.struct.rdb.*;
 import org.jkiss.dbeaver.model.virtual.DBVEntity;
 import org.jkiss.dbeaver.model.virtual.DBVEntityAttribute;
@@ -724,9 +725,24 @@ public final class DBUtils {
             return null;
         }
 
+        return getNestedAttributeValue(attribute, row[index], nestedIndexes, retrieveDeepestCollectionElement);
+    }
+
+    /**
+     * Extracts value of the (possibly nested) attribute from the value of its top-level parent.
+     * Custom attributes are not supported, their values are evaluated from the whole row.
+     */
+    @Nullable
+    public static Object getNestedAttributeValue(
+        @NotNull DBDAttributeBinding attribute,
+        @Nullable Object topValue,
+        @Nullable int[] nestedIndexes,
+        boolean retrieveDeepestCollectionElement
+    ) {
+        final int depth = attribute.getLevel();
         int remainingIndices = nestedIndexes != null ? nestedIndexes.length : 0;
         int remainingAttributes = depth;
-        Object curValue = row[index];
+        Object curValue = topValue;
 
         while (remainingAttributes > 0 || remainingIndices > 0 || retrieveDeepestCollectionElement) {
             if (curValue == null) {
@@ -1738,7 +1754,12 @@ public final class DBUtils {
     @SuppressWarnings("unchecked")
     @NotNull
     public static <T extends DBCSession> T openMetaSession(@NotNull DBRProgressMonitor monitor, @NotNull DBPDataSource dataSource, @NotNull String task) throws DBCException {
-        return (T) dataSource.getDefaultInstance().getDefaultContext(monitor, true).openSession(monitor, DBCExecutionPurpose.META, task);
+        DBSInstance instance = dataSource.getDefaultInstance();
+        DBCExecutionContext context = MetadataLoader.getLoaderContext(instance);
+        if (context == null) {
+            context = instance.getDefaultContext(monitor, true);
+        }
+        return (T) context.openSession(monitor, DBCExecutionPurpose.META, task);
     }
 
     @SuppressWarnings("unchecked")
@@ -2053,6 +2074,12 @@ public final class DBUtils {
             return null;
         }
         DBSInstance instance = getObjectOwnerInstance(object);
+        if (meta && instance != null) {
+            DBCExecutionContext loaderContext = MetadataLoader.getLoaderContext(instance);
+            if (loaderContext != null) {
+                return loaderContext;
+            }
+        }
         return instance == null ||
             (instance instanceof DBSInstanceLazy instanceLazy && !instanceLazy.isInstanceConnected())/* ||
             !instance.getDataSource().getContainer().isConnected()*/ ?
@@ -0,0 +1,232 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.utils.CommonUtils;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keyset of entity rows.
+ * <p>
+ * Rows are ordered by the data filter ordering followed by a unique key, so the position of a row
+ * is identified by values of keyset attributes. Next rows are read with a seek condition
+ * {@code WHERE (k) > (last k)} instead of an offset, thus reading of a page doesn't depend on its position.
+ * <p>
+ * Keyset is available only if all ordering attributes are mandatory integer or string attributes
+ * and there are no custom order expressions. Key values are written as SQL literals, other types
+ * (e.g. timestamps with sub-millisecond precision or floating point numbers) may lose precision,
+ * then the seek condition would return the same rows again.
+ */
+public class DBDKeyset {
+
+    public record KeyAttribute(@NotNull DBSEntityAttribute attribute, boolean descending) {
+    }
+
+    private final List<KeyAttribute> attributes;
+    private final int orderAttributeCount;
+    @Nullable
+    private final Object[] position;
+
+    private DBDKeyset(@NotNull List<KeyAttribute> attributes, int orderAttributeCount, @Nullable Object[] position) {
+        this.attributes = attributes;
+        this.orderAttributeCount = orderAttributeCount;
+        this.position = position;
+    }
+
+    /**
+     * Keyset attributes. Filter ordering attributes go first, then the rest of unique key attributes.
+     */
+    @NotNull
+    public List<KeyAttribute> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * Keyset values of the last read row. Null if rows are read from the beginning.
+     */
+    @Nullable
+    public Object[] getPosition() {
+        return position;
+    }
+
+    /**
+     * Returns keyset which continues reading after the row with specified keyset values.
+     */
+    @NotNull
+    public DBDKeyset withPosition(@NotNull Object[] position) {
+        if (position.length != attributes.size()) {
+            throw new IllegalArgumentException("Keyset position size mismatch: " + position.length + " <> " + attributes.size());
+        }
+        return new DBDKeyset(attributes, orderAttributeCount, position.clone());
+    }
+
+    /**
+     * Makes filter which orders rows by keyset and, if position is set, skips all rows up to the position.
+     */
+    @NotNull
+    public DBDDataFilter makeDataFilter(@NotNull DBPDataSource dataSource, @Nullable DBDDataFilter dataFilter) {
+        DBDDataFilter filter = dataFilter == null ? new DBDDataFilter() : new DBDDataFilter(dataFilter);
+
+        StringBuilder order = new StringBuilder();
+        for (int i = orderAttributeCount; i < attributes.size(); i++) {
+            if (order.length() > 0) order.append(',');
+            order.append(DBUtils.getQuotedIdentifier(attributes.get(i).attribute()));
+        }
+        filter.setOrder(order.length() == 0 ? null : order.toString());
+
+        if (position != null) {
+            // (a > x) OR (a = x AND b > y) OR ...
+            StringBuilder condition = new StringBuilder();
+            for (int i = 0; i < attributes.size(); i++) {
+                if (i > 0) condition.append(" OR ");
+                condition.append('(');
+                for (int k = 0; k < i; k++) {
+                    appendComparison(dataSource, condition, attributes.get(k).attribute(), "=", position[k]);
+                    condition.append(" AND ");
+                }
+                KeyAttribute keyAttribute = attributes.get(i);
+                appendComparison(dataSource, condition, keyAttribute.attribute(), keyAttribute.descending() ? "<" : ">", position[i]);
+                condition.append(')');
+            }
+            if (CommonUtils.isEmpty(filter.getWhere())) {
+                filter.setWhere(condition.toString());
+            } else {
+                filter.setWhere("(" + filter.getWhere() + ") AND (" + condition + ")");
+            }
+        }
+        return filter;
+    }
+
+    private static void appendComparison(
+        @NotNull DBPDataSource dataSource,
+        @NotNull StringBuilder condition,
+        @NotNull DBSEntityAttribute attribute,
+        @NotNull String operator,
+        @Nullable Object value
+    ) {
+        if (DBUtils.isNullValue(value)) {
+            throw new IllegalArgumentException("Keyset attribute '" + attribute.getName() + "' value is null");
+        }
+        condition.append(DBUtils.getQuotedIdentifier(attribute))
+            .append(operator)
+            .append(SQLUtils.convertValueToSQL(dataSource, attribute, value));
+    }
+
+    /**
+     * Resolves keyset of the entity for specified filter.
+     * Returns null if rows can't be positioned by key values, then they must be read by offset.
+     */
+    @Nullable
+    public static DBDKeyset resolve(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSEntity entity,
+        @Nullable DBDDataFilter dataFilter
+    ) throws DBException {
+        if (dataFilter != null) {
+            if (!CommonUtils.isEmpty(dataFilter.getOrder())) {
+                // Custom order expression
+                return null;
+            }
+            if (dataFilter.isAnyConstraint() && dataFilter.hasConditions()) {
+                // Seek condition would be joined with OR
+                return null;
+            }
+        }
+        List<KeyAttribute> attributes = new ArrayList<>();
+        if (dataFilter != null) {
+            for (DBDAttributeConstraint constraint : dataFilter.getOrderConstraints()) {
+                DBSEntityAttribute attribute = entity.getAttribute(monitor, constraint.getAttributeName());
+                if (!isKeysetAttribute(attribute)) {
+                    return null;
+                }
+                attributes.add(new KeyAttribute(attribute, constraint.isOrderDescending()));
+            }
+        }
+        int orderAttributeCount = attributes.size();
+
+        List<? extends DBSEntityAttribute> identifier = DBUtils.getBestTableIdentifier(monitor, entity);
+        if (identifier.isEmpty()) {
+            return null;
+        }
+        for (DBSEntityAttribute attribute : identifier) {
+            if (!isKeysetAttribute(attribute)) {
+                return null;
+            }
+            if (attributes.stream().noneMatch(ka -> ka.attribute().getName().equals(attribute.getName()))) {
+                attributes.add(new KeyAttribute(attribute, false));
+            }
+        }
+        return new DBDKeyset(Collections.unmodifiableList(attributes), orderAttributeCount, null);
+    }
+
+    private static boolean isKeysetAttribute(@Nullable DBSEntityAttribute attribute) {
+        if (attribute == null || !attribute.isRequired()) {
+            // Rows with nulls can't be positioned
+            return false;
+        }
+        switch (attribute.getDataKind()) {
+            case STRING:
+                return true;
+            case NUMERIC:
+                return isIntegerType(attribute);
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isIntegerType(@NotNull DBSEntityAttribute attribute) {
+        switch (attribute.getTypeID()) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                return true;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                Integer scale = attribute.getScale();
+                return scale != null && scale == 0;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder("(");
+        for (int i = 0; i < attributes.size(); i++) {
+            if (i > 0) str.append(',');
+            str.append(attributes.get(i).attribute().getName());
+            if (position != null) {
+                str.append('=').append(position[i]);
+            }
+        }
+        return str.append(')').toString();
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.data.columnar.ColumnReader;
+import org.jkiss.dbeaver.model.struct.DBSTypedObject;
+
+/**
+ * Value handler which can read values of primitive types directly into column buffers.
+ * Column readers are used by pipelined data transfer only, results viewer reads values with {@link #fetchValueObject}.
+ */
+public interface DBDValueHandlerColumnar extends DBDValueHandler {
+
+    /**
+     * Returns specialized reader of the specified type values.
+     * Returns null if values must be read with {@link #fetchValueObject}.
+     */
+    @Nullable
+    ColumnReader getColumnReader(@NotNull DBSTypedObject type);
+}
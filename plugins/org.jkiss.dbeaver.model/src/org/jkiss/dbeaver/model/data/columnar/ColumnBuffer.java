@@ -0,0 +1,144 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.columnar;
+
+import org.jkiss.code.Nullable;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Values of a single column.
+ * <p>
+ * Primitive buffers keep values in primitive arrays and box them only when value is requested.
+ * Nulls are kept in a bitmap. Values which couldn't be read as primitives (e.g. driver returned
+ * some unexpected object) are kept as is.
+ */
+public abstract class ColumnBuffer {
+
+    protected static final int MIN_CAPACITY = 16;
+
+    protected int size;
+    private final BitSet nulls = new BitSet();
+    @Nullable
+    private Map<Integer, Object> objectValues;
+
+    /**
+     * Number of values in the buffer
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isNull(int row) {
+        checkIndex(row);
+        return nulls.get(row);
+    }
+
+    /**
+     * Returns boxed value
+     */
+    @Nullable
+    public Object getValue(int row) {
+        checkIndex(row);
+        if (nulls.get(row)) {
+            return null;
+        }
+        if (objectValues != null) {
+            Object value = objectValues.get(row);
+            if (value != null) {
+                return value;
+            }
+        }
+        return getPrimitiveValue(row);
+    }
+
+    /**
+     * Replaces value of existing row.
+     */
+    public void setValue(int row, @Nullable Object value) {
+        checkIndex(row);
+        if (value == null) {
+            nulls.set(row);
+            if (objectValues != null) {
+                objectValues.remove(row);
+            }
+        } else {
+            nulls.clear(row);
+            if (!setPrimitiveValue(row, value)) {
+                getObjectValues().put(row, value);
+            } else if (objectValues != null) {
+                objectValues.remove(row);
+            }
+        }
+    }
+
+    public void appendNull() {
+        ensureCapacity(size + 1);
+        nulls.set(size);
+        size++;
+    }
+
+    /**
+     * Appends value of any type. Values of buffer type are stored as primitives.
+     */
+    public void appendObject(@Nullable Object value) {
+        if (value == null) {
+            appendNull();
+            return;
+        }
+        ensureCapacity(size + 1);
+        if (!setPrimitiveValue(size, value)) {
+            getObjectValues().put(size, value);
+        }
+        size++;
+    }
+
+    public void clear() {
+        size = 0;
+        nulls.clear();
+        objectValues = null;
+    }
+
+    protected static int growCapacity(int currentCapacity, int minCapacity) {
+        return Math.max(minCapacity, Math.max(MIN_CAPACITY, currentCapacity + (currentCapacity >> 1)));
+    }
+
+    protected abstract void ensureCapacity(int capacity);
+
+    /**
+     * Stores value in primitive array. Returns false if value can't be stored as primitive.
+     */
+    protected abstract boolean setPrimitiveValue(int row, @Nullable Object value);
+
+    @Nullable
+    protected abstract Object getPrimitiveValue(int row);
+
+    private void checkIndex(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " is out of range (" + size + ")");
+        }
+    }
+
+    private Map<Integer, Object> getObjectValues() {
+        if (objectValues == null) {
+            objectValues = new HashMap<>();
+        }
+        return objectValues;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.columnar;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+
+/**
+ * Reads column values of the current result set row into a column buffer.
+ */
+public interface ColumnReader {
+
+    /**
+     * Creates buffer which may keep values read by this reader.
+     */
+    @NotNull
+    ColumnBuffer createBuffer(int capacity);
+
+    /**
+     * Appends value of the current row to the buffer.
+     *
+     * @param index 0-based attribute index
+     */
+    void readValue(@NotNull DBCSession session, @NotNull DBCResultSet resultSet, int index, @NotNull ColumnBuffer buffer)
+        throws DBCException;
+}
@@ -0,0 +1,128 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.columnar;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.data.DBDValueHandlerColumnar;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+
+/**
+ * Rows fetched from a result set, stored by columns.
+ * <p>
+ * Columns are read by specialized readers of columnar value handlers (see {@link DBDValueHandlerColumnar}).
+ * Values of primitive columns are kept unboxed and are materialized only when they are requested.
+ * Other columns are read with {@link DBDValueHandler#fetchValueObject}.
+ * Columns are indexed by attribute ordinal position.
+ */
+public class ColumnarRowSet {
+
+    private final ColumnReader[] readers;
+    private final ColumnBuffer[] columns;
+    private int rowCount;
+
+    public ColumnarRowSet(@NotNull DBDAttributeBinding[] bindings, int capacity, boolean useColumnReaders) {
+        this.readers = new ColumnReader[bindings.length];
+        this.columns = new ColumnBuffer[bindings.length];
+        for (DBDAttributeBinding binding : bindings) {
+            int index = binding.getOrdinalPosition();
+            ColumnReader reader = null;
+            DBSAttributeBase metaAttribute = binding.getMetaAttribute();
+            if (metaAttribute != null) {
+                if (useColumnReaders && binding.getValueHandler() instanceof DBDValueHandlerColumnar columnarHandler) {
+                    reader = columnarHandler.getColumnReader(metaAttribute);
+                }
+                if (reader == null) {
+                    reader = new ObjectReader(binding.getValueHandler(), metaAttribute);
+                }
+            }
+            readers[index] = reader;
+            columns[index] = reader == null ? new ObjectColumnBuffer(capacity) : reader.createBuffer(capacity);
+        }
+    }
+
+    /**
+     * Reads values of the current result set row
+     */
+    public void fetchRow(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+        for (int i = 0; i < readers.length; i++) {
+            if (readers[i] == null) {
+                columns[i].appendNull();
+            } else {
+                readers[i].readValue(session, resultSet, i, columns[i]);
+            }
+        }
+        rowCount++;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @NotNull
+    public ColumnBuffer getColumn(int column) {
+        return columns[column];
+    }
+
+    @Nullable
+    public Object getValue(int row, int column) {
+        return columns[column].getValue(row);
+    }
+
+    /**
+     * Materializes values of the specified row
+     */
+    @NotNull
+    public Object[] getRowValues(int row) {
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = columns[i].getValue(row);
+        }
+        return values;
+    }
+
+    public void clear() {
+        for (ColumnBuffer column : columns) {
+            column.clear();
+        }
+        rowCount = 0;
+    }
+
+    private record ObjectReader(@NotNull DBDValueHandler valueHandler, @NotNull DBSAttributeBase attribute) implements ColumnReader {
+
+        @NotNull
+        @Override
+        public ColumnBuffer createBuffer(int capacity) {
+            return new ObjectColumnBuffer(capacity);
+        }
+
+        @Override
+        public void readValue(@NotNull DBCSession session, @NotNull DBCResultSet resultSet, int index, @NotNull ColumnBuffer buffer)
+            throws DBCException {
+            buffer.appendObject(valueHandler.fetchValueObject(session, resultSet, attribute, index));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.columnar;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Floating point values column.
+ */
+public class DoubleColumnBuffer extends ColumnBuffer {
+
+    private double[] values;
+
+    public DoubleColumnBuffer(int capacity) {
+        this.values = new double[Math.max(capacity, MIN_CAPACITY)];
+    }
+
+    public double getDouble(int row) {
+        return values[row];
+    }
+
+    public void append(double value) {
+        ensureCapacity(size + 1);
+        values[size++] = value;
+    }
+
+    @Override
+    protected void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, growCapacity(values.length, capacity));
+        }
+    }
+
+    @Override
+    protected boolean setPrimitiveValue(int row, @Nullable Object value) {
+        if (value instanceof Double doubleValue) {
+            values[row] = doubleValue;
+            return true;
+        }
+        return false;
+    }
+
+    @NotNull
+    @Override
+    protected Object getPrimitiveValue(int row) {
+        return values[row];
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.columnar;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Integer values column.
+ * Values are boxed into the same type which value handler would return for this column.
+ */
+public class LongColumnBuffer extends ColumnBuffer {
+
+    public enum BoxType {
+        BYTE,
+        SHORT,
+        INTEGER,
+        LONG
+    }
+
+    private final BoxType boxType;
+    private long[] values;
+
+    public LongColumnBuffer(int capacity, @NotNull BoxType boxType) {
+        this.values = new long[Math.max(capacity, MIN_CAPACITY)];
+        this.boxType = boxType;
+    }
+
+    @NotNull
+    public BoxType getBoxType() {
+        return boxType;
+    }
+
+    public long getLong(int row) {
+        return values[row];
+    }
+
+    public void append(long value) {
+        ensureCapacity(size + 1);
+        values[size++] = value;
+    }
+
+    @Override
+    protected void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, growCapacity(values.length, capacity));
+        }
+    }
+
+    @Override
+    protected boolean setPrimitiveValue(int row, @Nullable Object value) {
+        boolean sameType = switch (boxType) {
+            case BYTE -> value instanceof Byte;
+            case SHORT -> value instanceof Short;
+            case INTEGER -> value instanceof Integer;
+            case LONG -> value instanceof Long;
+        };
+        if (!sameType) {
+            return false;
+        }
+        values[row] = ((Number) value).longValue();
+        return true;
+    }
+
+    @NotNull
+    @Override
+    protected Object getPrimitiveValue(int row) {
+        long value = values[row];
+        return switch (boxType) {
+            case BYTE -> (byte) value;
+            case SHORT -> (short) value;
+            case INTEGER -> (int) value;
+            case LONG -> value;
+        };
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.columnar;
+
+import org.jkiss.code.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Column of values which have no primitive representation.
+ */
+public class ObjectColumnBuffer extends ColumnBuffer {
+
+    private Object[] values;
+
+    public ObjectColumnBuffer(int capacity) {
+        this.values = new Object[Math.max(capacity, MIN_CAPACITY)];
+    }
+
+    @Override
+    public void clear() {
+        // Release values
+        Arrays.fill(values, 0, size, null);
+        super.clear();
+    }
+
+    @Override
+    protected void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, growCapacity(values.length, capacity));
+        }
+    }
+
+    @Override
+    protected boolean setPrimitiveValue(int row, @Nullable Object value) {
+        values[row] = value;
+        return true;
+    }
+
+    @Nullable
+    @Override
+    protected Object getPrimitiveValue(int row) {
+        return values[row];
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.columnar;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary encoded strings column.
+ * Each distinct string is kept once, rows keep dictionary codes.
+ * If column has too many distinct values then dictionary is dropped and strings are kept as is.
+ */
+public class StringColumnBuffer extends ColumnBuffer {
+
+    public static final int MAX_DICTIONARY_SIZE = 1 << 16;
+
+    private int[] codes;
+    @Nullable
+    private List<String> dictionary;
+    @Nullable
+    private Map<String, Integer> dictionaryCodes;
+    @Nullable
+    private String[] plainValues;
+
+    public StringColumnBuffer(int capacity) {
+        this.codes = new int[Math.max(capacity, MIN_CAPACITY)];
+        this.dictionary = new ArrayList<>();
+        this.dictionaryCodes = new HashMap<>();
+    }
+
+    /**
+     * Returns true if values are dictionary encoded
+     */
+    public boolean isEncoded() {
+        return plainValues == null;
+    }
+
+    /**
+     * Number of distinct values. Returns -1 if column is not encoded.
+     */
+    public int getDictionarySize() {
+        return dictionary == null ? -1 : dictionary.size();
+    }
+
+    public void append(@NotNull String value) {
+        ensureCapacity(size + 1);
+        setPrimitiveValue(size, value);
+        size++;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        codes = new int[MIN_CAPACITY];
+        dictionary = new ArrayList<>();
+        dictionaryCodes = new HashMap<>();
+        plainValues = null;
+    }
+
+    @Override
+    protected void ensureCapacity(int capacity) {
+        if (plainValues != null) {
+            if (capacity > plainValues.length) {
+                plainValues = Arrays.copyOf(plainValues, growCapacity(plainValues.length, capacity));
+            }
+        } else if (capacity > codes.length) {
+            codes = Arrays.copyOf(codes, growCapacity(codes.length, capacity));
+        }
+    }
+
+    @Override
+    protected boolean setPrimitiveValue(int row, @Nullable Object value) {
+        if (!(value instanceof String strValue)) {
+            return false;
+        }
+        if (plainValues != null) {
+            plainValues[row] = strValue;
+            return true;
+        }
+        assert dictionary != null && dictionaryCodes != null;
+        Integer code = dictionaryCodes.get(strValue);
+        if (code == null) {
+            if (dictionary.size() >= MAX_DICTIONARY_SIZE) {
+                decodeDictionary();
+                plainValues[row] = strValue;
+                return true;
+            }
+            code = dictionary.size();
+            dictionary.add(strValue);
+            dictionaryCodes.put(strValue, code);
+        }
+        codes[row] = code;
+        return true;
+    }
+
+    @Nullable
+    @Override
+    protected Object getPrimitiveValue(int row) {
+        if (plainValues != null) {
+            return plainValues[row];
+        }
+        assert dictionary != null;
+        // Rows which were not set (nulls or values of other types) have zero code
+        return dictionary.isEmpty() ? null : dictionary.get(codes[row]);
+    }
+
+    private void decodeDictionary() {
+        assert dictionary != null;
+        String[] values = new String[codes.length];
+        for (int i = 0; i < size; i++) {
+            values[i] = dictionary.isEmpty() ? null : dictionary.get(codes[i]);
+        }
+        plainValues = values;
+        codes = null;
+        dictionary = null;
+        dictionaryCodes = null;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.columnar;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Date/time values column.
+ * Keeps epoch milliseconds (and nanoseconds for timestamps) and creates value object on request.
+ * Column keeps values of a single class (the class of the first value), values of other classes are kept as is.
+ */
+public class TemporalColumnBuffer extends ColumnBuffer {
+
+    public enum ValueType {
+        TIMESTAMP,
+        DATE,
+        TIME,
+        UTIL_DATE
+    }
+
+    private final ValueType valueType;
+    private long[] millis;
+    @Nullable
+    private int[] nanos;
+
+    public TemporalColumnBuffer(int capacity, @NotNull ValueType valueType) {
+        this.valueType = valueType;
+        this.millis = new long[Math.max(capacity, MIN_CAPACITY)];
+        if (valueType == ValueType.TIMESTAMP) {
+            this.nanos = new int[millis.length];
+        }
+    }
+
+    /**
+     * Returns value type of the specified object or null if it can't be kept in temporal buffer.
+     */
+    @Nullable
+    public static ValueType getValueType(@Nullable Object value) {
+        if (value == null) {
+            return null;
+        }
+        // Exact classes only: subclasses may keep additional state
+        Class<?> valueClass = value.getClass();
+        if (valueClass == Timestamp.class) {
+            return ValueType.TIMESTAMP;
+        } else if (valueClass == java.sql.Date.class) {
+            return ValueType.DATE;
+        } else if (valueClass == Time.class) {
+            return ValueType.TIME;
+        } else if (valueClass == Date.class) {
+            return ValueType.UTIL_DATE;
+        }
+        return null;
+    }
+
+    @NotNull
+    public ValueType getValueType() {
+        return valueType;
+    }
+
+    @Override
+    protected void ensureCapacity(int capacity) {
+        if (capacity > millis.length) {
+            int newCapacity = growCapacity(millis.length, capacity);
+            millis = Arrays.copyOf(millis, newCapacity);
+            if (nanos != null) {
+                nanos = Arrays.copyOf(nanos, newCapacity);
+            }
+        }
+    }
+
+    @Override
+    protected boolean setPrimitiveValue(int row, @Nullable Object value) {
+        if (getValueType(value) != valueType) {
+            return false;
+        }
+        millis[row] = ((Date) value).getTime();
+        if (nanos != null) {
+            nanos[row] = ((Timestamp) value).getNanos();
+        }
+        return true;
+    }
+
+    @NotNull
+    @Override
+    protected Object getPrimitiveValue(int row) {
+        long time = millis[row];
+        return switch (valueType) {
+            case TIMESTAMP -> {
+                Timestamp timestamp = new Timestamp(time);
+                assert nanos != null;
+                timestamp.setNanos(nanos[row]);
+                yield timestamp;
+            }
+            case DATE -> new java.sql.Date(time);
+            case TIME -> new Time(time);
+            case UTIL_DATE -> new Date(time);
+        };
+    }
+}
@@ -36,6 +36,7 @@ import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
 import org.jkiss.dbeaver.model.struct.cache.DBSCompositeCache;
 import org.jkiss.dbeaver.model.struct.cache.DBSObjectCache;
+import org.jkiss.dbeaver.model.struct.cache.MetadataSnapshotStore;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.CommonUtils;
@@ -387,6 +388,12 @@ public abstract class SQLObjectEditor<OBJECT_TYPE extends DBSObject, CONTAINER_T
             return CommonUtils.isEmpty(decl) ? null : decl.toString();
         }
 
+        @Override
+        public void updateModel() {
+            super.updateModel();
+            MetadataSnapshotStore.invalidateSnapshots(getObject());
+        }
+
         @Override
         public String toString() {
             return "CMD:UpdateObject:" + getObject();
@@ -450,6 +457,7 @@ public abstract class SQLObjectEditor<OBJECT_TYPE extends DBSObject, CONTAINER_T
                 }
                 DBUtils.fireObjectUpdate(object);
             }
+            MetadataSnapshotStore.invalidateSnapshots(object);
         }
 
         @Override
@@ -487,6 +495,7 @@ public abstract class SQLObjectEditor<OBJECT_TYPE extends DBSObject, CONTAINER_T
             if (cache != null) {
                 cache.removeObject(object, false);
             }
+            MetadataSnapshotStore.invalidateSnapshots(object);
         }
 
         @Override
@@ -560,6 +569,11 @@ public abstract class SQLObjectEditor<OBJECT_TYPE extends DBSObject, CONTAINER_T
             return super.merge(prevCommand, userParams);
         }
 
+        @Override
+        public void updateModel() {
+            MetadataSnapshotStore.invalidateSnapshots(getObject());
+        }
+
         @Override
         public String toString() {
             return "CMD:RenameObject:" + getObject();
@@ -653,6 +667,11 @@ public abstract class SQLObjectEditor<OBJECT_TYPE extends DBSObject, CONTAINER_T
             return super.merge(prevCommand, userParams);
         }
 
+        @Override
+        public void updateModel() {
+            MetadataSnapshotStore.invalidateSnapshots(getObject());
+        }
+
         @Override
         public String toString() {
             return "CMD:ReorderPosition:" + getObject() + ":" + getOldPosition() + ":" + getNewPosition();
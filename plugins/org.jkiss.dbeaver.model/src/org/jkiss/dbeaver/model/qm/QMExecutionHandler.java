@@ -63,6 +63,12 @@ public interface QMExecutionHandler {
 
     void handleStatementClose(@NotNull DBCStatement statement, long rows);
 
+    /**
+     * Prepared statement was requested from the statement cache of the execution context.
+     * @param hit true if statement was found in the cache, false if it was prepared again
+     */
+    void handleStatementCacheAccess(@NotNull DBCExecutionContext context, boolean hit);
+
     void handleResultSetOpen(@NotNull DBCResultSet resultSet);
 
     void handleResultSetClose(@NotNull DBCResultSet resultSet, long rowCount);
@@ -43,6 +43,8 @@ public class QMMConnectionInfo extends QMMObject {
     private transient QMMStatementInfo statementStack;
     private transient QMMStatementExecuteInfo executionStack;
     private transient QMMTransactionInfo transaction;
+    private transient long statementCacheHits;
+    private transient long statementCacheMisses;
     //private Throwable stack;
 
     public QMMConnectionInfo(DBCExecutionContext context, boolean transactional) {
@@ -341,6 +343,28 @@ public class QMMConnectionInfo extends QMMObject {
         return connectionUrl;
     }
 
+    /**
+     * Number of prepared statements reused from the statement cache
+     */
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    /**
+     * Number of prepared statements which were not found in the statement cache
+     */
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    public void addStatementCacheAccess(boolean hit) {
+        if (hit) {
+            statementCacheHits++;
+        } else {
+            statementCacheMisses++;
+        }
+    }
+
     @Override
     public String toString()
     {
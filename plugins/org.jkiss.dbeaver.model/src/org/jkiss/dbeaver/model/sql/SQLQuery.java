@@ -64,6 +64,7 @@ import java.util.stream.Collectors;
  */
 public class SQLQuery implements SQLScriptElement {
 
+    private static final Pattern RETURNING_PATTERN = Pattern.compile("\\bRETURNING\\b", Pattern.CASE_INSENSITIVE);
     private static final Pattern QUERY_TITLE_PATTERN = Pattern.compile("^\\s*(?:--|//|/\\*)\\s*(?:name|title)\\s*:\\s*(.+)$", Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
 
     @Nullable
@@ -541,6 +542,34 @@ public class SQLQuery implements SQLScriptElement {
             statement instanceof Alter || statement instanceof AlterView || statement instanceof AlterSequence);
     }
 
+    /**
+     * Returns shape of a plain data modification statement: statement type, target table and inserted columns.
+     * Consecutive statements of the same shape may be executed in a single batch.
+     * Returns null if statement can't be batched (not a DML, has parameters or returns results).
+     */
+    @Nullable
+    public String getBatchShape() {
+        parseQuery();
+        if (statement == null || !CommonUtils.isEmpty(parameters)) {
+            return null;
+        }
+        String shape;
+        if (statement instanceof Insert insert && insert.getTable() != null) {
+            shape = "INSERT " + insert.getTable().getFullyQualifiedName() + " " + insert.getColumns();
+        } else if (statement instanceof Update update && update.getTable() != null) {
+            shape = "UPDATE " + update.getTable().getFullyQualifiedName();
+        } else if (statement instanceof Delete delete && delete.getTable() != null && CommonUtils.isEmpty(delete.getTables())) {
+            shape = "DELETE " + delete.getTable().getFullyQualifiedName();
+        } else {
+            return null;
+        }
+        if (RETURNING_PATTERN.matcher(statement.toString()).find()) {
+            // Returns result set
+            return null;
+        }
+        return shape;
+    }
+
     private static class SingleTableMeta implements DBCEntityMetaData {
 
         private final String catalogName;
@@ -29,6 +29,23 @@ import java.util.Map;
  */
 public interface DBSDataBulkLoader {
 
+    /**
+     * Stream rows directly to the server instead of spooling them into an intermediate file (Boolean)
+     */
+    String OPTION_STREAMING = "data.bulkload.streaming";//$NON-NLS-1$
+    /**
+     * Use database-native binary data format if loader supports it (Boolean)
+     */
+    String OPTION_BINARY_FORMAT = "data.bulkload.binaryFormat";//$NON-NLS-1$
+    /**
+     * Lock the whole target table for the duration of bulk load if loader supports it (Boolean)
+     */
+    String OPTION_TABLE_LOCK = "data.bulkload.tableLock";//$NON-NLS-1$
+    /**
+     * Check table constraints while loading data if loader supports it (Boolean)
+     */
+    String OPTION_CHECK_CONSTRAINTS = "data.bulkload.checkConstraints";//$NON-NLS-1$
+
     interface BulkLoadManager extends AutoCloseable {
         void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException;
 
@@ -43,6 +43,11 @@ public interface DBSDataContainer extends DBSObject {
     String FEATURE_DATA_SEARCH = "data.search";
     String FEATURE_KEY_VALUE = "data.key.value";
     String FEATURE_DATA_MODIFIED_ON_REFRESH = "data.modifying";
+    /**
+     * Container reads entity rows with SQL filters, so the next rows may be read by a keyset
+     * (see {@link org.jkiss.dbeaver.model.data.DBDKeyset}) instead of an offset.
+     */
+    String FEATURE_KEYSET_PAGING = "data.keyset.paging";
 
     long FLAG_NONE                  = 0;
     long FLAG_READ_PSEUDO           = 1 << 1;
@@ -35,6 +35,7 @@ import org.jkiss.dbeaver.model.sql.SQLConstants;
 import org.jkiss.dbeaver.model.sql.SQLDataTypeConverter;
 import org.jkiss.dbeaver.model.sql.SQLDialect;
 import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.cache.MetadataLoader;
 import org.jkiss.dbeaver.model.struct.rdb.DBSTable;
 import org.jkiss.dbeaver.model.struct.rdb.DBSView;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
@@ -60,6 +61,10 @@ public final class DBStructUtils {
     private static final String VARCHAR_DATA_TYPE = "varchar";
     private static final String VARCHAR2_DATA_TYPE = "varchar2";
     private static final int DEFAULT_VARCHAR_LENGTH = 100;
+    // Reading structure of the whole container is cheaper than reading a few objects separately,
+    // but only if these objects make a noticeable part of the container
+    private static final int PREFETCH_MIN_OBJECTS = 10;
+    private static final int PREFETCH_MIN_PERCENT = 25;
 
     @Nullable
     public static DBSEntityReferrer getEnumerableConstraint(@NotNull DBRProgressMonitor monitor, @NotNull DBDAttributeBinding attribute) throws DBException {
@@ -129,6 +134,49 @@ public final class DBStructUtils {
         return generateTableDDL(monitor, table, options, addComments);
     }
 
+    /**
+     * Caches structure of objects containers.
+     * Objects are grouped by parent container and each container reads the structure of all its objects
+     * with a few queries instead of a few queries per object.
+     * Containers with only a few selected objects, or where selected objects are only a small part
+     * of all container children, are skipped. Different containers are read in parallel.
+     *
+     * @param scope structure scope, see {@link DBSObjectContainer#STRUCT_ALL}
+     */
+    public static void prefetchStructure(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull Collection<? extends DBSObject> objects,
+        int scope
+    ) {
+        Map<DBSObjectContainer, Integer> containers = new IdentityHashMap<>();
+        for (DBSObject object : objects) {
+            if (object.isPersisted() && object.getParentObject() instanceof DBSObjectContainer container) {
+                containers.merge(container, 1, Integer::sum);
+            }
+        }
+        containers.values().removeIf(count -> count < PREFETCH_MIN_OBJECTS);
+        try {
+            MetadataLoader.loadObjects(monitor, containers.keySet(), "Prefetch objects structure", (loadMonitor, container) -> {
+                try {
+                    Collection<? extends DBSObject> children = container.getChildren(loadMonitor);
+                    if (children != null && !isPrefetchNeeded(containers.get(container), children.size())) {
+                        return;
+                    }
+                    container.cacheStructure(loadMonitor, scope);
+                } catch (DBException e) {
+                    // Objects will be read separately
+                    log.debug("Error caching structure of " + DBUtils.getObjectFullName(container, DBPEvaluationContext.UI), e);
+                }
+            });
+        } catch (DBException e) {
+            log.debug("Error prefetching objects structure", e);
+        }
+    }
+
+    static boolean isPrefetchNeeded(int objectCount, int containerSize) {
+        return objectCount >= PREFETCH_MIN_OBJECTS && objectCount * 100L >= (long) containerSize * PREFETCH_MIN_PERCENT;
+    }
+
     public static <T extends DBSEntity> void generateTableListDDL(
         @NotNull DBRProgressMonitor monitor,
         @NotNull StringBuilder sql,
@@ -140,6 +188,7 @@ public final class DBStructUtils {
         List<T> cycleTableList = new ArrayList<>();
         List<T> viewList = new ArrayList<>();
 
+        prefetchStructure(monitor, tablesOrViews, DBSObjectContainer.STRUCT_ALL);
         DBStructUtils.sortTableList(monitor, tablesOrViews, goodTableList, cycleTableList, viewList);
 
         // Good tables: generate full DDL
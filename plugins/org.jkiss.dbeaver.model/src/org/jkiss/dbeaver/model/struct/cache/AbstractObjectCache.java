@@ -31,23 +31,33 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Various objects cache
+ * Various objects cache.
+ * <p>
+ * Cached objects are kept in an immutable list which is replaced on each modification (copy-on-write),
+ * so readers never block. Name index is a concurrent map with precomputed lookup keys.
+ * Modifications are serialized with {@link #getCacheSync()}.
  */
 public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extends DBSObject>
     implements DBSObjectCache<OWNER, OBJECT> {
     private static final Log log = Log.getLog(AbstractObjectCache.class);
 
-    private List<OBJECT> objectList;
-    private Map<String, OBJECT> objectMap;
+    // Published objects list. It is never modified, modifications publish a new list.
+    private volatile List<OBJECT> objectList;
+    // Name index of objectList. Built on the first lookup and then maintained by modifications.
+    private volatile NameIndex<OBJECT> objectIndex;
     protected volatile boolean fullCache = false;
     protected volatile boolean caseSensitive = true;
 
     private Comparator<OBJECT> listOrderComparator;
-    // Use this monitor to void entire cache object locking
+    // Use this monitor to void entire cache object locking. Only modifications use it.
     private final Object cacheSync = new Object();
 
+    private record NameIndex<T>(@NotNull List<T> objects, boolean caseSensitive, @NotNull Map<String, T> map) {
+    }
+
     protected AbstractObjectCache() {
     }
 
@@ -70,9 +80,8 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @NotNull
     @Override
     public List<OBJECT> getCachedObjects() {
-        synchronized (cacheSync) {
-            return objectList == null ? Collections.emptyList() : objectList;
-        }
+        List<OBJECT> objects = objectList;
+        return objects == null ? Collections.emptyList() : objects;
     }
 
     public <SUB_TYPE> List<SUB_TYPE> getTypedObjects(@NotNull DBRProgressMonitor monitor, OWNER owner, Class<SUB_TYPE> type)
@@ -89,32 +98,70 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @Nullable
     @Override
     public OBJECT getCachedObject(@NotNull String name) {
-        synchronized (cacheSync) {
-            return objectList == null || name == null ? null : getObjectMap().get(caseSensitive ? name : name.toUpperCase());
+        if (name == null) {
+            return null;
         }
+        NameIndex<OBJECT> index = getNameIndex();
+        return index == null ? null : index.map.get(makeObjectKey(name, index.caseSensitive));
     }
 
     public int getCacheSize() {
-        synchronized (cacheSync) {
-            return objectList == null ? 0 : objectList.size();
-        }
+        List<OBJECT> objects = objectList;
+        return objects == null ? 0 : objects.size();
     }
 
     @Override
     public void cacheObject(@NotNull OBJECT object) {
         synchronized (cacheSync) {
-            if (this.objectList == null) {
-                this.objectList = new ArrayList<>();
-            }
             detectCaseSensitivity(object);
-            this.objectList.add(object);
-            if (this.objectMap != null) {
-                String name = getObjectName(object);
-                if (checkDuplicateName(name, object)) {
-                    this.objectMap.put(name, object);
+            List<OBJECT> objects = objectList;
+            List<OBJECT> newObjects = new ArrayList<>(objects == null ? 1 : objects.size() + 1);
+            if (objects != null) {
+                newObjects.addAll(objects);
+            }
+            newObjects.add(object);
+            NameIndex<OBJECT> index = getModifiableIndex(objects);
+            if (index != null) {
+                String name = makeObjectKey(object, index.caseSensitive);
+                if (checkDuplicateName(index.map, name, object)) {
+                    index.map.put(name, object);
+                }
+            }
+            publish(newObjects, index);
+        }
+        DBSObjectNameIndex.addObjects(Collections.singletonList(object));
+    }
+
+    /**
+     * Adds several objects to the cache. The cache list is copied once for all objects,
+     * so loaders should use it instead of adding objects one by one.
+     */
+    public void cacheObjects(@NotNull Collection<? extends OBJECT> objects) {
+        if (objects.isEmpty()) {
+            return;
+        }
+        synchronized (cacheSync) {
+            List<OBJECT> oldObjects = objectList;
+            List<OBJECT> newObjects = new ArrayList<>((oldObjects == null ? 0 : oldObjects.size()) + objects.size());
+            if (oldObjects != null) {
+                newObjects.addAll(oldObjects);
+            }
+            for (OBJECT object : objects) {
+                detectCaseSensitivity(object);
+            }
+            NameIndex<OBJECT> index = getModifiableIndex(oldObjects);
+            for (OBJECT object : objects) {
+                newObjects.add(object);
+                if (index != null) {
+                    String name = makeObjectKey(object, index.caseSensitive);
+                    if (checkDuplicateName(index.map, name, object)) {
+                        index.map.put(name, object);
+                    }
                 }
             }
+            publish(newObjects, index);
         }
+        DBSObjectNameIndex.addObjects(objects);
     }
 
     @Override
@@ -122,10 +169,7 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         synchronized (cacheSync) {
             if (this.objectList != null) {
                 detectCaseSensitivity(object);
-                this.objectList.remove(object);
-                if (this.objectMap != null) {
-                    this.objectMap.remove(getObjectName(object));
-                }
+                removeCachedObject(object);
             }
             if (resetFullCache) {
                 fullCache = false;
@@ -136,16 +180,16 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @Override
     public void renameObject(@NotNull OBJECT object, @NotNull String oldName, @NotNull String newName) {
         synchronized (cacheSync) {
-            if (this.objectMap != null) {
-                if (!caseSensitive) {
-                    oldName = oldName.toUpperCase(Locale.ENGLISH);
-                    newName = newName.toUpperCase(Locale.ENGLISH);
-                }
-                if (this.objectMap.remove(oldName) == object) {
-                    this.objectMap.put(newName, object);
+            NameIndex<OBJECT> index = getModifiableIndex(objectList);
+            if (index != null) {
+                String oldKey = makeObjectKey(oldName, index.caseSensitive);
+                String newKey = makeObjectKey(newName, index.caseSensitive);
+                if (index.map.remove(oldKey) == object) {
+                    index.map.put(newKey, object);
                 }
             }
         }
+        DBSObjectNameIndex.renameObject(object, oldName);
     }
 
     @Nullable
@@ -170,20 +214,38 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @Override
     public void clearCache() {
         synchronized (cacheSync) {
-            this.objectList = null;
-            this.objectMap = null;
+            List<OBJECT> oldObjects = objectList;
+            publish(null, null);
             this.fullCache = false;
+            if (oldObjects != null) {
+                DBSObjectNameIndex.removeObjects(oldObjects);
+            }
         }
     }
 
+    /**
+     * Replaces cache contents. The list is copied, further modifications of it do not affect the cache.
+     */
     public void setCache(@NotNull List<OBJECT> objects) {
         synchronized (cacheSync) {
-            this.objectList = objects;
-            this.objectMap = null;
+            List<OBJECT> oldObjects = objectList;
+            publish(new ArrayList<>(objects), null);
             this.fullCache = true;
+            if (oldObjects != null) {
+                DBSObjectNameIndex.removeObjects(oldObjects);
+            }
+            DBSObjectNameIndex.addObjects(objects);
         }
     }
 
+    /**
+     * Registers the cache in the metadata name index as the source of all owner's objects.
+     * Must be called after all objects of the owner were read into the cache.
+     */
+    protected void indexOwner(@NotNull OWNER owner) {
+        DBSObjectNameIndex.addScopeCache(owner, this);
+    }
+
     /**
      * Adds custom objects to cache after rea; cache data was read
      *
@@ -206,47 +268,118 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
      */
     protected void mergeCache(List<OBJECT> objects) {
         synchronized (cacheSync) {
-            if (this.objectList != null) {
+            List<OBJECT> oldObjects = this.objectList;
+            if (oldObjects != null) {
                 // Merge lists
+                Map<String, OBJECT> oldObjectMap = new HashMap<>(oldObjects.size());
+                for (OBJECT oldObject : oldObjects) {
+                    oldObjectMap.putIfAbsent(oldObject.getName(), oldObject);
+                }
                 objects = new ArrayList<>(objects);
                 for (int i = 0; i < objects.size(); i++) {
-                    OBJECT newObject = objects.get(i);
-                    String newObjectName = newObject.getName();
-                    for (int k = 0; k < objectList.size(); k++) {
-                        OBJECT oldObject = objectList.get(k);
-                        String oldObjectName = oldObject.getName();
-                        if (newObjectName.equals(oldObjectName)) {
-                            objects.set(i, oldObject);
-                            break;
-                        }
+                    OBJECT oldObject = oldObjectMap.get(objects.get(i).getName());
+                    if (oldObject != null) {
+                        objects.set(i, oldObject);
                     }
                 }
             }
+            setCache(objects);
         }
-        setCache(objects);
     }
 
-    private Map<String, OBJECT> getObjectMap() {
+    /**
+     * Returns name index of the current objects list. Builds it if needed.
+     * Index may be built concurrently by several readers, the result is the same.
+     */
+    @Nullable
+    private NameIndex<OBJECT> getNameIndex() {
+        List<OBJECT> objects = objectList;
+        if (objects == null) {
+            return null;
+        }
+        NameIndex<OBJECT> index = objectIndex;
+        if (index != null && index.objects == objects && index.caseSensitive == caseSensitive) {
+            return index;
+        }
+        if (!objects.isEmpty()) {
+            detectCaseSensitivity(objects.get(0));
+        }
+        boolean indexCaseSensitive = caseSensitive;
+        Map<String, OBJECT> map = new ConcurrentHashMap<>(Math.max(16, objects.size() * 4 / 3 + 1));
+        for (OBJECT object : objects) {
+            String name = makeObjectKey(object, indexCaseSensitive);
+            if (checkDuplicateName(map, name, object)) {
+                map.put(name, object);
+            }
+        }
+        index = new NameIndex<>(objects, indexCaseSensitive, map);
         synchronized (cacheSync) {
-            if (this.objectMap == null) {
-                this.objectMap = new HashMap<>();
-                if (objectList.size() > 0) {
-                    detectCaseSensitivity(objectList.get(0));
-                }
-
-                for (OBJECT object : objectList) {
-                    String name = getObjectName(object);
-                    if (checkDuplicateName(name, object)) {
-                        this.objectMap.put(name, object);
-                    }
-                }
+            if (objectList == objects) {
+                objectIndex = index;
             }
-            return this.objectMap;
         }
+        return index;
+    }
+
+    /**
+     * Returns index which may be updated in place by a modification of the specified list.
+     * Readers of the old list may see the new entries, which is fine.
+     * Must be called under cacheSync.
+     */
+    @Nullable
+    private NameIndex<OBJECT> getModifiableIndex(@Nullable List<OBJECT> objects) {
+        NameIndex<OBJECT> index = objectIndex;
+        if (objects == null || index == null || index.objects != objects || index.caseSensitive != caseSensitive) {
+            return null;
+        }
+        return index;
     }
 
-    private boolean checkDuplicateName(String name, OBJECT object) {
-        if (this.objectMap.containsKey(name)) {
+    /**
+     * Publishes new objects list. Must be called under cacheSync.
+     */
+    private void publish(@Nullable List<OBJECT> objects, @Nullable NameIndex<OBJECT> index) {
+        List<OBJECT> newObjects = objects == null ? null : Collections.unmodifiableList(objects);
+        this.objectList = newObjects;
+        this.objectIndex = newObjects == null || index == null ? null :
+            new NameIndex<>(newObjects, index.caseSensitive, index.map);
+    }
+
+    /**
+     * Removes object from list and index. Must be called under cacheSync.
+     */
+    private void removeCachedObject(@NotNull OBJECT object) {
+        List<OBJECT> objects = objectList;
+        if (objects == null) {
+            return;
+        }
+        int objectIndex = objects.indexOf(object);
+        if (objectIndex < 0) {
+            return;
+        }
+        List<OBJECT> newObjects = new ArrayList<>(objects);
+        newObjects.remove(objectIndex);
+        NameIndex<OBJECT> index = getModifiableIndex(objects);
+        if (index != null) {
+            removeIndexKey(index, object);
+        }
+        publish(newObjects, index);
+        DBSObjectNameIndex.removeObjects(Collections.singletonList(object));
+    }
+
+    private static <T extends DBSObject> void removeIndexKey(@NotNull NameIndex<T> index, @NotNull T object) {
+        String name = makeObjectKey(object, index.caseSensitive);
+        if (name != null) {
+            index.map.remove(name);
+        }
+    }
+
+    private boolean checkDuplicateName(@NotNull Map<String, OBJECT> objectMap, String name, OBJECT object) {
+        if (name == null) {
+            // Unnamed objects can't be found by name
+            return false;
+        }
+        if (objectMap.containsKey(name)) {
             log.debug("Duplicate object name '" + name + "' in cache " + this.getClass().getSimpleName() + ". Last value: " + DBUtils.getObjectFullName(object, DBPEvaluationContext.DDL));
             return isValidDuplicateObject(object);
         }
@@ -277,26 +410,38 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
 
     public void clearChildrenOf(DBSObject parent) {
         synchronized (cacheSync) {
-            if (objectList == null) {
+            List<OBJECT> objects = objectList;
+            if (objects == null) {
                 return;
             }
-            for (int i = 0; i < objectList.size(); ) {
-                OBJECT object = objectList.get(i);
+            List<OBJECT> newObjects = new ArrayList<>(objects.size());
+            List<OBJECT> removedObjects = new ArrayList<>();
+            NameIndex<OBJECT> index = getModifiableIndex(objects);
+            for (OBJECT object : objects) {
                 if (object.getParentObject() == parent) {
-                    this.objectList.remove(object);
-                    if (this.objectMap != null) {
-                        this.objectMap.remove(getObjectName(object));
+                    if (index != null) {
+                        removeIndexKey(index, object);
                     }
+                    removedObjects.add(object);
                     fullCache = false;
                 } else {
-                    i++;
+                    newObjects.add(object);
                 }
             }
+            if (newObjects.size() != objects.size()) {
+                publish(newObjects, index);
+                DBSObjectNameIndex.removeObjects(removedObjects);
+            }
         }
     }
 
     @NotNull
     protected String getObjectName(@NotNull OBJECT object) {
+        return makeObjectKey(object, caseSensitive);
+    }
+
+    @Nullable
+    private static String makeObjectKey(@NotNull DBSObject object, boolean caseSensitive) {
         String name;
         if (object instanceof DBPUniqueObject) {
             name = ((DBPUniqueObject) object).getUniqueName();
@@ -306,10 +451,12 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         if (name == null) {
             return null;
         }
-        if (!caseSensitive) {
-            return name.toUpperCase();
-        }
-        return name;
+        return makeObjectKey(name, caseSensitive);
+    }
+
+    @NotNull
+    private static String makeObjectKey(@NotNull String name, boolean caseSensitive) {
+        return caseSensitive ? name : name.toUpperCase(Locale.ENGLISH);
     }
 
     /**
@@ -362,8 +509,12 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         }
     }
 
+    /**
+     * Iterates over objects cached at the moment of iterator creation.
+     * Removal removes the current object from the cache.
+     */
     protected class CacheIterator implements Iterator<OBJECT> {
-        private final Iterator<OBJECT> listIterator = objectList.iterator();
+        private final Iterator<OBJECT> listIterator = getCachedObjects().iterator();
         private OBJECT curObject;
 
         public CacheIterator() {
@@ -381,10 +532,13 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
 
         @Override
         public void remove() {
-            listIterator.remove();
-            if (objectMap != null) {
-                objectMap.remove(getObjectName(curObject));
+            if (curObject == null) {
+                throw new IllegalStateException();
+            }
+            synchronized (cacheSync) {
+                removeCachedObject(curObject);
             }
+            curObject = null;
         }
     }
 
@@ -0,0 +1,450 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.struct.*;
+import org.jkiss.dbeaver.model.struct.rdb.DBSProcedure;
+import org.jkiss.utils.CommonUtils;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.*;
+
+/**
+ * Name index of cached metadata objects (entities, attributes and procedures) of a data source.
+ * <p>
+ * Index is maintained by object caches, so it contains only objects which were already read from the database.
+ * Names are kept in a sorted map for prefix lookups and in trigram postings for substring lookups.
+ * Objects are referenced weakly, so discarded caches do not hold their objects in memory.
+ * <p>
+ * Index also remembers caches which loaded all objects of their owner (scope).
+ * While these caches stay fully loaded the index search in the scope is complete.
+ */
+public class DBSObjectNameIndex {
+
+    private static final int TRIGRAM_LENGTH = 3;
+    private static final String MATCH_ANY = "%"; //$NON-NLS-1$
+
+    private static final Map<DBPDataSource, DBSObjectNameIndex> indexes = new WeakHashMap<>();
+
+    // Cache class -> class of cached objects (resolved OBJECT type argument)
+    private static final ClassValue<Class<?>> cacheObjectTypes = new ClassValue<>() {
+        @Override
+        protected Class<?> computeValue(@NotNull Class<?> type) {
+            return resolveCacheObjectType(type);
+        }
+    };
+
+    private static final class Entry extends WeakReference<DBSObject> {
+        Entry(@NotNull DBSObject object) {
+            super(object);
+        }
+    }
+
+    private static final class ScopeCache extends WeakReference<AbstractObjectCache<?, ?>> {
+        private final Class<?> objectType;
+
+        ScopeCache(@NotNull AbstractObjectCache<?, ?> cache, @NotNull Class<?> objectType) {
+            super(cache);
+            this.objectType = objectType;
+        }
+    }
+
+    // Lower-case name -> objects
+    private final TreeMap<String, List<Entry>> names = new TreeMap<>();
+    // Trigram -> lower-case names
+    private final Map<String, Set<String>> trigrams = new HashMap<>();
+    // Cache owner -> caches which loaded all owner's objects of some type
+    private final Map<DBSObject, List<ScopeCache>> scopes = new WeakHashMap<>();
+
+    DBSObjectNameIndex() {
+    }
+
+    /**
+     * Returns name index of the data source. Returns null if no objects were indexed yet.
+     */
+    @Nullable
+    public static DBSObjectNameIndex getIndex(@NotNull DBPDataSource dataSource) {
+        synchronized (indexes) {
+            return indexes.get(dataSource);
+        }
+    }
+
+    public static boolean isIndexedObject(@NotNull DBSObject object) {
+        return object instanceof DBSEntity || object instanceof DBSEntityAttribute || object instanceof DBSProcedure;
+    }
+
+    private static boolean isIndexedType(@NotNull Class<?> type) {
+        return DBSEntity.class.isAssignableFrom(type) || DBSEntityAttribute.class.isAssignableFrom(type) || DBSProcedure.class.isAssignableFrom(type);
+    }
+
+    static void addScopeCache(@NotNull DBSObject owner, @NotNull AbstractObjectCache<?, ?> cache) {
+        Class<?> objectType = cacheObjectTypes.get(cache.getClass());
+        if (isIndexedType(objectType) && owner.getDataSource() != null) {
+            getOrCreateIndex(owner.getDataSource()).addScope(owner, cache, objectType);
+        }
+    }
+
+    static void addObjects(@NotNull Collection<? extends DBSObject> objects) {
+        DBSObjectNameIndex index = null;
+        for (DBSObject object : objects) {
+            if (isIndexedObject(object) && object.getDataSource() != null) {
+                if (index == null || !index.belongsTo(object)) {
+                    index = getOrCreateIndex(object.getDataSource());
+                }
+                index.addObject(object);
+            }
+        }
+    }
+
+    static void removeObjects(@NotNull Collection<? extends DBSObject> objects) {
+        DBSObjectNameIndex index = null;
+        for (DBSObject object : objects) {
+            if (isIndexedObject(object) && object.getDataSource() != null) {
+                if (index == null || !index.belongsTo(object)) {
+                    index = getIndex(object.getDataSource());
+                    if (index == null) {
+                        continue;
+                    }
+                }
+                index.removeObject(object, object.getName());
+            }
+        }
+    }
+
+    static void renameObject(@NotNull DBSObject object, @NotNull String oldName) {
+        if (isIndexedObject(object) && object.getDataSource() != null) {
+            DBSObjectNameIndex index = getIndex(object.getDataSource());
+            if (index != null) {
+                index.removeObject(object, oldName);
+                index.addObject(object);
+            }
+        }
+    }
+
+    @NotNull
+    private static DBSObjectNameIndex getOrCreateIndex(@NotNull DBPDataSource dataSource) {
+        synchronized (indexes) {
+            return indexes.computeIfAbsent(dataSource, ds -> new DBSObjectNameIndex());
+        }
+    }
+
+    private boolean belongsTo(@NotNull DBSObject object) {
+        return getIndex(object.getDataSource()) == this;
+    }
+
+    /**
+     * Number of indexed names
+     */
+    public synchronized int size() {
+        return names.size();
+    }
+
+    /**
+     * Checks that all objects of the specified types which belong to the scope are indexed.
+     * It is true if the scope caches of these types are fully loaded. Then the result of
+     * {@link #findObjects} in this scope is complete and the database search may be skipped.
+     */
+    public synchronized boolean isScopeIndexed(@NotNull DBSObject scope, @Nullable DBSObjectType[] objectTypes) {
+        List<ScopeCache> caches = scopes.get(scope);
+        if (caches == null || objectTypes == null || objectTypes.length == 0) {
+            return false;
+        }
+        caches.removeIf(cache -> cache.get() == null);
+        for (DBSObjectType objectType : objectTypes) {
+            boolean loaded = false;
+            for (ScopeCache scopeCache : caches) {
+                AbstractObjectCache<?, ?> cache = scopeCache.get();
+                // All objects of the cache must be of the requested type, otherwise the type may live in other caches
+                if (cache != null && cache.isFullyCached() && objectType.getTypeClass().isAssignableFrom(scopeCache.objectType)) {
+                    loaded = true;
+                    break;
+                }
+            }
+            if (!loaded) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private synchronized void addScope(@NotNull DBSObject owner, @NotNull AbstractObjectCache<?, ?> cache, @NotNull Class<?> objectType) {
+        List<ScopeCache> caches = scopes.computeIfAbsent(owner, o -> new ArrayList<>(2));
+        for (ScopeCache scopeCache : caches) {
+            if (scopeCache.get() == cache) {
+                return;
+            }
+        }
+        caches.add(new ScopeCache(cache, objectType));
+    }
+
+    synchronized void addObject(@NotNull DBSObject object) {
+        String name = makeKey(object.getName());
+        if (name == null) {
+            return;
+        }
+        List<Entry> entries = names.get(name);
+        if (entries == null) {
+            entries = new ArrayList<>(1);
+            names.put(name, entries);
+            for (String trigram : getTrigrams(name)) {
+                trigrams.computeIfAbsent(trigram, t -> new HashSet<>()).add(name);
+            }
+        } else {
+            for (Entry entry : entries) {
+                if (entry.get() == object) {
+                    return;
+                }
+            }
+        }
+        entries.add(new Entry(object));
+    }
+
+    synchronized void removeObject(@NotNull DBSObject object, @Nullable String objectName) {
+        String name = makeKey(objectName);
+        if (name == null) {
+            return;
+        }
+        List<Entry> entries = names.get(name);
+        if (entries != null) {
+            entries.removeIf(entry -> entry.get() == object || entry.get() == null);
+            if (entries.isEmpty()) {
+                removeName(name);
+            }
+        }
+    }
+
+    /**
+     * Finds cached objects matching the search parameters.
+     * Result is not complete: objects which were not read from the database yet are not indexed,
+     * so it must be merged with the database search results. An empty result doesn't mean there are no such objects.
+     * Returns null if search can't be performed with the index (e.g. search in comments or complex mask).
+     */
+    @Nullable
+    public synchronized List<DBSObject> findObjects(@NotNull DBSStructureAssistant.ObjectsSearchParams params) {
+        if (params.isSearchInComments() || params.isSearchInDefinitions()) {
+            return null;
+        }
+        String mask = params.getMask();
+        boolean matchInside = mask.startsWith(MATCH_ANY);
+        if (matchInside) {
+            mask = mask.substring(1);
+        }
+        boolean matchPrefix = mask.endsWith(MATCH_ANY);
+        if (matchPrefix) {
+            mask = mask.substring(0, mask.length() - 1);
+        }
+        if (mask.contains(MATCH_ANY) || (params.isLikeCondition() && mask.indexOf('_') != -1)) {
+            // Wildcards in the middle of the name
+            return null;
+        }
+        String key = makeKey(mask);
+
+        List<DBSObject> result = new ArrayList<>();
+        List<String> staleNames = new ArrayList<>();
+        for (String name : findNames(key, matchInside, matchPrefix)) {
+            List<Entry> entries = names.get(name);
+            boolean hasLiveEntries = false;
+            for (Entry entry : entries) {
+                DBSObject object = entry.get();
+                if (object == null) {
+                    continue;
+                }
+                hasLiveEntries = true;
+                if (matchesObject(object, params, mask, matchInside, matchPrefix)) {
+                    result.add(object);
+                    if (result.size() >= params.getMaxResults()) {
+                        break;
+                    }
+                }
+            }
+            if (!hasLiveEntries) {
+                staleNames.add(name);
+            }
+            if (result.size() >= params.getMaxResults()) {
+                break;
+            }
+        }
+        for (String name : staleNames) {
+            removeName(name);
+        }
+        return result;
+    }
+
+    @NotNull
+    private Collection<String> findNames(@NotNull String key, boolean matchInside, boolean matchPrefix) {
+        if (!matchInside) {
+            if (!matchPrefix) {
+                return names.containsKey(key) ? List.of(key) : List.of();
+            }
+            if (key.isEmpty()) {
+                return new ArrayList<>(names.keySet());
+            }
+            return new ArrayList<>(names.subMap(key, true, key + Character.MAX_VALUE, false).keySet());
+        }
+        if (key.length() < TRIGRAM_LENGTH) {
+            List<String> result = new ArrayList<>();
+            for (String name : names.keySet()) {
+                if (name.contains(key) && (matchPrefix || name.endsWith(key))) {
+                    result.add(name);
+                }
+            }
+            return result;
+        }
+        // Intersect postings of all trigrams, starting from the smallest one
+        Set<String> smallest = null;
+        List<Set<String>> postings = new ArrayList<>();
+        for (String trigram : getTrigrams(key)) {
+            Set<String> posting = trigrams.get(trigram);
+            if (posting == null) {
+                return List.of();
+            }
+            postings.add(posting);
+            if (smallest == null || posting.size() < smallest.size()) {
+                smallest = posting;
+            }
+        }
+        List<String> result = new ArrayList<>();
+        for (String name : smallest) {
+            if (name.contains(key) && (matchPrefix || name.endsWith(key)) && postings.stream().allMatch(p -> p.contains(name))) {
+                result.add(name);
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    private static boolean matchesObject(
+        @NotNull DBSObject object,
+        @NotNull DBSStructureAssistant.ObjectsSearchParams params,
+        @NotNull String mask,
+        boolean matchInside,
+        boolean matchPrefix
+    ) {
+        if (!object.isPersisted()) {
+            return false;
+        }
+        DBSObjectType[] objectTypes = params.getObjectTypes();
+        if (!CommonUtils.isEmpty(objectTypes)) {
+            boolean typeMatches = false;
+            for (DBSObjectType objectType : objectTypes) {
+                if (objectType.getTypeClass().isInstance(object)) {
+                    typeMatches = true;
+                    break;
+                }
+            }
+            if (!typeMatches) {
+                return false;
+            }
+        }
+        if (params.isCaseSensitive()) {
+            String name = object.getName();
+            boolean nameMatches;
+            if (matchInside) {
+                nameMatches = matchPrefix ? name.contains(mask) : name.endsWith(mask);
+            } else {
+                nameMatches = matchPrefix ? name.startsWith(mask) : name.equals(mask);
+            }
+            if (!nameMatches) {
+                return false;
+            }
+        }
+        DBSObject parentObject = params.getParentObject();
+        if (parentObject != null && !params.isGlobalSearch()) {
+            for (DBSObject parent = object.getParentObject(); ; parent = parent.getParentObject()) {
+                if (parent == null) {
+                    return false;
+                }
+                if (parent == parentObject) {
+                    break;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void removeName(@NotNull String name) {
+        names.remove(name);
+        for (String trigram : getTrigrams(name)) {
+            Set<String> posting = trigrams.get(trigram);
+            if (posting != null) {
+                posting.remove(name);
+                if (posting.isEmpty()) {
+                    trigrams.remove(trigram);
+                }
+            }
+        }
+    }
+
+    @NotNull
+    private static Set<String> getTrigrams(@NotNull String name) {
+        if (name.length() < TRIGRAM_LENGTH) {
+            return Set.of();
+        }
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i <= name.length() - TRIGRAM_LENGTH; i++) {
+            result.add(name.substring(i, i + TRIGRAM_LENGTH));
+        }
+        return result;
+    }
+
+    /**
+     * Resolves OBJECT type argument of {@link AbstractObjectCache} for the cache class.
+     * Returns the type bound if the argument is not specified by the class hierarchy.
+     */
+    @NotNull
+    private static Class<?> resolveCacheObjectType(@NotNull Class<?> cacheClass) {
+        Map<TypeVariable<?>, Type> arguments = new HashMap<>();
+        for (Class<?> type = cacheClass; type != null && type != AbstractObjectCache.class; type = type.getSuperclass()) {
+            if (type.getGenericSuperclass() instanceof ParameterizedType superType) {
+                TypeVariable<?>[] variables = ((Class<?>) superType.getRawType()).getTypeParameters();
+                Type[] values = superType.getActualTypeArguments();
+                for (int i = 0; i < variables.length; i++) {
+                    Type value = values[i];
+                    if (value instanceof TypeVariable<?> && arguments.containsKey(value)) {
+                        value = arguments.get(value);
+                    }
+                    arguments.put(variables[i], value);
+                }
+            }
+        }
+        Type objectType = arguments.get(AbstractObjectCache.class.getTypeParameters()[1]);
+        if (objectType == null) {
+            objectType = AbstractObjectCache.class.getTypeParameters()[1];
+        }
+        while (!(objectType instanceof Class<?>)) {
+            if (objectType instanceof ParameterizedType parameterizedType) {
+                objectType = parameterizedType.getRawType();
+            } else if (objectType instanceof TypeVariable<?> variable) {
+                objectType = variable.getBounds()[0];
+            } else {
+                return DBSObject.class;
+            }
+        }
+        return (Class<?>) objectType;
+    }
+
+    @Nullable
+    private static String makeKey(@Nullable String name) {
+        return name == null ? null : name.toLowerCase(Locale.ENGLISH);
+    }
+}
@@ -42,4 +42,12 @@ public interface DBSStructCache<OWNER extends DBSObject, OBJECT extends DBSObjec
         throws DBException;
 
     void clearChildrenCache(OBJECT forParent);
+
+    /**
+     * Reads children of all objects of the owner at once.
+     * Used before walking through many objects (e.g. by diagrams or schema compare) to avoid reading
+     * children of each object separately. Does nothing if children of all objects are already cached.
+     */
+    void prefetchChildren(@NotNull DBRProgressMonitor monitor, @NotNull OWNER owner)
+        throws DBException;
 }
@@ -0,0 +1,279 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct.cache;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.connection.DBPDriver;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Loads metadata of independent objects (e.g. schemas or catalogs) in parallel.
+ * <p>
+ * Objects are processed by the calling thread and by a few helper jobs. The calling thread uses
+ * the default meta context while each helper job opens its own isolated meta context, so
+ * metadata queries of different objects do not wait for each other.
+ * Loaded objects are stored in the regular object caches.
+ * <p>
+ * Number of connections is limited per data source by {@link ModelPreferences#META_PARALLEL_CONNECTIONS}.
+ * Metadata is read sequentially if the driver is not thread-safe or if the data source uses a single connection.
+ */
+public final class MetadataLoader {
+
+    private static final Log log = Log.getLog(MetadataLoader.class);
+
+    private static final long JOIN_TIMEOUT = 100;
+
+    @FunctionalInterface
+    public interface ObjectLoader<T> {
+        void loadObject(@NotNull DBRProgressMonitor monitor, @NotNull T object) throws DBException;
+    }
+
+    // Permits of helper connections. The calling thread doesn't need a permit.
+    private static final Map<DBPDataSourceContainer, Semaphore> permits = new WeakHashMap<>();
+    private static final Map<DBPDataSourceContainer, Integer> permitLimits = new WeakHashMap<>();
+
+    // Isolated meta contexts of the current helper job
+    private static final ThreadLocal<Map<DBSInstance, DBCExecutionContext>> loaderContexts = new ThreadLocal<>();
+
+    private MetadataLoader() {
+    }
+
+    /**
+     * Returns max number of meta connections which may be used to read metadata in parallel.
+     * Returns 1 if metadata must be read sequentially.
+     */
+    public static int getMaxConnections(@NotNull DBPDataSourceContainer container) {
+        DBPDriver driver = container.getDriver();
+        if (!driver.isThreadSafeDriver() || driver.isEmbedded() || container.isForceUseSingleConnection()) {
+            return 1;
+        }
+        ModelPreferences.SeparateConnectionBehavior behavior = ModelPreferences.SeparateConnectionBehavior.parse(
+            container.getPreferenceStore().getString(ModelPreferences.META_SEPARATE_CONNECTION));
+        if (behavior == ModelPreferences.SeparateConnectionBehavior.NEVER) {
+            return 1;
+        }
+        return Math.max(1, container.getPreferenceStore().getInt(ModelPreferences.META_PARALLEL_CONNECTIONS));
+    }
+
+    /**
+     * Returns meta context which must be used by the current thread to read metadata of the specified instance.
+     * Returns null if current thread is not a metadata loader thread.
+     */
+    @Nullable
+    public static DBCExecutionContext getLoaderContext(@NotNull DBSInstance instance) {
+        Map<DBSInstance, DBCExecutionContext> contexts = loaderContexts.get();
+        return contexts == null ? null : contexts.get(instance);
+    }
+
+    /**
+     * Runs the loader for each object. Objects may be processed in parallel, in any order.
+     * Objects of different data sources are processed one data source after another.
+     * If loader fails then the rest of objects is skipped and the first error is thrown.
+     *
+     * @param task loader task name
+     */
+    public static <T extends DBSObject> void loadObjects(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull Collection<T> objects,
+        @NotNull String task,
+        @NotNull ObjectLoader<T> loader
+    ) throws DBException {
+        if (objects.isEmpty()) {
+            return;
+        }
+        Map<DBPDataSourceContainer, List<T>> dataSourceObjects = new LinkedHashMap<>();
+        for (T object : objects) {
+            dataSourceObjects.computeIfAbsent(DBUtils.getContainer(object), c -> new ArrayList<>()).add(object);
+        }
+        for (Map.Entry<DBPDataSourceContainer, List<T>> entry : dataSourceObjects.entrySet()) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            loadObjects(monitor, entry.getKey(), entry.getValue(), task, loader);
+        }
+    }
+
+    private static <T extends DBSObject> void loadObjects(
+        @NotNull DBRProgressMonitor monitor,
+        @Nullable DBPDataSourceContainer container,
+        @NotNull List<T> objects,
+        @NotNull String task,
+        @NotNull ObjectLoader<T> loader
+    ) throws DBException {
+        int maxConnections = container == null || objects.size() < 2 ? 1 : getMaxConnections(container);
+        if (maxConnections <= 1 || loaderContexts.get() != null) {
+            // Nested loads of a helper job are sequential, helper already has its own connection
+            for (T object : objects) {
+                if (monitor.isCanceled()) {
+                    break;
+                }
+                loader.loadObject(monitor, object);
+            }
+            return;
+        }
+
+        Semaphore semaphore = getPermits(container, maxConnections - 1);
+        int helperCount = 0;
+        while (helperCount < Math.min(maxConnections, objects.size()) - 1 && semaphore.tryAcquire()) {
+            helperCount++;
+        }
+        LoadState<T> state = new LoadState<>(objects, loader);
+        List<LoaderJob<T>> jobs = new ArrayList<>(helperCount);
+        try {
+            for (int i = 0; i < helperCount; i++) {
+                LoaderJob<T> job = new LoaderJob<>(task + " [" + (i + 1) + "]", state, monitor);
+                jobs.add(job);
+                job.schedule();
+            }
+            state.process(monitor);
+            for (LoaderJob<T> job : jobs) {
+                try {
+                    while (!job.join(JOIN_TIMEOUT, null)) {
+                        if (monitor.isCanceled()) {
+                            job.cancel();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+            // Objects returned by helpers which couldn't open connection
+            state.process(monitor);
+        } finally {
+            semaphore.release(helperCount);
+        }
+        state.throwError();
+    }
+
+    @NotNull
+    private static Semaphore getPermits(@NotNull DBPDataSourceContainer container, int limit) {
+        synchronized (permits) {
+            Semaphore semaphore = permits.get(container);
+            if (semaphore == null || !Objects.equals(permitLimits.get(container), limit)) {
+                // Limit was changed. Permits of the old semaphore are released to it by running loaders.
+                semaphore = new Semaphore(limit);
+                permits.put(container, semaphore);
+                permitLimits.put(container, limit);
+            }
+            return semaphore;
+        }
+    }
+
+    private static class LoadState<T extends DBSObject> {
+        private final Queue<T> queue;
+        private final ObjectLoader<T> loader;
+        private volatile Throwable error;
+
+        LoadState(@NotNull Collection<T> objects, @NotNull ObjectLoader<T> loader) {
+            this.queue = new ConcurrentLinkedQueue<>(objects);
+            this.loader = loader;
+        }
+
+        void process(@NotNull DBRProgressMonitor monitor) {
+            for (T object; !monitor.isCanceled() && error == null && (object = queue.poll()) != null; ) {
+                load(monitor, object);
+            }
+        }
+
+        void load(@NotNull DBRProgressMonitor monitor, @NotNull T object) {
+            try {
+                loader.loadObject(monitor, object);
+            } catch (Throwable e) {
+                synchronized (this) {
+                    if (error == null) {
+                        error = e;
+                    } else {
+                        error.addSuppressed(e);
+                    }
+                }
+            }
+        }
+
+        void throwError() throws DBException {
+            Throwable e = error;
+            if (e instanceof DBException dbe) {
+                throw dbe;
+            } else if (e instanceof RuntimeException re) {
+                throw re;
+            } else if (e instanceof Error err) {
+                throw err;
+            }
+        }
+    }
+
+    private static class LoaderJob<T extends DBSObject> extends AbstractJob {
+        private final LoadState<T> state;
+        private final DBRProgressMonitor parentMonitor;
+
+        LoaderJob(@NotNull String name, @NotNull LoadState<T> state, @NotNull DBRProgressMonitor parentMonitor) {
+            super(name);
+            this.state = state;
+            this.parentMonitor = parentMonitor;
+            setSystem(true);
+            setUser(false);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            Map<DBSInstance, DBCExecutionContext> contexts = new IdentityHashMap<>();
+            loaderContexts.set(contexts);
+            try {
+                for (T object; !monitor.isCanceled() && !parentMonitor.isCanceled() && state.error == null && (object = state.queue.poll()) != null; ) {
+                    DBSInstance instance = DBUtils.getObjectOwnerInstance(object);
+                    if (instance != null && !contexts.containsKey(instance)) {
+                        try {
+                            contexts.put(instance, instance.openIsolatedContext(monitor, "Metadata reader", instance.getDefaultContext(monitor, true)));
+                        } catch (Throwable e) {
+                            // Let the calling thread read it with the default meta context
+                            state.queue.add(object);
+                            log.debug("Error opening metadata reader context for " + DBUtils.getObjectFullName(object, DBPEvaluationContext.UI), e);
+                            break;
+                        }
+                    }
+                    state.load(monitor, object);
+                }
+            } finally {
+                loaderContexts.remove();
+                for (DBCExecutionContext context : contexts.values()) {
+                    try {
+                        context.close();
+                    } catch (Throwable e) {
+                        log.debug("Error closing metadata reader context", e);
+                    }
+                }
+            }
+            return Status.OK_STATUS;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Raw rows of a metadata query.
+ * <p>
+ * Snapshot keeps metadata rows exactly as they were read from the database, so cache objects
+ * can be recreated by the same code which reads them from the live catalog.
+ * Values are limited to strings, numbers, booleans, date/time values and byte arrays.
+ */
+public class MetadataSnapshot {
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_DOUBLE = 3;
+    private static final byte TYPE_DECIMAL = 4;
+    private static final byte TYPE_BOOLEAN = 5;
+    private static final byte TYPE_DATE = 6;
+    private static final byte TYPE_TIME = 7;
+    private static final byte TYPE_TIMESTAMP = 8;
+    private static final byte TYPE_BINARY = 9;
+
+    private final String[] columnLabels;
+    private final int[] columnTypes;
+    private final List<Object[]> rows;
+    private final long timestamp;
+    private boolean validated;
+
+    public MetadataSnapshot(@NotNull String[] columnLabels, @NotNull int[] columnTypes) {
+        this(columnLabels, columnTypes, new ArrayList<>(), System.currentTimeMillis());
+    }
+
+    private MetadataSnapshot(@NotNull String[] columnLabels, @NotNull int[] columnTypes, @NotNull List<Object[]> rows, long timestamp) {
+        if (columnLabels.length != columnTypes.length) {
+            throw new IllegalArgumentException("Column labels and types mismatch");
+        }
+        this.columnLabels = columnLabels;
+        this.columnTypes = columnTypes;
+        this.rows = rows;
+        this.timestamp = timestamp;
+    }
+
+    public int getColumnCount() {
+        return columnLabels.length;
+    }
+
+    @NotNull
+    public String getColumnLabel(int index) {
+        return columnLabels[index];
+    }
+
+    /**
+     * Column type, one of {@link java.sql.Types}
+     */
+    public int getColumnType(int index) {
+        return columnTypes[index];
+    }
+
+    @NotNull
+    public List<Object[]> getRows() {
+        return Collections.unmodifiableList(rows);
+    }
+
+    public void addRow(@NotNull Object[] row) {
+        if (row.length != columnLabels.length) {
+            throw new IllegalArgumentException("Row size " + row.length + " doesn't match column count " + columnLabels.length);
+        }
+        for (Object value : row) {
+            if (value != null && getValueType(value) == TYPE_NULL) {
+                throw new IllegalArgumentException("Unsupported snapshot value type: " + value.getClass().getName());
+            }
+        }
+        rows.add(row);
+    }
+
+    /**
+     * Time when rows were read from the database
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns true if this snapshot was checked against the live catalog in the current session
+     */
+    public boolean isValidated() {
+        return validated;
+    }
+
+    void setValidated(boolean validated) {
+        this.validated = validated;
+    }
+
+    /**
+     * Checks whether both snapshots have the same columns and rows
+     */
+    public boolean hasSameContent(@NotNull MetadataSnapshot snapshot) {
+        if (!Arrays.equals(columnLabels, snapshot.columnLabels) ||
+            !Arrays.equals(columnTypes, snapshot.columnTypes) ||
+            rows.size() != snapshot.rows.size())
+        {
+            return false;
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            if (!Arrays.deepEquals(rows.get(i), snapshot.rows.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void write(@NotNull DataOutputStream out) throws IOException {
+        out.writeLong(timestamp);
+        out.writeInt(columnLabels.length);
+        for (int i = 0; i < columnLabels.length; i++) {
+            writeString(out, columnLabels[i]);
+            out.writeInt(columnTypes[i]);
+        }
+        out.writeInt(rows.size());
+        for (Object[] row : rows) {
+            for (Object value : row) {
+                writeValue(out, value);
+            }
+        }
+    }
+
+    @NotNull
+    static MetadataSnapshot read(@NotNull DataInputStream in) throws IOException {
+        long timestamp = in.readLong();
+        int columnCount = in.readInt();
+        String[] columnLabels = new String[columnCount];
+        int[] columnTypes = new int[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columnLabels[i] = readString(in);
+            columnTypes[i] = in.readInt();
+        }
+        int rowCount = in.readInt();
+        List<Object[]> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            Object[] row = new Object[columnCount];
+            for (int k = 0; k < columnCount; k++) {
+                row[k] = readValue(in);
+            }
+            rows.add(row);
+        }
+        return new MetadataSnapshot(columnLabels, columnTypes, rows, timestamp);
+    }
+
+    private static byte getValueType(@Nullable Object value) {
+        if (value instanceof String) {
+            return TYPE_STRING;
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return TYPE_LONG;
+        } else if (value instanceof Double || value instanceof Float) {
+            return TYPE_DOUBLE;
+        } else if (value instanceof BigDecimal) {
+            return TYPE_DECIMAL;
+        } else if (value instanceof Boolean) {
+            return TYPE_BOOLEAN;
+        } else if (value instanceof java.sql.Date) {
+            return TYPE_DATE;
+        } else if (value instanceof Time) {
+            return TYPE_TIME;
+        } else if (value instanceof Timestamp) {
+            return TYPE_TIMESTAMP;
+        } else if (value instanceof byte[]) {
+            return TYPE_BINARY;
+        }
+        return TYPE_NULL;
+    }
+
+    private static void writeValue(@NotNull DataOutputStream out, @Nullable Object value) throws IOException {
+        byte type = getValueType(value);
+        out.writeByte(type);
+        switch (type) {
+            case TYPE_STRING -> writeString(out, (String) value);
+            case TYPE_LONG -> out.writeLong(((Number) value).longValue());
+            case TYPE_DOUBLE -> out.writeDouble(((Number) value).doubleValue());
+            case TYPE_DECIMAL -> writeString(out, ((BigDecimal) value).toString());
+            case TYPE_BOOLEAN -> out.writeBoolean((Boolean) value);
+            case TYPE_DATE -> out.writeLong(((java.sql.Date) value).getTime());
+            case TYPE_TIME -> out.writeLong(((Time) value).getTime());
+            case TYPE_TIMESTAMP -> {
+                out.writeLong(((Timestamp) value).getTime());
+                out.writeInt(((Timestamp) value).getNanos());
+            }
+            case TYPE_BINARY -> {
+                out.writeInt(((byte[]) value).length);
+                out.write((byte[]) value);
+            }
+            default -> {
+                // Null
+            }
+        }
+    }
+
+    @Nullable
+    private static Object readValue(@NotNull DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_STRING:
+                return readString(in);
+            case TYPE_LONG:
+                return in.readLong();
+            case TYPE_DOUBLE:
+                return in.readDouble();
+            case TYPE_DECIMAL:
+                return new BigDecimal(readString(in));
+            case TYPE_BOOLEAN:
+                return in.readBoolean();
+            case TYPE_DATE:
+                return new java.sql.Date(in.readLong());
+            case TYPE_TIME:
+                return new Time(in.readLong());
+            case TYPE_TIMESTAMP: {
+                Timestamp timestamp = new Timestamp(in.readLong());
+                timestamp.setNanos(in.readInt());
+                return timestamp;
+            }
+            case TYPE_BINARY: {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                return bytes;
+            }
+            default:
+                throw new IOException("Bad snapshot value type: " + type);
+        }
+    }
+
+    // DataOutput.writeUTF is limited by 64Kb and some metadata values (e.g. view definitions) are longer
+    private static void writeString(@NotNull DataOutputStream out, @NotNull String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @NotNull
+    private static String readString(@NotNull DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return "Snapshot [" + rows.size() + " rows, " + columnLabels.length + " columns]";
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.jkiss.utils.CommonUtils;
+import org.jkiss.utils.IOUtils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Persistent metadata snapshots of a single data source.
+ * <p>
+ * Snapshots are stored in the workspace metadata folder, one file per cache owner and cache type.
+ * Metadata caches are filled from snapshots on the first read after connect, so navigator
+ * shows database objects without waiting for the catalog queries. Snapshot is then revalidated
+ * against the live catalog in background (if enabled).
+ * <p>
+ * Staleness policy:
+ * <ul>
+ *     <li>snapshots older than {@link ModelPreferences#META_SNAPSHOT_MAX_AGE} hours are never used</li>
+ *     <li>snapshot is used only for the first read of a cache after connect. Subsequent reads (e.g. refresh) go to the database</li>
+ *     <li>snapshots made by other product version are ignored</li>
+ *     <li>snapshots of an object and all its parents are removed when object is changed by the object editor</li>
+ * </ul>
+ */
+public class MetadataSnapshotStore {
+
+    private static final Log log = Log.getLog(MetadataSnapshotStore.class);
+
+    public static final String SNAPSHOTS_FOLDER_NAME = "metadata-snapshots"; //$NON-NLS-1$
+    private static final String SNAPSHOT_FILE_EXT = ".snapshot"; //$NON-NLS-1$
+
+    private static final int SNAPSHOT_MAGIC = 0x44424D53;
+    private static final int SNAPSHOT_FORMAT_VERSION = 1;
+
+    private static final Map<DBPDataSourceContainer, MetadataSnapshotStore> stores = new WeakHashMap<>();
+
+    private final Path folder;
+    private final String productVersion;
+
+    // Cache keys which were already read in the current connection
+    private final Set<String> readKeys = new HashSet<>();
+    // Cache keys with snapshots refreshed by background revalidation
+    private final Set<String> validatedKeys = new HashSet<>();
+    private Object sessionId;
+
+    public MetadataSnapshotStore(@NotNull Path folder, @NotNull String productVersion) {
+        this.folder = folder;
+        this.productVersion = productVersion;
+    }
+
+    @NotNull
+    public Path getFolder() {
+        return folder;
+    }
+
+    /**
+     * Returns snapshot store of the object's data source or null if snapshots are disabled
+     */
+    @Nullable
+    public static MetadataSnapshotStore getStore(@NotNull DBSObject object) {
+        DBPDataSourceContainer container = DBUtils.getContainer(object);
+        if (container == null || !container.getPreferenceStore().getBoolean(ModelPreferences.META_SNAPSHOT_ENABLED)) {
+            return null;
+        }
+        return getStore(container);
+    }
+
+    @NotNull
+    private static MetadataSnapshotStore getStore(@NotNull DBPDataSourceContainer container) {
+        synchronized (stores) {
+            return stores.computeIfAbsent(container, c -> new MetadataSnapshotStore(
+                DBWorkbench.getPlatform().getWorkspace().getMetadataFolder()
+                    .resolve(SNAPSHOTS_FOLDER_NAME)
+                    .resolve(c.getProject().getName())
+                    .resolve(c.getId()),
+                GeneralUtils.getProductVersion().toString()));
+        }
+    }
+
+    /**
+     * Removes snapshots of the object and all its parents.
+     * Should be called after object modification.
+     */
+    public static void invalidateSnapshots(@NotNull DBSObject object) {
+        DBPDataSourceContainer container = DBUtils.getContainer(object);
+        if (container == null) {
+            return;
+        }
+        MetadataSnapshotStore store = getStore(container);
+        if (!Files.exists(store.getFolder())) {
+            return;
+        }
+        for (DBSObject owner = object; owner != null; owner = owner.getParentObject()) {
+            store.invalidate(DBUtils.getObjectFullId(owner));
+            if (owner instanceof DBPDataSource) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Returns snapshot of the specified cache or null if there is no snapshot or it can't be used.
+     */
+    @Nullable
+    public MetadataSnapshot readSnapshot(@NotNull DBSObject owner, @NotNull String cacheType) {
+        DBPDataSourceContainer container = DBUtils.getContainer(owner);
+        if (container == null) {
+            return null;
+        }
+        DBPPreferenceStore preferences = container.getPreferenceStore();
+        long maxAge = preferences.getLong(ModelPreferences.META_SNAPSHOT_MAX_AGE) * 60 * 60 * 1000;
+        return readSnapshot(owner.getDataSource(), DBUtils.getObjectFullId(owner), cacheType, maxAge);
+    }
+
+    /**
+     * Returns snapshot of the specified cache or null if there is no snapshot or it can't be used.
+     *
+     * @param session current connection. Snapshot is returned only for the first read of each cache in a connection
+     * @param maxAge  max snapshot age in milliseconds
+     */
+    @Nullable
+    public MetadataSnapshot readSnapshot(@Nullable Object session, @NotNull String ownerId, @NotNull String cacheType, long maxAge) {
+        String key = makeKey(ownerId, cacheType);
+        boolean validated;
+        synchronized (this) {
+            if (sessionId != session) {
+                sessionId = session;
+                readKeys.clear();
+                validatedKeys.clear();
+            }
+            validated = validatedKeys.remove(key);
+            if (!readKeys.add(key) && !validated) {
+                return null;
+            }
+        }
+        Path file = getSnapshotFile(ownerId, cacheType);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        MetadataSnapshot snapshot;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != SNAPSHOT_MAGIC ||
+                in.readInt() != SNAPSHOT_FORMAT_VERSION ||
+                !productVersion.equals(in.readUTF()) ||
+                !ownerId.equals(in.readUTF()) ||
+                !cacheType.equals(in.readUTF()))
+            {
+                log.debug("Metadata snapshot '" + file + "' is obsolete");
+                deleteFile(file);
+                return null;
+            }
+            snapshot = MetadataSnapshot.read(in);
+        } catch (Exception e) {
+            log.debug("Error reading metadata snapshot '" + file + "'", e);
+            deleteFile(file);
+            return null;
+        }
+        if (maxAge > 0 && System.currentTimeMillis() - snapshot.getTimestamp() > maxAge) {
+            log.debug("Metadata snapshot '" + file + "' is expired");
+            deleteFile(file);
+            return null;
+        }
+        snapshot.setValidated(validated);
+        return snapshot;
+    }
+
+    public void saveSnapshot(@NotNull DBSObject owner, @NotNull String cacheType, @NotNull MetadataSnapshot snapshot) {
+        saveSnapshot(DBUtils.getObjectFullId(owner), cacheType, snapshot);
+    }
+
+    public void saveSnapshot(@NotNull String ownerId, @NotNull String cacheType, @NotNull MetadataSnapshot snapshot) {
+        Path file = getSnapshotFile(ownerId, cacheType);
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tempFile))))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_FORMAT_VERSION);
+                out.writeUTF(productVersion);
+                out.writeUTF(ownerId);
+                out.writeUTF(cacheType);
+                snapshot.write(out);
+            }
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            log.debug("Error saving metadata snapshot '" + file + "'", e);
+            deleteFile(tempFile);
+        }
+    }
+
+    /**
+     * Marks snapshot as validated against the live catalog.
+     * Validated snapshot may be read once again in the current connection (e.g. to refresh navigator).
+     */
+    public synchronized void markValidated(@NotNull DBSObject owner, @NotNull String cacheType) {
+        markValidated(DBUtils.getObjectFullId(owner), cacheType);
+    }
+
+    public synchronized void markValidated(@NotNull String ownerId, @NotNull String cacheType) {
+        validatedKeys.add(makeKey(ownerId, cacheType));
+    }
+
+    /**
+     * Removes all snapshots of the specified owner
+     */
+    public void invalidate(@NotNull String ownerId) {
+        Path ownerFolder = getOwnerFolder(ownerId);
+        if (!Files.exists(ownerFolder)) {
+            return;
+        }
+        try {
+            IOUtils.deleteDirectory(ownerFolder);
+        } catch (IOException e) {
+            log.debug("Error deleting metadata snapshots '" + ownerFolder + "'", e);
+        }
+    }
+
+    /**
+     * Removes all snapshots of this data source
+     */
+    public void clear() {
+        if (Files.exists(folder)) {
+            try {
+                IOUtils.deleteDirectory(folder);
+            } catch (IOException e) {
+                log.debug("Error deleting metadata snapshots '" + folder + "'", e);
+            }
+        }
+    }
+
+    @NotNull
+    private Path getOwnerFolder(@NotNull String ownerId) {
+        return folder.resolve(makeDigest(ownerId));
+    }
+
+    @NotNull
+    private Path getSnapshotFile(@NotNull String ownerId, @NotNull String cacheType) {
+        return getOwnerFolder(ownerId).resolve(CommonUtils.escapeFileName(cacheType) + SNAPSHOT_FILE_EXT);
+    }
+
+    @NotNull
+    private static String makeKey(@NotNull String ownerId, @NotNull String cacheType) {
+        return ownerId + "/" + cacheType;
+    }
+
+    @NotNull
+    private static String makeDigest(@NotNull String ownerId) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-1");
+            return CommonUtils.toHexString(md.digest(ownerId.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            return CommonUtils.escapeFileName(ownerId);
+        }
+    }
+
+    private static void deleteFile(@NotNull Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Error deleting metadata snapshot '" + file + "'", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return folder.toString();
+    }
+}
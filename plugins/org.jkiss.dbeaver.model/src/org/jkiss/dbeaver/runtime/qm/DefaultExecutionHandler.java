@@ -115,6 +115,12 @@ public abstract class DefaultExecutionHandler implements QMExecutionHandler {
 
     }
 
+    @Override
+    public void handleStatementCacheAccess(@NotNull DBCExecutionContext context, boolean hit)
+    {
+
+    }
+
     @Override
     public void handleResultSetOpen(@NotNull DBCResultSet resultSet)
     {
@@ -0,0 +1,810 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.qm.*;
+import org.jkiss.dbeaver.model.qm.filters.QMCursorFilter;
+import org.jkiss.dbeaver.model.qm.filters.QMDateRange;
+import org.jkiss.dbeaver.model.qm.filters.QMEventCriteria;
+import org.jkiss.dbeaver.model.qm.filters.QMEventStatus;
+import org.jkiss.dbeaver.model.qm.meta.QMMConnectionInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMProjectInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementExecuteInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementInfo;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.utils.ArrayUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Persistent query history.
+ * <p>
+ * Executed queries are appended to segment files. New segment is started on each startup and when the current segment
+ * exceeds {@link #SEGMENT_MAX_SIZE}, so completed segments are never modified and a crash may damage only the tail of the last one.
+ * Each segment has a small index (range of ids and times, connections, drivers, projects and a bloom filter of query text trigrams)
+ * which is kept in memory. Search reads only segments which may contain matching queries, one segment at a time,
+ * so heap usage doesn't depend on the history size.
+ * <p>
+ * Only completed query executions are stored. Transactions and sessions are available in the current session history only.
+ */
+public class QMHistoryStore implements QMEventBrowser {
+
+    private static final Log log = Log.getLog(QMHistoryStore.class);
+
+    public static final String HISTORY_FOLDER_NAME = "query-history"; //$NON-NLS-1$
+    private static final String SEGMENT_FILE_EXT = ".qmh"; //$NON-NLS-1$
+    private static final String INDEX_FILE_EXT = ".qmi"; //$NON-NLS-1$
+
+    private static final int SEGMENT_MAGIC = 0x44425148;
+    private static final int INDEX_MAGIC = 0x44425149;
+    private static final int FORMAT_VERSION = 1;
+    private static final int SEGMENT_HEADER_SIZE = 8;
+
+    public static final long SEGMENT_MAX_SIZE = 1024 * 1024;
+    private static final int BLOOM_BITS = 1 << 15;
+
+    private final Path folder;
+    // Segments ordered by ids
+    private final List<Segment> segments = new ArrayList<>();
+    private Segment activeSegment;
+    private DataOutputStream activeStream;
+    private long nextId = 1;
+    private boolean loaded;
+
+    public QMHistoryStore(@NotNull Path folder) {
+        this.folder = folder;
+    }
+
+    @NotNull
+    public Path getFolder() {
+        return folder;
+    }
+
+    /**
+     * Appends executed queries to the history.
+     * Queries which are not finished yet are skipped.
+     */
+    public synchronized void append(@NotNull Collection<QMMStatementExecuteInfo> queries) throws IOException {
+        load();
+        if (activeSegment == null) {
+            Files.createDirectories(folder);
+            Segment segment = new Segment(folder.resolve(String.format("%016x", nextId) + SEGMENT_FILE_EXT));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(segment.file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)));
+            out.writeInt(SEGMENT_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            segment.size = SEGMENT_HEADER_SIZE;
+            segments.add(segment);
+            activeSegment = segment;
+            activeStream = out;
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(1000);
+        for (QMMStatementExecuteInfo query : queries) {
+            if (!query.isClosed()) {
+                continue;
+            }
+            HistoryRecord record = new HistoryRecord(nextId++, query);
+            buffer.reset();
+            record.write(new DataOutputStream(buffer));
+            activeStream.writeInt(buffer.size());
+            buffer.writeTo(activeStream);
+            activeSegment.add(record, 4 + buffer.size());
+        }
+        activeStream.flush();
+        activeSegment.writeIndex();
+        if (activeSegment.size >= SEGMENT_MAX_SIZE) {
+            closeActiveSegment();
+        }
+    }
+
+    /**
+     * Removes segments which contain only queries executed before the specified time
+     */
+    public synchronized void purge(long minTime) {
+        load();
+        for (Iterator<Segment> iter = segments.iterator(); iter.hasNext(); ) {
+            Segment segment = iter.next();
+            if (segment != activeSegment && segment.maxTime < minTime) {
+                iter.remove();
+                deleteFile(segment.file);
+                deleteFile(segment.getIndexFile());
+            }
+        }
+    }
+
+    public synchronized void close() {
+        closeActiveSegment();
+    }
+
+    @NotNull
+    @Override
+    public QMEventCursor getQueryHistoryCursor(@NotNull QMCursorFilter cursorFilter) throws DBException {
+        QMEventCriteria criteria = cursorFilter.getCriteria();
+        if (criteria.hasObjectTypes() && !criteria.hasObjectType(QMObjectType.query)) {
+            return new QMUtils.EmptyCursorImpl();
+        }
+        HistoryQuery query = new HistoryQuery(criteria, cursorFilter.getFilter());
+        List<SegmentSnapshot> candidates = new ArrayList<>();
+        synchronized (this) {
+            load();
+            for (Segment segment : segments) {
+                if (segment.count > 0 && segment.mayContain(query)) {
+                    candidates.add(new SegmentSnapshot(segment.file, segment.size, segment.count));
+                }
+            }
+        }
+        if (query.desc) {
+            Collections.reverse(candidates);
+        }
+        return new HistoryCursor(query, candidates);
+    }
+
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!Files.exists(folder)) {
+            return;
+        }
+        List<Path> files;
+        try (Stream<Path> list = Files.list(folder)) {
+            files = list.filter(p -> p.getFileName().toString().endsWith(SEGMENT_FILE_EXT)).sorted().toList();
+        } catch (IOException e) {
+            log.debug("Error reading query history folder '" + folder + "'", e);
+            return;
+        }
+        for (Path file : files) {
+            Segment segment = new Segment(file);
+            try {
+                if (!segment.readIndex()) {
+                    // Index is missing or the segment wasn't closed properly
+                    segment = new Segment(file);
+                    segment.rebuildIndex();
+                    segment.writeIndex();
+                }
+            } catch (IOException e) {
+                log.debug("Error reading query history segment '" + file + "'", e);
+                continue;
+            }
+            segments.add(segment);
+            nextId = Math.max(nextId, segment.lastId + 1);
+        }
+    }
+
+    private void closeActiveSegment() {
+        if (activeStream != null) {
+            try {
+                activeStream.close();
+            } catch (IOException e) {
+                log.debug("Error closing query history segment '" + activeSegment.file + "'", e);
+            }
+            activeStream = null;
+            activeSegment = null;
+        }
+    }
+
+    /**
+     * Reads records of the segment. Stops at the first damaged record.
+     */
+    private static void readRecords(@NotNull Path file, long size, @NotNull RecordHandler handler) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != SEGMENT_MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Unsupported query history segment format");
+            }
+            long offset = SEGMENT_HEADER_SIZE;
+            while (offset < size) {
+                int length;
+                byte[] data;
+                try {
+                    length = in.readInt();
+                    if (length <= 0 || offset + 4 + length > size) {
+                        break;
+                    }
+                    data = in.readNBytes(length);
+                    if (data.length < length) {
+                        break;
+                    }
+                } catch (EOFException e) {
+                    break;
+                }
+                handler.handleRecord(HistoryRecord.read(new DataInputStream(new ByteArrayInputStream(data))), offset + 4 + length);
+                offset += 4 + length;
+            }
+        }
+    }
+
+    private static void deleteFile(@NotNull Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Error deleting query history file '" + file + "'", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordHandler {
+        void handleRecord(@NotNull HistoryRecord record, long endOffset) throws IOException;
+    }
+
+    private static class Segment {
+        private final Path file;
+        private long size;
+        private int count;
+        private long firstId = Long.MAX_VALUE;
+        private long lastId;
+        private long minTime = Long.MAX_VALUE;
+        private long maxTime;
+        private final Set<String> containerIds = new HashSet<>();
+        private final Set<String> driverIds = new HashSet<>();
+        private final Set<String> projectIds = new HashSet<>();
+        private final BitSet trigrams = new BitSet(BLOOM_BITS);
+
+        Segment(@NotNull Path file) {
+            this.file = file;
+        }
+
+        @NotNull
+        Path getIndexFile() {
+            String name = file.getFileName().toString();
+            return file.resolveSibling(name.substring(0, name.length() - SEGMENT_FILE_EXT.length()) + INDEX_FILE_EXT);
+        }
+
+        void add(@NotNull HistoryRecord record, long recordSize) {
+            size += recordSize;
+            count++;
+            firstId = Math.min(firstId, record.id);
+            lastId = Math.max(lastId, record.id);
+            minTime = Math.min(minTime, record.openTime);
+            maxTime = Math.max(maxTime, record.openTime);
+            addKey(containerIds, record.containerId);
+            addKey(driverIds, record.driverId);
+            addKey(projectIds, record.projectId);
+            if (record.queryString != null) {
+                addTrigrams(trigrams, record.queryString.toLowerCase(Locale.ENGLISH));
+            }
+        }
+
+        boolean mayContain(@NotNull HistoryQuery query) {
+            if (query.lastEventId != null) {
+                if (query.desc ? firstId >= query.lastEventId : lastId <= query.lastEventId) {
+                    return false;
+                }
+            }
+            if (maxTime < query.fromTime || minTime > query.toTime) {
+                return false;
+            }
+            if (query.containerId != null && !containerIds.contains(query.containerId)) {
+                return false;
+            }
+            if (!query.driverIds.isEmpty() && Collections.disjoint(driverIds, query.driverIds)) {
+                return false;
+            }
+            if (!query.projectIds.isEmpty() && Collections.disjoint(projectIds, query.projectIds)) {
+                return false;
+            }
+            return query.searchTrigrams == null || containsAll(trigrams, query.searchTrigrams);
+        }
+
+        void rebuildIndex() throws IOException {
+            size = SEGMENT_HEADER_SIZE;
+            readRecords(file, Files.size(file), (record, endOffset) -> {
+                add(record, 0);
+                size = endOffset;
+            });
+        }
+
+        boolean readIndex() {
+            Path indexFile = getIndexFile();
+            if (!Files.exists(indexFile)) {
+                return false;
+            }
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+                if (in.readInt() != INDEX_MAGIC || in.readInt() != FORMAT_VERSION) {
+                    return false;
+                }
+                size = in.readLong();
+                if (size != Files.size(file)) {
+                    return false;
+                }
+                count = in.readInt();
+                firstId = in.readLong();
+                lastId = in.readLong();
+                minTime = in.readLong();
+                maxTime = in.readLong();
+                readKeys(in, containerIds);
+                readKeys(in, driverIds);
+                readKeys(in, projectIds);
+                long[] words = new long[in.readInt()];
+                for (int i = 0; i < words.length; i++) {
+                    words[i] = in.readLong();
+                }
+                trigrams.or(BitSet.valueOf(words));
+                return true;
+            } catch (IOException e) {
+                log.debug("Error reading query history index '" + indexFile + "'", e);
+                return false;
+            }
+        }
+
+        void writeIndex() throws IOException {
+            Path indexFile = getIndexFile();
+            Path tempFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(INDEX_MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(size);
+                out.writeInt(count);
+                out.writeLong(firstId);
+                out.writeLong(lastId);
+                out.writeLong(minTime);
+                out.writeLong(maxTime);
+                writeKeys(out, containerIds);
+                writeKeys(out, driverIds);
+                writeKeys(out, projectIds);
+                long[] words = trigrams.toLongArray();
+                out.writeInt(words.length);
+                for (long word : words) {
+                    out.writeLong(word);
+                }
+            }
+            try {
+                Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        private static void addKey(@NotNull Set<String> keys, @Nullable String key) {
+            if (key != null) {
+                keys.add(key);
+            }
+        }
+
+        private static void readKeys(@NotNull DataInputStream in, @NotNull Set<String> keys) throws IOException {
+            for (int i = in.readInt(); i > 0; i--) {
+                keys.add(in.readUTF());
+            }
+        }
+
+        private static void writeKeys(@NotNull DataOutputStream out, @NotNull Set<String> keys) throws IOException {
+            out.writeInt(keys.size());
+            for (String key : keys) {
+                out.writeUTF(key);
+            }
+        }
+    }
+
+    /**
+     * Part of segment which was written when cursor was opened
+     */
+    private record SegmentSnapshot(@NotNull Path file, long size, int count) {
+    }
+
+    private static void addTrigrams(@NotNull BitSet bloom, @NotNull String text) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            long hash = trigramHash(text, i);
+            bloom.set((int) (hash & (BLOOM_BITS - 1)));
+            bloom.set((int) ((hash >>> 32) & (BLOOM_BITS - 1)));
+        }
+    }
+
+    private static boolean containsAll(@NotNull BitSet bloom, @NotNull BitSet trigrams) {
+        BitSet missing = (BitSet) trigrams.clone();
+        missing.andNot(bloom);
+        return missing.isEmpty();
+    }
+
+    private static long trigramHash(@NotNull String text, int offset) {
+        long trigram = ((long) text.charAt(offset) << 32) | ((long) text.charAt(offset + 1) << 16) | text.charAt(offset + 2);
+        return trigram * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * Parsed event criteria
+     */
+    private static class HistoryQuery {
+        private final QMEventFilter filter;
+        private final boolean desc;
+        private final int fetchingSize;
+        private final Long lastEventId;
+        private final long fromTime;
+        private final long toTime;
+        private final String containerId;
+        private final Set<String> driverIds;
+        private final Set<String> projectIds;
+        private final Set<String> schemas;
+        private final Set<String> catalogs;
+        private final Set<QMEventStatus> eventStatuses;
+        private final DBCExecutionPurpose[] queryTypes;
+        private final boolean skipEmptyQueries;
+        private final String searchString;
+        private final BitSet searchTrigrams;
+
+        HistoryQuery(@NotNull QMEventCriteria criteria, @Nullable QMEventFilter filter) {
+            this.filter = filter;
+            this.desc = criteria.isDesc();
+            this.fetchingSize = criteria.getFetchingSize();
+            this.lastEventId = criteria.getLastEventId();
+            QMDateRange dateRange = criteria.getStartDateRange();
+            this.fromTime = dateRange == null ? 0 : parseTime(dateRange.getFrom(), 0);
+            this.toTime = dateRange == null ? Long.MAX_VALUE : parseTime(dateRange.getTo(), Long.MAX_VALUE);
+            this.containerId = CommonUtils.nullIfEmpty(criteria.getContainerId());
+            this.driverIds = criteria.getDriverIds();
+            this.projectIds = criteria.getProjectIds();
+            this.schemas = criteria.getSchemas();
+            this.catalogs = criteria.getCatalogs();
+            this.eventStatuses = criteria.getEventStatuses();
+            this.queryTypes = criteria.hasQueryTypes() ? criteria.getQueryTypes() : null;
+            this.skipEmptyQueries = criteria.isSkipEmptyQueries();
+            if (CommonUtils.isEmpty(criteria.getSearchString())) {
+                this.searchString = null;
+                this.searchTrigrams = null;
+            } else {
+                this.searchString = criteria.getSearchString().toLowerCase(Locale.ENGLISH);
+                BitSet trigrams = new BitSet(BLOOM_BITS);
+                addTrigrams(trigrams, searchString);
+                this.searchTrigrams = trigrams.isEmpty() ? null : trigrams;
+            }
+        }
+
+        boolean matches(@NotNull HistoryRecord record) {
+            if (lastEventId != null && (desc ? record.id >= lastEventId : record.id <= lastEventId)) {
+                return false;
+            }
+            if (record.openTime < fromTime || record.openTime > toTime) {
+                return false;
+            }
+            if (containerId != null && !containerId.equals(record.containerId)) {
+                return false;
+            }
+            if (!driverIds.isEmpty() && !driverIds.contains(record.driverId)) {
+                return false;
+            }
+            if (!projectIds.isEmpty() && !projectIds.contains(record.projectId)) {
+                return false;
+            }
+            if (!schemas.isEmpty() && !schemas.contains(record.schema)) {
+                return false;
+            }
+            if (!catalogs.isEmpty() && !catalogs.contains(record.catalog)) {
+                return false;
+            }
+            if (!eventStatuses.isEmpty() &&
+                !eventStatuses.contains(record.errorMessage != null ? QMEventStatus.FAILED : QMEventStatus.SUCCESS)) {
+                return false;
+            }
+            if (queryTypes != null && !ArrayUtils.contains(queryTypes, record.purpose)) {
+                return false;
+            }
+            if (skipEmptyQueries && CommonUtils.isEmptyTrimmed(record.queryString)) {
+                return false;
+            }
+            return searchString == null ||
+                (record.queryString != null && record.queryString.toLowerCase(Locale.ENGLISH).contains(searchString));
+        }
+
+        private static long parseTime(@Nullable String value, long defaultValue) {
+            if (CommonUtils.isEmpty(value)) {
+                return defaultValue;
+            }
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                // Not a timestamp
+            }
+            try {
+                return Instant.parse(value).toEpochMilli();
+            } catch (DateTimeParseException e) {
+                // Not an instant
+            }
+            try {
+                return LocalDateTime.parse(value).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                // Not a local date-time
+            }
+            try {
+                return LocalDate.parse(value).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                log.debug("Unsupported query history date '" + value + "'");
+                return defaultValue;
+            }
+        }
+    }
+
+    /**
+     * Reads matching events of candidate segments. Only one segment is loaded at a time.
+     */
+    private static class HistoryCursor implements QMEventCursor {
+        private final HistoryQuery query;
+        private final List<SegmentSnapshot> segments;
+        private final List<QMMetaEventEntity> events = new ArrayList<>();
+        private int segmentIndex;
+        private int eventIndex;
+        private int readCount;
+
+        HistoryCursor(@NotNull HistoryQuery query, @NotNull List<SegmentSnapshot> segments) {
+            this.query = query;
+            this.segments = segments;
+        }
+
+        /**
+         * Returns number of queries in segments which may contain matching queries (upper bound of the result size)
+         */
+        @Override
+        public long getTotalSize() {
+            long totalSize = 0;
+            for (SegmentSnapshot segment : segments) {
+                totalSize += segment.count();
+            }
+            return totalSize;
+        }
+
+        @Override
+        public void scroll(int position, DBRProgressMonitor monitor) throws DBException {
+            if (position < 0) {
+                throw new DBException("Position is out of range (" + position + ")");
+            }
+            segmentIndex = 0;
+            eventIndex = 0;
+            readCount = 0;
+            events.clear();
+            for (int i = 0; i < position; i++) {
+                if (!hasNextEvent(monitor)) {
+                    throw new DBException("Position is out of range (" + i + ")");
+                }
+                nextEvent(monitor);
+            }
+        }
+
+        @Override
+        public boolean hasNextEvent(DBRProgressMonitor monitor) throws DBException {
+            if (query.fetchingSize > 0 && readCount >= query.fetchingSize) {
+                return false;
+            }
+            while (eventIndex >= events.size()) {
+                if (segmentIndex >= segments.size() || monitor.isCanceled()) {
+                    return false;
+                }
+                loadSegment(segments.get(segmentIndex++));
+            }
+            return true;
+        }
+
+        @Override
+        public QMMetaEventEntity nextEvent(DBRProgressMonitor monitor) throws DBException {
+            if (!hasNextEvent(monitor)) {
+                throw new DBException("No more events in query history");
+            }
+            readCount++;
+            return events.get(eventIndex++);
+        }
+
+        @Override
+        public void close() {
+            events.clear();
+            segmentIndex = segments.size();
+        }
+
+        private void loadSegment(@NotNull SegmentSnapshot segment) throws DBException {
+            events.clear();
+            eventIndex = 0;
+            try {
+                readRecords(segment.file(), segment.size(), (record, endOffset) -> {
+                    if (query.matches(record)) {
+                        QMMStatementExecuteInfo object = record.toExecuteInfo();
+                        if (query.filter == null || query.filter.accept(new QMMetaEvent(object, QMEventAction.END, ""))) {
+                            events.add(new QMMetaEventEntity(object, QMEventAction.END, record.id, "", null));
+                        }
+                    }
+                });
+            } catch (NoSuchFileException e) {
+                // Segment was purged
+                return;
+            } catch (IOException e) {
+                throw new DBException("Error reading query history segment '" + segment.file() + "'", e);
+            }
+            if (query.desc) {
+                Collections.reverse(events);
+            }
+        }
+    }
+
+    /**
+     * Persisted query execution
+     */
+    private static class HistoryRecord {
+        private final long id;
+        private final long openTime;
+        private final long closeTime;
+        private final long fetchBeginTime;
+        private final long fetchEndTime;
+        private final long rowCount;
+        private final int errorCode;
+        private final boolean transactional;
+        private final boolean connectionTransactional;
+        private final DBCExecutionPurpose purpose;
+        private final String projectId;
+        private final String projectName;
+        private final String containerId;
+        private final String containerName;
+        private final String driverId;
+        private final String instanceId;
+        private final String contextName;
+        private final String userName;
+        private final String url;
+        private final String schema;
+        private final String catalog;
+        private final String errorMessage;
+        private final String queryString;
+
+        HistoryRecord(long id, @NotNull QMMStatementExecuteInfo info) {
+            QMMStatementInfo statement = info.getStatement();
+            QMMConnectionInfo connection = statement.getConnection();
+            QMMProjectInfo project = connection.getProjectInfo();
+            this.id = id;
+            this.openTime = info.getOpenTime();
+            this.closeTime = info.getCloseTime();
+            this.fetchBeginTime = info.getFetchBeginTime();
+            this.fetchEndTime = info.getFetchEndTime();
+            this.rowCount = info.getFetchEndTime() > 0 ? info.getFetchRowCount() : info.getUpdateRowCount();
+            this.errorCode = info.getErrorCode();
+            this.transactional = info.isTransactional();
+            this.connectionTransactional = connection.isTransactional();
+            this.purpose = statement.getPurpose();
+            this.projectId = project == null ? null : project.getId();
+            this.projectName = project == null ? null : project.getName();
+            this.containerId = connection.getContainerId();
+            this.containerName = connection.getContainerName();
+            this.driverId = connection.getDriverId();
+            this.instanceId = connection.getInstanceId();
+            this.contextName = connection.getContextName();
+            this.userName = connection.getConnectionUserName();
+            this.url = connection.getConnectionUrl();
+            this.schema = info.getSchema();
+            this.catalog = info.getCatalog();
+            this.errorMessage = info.getErrorMessage();
+            this.queryString = info.getQueryString();
+        }
+
+        private HistoryRecord(@NotNull DataInputStream in) throws IOException {
+            this.id = in.readLong();
+            this.openTime = in.readLong();
+            this.closeTime = in.readLong();
+            this.fetchBeginTime = in.readLong();
+            this.fetchEndTime = in.readLong();
+            this.rowCount = in.readLong();
+            this.errorCode = in.readInt();
+            this.transactional = in.readBoolean();
+            this.connectionTransactional = in.readBoolean();
+            this.purpose = CommonUtils.valueOf(DBCExecutionPurpose.class, readString(in), DBCExecutionPurpose.USER);
+            this.projectId = readString(in);
+            this.projectName = readString(in);
+            this.containerId = readString(in);
+            this.containerName = readString(in);
+            this.driverId = readString(in);
+            this.instanceId = readString(in);
+            this.contextName = readString(in);
+            this.userName = readString(in);
+            this.url = readString(in);
+            this.schema = readString(in);
+            this.catalog = readString(in);
+            this.errorMessage = readString(in);
+            this.queryString = readString(in);
+        }
+
+        @NotNull
+        static HistoryRecord read(@NotNull DataInputStream in) throws IOException {
+            return new HistoryRecord(in);
+        }
+
+        void write(@NotNull DataOutputStream out) throws IOException {
+            out.writeLong(id);
+            out.writeLong(openTime);
+            out.writeLong(closeTime);
+            out.writeLong(fetchBeginTime);
+            out.writeLong(fetchEndTime);
+            out.writeLong(rowCount);
+            out.writeInt(errorCode);
+            out.writeBoolean(transactional);
+            out.writeBoolean(connectionTransactional);
+            writeString(out, purpose == null ? null : purpose.name());
+            writeString(out, projectId);
+            writeString(out, projectName);
+            writeString(out, containerId);
+            writeString(out, containerName);
+            writeString(out, driverId);
+            writeString(out, instanceId);
+            writeString(out, contextName);
+            writeString(out, userName);
+            writeString(out, url);
+            writeString(out, schema);
+            writeString(out, catalog);
+            writeString(out, errorMessage);
+            writeString(out, queryString);
+        }
+
+        @NotNull
+        QMMStatementExecuteInfo toExecuteInfo() {
+            QMMProjectInfo project = projectId == null ? null : QMMProjectInfo.builder()
+                .setId(projectId)
+                .setName(projectName)
+                .build();
+            QMMConnectionInfo connection = QMMConnectionInfo.builder()
+                .setProjectInfo(project)
+                .setContainerId(containerId)
+                .setContainerName(containerName)
+                .setDriverId(driverId)
+                .setInstanceId(instanceId)
+                .setContextName(contextName)
+                .setConnectionUserName(userName)
+                .setConnectionUrl(url)
+                .setTransactional(connectionTransactional)
+                .setOpenTime(openTime)
+                .setCloseTime(closeTime)
+                .build();
+            QMMStatementInfo statement = new QMMStatementInfo(openTime, closeTime, connection, purpose);
+            return new QMMStatementExecuteInfo(
+                openTime,
+                closeTime,
+                statement,
+                queryString,
+                rowCount,
+                errorCode,
+                errorMessage,
+                fetchBeginTime,
+                fetchEndTime,
+                transactional,
+                schema,
+                catalog);
+        }
+
+        @Nullable
+        private static String readString(@NotNull DataInputStream in) throws IOException {
+            int length = in.readInt();
+            if (length < 0) {
+                return null;
+            }
+            return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+        }
+
+        private static void writeString(@NotNull DataOutputStream out, @Nullable String value) throws IOException {
+            if (value == null) {
+                out.writeInt(-1);
+            } else {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceListener;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.qm.QMConstants;
+import org.jkiss.dbeaver.model.qm.QMEventAction;
+import org.jkiss.dbeaver.model.qm.QMEventFilter;
+import org.jkiss.dbeaver.model.qm.QMMetaEvent;
+import org.jkiss.dbeaver.model.qm.QMMetaListener;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementExecuteInfo;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes executed queries to the persistent query history.
+ * Queries are collected by the QM events dispatcher and written in batches by a background job,
+ * so query execution never waits for the disk.
+ * Persistent history is used by the query manager browser while it is enabled.
+ */
+public class QMHistoryWriter implements QMMetaListener, DBPPreferenceListener {
+
+    private static final Log log = Log.getLog(QMHistoryWriter.class);
+
+    private static final long FLUSH_DELAY = 1000;
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private final QMRegistryImpl registry;
+    private final QMHistoryStore store;
+    private final Queue<QMMStatementExecuteInfo> pendingQueries = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final FlushJob flushJob = new FlushJob();
+
+    private volatile boolean enabled;
+    private volatile QMEventFilter eventFilter;
+
+    public QMHistoryWriter(@NotNull QMRegistryImpl registry) {
+        this.registry = registry;
+        this.store = new QMHistoryStore(GeneralUtils.getMetadataFolder().resolve(QMHistoryStore.HISTORY_FOLDER_NAME));
+        DBWorkbench.getPlatform().getPreferenceStore().addPropertyChangeListener(this);
+        initHistory();
+    }
+
+    public void dispose() {
+        DBWorkbench.getPlatform().getPreferenceStore().removePropertyChangeListener(this);
+        registry.setHistoryBrowser(null);
+        flushJob.cancel();
+        flush();
+        store.close();
+    }
+
+    private synchronized void initHistory() {
+        final DBPPreferenceStore preferences = DBWorkbench.getPlatform().getPreferenceStore();
+        enabled = preferences.getBoolean(QMConstants.PROP_STORE_HISTORY);
+        eventFilter = new DefaultEventFilter();
+        if (enabled) {
+            final int daysToKeep = preferences.getInt(QMConstants.PROP_HISTORY_DAYS);
+            if (daysToKeep > 0) {
+                store.purge(System.currentTimeMillis() - daysToKeep * 24L * 60 * 60 * 1000);
+            }
+            registry.setHistoryBrowser(store);
+        } else {
+            registry.setHistoryBrowser(null);
+        }
+    }
+
+    @Override
+    public void metaInfoChanged(@NotNull DBRProgressMonitor monitor, @NotNull List<QMMetaEvent> events) {
+        if (!enabled) {
+            return;
+        }
+        boolean added = false;
+        for (QMMetaEvent event : events) {
+            if (event.getAction() == QMEventAction.END &&
+                event.getObject() instanceof QMMStatementExecuteInfo executeInfo &&
+                eventFilter.accept(event))
+            {
+                pendingQueries.add(executeInfo);
+                added = true;
+            }
+        }
+        if (added && flushScheduled.compareAndSet(false, true)) {
+            flushJob.schedule(FLUSH_DELAY);
+        }
+    }
+
+    @Override
+    public void preferenceChange(PreferenceChangeEvent event) {
+        if (event.getProperty().startsWith(QMConstants.PROP_PREFIX)) {
+            initHistory();
+        }
+    }
+
+    private synchronized void flush() {
+        List<QMMStatementExecuteInfo> batch = new ArrayList<>();
+        for (QMMStatementExecuteInfo query; (query = pendingQueries.poll()) != null; ) {
+            batch.add(query);
+            if (batch.size() >= MAX_BATCH_SIZE) {
+                writeBatch(batch);
+            }
+        }
+        writeBatch(batch);
+    }
+
+    private void writeBatch(@NotNull List<QMMStatementExecuteInfo> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            store.append(batch);
+        } catch (IOException e) {
+            log.warn("IO error writing query history", e);
+        }
+        batch.clear();
+    }
+
+    private class FlushJob extends AbstractJob {
+        FlushJob() {
+            super("Write query history");
+            setSystem(true);
+            setUser(false);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            flushScheduled.set(false);
+            flush();
+            return Status.OK_STATUS;
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.runtime.qm;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.qm.*;
@@ -34,6 +35,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * QMController default implementation
@@ -44,8 +46,10 @@ public class QMRegistryImpl implements QMRegistry {
 
     private QMExecutionHandler defaultHandler;
     private QMMCollectorImpl metaHandler;
-    private final List<QMExecutionHandler> handlers = new ArrayList<>();
+    // Handlers are notified by every statement of every connection, so notification doesn't lock them
+    private final List<QMExecutionHandler> handlers = new CopyOnWriteArrayList<>();
     private QMEventBrowser eventBrowser;
+    private QMEventBrowser historyBrowser;
     private DefaultEventBrowser defaultEventBrowser = new DefaultEventBrowser();
 
     public QMRegistryImpl() {
@@ -98,10 +102,21 @@ public class QMRegistryImpl implements QMRegistry {
                 this.eventBrowser = defaultEventBrowser;
             }
         }
+        if (eventBrowser == defaultEventBrowser && historyBrowser != null) {
+            // Persistent history of all sessions
+            return historyBrowser;
+        }
 
         return eventBrowser;
     }
 
+    /**
+     * Sets browser of the persistent query history. It is used instead of the default browser for all sessions history.
+     */
+    public synchronized void setHistoryBrowser(@Nullable QMEventBrowser historyBrowser) {
+        this.historyBrowser = historyBrowser;
+    }
+
     @Override
     public void registerHandler(QMExecutionHandler handler) {
         synchronized (handlers) {
@@ -144,11 +159,7 @@ public class QMRegistryImpl implements QMRegistry {
         {
             try {
                 if (method.getReturnType() == Void.TYPE && method.getName().startsWith("handle")) {
-                    QMExecutionHandler[] handlersCopy;
-                    synchronized (handlers) {
-                        handlersCopy = handlers.toArray(new QMExecutionHandler[handlers.size()]);
-                    }
-                    for (QMExecutionHandler handler : handlersCopy) {
+                    for (QMExecutionHandler handler : handlers) {
                         try {
                             method.invoke(handler, args);
                         } catch (InvocationTargetException e) {
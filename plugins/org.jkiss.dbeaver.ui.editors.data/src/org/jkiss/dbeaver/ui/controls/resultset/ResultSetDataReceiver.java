@@ -49,6 +49,7 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
     private List<Object[]> rows = new ArrayList<>();
     private boolean hasMoreData;
     private boolean nextSegmentRead;
+    private boolean keysetRead;
     private long offset;
     private long maxRows;
 
@@ -77,6 +78,10 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
         this.nextSegmentRead = nextSegmentRead;
     }
 
+    void setKeysetRead(boolean keysetRead) {
+        this.keysetRead = keysetRead;
+    }
+
     void setFocusRow(int focusRow) {
         this.focusRow = focusRow;
     }
@@ -184,7 +189,9 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
             resultSetViewer.setData(tmpRows, focusRow);
         } else {
             monitor.subTask("Append data");
-            boolean resetOldRows = getDataContainer().getDataSource().getContainer().getPreferenceStore().getBoolean(ModelPreferences.RESULT_SET_REREAD_ON_SCROLLING);
+            // Keyset read returns only the next rows even if all data is refreshed on scrolling
+            boolean resetOldRows = !keysetRead &&
+                getDataContainer().getDataSource().getContainer().getPreferenceStore().getBoolean(ModelPreferences.RESULT_SET_REREAD_ON_SCROLLING);
             resultSetViewer.appendData(tmpRows, resetOldRows);
         }
         // Check for more data
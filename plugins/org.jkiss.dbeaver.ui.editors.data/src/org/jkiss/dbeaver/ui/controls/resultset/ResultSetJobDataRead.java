@@ -23,13 +23,19 @@ import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.ui.progress.UIJob;
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDKeyset;
 import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.LocalCacheProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.load.ILoadService;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.controls.ProgressLoaderVisualizer;
 import org.jkiss.dbeaver.ui.controls.resultset.internal.ResultSetMessages;
@@ -38,6 +44,8 @@ import java.lang.reflect.InvocationTargetException;
 
 abstract class ResultSetJobDataRead extends ResultSetJobAbstract implements ILoadService<Object>, IQueryExecuteController {
 
+    private static final Log log = Log.getLog(ResultSetJobDataRead.class);
+
     private static final int PROGRESS_VISUALIZE_PERIOD = 100;
 
     private final Composite progressControl;
@@ -97,7 +105,24 @@ abstract class ResultSetJobDataRead extends ResultSetJobAbstract implements ILoa
             fetchFlags |= DBSDataContainer.FLAG_FETCH_SEGMENT;
         }
 
-        if (offset > 0 && getExecutionContext().getDataSource().getContainer().getPreferenceStore().getBoolean(ModelPreferences.RESULT_SET_REREAD_ON_SCROLLING)) {
+        progressMonitor.beginTask("Read data", 1);
+        if (!getDataSourceContainer().isExtraMetadataReadEnabled()) {
+            monitor = new LocalCacheProgressMonitor(monitor);
+        }
+
+        final DBSDataContainer dataContainer = executionSource.getDataContainer();
+        final DBDDataFilter dataFilter = executionSource.getUseDataFilter();
+        final DBPPreferenceStore preferenceStore = getExecutionContext().getDataSource().getContainer().getPreferenceStore();
+
+        DBDKeyset keyset = null;
+        if (preferenceStore.getBoolean(ModelPreferences.RESULT_SET_KEYSET_PAGING)) {
+            keyset = getKeyset(monitor, dataContainer, dataFilter);
+        }
+        // Next rows are read after the last row key, there is no need to skip or re-read previous rows
+        boolean keysetRead = keyset != null && keyset.getPosition() != null;
+        executionSource.getExecutionController().getDataReceiver().setKeysetRead(keysetRead);
+
+        if (offset > 0 && !keysetRead && preferenceStore.getBoolean(ModelPreferences.RESULT_SET_REREAD_ON_SCROLLING)) {
             if (maxRows > 0) {
                 maxRows += offset;
             }
@@ -108,14 +133,8 @@ abstract class ResultSetJobDataRead extends ResultSetJobAbstract implements ILoa
             fetchFlags |= DBSDataContainer.FLAG_REFRESH;
         }
         long finalFlags = fetchFlags;
-
-        final DBSDataContainer dataContainer = executionSource.getDataContainer();
-        final DBDDataFilter dataFilter = executionSource.getUseDataFilter();
-
-        progressMonitor.beginTask("Read data", 1);
-        if (!getDataSourceContainer().isExtraMetadataReadEnabled()) {
-            monitor = new LocalCacheProgressMonitor(monitor);
-        }
+        final DBDDataFilter readFilter = keyset == null ? dataFilter : keyset.makeDataFilter(dataContainer.getDataSource(), dataFilter);
+        final long readOffset = keysetRead ? 0 : offset;
 
         try (DBCSession session = getExecutionContext().openSession(
             monitor,
@@ -129,8 +148,8 @@ abstract class ResultSetJobDataRead extends ResultSetJobAbstract implements ILoa
                         executionSource,
                         session,
                         executionSource.getExecutionController().getDataReceiver(),
-                        executionSource.getUseDataFilter(),
-                        offset,
+                        readFilter,
+                        readOffset,
                         maxRows,
                         finalFlags,
                         0);
@@ -148,6 +167,31 @@ abstract class ResultSetJobDataRead extends ResultSetJobAbstract implements ILoa
         return Status.OK_STATUS;
     }
 
+    /**
+     * Returns keyset of the entity. Keyset has position of the last read row if the next segment is read.
+     */
+    @Nullable
+    private DBDKeyset getKeyset(@NotNull DBRProgressMonitor monitor, @NotNull DBSDataContainer dataContainer, @Nullable DBDDataFilter dataFilter) {
+        if (!(dataContainer instanceof DBSEntity entity) || !dataContainer.isFeatureSupported(DBSDataContainer.FEATURE_KEYSET_PAGING)) {
+            return null;
+        }
+        DBDKeyset keyset;
+        try {
+            keyset = DBDKeyset.resolve(monitor, entity, dataFilter);
+        } catch (DBException e) {
+            log.debug("Can't resolve keyset of '" + dataContainer.getName() + "'", e);
+            return null;
+        }
+        if (keyset != null && offset > 0) {
+            ResultSetModel model = executionSource.getExecutionController().getModel();
+            Object[] position = model.getRowCount() == offset ? model.getKeysetPosition(keyset) : null;
+            if (position != null) {
+                keyset = keyset.withPosition(position);
+            }
+        }
+        return keyset;
+    }
+
     @Override
     public String getServiceName() {
         return "ResultSet data pump";
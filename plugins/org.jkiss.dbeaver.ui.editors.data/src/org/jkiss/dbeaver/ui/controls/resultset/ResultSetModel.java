@@ -59,6 +59,9 @@ public class ResultSetModel {
 
     // Data
     private List<ResultSetRow> curRows = new ArrayList<>();
+    // Values of fetched rows
+    @Nullable
+    private ResultSetRowStore rowStore;
     private Long totalRowCount = null;
     private int changesCount = 0;
     private volatile boolean hasData = false;
@@ -379,7 +382,7 @@ public class ResultSetModel {
 
     @NotNull
     public Object[] getRowData(int index) {
-        return curRows.get(index).values;
+        return curRows.get(index).getValues();
     }
 
     @NotNull
@@ -387,6 +390,29 @@ public class ResultSetModel {
         return curRows.get(index);
     }
 
+    /**
+     * Returns keyset values of the last row.
+     * Returns null if there are no rows or some keyset attribute is missing in the result set.
+     */
+    @Nullable
+    public Object[] getKeysetPosition(@NotNull DBDKeyset keyset) {
+        if (curRows.isEmpty()) {
+            return null;
+        }
+        ResultSetRow lastRow = curRows.get(curRows.size() - 1);
+        List<DBDKeyset.KeyAttribute> keyAttributes = keyset.getAttributes();
+        Object[] position = new Object[keyAttributes.size()];
+        for (int i = 0; i < keyAttributes.size(); i++) {
+            DBDAttributeBinding binding = getAttributeBinding(keyAttributes.get(i).attribute());
+            Object value = binding == null ? null : getCellValue(binding, lastRow);
+            if (DBUtils.isNullValue(value)) {
+                return null;
+            }
+            position[i] = value;
+        }
+        return position;
+    }
+
     public Long getTotalRowCount() {
         return totalRowCount;
     }
@@ -412,13 +438,22 @@ public class ResultSetModel {
         @Nullable int[] rowIndexes,
         boolean retrieveDeepestCollectionElement
     ) {
-        return DBUtils.getAttributeValue(
-            attribute,
-            attributes,
-            row.values,
-            rowIndexes,
-            retrieveDeepestCollectionElement
-        );
+        if (attribute.isCustom()) {
+            // Expression may refer to any attribute of the row
+            return DBUtils.getAttributeValue(
+                attribute,
+                attributes,
+                row.getValues(),
+                rowIndexes,
+                retrieveDeepestCollectionElement
+            );
+        }
+        // Read only the top-level value. Row store doesn't have to copy all row values then
+        Object topValue = row.getValue(attribute.getTopParent().getOrdinalPosition());
+        if (attribute.getLevel() == 0 && rowIndexes == null && !retrieveDeepestCollectionElement) {
+            return topValue;
+        }
+        return DBUtils.getNestedAttributeValue(attribute, topValue, rowIndexes, retrieveDeepestCollectionElement);
     }
 
     /**
@@ -477,7 +512,7 @@ public class ResultSetModel {
         }
 
         Object oldHistoricValue = updateChanges ? row.changes.get(topAttribute) : null;
-        Object currentValue = row.values[rootIndex];
+        Object currentValue = row.getValue(rootIndex);
         Object valueToEdit = currentValue;
 
         if (currentValue instanceof DBDValue) {
@@ -518,7 +553,7 @@ public class ResultSetModel {
         } else {
             valueToEdit = value;
         }
-        row.values[rootIndex] = valueToEdit;
+        row.setValue(rootIndex, valueToEdit);
 
         if (updateChanges && row.getState() == ResultSetRow.STATE_NORMAL) {
             changesCount++;
@@ -828,13 +863,22 @@ public class ResultSetModel {
     void appendData(@NotNull List<Object[]> rows, boolean resetOldRows) {
         if (resetOldRows) {
             curRows.clear();
+            rowStore = null;
         }
         int rowCount = rows.size();
         int firstRowNum = curRows.size();
+        if (rowStore == null && rowCount > 0) {
+            rowStore = new ResultSetRowStore(rows.get(0).length);
+        }
         List<ResultSetRow> newRows = new ArrayList<>(rowCount);
         for (int i = 0; i < rowCount; i++) {
-            newRows.add(
-                new ResultSetRow(firstRowNum + i, rows.get(i)));
+            Object[] values = rows.get(i);
+            if (values.length == rowStore.getColumnCount()) {
+                newRows.add(new ResultSetRow(firstRowNum + i, rowStore, rowStore.addRow(values)));
+            } else {
+                // Metadata was changed. Keep values in the row
+                newRows.add(new ResultSetRow(firstRowNum + i, values));
+            }
         }
         curRows.addAll(newRows);
 
@@ -844,6 +888,7 @@ public class ResultSetModel {
     void clearData() {
         // Refresh all rows
         this.curRows = new ArrayList<>();
+        this.rowStore = null;
         this.totalRowCount = null;
         this.singleSourceEntity = null;
 
@@ -938,6 +983,7 @@ public class ResultSetModel {
 
     void releaseAllData() {
         final List<ResultSetRow> oldRows = curRows;
+        final ResultSetRowStore oldStore = rowStore;
         // Cleanup in separate job.
         // Sometimes model cleanup takes much time (e.g. freeing LOB values)
         // So let's do it in separate job to avoid UI locking
@@ -945,6 +991,9 @@ public class ResultSetModel {
             for (ResultSetRow row : oldRows) {
                 row.release();
             }
+            if (oldStore != null) {
+                oldStore.release();
+            }
         }, "Release values", 5000);
     }
 
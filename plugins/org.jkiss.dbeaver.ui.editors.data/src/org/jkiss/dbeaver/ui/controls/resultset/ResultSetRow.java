@@ -49,9 +49,12 @@ public class ResultSetRow {
     private int rowNumber;
     // Row number in grid
     private int visualNumber;
-    // Column values
-    @NotNull
-    public Object[] values;
+    // Column values. Null if values are kept in the row store
+    @Nullable
+    private Object[] values;
+    @Nullable
+    private final ResultSetRowStore store;
+    private final int storeIndex;
     @Nullable
     public Map<DBDAttributeBinding, Object> changes;
     // Row state
@@ -63,12 +66,56 @@ public class ResultSetRow {
         this.rowNumber = rowNumber;
         this.visualNumber = rowNumber;
         this.values = values;
+        this.store = null;
+        this.storeIndex = -1;
+        this.state = STATE_NORMAL;
+    }
+
+    ResultSetRow(int rowNumber, @NotNull ResultSetRowStore store, int storeIndex) {
+        this.rowNumber = rowNumber;
+        this.visualNumber = rowNumber;
+        this.store = store;
+        this.storeIndex = storeIndex;
         this.state = STATE_NORMAL;
     }
 
+    /**
+     * Returns row values.
+     * Values of rows kept in the row store are copied, so changes of the returned array do not affect the row.
+     * Use {@link #setValue(int, Object)} to change values.
+     */
     @NotNull
     public Object[] getValues() {
-        return values;
+        if (values != null) {
+            return values;
+        }
+        assert store != null;
+        return store.getRowValues(storeIndex);
+    }
+
+    @Nullable
+    public Object getValue(int index) {
+        if (values != null) {
+            return index < values.length ? values[index] : null;
+        }
+        assert store != null;
+        return store.getValue(storeIndex, index);
+    }
+
+    void setValue(int index, @Nullable Object value) {
+        if (values != null) {
+            values[index] = value;
+        } else {
+            assert store != null;
+            store.setValue(storeIndex, index, value);
+        }
+    }
+
+    /**
+     * Replaces all row values. Row doesn't use the row store after this.
+     */
+    void setValues(@NotNull Object[] values) {
+        this.values = values;
     }
 
     public boolean isChanged() {
@@ -118,9 +165,14 @@ public class ResultSetRow {
         }
     }
 
+    /**
+     * Releases row values. Values kept in the row store are released by the store.
+     */
     void release() {
-        for (Object value : values) {
-            DBUtils.releaseValue(value);
+        if (values != null) {
+            for (Object value : values) {
+                DBUtils.releaseValue(value);
+            }
         }
         if (changes != null) {
             for (Object oldValue : changes.values()) {
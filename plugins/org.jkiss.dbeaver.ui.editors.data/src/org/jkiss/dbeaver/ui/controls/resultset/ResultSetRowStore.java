@@ -0,0 +1,144 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.columnar.*;
+
+/**
+ * Column-oriented storage of result set rows values.
+ * <p>
+ * Column storage type is chosen by the first non-null value: numbers are kept in primitive arrays,
+ * strings are dictionary encoded, dates in epoch milliseconds. Other values are kept as is.
+ * Values are boxed when they are requested. Columns which contain only nulls take no space.
+ */
+class ResultSetRowStore {
+
+    private final ColumnBuffer[] columns;
+    private int rowCount;
+
+    ResultSetRowStore(int columnCount) {
+        this.columns = new ColumnBuffer[columnCount];
+    }
+
+    int getColumnCount() {
+        return columns.length;
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Adds row values. Returns index of the row in the store.
+     */
+    int addRow(@NotNull Object[] values) {
+        int rowIndex = rowCount;
+        for (int i = 0; i < columns.length; i++) {
+            Object value = i < values.length ? values[i] : null;
+            ColumnBuffer column = columns[i];
+            if (column == null) {
+                if (value == null) {
+                    continue;
+                }
+                column = createColumn(value);
+                for (int k = 0; k < rowIndex; k++) {
+                    column.appendNull();
+                }
+                columns[i] = column;
+            }
+            column.appendObject(value);
+        }
+        rowCount++;
+        return rowIndex;
+    }
+
+    @Nullable
+    Object getValue(int row, int column) {
+        if (column < 0 || column >= columns.length) {
+            return null;
+        }
+        ColumnBuffer buffer = columns[column];
+        return buffer == null ? null : buffer.getValue(row);
+    }
+
+    void setValue(int row, int column, @Nullable Object value) {
+        ColumnBuffer buffer = columns[column];
+        if (buffer == null) {
+            if (value == null) {
+                return;
+            }
+            buffer = createColumn(value);
+            for (int k = 0; k < rowCount; k++) {
+                buffer.appendNull();
+            }
+            columns[column] = buffer;
+        }
+        buffer.setValue(row, value);
+    }
+
+    @NotNull
+    Object[] getRowValues(int row) {
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            ColumnBuffer buffer = columns[i];
+            if (buffer != null) {
+                values[i] = buffer.getValue(row);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Releases values which hold resources (e.g. LOBs).
+     * Only values kept as is may hold them.
+     */
+    void release() {
+        for (ColumnBuffer buffer : columns) {
+            if (buffer instanceof ObjectColumnBuffer) {
+                for (int row = 0; row < buffer.size(); row++) {
+                    DBUtils.releaseValue(buffer.getValue(row));
+                }
+            }
+        }
+    }
+
+    @NotNull
+    private ColumnBuffer createColumn(@NotNull Object value) {
+        int capacity = rowCount + 1;
+        if (value instanceof Long) {
+            return new LongColumnBuffer(capacity, LongColumnBuffer.BoxType.LONG);
+        } else if (value instanceof Integer) {
+            return new LongColumnBuffer(capacity, LongColumnBuffer.BoxType.INTEGER);
+        } else if (value instanceof Short) {
+            return new LongColumnBuffer(capacity, LongColumnBuffer.BoxType.SHORT);
+        } else if (value instanceof Byte) {
+            return new LongColumnBuffer(capacity, LongColumnBuffer.BoxType.BYTE);
+        } else if (value instanceof Double) {
+            return new DoubleColumnBuffer(capacity);
+        } else if (value instanceof String) {
+            return new StringColumnBuffer(capacity);
+        }
+        TemporalColumnBuffer.ValueType temporalType = TemporalColumnBuffer.getValueType(value);
+        if (temporalType != null) {
+            return new TemporalColumnBuffer(capacity, temporalType);
+        }
+        return new ObjectColumnBuffer(capacity);
+    }
+}
@@ -75,9 +75,11 @@ import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.InvocationTargetException;
+import java.sql.BatchUpdateException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -93,6 +95,7 @@ public class SQLQueryJob extends DataSourceJob
     public static final Object STATS_RESULTS = new Object();
     private static final int MAX_QUERY_PREVIEW_LENGTH = 8192;
     private static final int MAX_UPDATE_COUNT_READS = 1000;
+    private static final int MAX_BATCH_SIZE = 1000;
 
     private final DBSDataContainer dataContainer;
     private final List<SQLScriptElement> queries;
@@ -107,6 +110,8 @@ public class SQLQueryJob extends DataSourceJob
     private SQLScriptCommitType commitType;
     private SQLScriptErrorHandling errorHandling;
     private boolean fetchResultSets;
+    private boolean batchStatements;
+    private int commitLines;
     private long rsOffset;
     private long rsMaxRows;
 
@@ -126,6 +131,12 @@ public class SQLQueryJob extends DataSourceJob
 
     private transient int rowsFetched;
 
+    // Results of statements which were already executed in a batch
+    private final Map<SQLScriptElement, BatchStatementResult> batchResults = new IdentityHashMap<>();
+
+    private record BatchStatementResult(@Nullable Long updateCount, @Nullable Throwable error, long executeTime) {
+    }
+
     public SQLQueryJob(
         @NotNull IWorkbenchPartSite partSite,
         @NotNull String name,
@@ -154,6 +165,8 @@ public class SQLQueryJob extends DataSourceJob
                 preferenceStore.getBoolean(SQLPreferenceConstants.SCRIPT_FETCH_RESULT_SETS) && !isDisableFetchResultSet
             );
             this.rsMaxRows = preferenceStore.getInt(ModelPreferences.RESULT_SET_MAX_ROWS);
+            this.batchStatements = queries.size() > 1 && preferenceStore.getBoolean(SQLPreferenceConstants.SCRIPT_BATCH_DML);
+            this.commitLines = preferenceStore.getInt(SQLPreferenceConstants.SCRIPT_COMMIT_LINES);
         }
     }
 
@@ -223,6 +236,15 @@ public class SQLQueryJob extends DataSourceJob
 
                 monitor.beginTask(this.getName(), queries.size());
 
+                if (batchStatements && errorHandling != SQLScriptErrorHandling.IGNORE) {
+                    // Statements following the failed one may be executed by the batch.
+                    // Their changes must be rolled back, as if they weren't executed at all.
+                    batchStatements = errorHandling == SQLScriptErrorHandling.STOP_ROLLBACK &&
+                        txnManager != null && txnManager.isSupportsTransactions() &&
+                        !oldAutoCommit && commitType != SQLScriptCommitType.AUTOCOMMIT;
+                }
+                batchResults.clear();
+
                 // Notify job start
                 if (listener != null) {
                     try {
@@ -238,7 +260,13 @@ public class SQLQueryJob extends DataSourceJob
                     SQLScriptElement query = queries.get(queryNum);
 
                     fetchResultSetNumber = resultSetNumber;
-                    boolean runNext = executeSingleQuery(session, query, true);
+                    if (batchStatements && !batchResults.containsKey(query)) {
+                        executeBatch(session, queryNum);
+                    }
+                    BatchStatementResult batchResult = batchResults.remove(query);
+                    boolean runNext = batchResult != null ?
+                        reportBatchResult(session, (SQLQuery) query, batchResult) :
+                        executeSingleQuery(session, query, true);
                     if (txnManager != null && txnManager.isSupportsTransactions()
                         && !oldAutoCommit && commitType != SQLScriptCommitType.AUTOCOMMIT
                         && query instanceof SQLQuery sqlQuery
@@ -578,6 +606,172 @@ public class SQLQueryJob extends DataSourceJob
         return true;
     }
 
+    /**
+     * Executes consecutive data modification statements of the same shape in a single batch.
+     * Statements are sent as is, so there is no difference in literals handling.
+     * Results of the executed statements are reported later one by one, in the script order.
+     */
+    private void executeBatch(@NotNull DBCSession session, int firstQuery) {
+        List<SQLQuery> batch = collectBatch(session, firstQuery);
+        if (batch.size() < 2) {
+            return;
+        }
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        monitor.subTask("Execute batch of " + batch.size() + " statements");
+        SQLQuery firstStatement = batch.get(0);
+        long startTime = System.currentTimeMillis();
+        int[] updateCounts = null;
+        Throwable batchError = null;
+        try {
+            closeStatement();
+
+            AbstractExecutionSource source = new AbstractExecutionSource(dataContainer, session.getExecutionContext(), partSite.getPart(), firstStatement);
+            source.setScriptContext(scriptContext);
+            DBCStatement dbcStatement = DBUtils.makeStatement(source, session, DBCStatementType.SCRIPT, firstStatement, 0, 0);
+            curStatement = dbcStatement;
+            if (!(dbcStatement instanceof java.sql.Statement jdbcStatement) || dbcStatement instanceof java.sql.PreparedStatement) {
+                // Batches are supported for plain JDBC statements only
+                batchStatements = false;
+                return;
+            }
+            int statementTimeout = getDataSourceContainer().getPreferenceStore().getInt(SQLPreferenceConstants.STATEMENT_TIMEOUT);
+            if (statementTimeout > 0) {
+                try {
+                    dbcStatement.setStatementTimeout(statementTimeout);
+                } catch (Throwable e) {
+                    log.debug("Can't set statement timeout:" + e.getMessage());
+                }
+            }
+            for (SQLQuery query : batch) {
+                jdbcStatement.addBatch(query.getText());
+            }
+            updateCounts = dbcStatement.executeStatementBatch();
+        } catch (Throwable e) {
+            batchError = e;
+        } finally {
+            closeStatement();
+        }
+        long executeTime = (System.currentTimeMillis() - startTime) / batch.size();
+
+        if (batchError == null) {
+            for (int i = 0; i < batch.size(); i++) {
+                Long updateCount = updateCounts != null && i < updateCounts.length ? getBatchUpdateCount(updateCounts[i]) : null;
+                batchResults.put(batch.get(i), new BatchStatementResult(updateCount, null, executeTime));
+            }
+            return;
+        }
+
+        BatchUpdateException batchUpdateError = findBatchUpdateException(batchError);
+        int[] executedCounts = batchUpdateError == null || batchUpdateError.getUpdateCounts() == null ?
+            new int[0] : batchUpdateError.getUpdateCounts();
+        Throwable statementError = batchError;
+        if (batchUpdateError != null && batchUpdateError.getNextException() != null) {
+            // The actual statement error
+            statementError = new DBCException(batchUpdateError.getNextException(), session.getExecutionContext());
+        }
+        if (executedCounts.length >= batch.size()) {
+            // Driver continued execution after the failed statement(s)
+            boolean errorReported = false;
+            for (int i = 0; i < batch.size(); i++) {
+                if (executedCounts[i] == java.sql.Statement.EXECUTE_FAILED) {
+                    batchResults.put(batch.get(i), new BatchStatementResult(null, statementError, executeTime));
+                    errorReported = true;
+                } else {
+                    batchResults.put(batch.get(i), new BatchStatementResult(getBatchUpdateCount(executedCounts[i]), null, executeTime));
+                }
+            }
+            if (!errorReported) {
+                SQLQuery lastQuery = batch.get(batch.size() - 1);
+                batchResults.put(lastQuery, new BatchStatementResult(null, statementError, executeTime));
+            }
+        } else {
+            // Driver stopped at the failed statement. The rest of statements will be executed separately.
+            for (int i = 0; i < executedCounts.length; i++) {
+                batchResults.put(batch.get(i), new BatchStatementResult(getBatchUpdateCount(executedCounts[i]), null, executeTime));
+            }
+            batchResults.put(batch.get(executedCounts.length), new BatchStatementResult(null, statementError, executeTime));
+        }
+    }
+
+    @NotNull
+    private List<SQLQuery> collectBatch(@NotNull DBCSession session, int firstQuery) {
+        List<SQLQuery> batch = new ArrayList<>();
+        if (!scriptContext.getPragmas().isEmpty() || (dataFilter != null && dataFilter.hasFilters()) ||
+            !session.getDataSource().getInfo().supportsBatchUpdates() ||
+            (!skipConfirmation && getDataSourceContainer().getConnectionConfiguration().getConnectionType().isConfirmExecute()))
+        {
+            return batch;
+        }
+        int maxBatchSize = MAX_BATCH_SIZE;
+        if (commitType == SQLScriptCommitType.NLINES && commitLines > 0) {
+            maxBatchSize = Math.min(maxBatchSize, commitLines);
+        }
+        String batchShape = null;
+        for (int i = firstQuery; i < queries.size() && batch.size() < maxBatchSize; i++) {
+            SQLScriptElement element = queries.get(i);
+            if (!(element instanceof SQLQuery query) || batchResults.containsKey(query)) {
+                break;
+            }
+            String shape = query.getBatchShape();
+            if (shape == null || (batchShape != null && !batchShape.equals(shape))) {
+                break;
+            }
+            batchShape = shape;
+            batch.add(query);
+        }
+        return batch;
+    }
+
+    @Nullable
+    private static BatchUpdateException findBatchUpdateException(@NotNull Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BatchUpdateException batchUpdateException) {
+                return batchUpdateException;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static Long getBatchUpdateCount(int updateCount) {
+        return updateCount >= 0 ? Long.valueOf(updateCount) : null;
+    }
+
+    private boolean reportBatchResult(@NotNull DBCSession session, @NotNull SQLQuery query, @NotNull BatchStatementResult batchResult) {
+        lastError = null;
+        curResult = new SQLQueryResult(query);
+        statistics.setQueryText(query.getText());
+        if (listener != null) {
+            try {
+                listener.onStartQuery(session, query);
+            } catch (Exception e) {
+                log.error(e);
+            }
+        }
+        statistics.addStatementsCount();
+        statistics.addExecuteTime(batchResult.executeTime());
+        if (batchResult.error() != null) {
+            curResult.setError(batchResult.error());
+            lastError = batchResult.error();
+        } else {
+            SQLQueryResult.ExecuteResult executeResult = curResult.addExecuteResult(false);
+            if (batchResult.updateCount() != null) {
+                executeResult.setUpdateCount(batchResult.updateCount());
+                statistics.addRowsUpdated(batchResult.updateCount());
+            }
+        }
+        curResult.setQueryTime(batchResult.executeTime());
+        if (listener != null) {
+            notifyQueryExecutionEnd(session, curResult);
+        }
+
+        if (curResult.getError() != null && errorHandling != SQLScriptErrorHandling.IGNORE) {
+            return false;
+        }
+        lastGoodQuery = query;
+        return true;
+    }
+
     private boolean shouldRecoverQuery(SQLQuery query) {
         Statement statement = query.getStatement();
         if (statement instanceof Insert ||
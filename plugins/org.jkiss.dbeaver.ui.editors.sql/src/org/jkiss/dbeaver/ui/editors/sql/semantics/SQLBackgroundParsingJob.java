@@ -30,6 +30,8 @@ import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
 import org.jkiss.dbeaver.model.lsm.sql.impl.syntax.SQLStandardLexer;
 import org.jkiss.dbeaver.model.lsm.sql.impl.syntax.SQLStandardParser;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.BaseProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.DBRBlockingObject;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.RunnableWithResult;
 import org.jkiss.dbeaver.model.sql.SQLDialect;
@@ -55,12 +57,13 @@ import org.jkiss.dbeaver.ui.editors.sql.SQLEditorUtils;
 import org.jkiss.dbeaver.utils.ListNode;
 import org.jkiss.utils.Pair;
 
-import java.util.ArrayDeque;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
 
 public class SQLBackgroundParsingJob {
@@ -69,6 +72,39 @@ public class SQLBackgroundParsingJob {
     private static final boolean DEBUG = false;
 
     private static final long schedulingTimeoutMilliseconds = 500;
+
+    private static final int MAX_RECOGNITION_THREADS = 4;
+
+    /**
+     * Script elements are independent, so they are recognized in parallel. The pool is shared by all editors.
+     */
+    private static final ForkJoinPool recognitionPool = new ForkJoinPool(
+        Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() - 1, MAX_RECOGNITION_THREADS)),
+        pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("SQL semantic analysis #" + thread.getPoolIndex());
+            return thread;
+        },
+        null,
+        false
+    );
+
+    private record RecognitionResult(
+        @NotNull SQLScriptElement element,
+        @NotNull SQLQueryModel queryModel,
+        @NotNull List<SQLQueryRecognitionProblemInfo> problems
+    ) {
+    }
+
+    private record RecognitionTask(
+        @NotNull RecognitionTaskMonitor monitor,
+        @NotNull CompletableFuture<RecognitionResult> result
+    ) {
+        void cancel() {
+            monitor.cancel();
+            result.cancel(false);
+        }
+    }
     
     private static class QueuedRegionInfo {
         public int length;
@@ -576,52 +612,49 @@ public class SQLBackgroundParsingJob {
                 ? executionContext.getDataSource().getSQLDialect()
                 : dsContainer != null ? dsContainer.getScriptDialect().createInstance() : BasicSQLDialect.INSTANCE;
 
-            SQLQueryRecognitionContext recognitionContext = new SQLQueryRecognitionContext(monitor, executionContext, useRealMetadata, syntaxManager, dialect);
+            // Visible elements are recognized and registered first
+            List<SQLScriptElement> orderedElements = new ArrayList<>(elements);
+            orderedElements.sort(Comparator.comparingInt(element -> getDistanceToFragment(element, visibleFragment)));
+            List<RecognitionTask> tasks = new ArrayList<>(orderedElements.size());
+            // Elements are parsed in parallel, but only one of them reads metadata at a time
+            Lock metadataLock = useRealMetadata ? new ReentrantLock() : null;
+            for (SQLScriptElement element : orderedElements) {
+                RecognitionTaskMonitor taskMonitor = new RecognitionTaskMonitor(monitor);
+                CompletableFuture<RecognitionResult> result = CompletableFuture.supplyAsync(
+                    () -> recognizeElement(taskMonitor, executionContext, useRealMetadata, metadataLock, syntaxManager, dialect, element),
+                    recognitionPool
+                );
+                tasks.add(new RecognitionTask(taskMonitor, result));
+            }
 
-            int i = 1;
-            for (SQLScriptElement element : elements) {
-                if (monitor.isCanceled()) {
-                    break;
-                }
-                try {
-                    recognitionContext.reset();
-                    SQLQueryModel queryModel = SQLQueryModelRecognizer.recognizeQuery(recognitionContext, element.getOriginalText());
+            // Results are merged into the document context by this job only
+            try {
+                boolean visibleFragmentRefreshed = false;
+                for (int i = 0; i < tasks.size(); i++) {
+                    if (monitor.isCanceled()) {
+                        break;
+                    }
+                    RecognitionResult result = tasks.get(i).result().join();
+                    if (result != null) {
+                        this.registerRecognitionResult(result);
+                    }
+                    monitor.worked(1);
+                    monitor.subTask("Background query analysis: subtask #" + (i + 1) + " of " + elements.size());
 
-                    if (queryModel != null) {
-                        if (DEBUG) {
-                            log.debug("registering script item @" + element.getOffset() + "+" + element.getLength());
-                        }
-                        SQLDocumentScriptItemSyntaxContext itemContext = this.context.registerScriptItemContext(
-                            element.getOriginalText(),
-                            queryModel,
-                            element.getOffset(),
-                            element.getLength(),
-                            element instanceof SQLQuery queryElement && Boolean.TRUE.equals(queryElement.isEndsWithDelimiter())
-                        );
-                        itemContext.clear();
-                        List<SQLQueryRecognitionProblemInfo> problems = recognitionContext.getProblems();
-                        if (problems.size() >= SQLQueryRecognitionProblemInfo.PER_QUERY_LIMIT && queryModel.getQueryModel() != null) {
-                            problems.add(new SQLQueryRecognitionProblemInfo(
-                                SQLQueryRecognitionProblemInfo.Severity.WARNING,
-                                queryModel.getSyntaxNode(),
-                                null,
-                                "Too many errors found in one query of " + this.editor.getTitle() + "!"+
-                                    " Displaying first " + SQLQueryRecognitionProblemInfo.PER_QUERY_LIMIT + " of them.",
-                                null
-                            ));
-                        }
-                        itemContext.setProblems(problems);
-                        for (SQLQuerySymbolEntry entry : queryModel.getAllSymbols()) {
-                            itemContext.registerToken(entry.getInterval().a, entry);
-                        }
-                        itemContext.refreshCompleted();
+                    if (!visibleFragmentRefreshed && i + 1 < tasks.size() &&
+                        getDistanceToFragment(orderedElements.get(i + 1), visibleFragment) > 0
+                    ) {
+                        // Show visible results without waiting for the rest of the script
+                        visibleFragmentRefreshed = true;
+                        UIUtils.asyncExec(() -> viewer.invalidateTextPresentation(visibleFragment.a, visibleFragment.length()));
+                    }
+                }
+            } finally {
+                for (RecognitionTask task : tasks) {
+                    if (!task.result().isDone()) {
+                        task.cancel();
                     }
-                } catch (Throwable ex) {
-                    log.debug("Error while analyzing query text: " + element.getOriginalText(), ex);
                 }
-                monitor.worked(1);
-                monitor.subTask("Background query analysis: subtask #" + i + " of " + elements.size());
-                i++;
             }
             this.context.resetLastAccessCache();
         } catch (Throwable ex) {
@@ -648,6 +681,112 @@ public class SQLBackgroundParsingJob {
         });
     }
 
+    @Nullable
+    private RecognitionResult recognizeElement(
+        @NotNull DBRProgressMonitor monitor,
+        @Nullable DBCExecutionContext executionContext,
+        boolean useRealMetadata,
+        @Nullable Lock metadataLock,
+        @NotNull SQLSyntaxManager syntaxManager,
+        @NotNull SQLDialect dialect,
+        @NotNull SQLScriptElement element
+    ) {
+        if (monitor.isCanceled()) {
+            return null;
+        }
+        try {
+            SQLQueryRecognitionContext recognitionContext = new SQLQueryRecognitionContext(
+                monitor, executionContext, useRealMetadata, syntaxManager, dialect, metadataLock);
+            SQLQueryModel queryModel = SQLQueryModelRecognizer.recognizeQuery(recognitionContext, element.getOriginalText());
+            return queryModel == null ? null : new RecognitionResult(element, queryModel, recognitionContext.getProblems());
+        } catch (Throwable ex) {
+            log.debug("Error while analyzing query text: " + element.getOriginalText(), ex);
+            return null;
+        }
+    }
+
+    private void registerRecognitionResult(@NotNull RecognitionResult result) {
+        SQLScriptElement element = result.element();
+        SQLQueryModel queryModel = result.queryModel();
+        if (DEBUG) {
+            log.debug("registering script item @" + element.getOffset() + "+" + element.getLength());
+        }
+        try {
+            SQLDocumentScriptItemSyntaxContext itemContext = this.context.registerScriptItemContext(
+                element.getOriginalText(),
+                queryModel,
+                element.getOffset(),
+                element.getLength(),
+                element instanceof SQLQuery queryElement && Boolean.TRUE.equals(queryElement.isEndsWithDelimiter())
+            );
+            itemContext.clear();
+            List<SQLQueryRecognitionProblemInfo> problems = result.problems();
+            if (problems.size() >= SQLQueryRecognitionProblemInfo.PER_QUERY_LIMIT && queryModel.getQueryModel() != null) {
+                problems.add(new SQLQueryRecognitionProblemInfo(
+                    SQLQueryRecognitionProblemInfo.Severity.WARNING,
+                    queryModel.getSyntaxNode(),
+                    null,
+                    "Too many errors found in one query of " + this.editor.getTitle() + "!"+
+                        " Displaying first " + SQLQueryRecognitionProblemInfo.PER_QUERY_LIMIT + " of them.",
+                    null
+                ));
+            }
+            itemContext.setProblems(problems);
+            for (SQLQuerySymbolEntry entry : queryModel.getAllSymbols()) {
+                itemContext.registerToken(entry.getInterval().a, entry);
+            }
+            itemContext.refreshCompleted();
+        } catch (Throwable ex) {
+            log.debug("Error while registering query analysis results: " + element.getOriginalText(), ex);
+        }
+    }
+
+    private static int getDistanceToFragment(@NotNull SQLScriptElement element, @NotNull Interval fragment) {
+        return SQLScriptParser.getDistanceToFragment(element, fragment.a, fragment.b);
+    }
+
+    /**
+     * Progress monitor of a single recognition task.
+     * Tasks run concurrently, so they only follow the cancellation of the job monitor and never report progress to it.
+     */
+    private static class RecognitionTaskMonitor extends BaseProgressMonitor {
+
+        @NotNull
+        private final DBRProgressMonitor parent;
+        private final List<DBRBlockingObject> blocks = new ArrayList<>();
+        private volatile boolean canceled;
+
+        RecognitionTaskMonitor(@NotNull DBRProgressMonitor parent) {
+            this.parent = parent;
+        }
+
+        void cancel() {
+            canceled = true;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled || parent.isCanceled();
+        }
+
+        @Override
+        public synchronized void startBlock(DBRBlockingObject object, String taskName) {
+            blocks.add(object);
+        }
+
+        @Override
+        public synchronized void endBlock() {
+            if (!blocks.isEmpty()) {
+                blocks.remove(blocks.size() - 1);
+            }
+        }
+
+        @Override
+        public synchronized List<DBRBlockingObject> getActiveBlocks() {
+            return new ArrayList<>(blocks);
+        }
+    }
+
     private class DocumentLifecycleListener implements IDocumentListener, ITextInputListener, IViewportListener {
 
         @Override
@@ -34,17 +34,18 @@ import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectReference;
 import org.jkiss.dbeaver.model.struct.DBSStructureAssistant;
+import org.jkiss.dbeaver.model.struct.cache.DBSObjectNameIndex;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.ui.search.AbstractSearchResult;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
 
-import java.util.Collection;
-import java.util.Collections;
+import java.util.*;
 
 public class SearchMetadataQuery implements ISearchQuery {
     private static final Log log = Log.getLog(SearchMetadataQuery.class);
 
+    private final DBPDataSource dataSource;
     private final DBSStructureAssistant structureAssistant;
     private final DBCExecutionContext executionContext;
     @NotNull
@@ -53,6 +54,7 @@ public class SearchMetadataQuery implements ISearchQuery {
 
     SearchMetadataQuery(@NotNull DBPDataSource dataSource, @NotNull DBSStructureAssistant<?> structureAssistant,
                         @NotNull DBSStructureAssistant.ObjectsSearchParams params) {
+        this.dataSource = dataSource;
         this.structureAssistant = structureAssistant;
         this.executionContext = DBUtils.getDefaultContext(dataSource, true);
         this.params = params;
@@ -92,6 +94,20 @@ public class SearchMetadataQuery implements ISearchQuery {
             int totalObjects = 0;
             DBNModel navigatorModel = DBWorkbench.getPlatform().getNavigatorModel();
             DBRProgressMonitor localMonitor = RuntimeUtils.makeMonitor(monitor);
+            Set<DBNNode> foundNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+
+            // Show already cached objects first
+            DBSObjectNameIndex nameIndex = DBSObjectNameIndex.getIndex(dataSource);
+            List<DBSObject> indexedObjects = nameIndex == null ? null : nameIndex.findObjects(params);
+            if (indexedObjects != null) {
+                for (DBSObject object : indexedObjects) {
+                    DBNNode node = navigatorModel.getNodeByObject(localMonitor, object, false);
+                    if (node != null && foundNodes.add(node)) {
+                        searchResult.addObjects(Collections.singletonList(node));
+                        totalObjects++;
+                    }
+                }
+            }
 
             Collection<DBSObjectReference> objects = structureAssistant.findObjectsByMask(localMonitor, executionContext, params);
             for (DBSObjectReference reference : objects) {
@@ -102,7 +118,7 @@ public class SearchMetadataQuery implements ISearchQuery {
                     DBSObject object = reference.resolveObject(localMonitor);
                     if (object != null) {
                         DBNNode node = navigatorModel.getNodeByObject(localMonitor, object, false);
-                        if (node != null) {
+                        if (node != null && foundNodes.add(node)) {
                             searchResult.addObjects(Collections.singletonList(node));
                             totalObjects++;
                         }
@@ -352,8 +352,8 @@ public class GenericBaseTableDDLTest {
         column.setName(columnName);
         column.setTypeName(columnType);
         column.setOrdinalPosition(ordinalPosition);
-        List<GenericTableColumn> cachedAttributes = (List<GenericTableColumn>) table.getCachedAttributes();
-        cachedAttributes.add(column);
+        // Cached lists are read-only, objects are added through the cache
+        table.getContainer().getTableCache().getChildrenCache(table).cacheObject(column);
         return column;
     }
 }
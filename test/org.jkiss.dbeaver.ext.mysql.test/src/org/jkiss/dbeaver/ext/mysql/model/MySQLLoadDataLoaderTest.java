@@ -0,0 +1,201 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mysql.model;
+
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.data.DBDValueHandlerProvider;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.data.DefaultValueHandler;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+public class MySQLLoadDataLoaderTest {
+
+    /**
+     * Statement of MySQL driver which accepts the data stream
+     */
+    public abstract static class LocalInfileStatement implements Statement {
+        public abstract void setLocalInfileInputStream(InputStream stream);
+    }
+
+    private MySQLDataSource dataSource;
+    private JDBCSession session;
+    private LocalInfileStatement statement;
+
+    @Before
+    public void init() throws Exception {
+        SQLDialect dialect = Mockito.mock(SQLDialect.class);
+        Mockito.when(dialect.getQuotedIdentifier(Mockito.anyString(), Mockito.anyBoolean(), Mockito.anyBoolean()))
+            .thenAnswer(invocation -> "`" + invocation.getArgument(0) + "`");
+        dataSource = Mockito.mock(MySQLDataSource.class);
+        Mockito.when(dataSource.getSQLDialect()).thenReturn(dialect);
+
+        DBPDataSource handlerDataSource = Mockito.mock(
+            DBPDataSource.class,
+            Mockito.withSettings().extraInterfaces(DBDValueHandlerProvider.class));
+        Mockito.when(((DBDValueHandlerProvider) handlerDataSource).getValueHandler(Mockito.any(), Mockito.any(), Mockito.any()))
+            .thenReturn(DefaultValueHandler.INSTANCE);
+
+        statement = Mockito.mock(LocalInfileStatement.class);
+        Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.createStatement()).thenReturn(statement);
+
+        session = Mockito.mock(JDBCSession.class);
+        Mockito.when(session.getDataSource()).thenReturn(handlerDataSource);
+        Mockito.when(session.getProgressMonitor()).thenReturn(new VoidProgressMonitor());
+        Mockito.when(session.getOriginal()).thenReturn(connection);
+    }
+
+    @Test
+    public void testBitValues() {
+        Assert.assertEquals("1", MySQLLoadDataLoader.getBitValue(true));
+        Assert.assertEquals("0", MySQLLoadDataLoader.getBitValue(false));
+        Assert.assertEquals("5", MySQLLoadDataLoader.getBitValue(5L));
+        Assert.assertEquals("258", MySQLLoadDataLoader.getBitValue(new byte[]{0x01, 0x02}));
+        Assert.assertEquals("0", MySQLLoadDataLoader.getBitValue(new byte[0]));
+        Assert.assertEquals(
+            new BigInteger("FFFFFFFFFFFFFFFF", 16).toString(),
+            MySQLLoadDataLoader.getBitValue(new byte[]{-1, -1, -1, -1, -1, -1, -1, -1}));
+        BitSet bits = new BitSet();
+        bits.set(1);
+        bits.set(9);
+        Assert.assertEquals("514", MySQLLoadDataLoader.getBitValue(bits));
+    }
+
+    @Test
+    public void testRowFormat() throws Exception {
+        MySQLTableColumn id = createColumn("id", "int");
+        MySQLTableColumn name = createColumn("name", "varchar");
+        MySQLTableColumn data = createColumn("data", "varbinary");
+        MySQLTableColumn flags = createColumn("flags", "bit");
+        MySQLTableBase table = createTable(id, name, data, flags);
+
+        MySQLLoadDataLoader loader = new MySQLLoadDataLoader(dataSource);
+        loader.createBulkLoad(
+            session, table, new DBSAttributeBase[]{id, name, data, flags}, Mockito.mock(DBCExecutionSource.class), 100, Map.of());
+        loader.addRow(session, new Object[]{1, "a\tb\\c\nd", new byte[]{0x0A, (byte) 0xFF}, new byte[]{0x01, 0x00}});
+        loader.addRow(session, new Object[]{2L, null, new byte[0], true});
+        loader.addRow(session, new Object[]{3, "", null, null});
+
+        Assert.assertEquals(
+            "1\ta\\tb\\\\c\\nd\t0AFF\t256\n" +
+            "2\t\\N\t\t1\n" +
+            "3\t\t\\N\t\\N\n",
+            flushRows(loader, 3));
+        Mockito.verify(statement).executeLargeUpdate(
+            "LOAD DATA LOCAL INFILE 'stream' INTO TABLE `test`.`t` CHARACTER SET utf8mb4" +
+                " FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n'" +
+                " (`id`,`name`,@v2,@v3) SET `data`=UNHEX(@v2),`flags`=CAST(@v3 AS UNSIGNED)");
+    }
+
+    @Test
+    public void testMissingColumnsAreSkipped() throws Exception {
+        MySQLTableColumn id = createColumn("id", "int");
+        MySQLTableColumn comment = createColumn("comment", "text");
+        MySQLTableColumn flag = createColumn("flag", "bit");
+        MySQLTableBase table = createTable(id, comment, flag);
+
+        MySQLLoadDataLoader loader = new MySQLLoadDataLoader(dataSource);
+        loader.createBulkLoad(
+            session, table, new DBSAttributeBase[]{flag, id}, Mockito.mock(DBCExecutionSource.class), 100, Map.of());
+        loader.addRow(session, new Object[]{false, 10});
+
+        Assert.assertEquals("10\t0\n", flushRows(loader, 1));
+        Mockito.verify(statement).executeLargeUpdate(Mockito.endsWith(" (`id`,@v0) SET `flag`=CAST(@v0 AS UNSIGNED)"));
+    }
+
+    @Test
+    public void testSkippedRowsFail() throws Exception {
+        MySQLLoadDataLoader loader = createLoader();
+        loader.addRow(session, new Object[]{1});
+        loader.addRow(session, new Object[]{1});
+
+        try {
+            flushRows(loader, 1);
+            Assert.fail("Rows skipped by the server must fail the load");
+        } catch (DBCException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("loaded 1 of 2 rows"));
+        }
+    }
+
+    @Test
+    public void testWarningsFail() throws Exception {
+        MySQLLoadDataLoader loader = createLoader();
+        loader.addRow(session, new Object[]{1});
+
+        SQLWarning warning = new SQLWarning("Data truncated for column 'id' at row 1");
+        warning.setNextWarning(new SQLWarning("Out of range value for column 'id' at row 1"));
+        Mockito.when(statement.getWarnings()).thenReturn(warning);
+        try {
+            flushRows(loader, 1);
+            Assert.fail("Warnings must fail the load");
+        } catch (DBCException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("Data truncated for column 'id' at row 1"));
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("Out of range value for column 'id' at row 1"));
+        }
+    }
+
+    private MySQLLoadDataLoader createLoader() throws Exception {
+        MySQLTableColumn id = createColumn("id", "int");
+        MySQLLoadDataLoader loader = new MySQLLoadDataLoader(dataSource);
+        loader.createBulkLoad(
+            session, createTable(id), new DBSAttributeBase[]{id}, Mockito.mock(DBCExecutionSource.class), 100, Map.of());
+        return loader;
+    }
+
+    private String flushRows(MySQLLoadDataLoader loader, long loadedRows) throws Exception {
+        Mockito.when(statement.executeLargeUpdate(Mockito.anyString())).thenReturn(loadedRows);
+        loader.flushRows(session);
+        ArgumentCaptor<InputStream> stream = ArgumentCaptor.forClass(InputStream.class);
+        Mockito.verify(statement).setLocalInfileInputStream(stream.capture());
+        return new String(stream.getValue().readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    private MySQLTableColumn createColumn(String name, String typeName) {
+        MySQLTableColumn column = Mockito.mock(MySQLTableColumn.class);
+        Mockito.when(column.getName()).thenReturn(name);
+        Mockito.when(column.getTypeName()).thenReturn(typeName);
+        Mockito.when(column.getDataSource()).thenReturn(dataSource);
+        return column;
+    }
+
+    private MySQLTableBase createTable(MySQLTableColumn... columns) throws Exception {
+        MySQLTableBase table = Mockito.mock(MySQLTableBase.class);
+        Mockito.when(table.getAttributes(Mockito.any())).thenReturn(List.of(columns));
+        Mockito.when(table.getFullyQualifiedName(DBPEvaluationContext.DML)).thenReturn("`test`.`t`");
+        return table;
+    }
+}
@@ -20,8 +20,6 @@ import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.edit.DBEObjectMaker;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 
-import java.util.List;
-
 class OracleTestUtils {
 
     static OracleTableColumn addColumn(OracleTableBase table, String columnName, String columnType, int ordinalPosition) throws DBException {
@@ -29,8 +27,8 @@ class OracleTestUtils {
         column.setName(columnName);
         column.setTypeName(columnType);
         column.setOrdinalPosition(ordinalPosition);
-        List<OracleTableColumn> cachedAttributes = (List<OracleTableColumn>) table.getCachedAttributes();
-        cachedAttributes.add(column);
+        // Cached lists are read-only, objects are added through the cache
+        table.getContainer().getTableCache().getChildrenCache(table).cacheObject(column);
         return column;
     }
 
@@ -20,21 +20,19 @@ import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.ext.postgresql.model.PostgreTableBase;
 import org.jkiss.dbeaver.ext.postgresql.model.PostgreTableColumn;
 
-import java.util.List;
 
 /**
  * PostgreSQL supporting test class
  */
 public class PostgreTestUtils {
 
-    @SuppressWarnings("unchecked")
     public static PostgreTableColumn addColumn(PostgreTableBase table, String columnName, String columnType, int ordinalPosition) throws DBException {
         PostgreTableColumn column = new PostgreTableColumn(table);
         column.setName(columnName);
         column.setTypeName(columnType);
         column.setOrdinalPosition(ordinalPosition);
-        List<PostgreTableColumn> cachedAttributes = (List<PostgreTableColumn>) table.getCachedAttributes();
-        cachedAttributes.add(column);
+        // Cached lists are read-only, objects are added through the cache
+        table.getSchema().getTableCache().getChildrenCache(table).cacheObject(column);
         return column;
     }
 }
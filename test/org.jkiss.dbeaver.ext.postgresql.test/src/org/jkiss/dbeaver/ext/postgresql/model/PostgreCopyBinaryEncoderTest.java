@@ -0,0 +1,124 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.impl.data.DefaultValueHandler;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class PostgreCopyBinaryEncoderTest {
+
+    private final DBCSession session = Mockito.mock(DBCSession.class);
+
+    @Test
+    public void testIntegers() throws Exception {
+        Assert.assertArrayEquals(field(2, out -> out.writeShort(-32768)), encode(PostgreOid.INT2, (short) -32768));
+        Assert.assertArrayEquals(field(2, out -> out.writeShort(32767)), encode(PostgreOid.INT2, "32767"));
+        Assert.assertArrayEquals(field(2, out -> out.writeShort(3)), encode(PostgreOid.INT2, new BigDecimal("2.5")));
+        Assert.assertArrayEquals(field(4, out -> out.writeInt(Integer.MAX_VALUE)), encode(PostgreOid.INT4, (long) Integer.MAX_VALUE));
+        Assert.assertArrayEquals(field(4, out -> out.writeInt(1)), encode(PostgreOid.INT4, true));
+        Assert.assertArrayEquals(field(4, out -> out.writeInt(-1)), encode(PostgreOid.OID, 0xFFFFFFFFL));
+        Assert.assertArrayEquals(field(8, out -> out.writeLong(Long.MIN_VALUE)), encode(PostgreOid.INT8, BigInteger.valueOf(Long.MIN_VALUE)));
+    }
+
+    @Test
+    public void testIntegerOverflow() {
+        assertEncodeError(PostgreOid.INT2, 32768);
+        assertEncodeError(PostgreOid.INT2, "-32769");
+        assertEncodeError(PostgreOid.INT4, 1L + Integer.MAX_VALUE);
+        assertEncodeError(PostgreOid.INT4, 1e10);
+        assertEncodeError(PostgreOid.INT4, Double.NaN);
+        assertEncodeError(PostgreOid.OID, -1);
+        assertEncodeError(PostgreOid.INT8, BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE));
+        assertEncodeError(PostgreOid.INT8, Double.POSITIVE_INFINITY);
+        assertEncodeError(PostgreOid.INT4, "abc");
+    }
+
+    @Test
+    public void testNumeric() throws Exception {
+        Assert.assertArrayEquals(numeric(1, 0x0000, 3, 1, 2345, 6780), encode(PostgreOid.NUMERIC, new BigDecimal("12345.678")));
+        Assert.assertArrayEquals(numeric(-1, 0x4000, 1, 5000), encode(PostgreOid.NUMERIC, -0.5));
+        Assert.assertArrayEquals(numeric(0, 0x0000, 0), encode(PostgreOid.NUMERIC, BigDecimal.ZERO));
+        Assert.assertArrayEquals(numeric(2, 0x0000, 0, 1), encode(PostgreOid.NUMERIC, new BigDecimal("1E+8")));
+        Assert.assertArrayEquals(numeric(0, 0xC000, 0), encode(PostgreOid.NUMERIC, Double.NaN));
+        Assert.assertArrayEquals(numeric(0, 0xC000, 0), encode(PostgreOid.NUMERIC, Float.NaN));
+        Assert.assertArrayEquals(numeric(0, 0xC000, 0), encode(PostgreOid.NUMERIC, "NaN"));
+        assertEncodeError(PostgreOid.NUMERIC, Double.POSITIVE_INFINITY);
+        assertEncodeError(PostgreOid.NUMERIC, Float.NEGATIVE_INFINITY);
+        assertEncodeError(PostgreOid.NUMERIC, "1.2.3");
+    }
+
+    @Test
+    public void testDateTime() throws Exception {
+        Assert.assertArrayEquals(field(4, out -> out.writeInt(0)), encode(PostgreOid.DATE, LocalDate.of(2000, 1, 1)));
+        Assert.assertArrayEquals(field(4, out -> out.writeInt(-1)), encode(PostgreOid.DATE, LocalDate.of(1999, 12, 31)));
+        Assert.assertArrayEquals(
+            field(8, out -> out.writeLong(86_400_000_001L)),
+            encode(PostgreOid.TIMESTAMP, LocalDateTime.of(2000, 1, 2, 0, 0, 0, 1000)));
+    }
+
+    private byte[] encode(int typeId, Object value) throws IOException, DBCException {
+        PostgreTableColumn column = Mockito.mock(PostgreTableColumn.class);
+        Mockito.when(column.getTypeId()).thenReturn((long) typeId);
+        PostgreCopyBinaryEncoder.FieldWriter writer = PostgreCopyBinaryEncoder.getFieldWriter(
+            new VoidProgressMonitor(), column, DefaultValueHandler.INSTANCE);
+        Assert.assertNotNull(writer);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        writer.writeField(session, new DataOutputStream(buffer), value);
+        return buffer.toByteArray();
+    }
+
+    private void assertEncodeError(int typeId, Object value) {
+        Assert.assertThrows(DBCException.class, () -> encode(typeId, value));
+    }
+
+    private static byte[] numeric(int weight, int sign, int dscale, int... digits) throws IOException {
+        return field(8 + digits.length * 2, out -> {
+            out.writeShort(digits.length);
+            out.writeShort(weight);
+            out.writeShort(sign);
+            out.writeShort(dscale);
+            for (int digit : digits) {
+                out.writeShort(digit);
+            }
+        });
+    }
+
+    private interface ValueWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static byte[] field(int length, ValueWriter writer) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeInt(length);
+        writer.write(out);
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.jkiss.dbeaver.ext.postgresql.PostgreTestUtils;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.util.Map;
+
+public class PostgreCopyLoaderTest {
+
+    private final DBRProgressMonitor monitor = new VoidProgressMonitor();
+
+    private PostgreDataSource dataSource;
+    private PostgreTableRegular table;
+    private PostgreTableColumn idColumn;
+    private PostgreTableColumn descrColumn;
+
+    @Before
+    public void setUp() throws Exception {
+        DBPDataSourceContainer container = Mockito.mock(DBPDataSourceContainer.class);
+        Mockito.when(container.getDriver()).thenReturn(DBWorkbench.getPlatform().getDataSourceProviderRegistry().findDriver("postgresql"));
+        Mockito.when(container.getPreferenceStore()).thenReturn(DBWorkbench.getPlatform().getPreferenceStore());
+        dataSource = new PostgreDataSource(container, "PG Test", "postgres");
+        PostgreRole user = new PostgreRole(null, "tester", "test", true);
+        PostgreDatabase database = dataSource.createDatabaseImpl(monitor, "testdb", user, null, null, null);
+        PostgreSchema schema = new PostgreSchema(database, "test_schema", user);
+
+        table = new PostgreTableRegular(schema);
+        table.setName("test_table");
+        table.setPersisted(true);
+        // System column
+        PostgreTestUtils.addColumn(table, "ctid", "int4", -1);
+        idColumn = PostgreTestUtils.addColumn(table, "id", "int4", 1);
+        descrColumn = PostgreTestUtils.addColumn(table, "descr", "varchar", 2);
+    }
+
+    @Test
+    public void testStreamingLoadOfCachedTable() throws Exception {
+        // Attributes come from the read-only cached list
+        Assert.assertThrows(UnsupportedOperationException.class, () -> table.getCachedAttributes().clear());
+
+        JDBCSession session = Mockito.mock(JDBCSession.class);
+        Mockito.when(session.getProgressMonitor()).thenReturn(monitor);
+        Mockito.when(session.getDataSource()).thenReturn(dataSource);
+        Mockito.when(session.getOriginal()).thenReturn(Mockito.mock(TestConnection.class));
+
+        PostgreCopyLoader loader = new PostgreCopyLoader(dataSource);
+        DBSDataBulkLoader.BulkLoadManager manager = loader.createBulkLoad(
+            session,
+            table,
+            new DBSAttributeBase[]{descrColumn, idColumn},
+            null,
+            100,
+            Map.of(DBSDataBulkLoader.OPTION_STREAMING, true));
+        manager.addRow(session, new Object[]{"a\"b", 1});
+        manager.addRow(session, new Object[]{null, 2});
+        manager.finishBulkLoad(session);
+        manager.close();
+
+        PGCopyOutputStream stream = PGCopyOutputStream.getLastStream();
+        Assert.assertNotNull(stream);
+        Assert.assertTrue(stream.getSql(), stream.getSql().startsWith("COPY "));
+        Assert.assertTrue(stream.getSql(), stream.getSql().contains("(id,descr) FROM STDIN"));
+        Assert.assertEquals("1,\"a\\\"b\"\n2,\n", stream.toString(StandardCharsets.UTF_8));
+        Assert.assertTrue(stream.isClosed());
+        Assert.assertFalse(stream.isCanceled());
+        // Cache was not modified
+        Assert.assertEquals(3, table.getCachedAttributes().size());
+    }
+
+    abstract static class TestConnection implements Connection, PGConnection {
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.postgresql.copy;
+
+import org.postgresql.PGConnection;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Stand-in for the PostgreSQL JDBC driver COPY stream. Collects data sent to the server.
+ */
+public class PGCopyOutputStream extends ByteArrayOutputStream {
+
+    private static PGCopyOutputStream lastStream;
+
+    private final String sql;
+    private boolean closed;
+    private boolean canceled;
+
+    public PGCopyOutputStream(PGConnection connection, String sql, int bufferSize) {
+        this.sql = sql;
+        lastStream = this;
+    }
+
+    public static PGCopyOutputStream getLastStream() {
+        return lastStream;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public boolean isCanceled() {
+        return canceled;
+    }
+
+    public void cancelCopy() {
+        canceled = true;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.lsm.test;
+
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.tree.Trees;
+import org.jkiss.dbeaver.model.lsm.LSMAnalyzerParameters;
+import org.jkiss.dbeaver.model.lsm.sql.dialect.SQLStandardAnalyzer;
+import org.jkiss.dbeaver.model.lsm.sql.impl.syntax.SQLStandardLexer;
+import org.jkiss.dbeaver.model.lsm.sql.impl.syntax.SQLStandardParser;
+import org.jkiss.dbeaver.model.stm.STMSkippingErrorListener;
+import org.jkiss.dbeaver.model.stm.STMSource;
+import org.jkiss.dbeaver.model.stm.STMTreeRuleNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares two-stage (SLL, then LL) parsing of the analyzer with plain LL parsing.
+ * Also reports parse throughput of both modes.
+ */
+public class LSMAnalyzerBenchmarkTest {
+
+    private static final int SCRIPT_REPEAT_COUNT = 20;
+
+    private static final LSMAnalyzerParameters PARAMETERS = new LSMAnalyzerParameters(
+        Map.of("\"", "\""), true, true, '?', List.of(), false);
+
+    @Test
+    public void testParseThroughput() {
+        List<String> statements = readScript();
+        SQLStandardAnalyzer analyzer = new SQLStandardAnalyzer(PARAMETERS);
+        List<String> ruleNames = Arrays.asList(SQLStandardParser.ruleNames);
+
+        // Both modes build the same trees. It also warms up parser caches
+        for (String statement : statements) {
+            STMTreeRuleNode tree = analyzer.parseSqlQueryTree(STMSource.fromString(statement), new STMSkippingErrorListener());
+            Assert.assertNotNull(tree);
+            Assert.assertEquals(Trees.toStringTree(parseLL(statement), ruleNames), Trees.toStringTree(tree, ruleNames));
+        }
+
+        long llTime = System.nanoTime();
+        for (int i = 0; i < SCRIPT_REPEAT_COUNT; i++) {
+            for (String statement : statements) {
+                parseLL(statement);
+            }
+        }
+        llTime = System.nanoTime() - llTime;
+
+        long twoStageTime = System.nanoTime();
+        for (int i = 0; i < SCRIPT_REPEAT_COUNT; i++) {
+            for (String statement : statements) {
+                analyzer.parseSqlQueryTree(STMSource.fromString(statement), new STMSkippingErrorListener());
+            }
+        }
+        twoStageTime = System.nanoTime() - twoStageTime;
+
+        int parseCount = statements.size() * SCRIPT_REPEAT_COUNT;
+        System.out.println("SQL parser: LL " + (parseCount * 1_000_000_000L / Math.max(llTime, 1)) + " queries/s, " +
+            "SLL+LL " + (parseCount * 1_000_000_000L / Math.max(twoStageTime, 1)) + " queries/s");
+    }
+
+    private static List<String> readScript() {
+        List<String> statements = new ArrayList<>(
+            ParseSelectStmtTest.readStatements(ParseSelectStmtTest.class.getResourceAsStream("SelectStatements.sql.txt")));
+        // Broken queries go to the second stage
+        statements.add("SELECT a, FROM t1 WHERE");
+        statements.add("SELECT * FROM t1 JOIN t2 ON");
+        return statements;
+    }
+
+    private static STMTreeRuleNode parseLL(String statement) {
+        SQLStandardLexer lexer = SQLStandardAnalyzer.createLexer(STMSource.fromString(statement), PARAMETERS);
+        SQLStandardParser parser = new SQLStandardParser(new CommonTokenStream(lexer), PARAMETERS);
+        lexer.removeErrorListeners();
+        parser.removeErrorListeners();
+        parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+        STMTreeRuleNode tree = parser.sqlQuery();
+        tree.fixup(parser);
+        return tree;
+    }
+}
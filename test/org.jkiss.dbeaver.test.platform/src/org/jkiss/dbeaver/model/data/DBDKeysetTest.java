@@ -0,0 +1,176 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.*;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.sql.Types;
+import java.util.List;
+
+public class DBDKeysetTest {
+
+    private final DBRProgressMonitor monitor = new VoidProgressMonitor();
+    private DBPDataSource dataSource;
+    private DBSEntity entity;
+    private DBSEntityAttribute idAttribute;
+    private DBSEntityAttribute codeAttribute;
+    private DBSEntityAttribute nameAttribute;
+
+    @Before
+    public void setUp() throws Exception {
+        DBDValueHandler valueHandler = Mockito.mock(DBDValueHandler.class);
+        Mockito.when(valueHandler.getValueDisplayString(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+            .thenAnswer(invocation -> String.valueOf((Object) invocation.getArgument(1)));
+        dataSource = Mockito.mock(DBPDataSource.class, Mockito.withSettings().extraInterfaces(DBDValueHandlerProvider.class));
+        Mockito.when(dataSource.getSQLDialect()).thenReturn(BasicSQLDialect.INSTANCE);
+        Mockito.when(((DBDValueHandlerProvider) dataSource).getValueHandler(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+            .thenReturn(valueHandler);
+
+        entity = Mockito.mock(DBSEntity.class);
+        idAttribute = makeAttribute("id", DBPDataKind.NUMERIC, Types.INTEGER, true);
+        codeAttribute = makeAttribute("code", DBPDataKind.STRING, Types.VARCHAR, true);
+        nameAttribute = makeAttribute("name", DBPDataKind.STRING, Types.VARCHAR, false);
+        Mockito.doReturn(List.of(idAttribute, codeAttribute, nameAttribute)).when(entity).getAttributes(monitor);
+
+        DBSEntityAttributeRef idRef = Mockito.mock(DBSEntityAttributeRef.class);
+        Mockito.doReturn(idAttribute).when(idRef).getAttribute();
+        DBSEntityConstraint primaryKey = Mockito.mock(DBSEntityConstraint.class, Mockito.withSettings().extraInterfaces(DBSEntityReferrer.class));
+        Mockito.when(primaryKey.getConstraintType()).thenReturn(DBSEntityConstraintType.PRIMARY_KEY);
+        Mockito.doReturn(List.of(idRef)).when((DBSEntityReferrer) primaryKey).getAttributeReferences(monitor);
+        Mockito.doReturn(List.of(primaryKey)).when(entity).getConstraints(monitor);
+    }
+
+    @Test
+    public void testUniqueKeyOrder() throws Exception {
+        DBDKeyset keyset = DBDKeyset.resolve(monitor, entity, null);
+        Assert.assertNotNull(keyset);
+        Assert.assertEquals(1, keyset.getAttributes().size());
+
+        DBDDataFilter filter = keyset.makeDataFilter(dataSource, null);
+        Assert.assertEquals(q("id"), filter.getOrder());
+        Assert.assertNull(filter.getWhere());
+
+        filter = keyset.withPosition(new Object[] {100}).makeDataFilter(dataSource, null);
+        Assert.assertEquals("(" + q("id") + ">100)", filter.getWhere());
+    }
+
+    @Test
+    public void testFilterOrder() throws Exception {
+        DBDDataFilter dataFilter = new DBDDataFilter();
+        DBDAttributeConstraint codeOrder = new DBDAttributeConstraint(codeAttribute, 1);
+        codeOrder.setOrderPosition(1);
+        codeOrder.setOrderDescending(true);
+        dataFilter.addConstraints(List.of(codeOrder));
+        dataFilter.setWhere("x > 0");
+
+        DBDKeyset keyset = DBDKeyset.resolve(monitor, entity, dataFilter);
+        Assert.assertNotNull(keyset);
+        Assert.assertEquals(2, keyset.getAttributes().size());
+        Assert.assertTrue(keyset.getAttributes().get(0).descending());
+
+        DBDDataFilter filter = keyset.withPosition(new Object[] {"b", 5}).makeDataFilter(dataSource, dataFilter);
+        // Key is appended to the filter ordering
+        Assert.assertEquals(q("id"), filter.getOrder());
+        Assert.assertEquals(1, filter.getOrderConstraints().size());
+        Assert.assertEquals(
+            "(x > 0) AND ((" + q("code") + "<'b') OR (" + q("code") + "='b' AND " + q("id") + ">5))",
+            filter.getWhere());
+        // Source filter is not changed
+        Assert.assertNull(dataFilter.getOrder());
+        Assert.assertEquals("x > 0", dataFilter.getWhere());
+    }
+
+    @Test
+    public void testNoKeyset() throws Exception {
+        // Nullable ordering attribute
+        DBDDataFilter dataFilter = new DBDDataFilter();
+        DBDAttributeConstraint nameOrder = new DBDAttributeConstraint(nameAttribute, 1);
+        nameOrder.setOrderPosition(1);
+        dataFilter.addConstraints(List.of(nameOrder));
+        Assert.assertNull(DBDKeyset.resolve(monitor, entity, dataFilter));
+
+        // Custom order expression
+        dataFilter = new DBDDataFilter();
+        dataFilter.setOrder("lower(name)");
+        Assert.assertNull(DBDKeyset.resolve(monitor, entity, dataFilter));
+
+        // No unique key
+        Mockito.doReturn(List.of()).when(entity).getConstraints(monitor);
+        Assert.assertNull(DBDKeyset.resolve(monitor, entity, null));
+    }
+
+    @Test
+    public void testNonExactKeys() throws Exception {
+        // Timestamp literals are written with millisecond precision, so a seek by 12:00:00.123
+        // would read the 12:00:00.123456 row again
+        DBSEntityAttribute createdAttribute = makeAttribute("created", DBPDataKind.DATETIME, Types.TIMESTAMP, true);
+        Mockito.when(createdAttribute.getScale()).thenReturn(6);
+        DBDDataFilter dataFilter = new DBDDataFilter();
+        DBDAttributeConstraint createdOrder = new DBDAttributeConstraint(createdAttribute, 1);
+        createdOrder.setOrderPosition(1);
+        dataFilter.addConstraints(List.of(createdOrder));
+        Assert.assertNull(DBDKeyset.resolve(monitor, entity, dataFilter));
+
+        // Timestamp primary key
+        Mockito.when(idAttribute.getDataKind()).thenReturn(DBPDataKind.DATETIME);
+        Mockito.when(idAttribute.getTypeID()).thenReturn(Types.TIMESTAMP);
+        Assert.assertNull(DBDKeyset.resolve(monitor, entity, null));
+
+        // Floating point and fractional numeric keys
+        Mockito.when(idAttribute.getDataKind()).thenReturn(DBPDataKind.NUMERIC);
+        Mockito.when(idAttribute.getTypeID()).thenReturn(Types.DOUBLE);
+        Assert.assertNull(DBDKeyset.resolve(monitor, entity, null));
+        Mockito.when(idAttribute.getTypeID()).thenReturn(Types.NUMERIC);
+        Mockito.when(idAttribute.getScale()).thenReturn(2);
+        Assert.assertNull(DBDKeyset.resolve(monitor, entity, null));
+        Mockito.when(idAttribute.getScale()).thenReturn(0);
+        Assert.assertNotNull(DBDKeyset.resolve(monitor, entity, null));
+    }
+
+    @NotNull
+    private DBSEntityAttribute makeAttribute(
+        @NotNull String name,
+        @NotNull DBPDataKind dataKind,
+        int typeId,
+        boolean required
+    ) throws Exception {
+        DBSEntityAttribute attribute = Mockito.mock(DBSEntityAttribute.class);
+        Mockito.when(attribute.getName()).thenReturn(name);
+        Mockito.when(attribute.getDataKind()).thenReturn(dataKind);
+        Mockito.when(attribute.getTypeID()).thenReturn(typeId);
+        Mockito.when(attribute.isRequired()).thenReturn(required);
+        Mockito.when(attribute.getDataSource()).thenReturn(dataSource);
+        Mockito.doReturn(attribute).when(entity).getAttribute(monitor, name);
+        return attribute;
+    }
+
+    @NotNull
+    private static String q(@NotNull String name) {
+        return BasicSQLDialect.INSTANCE.getQuotedIdentifier(name, true, false);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.columnar;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Date;
+
+public class ColumnBufferTest {
+
+    @Test
+    public void testStringDictionary() {
+        StringColumnBuffer buffer = new StringColumnBuffer(1);
+        for (int i = 0; i < 1000; i++) {
+            buffer.appendObject(i % 3 == 0 ? null : "value" + (i % 10));
+        }
+        Assert.assertTrue(buffer.isEncoded());
+        Assert.assertEquals(10, buffer.getDictionarySize());
+        Assert.assertNull(buffer.getValue(0));
+        Assert.assertEquals("value1", buffer.getValue(1));
+        Assert.assertEquals("value5", buffer.getValue(995));
+        // Same strings are shared
+        Assert.assertSame(buffer.getValue(1), buffer.getValue(11));
+
+        buffer.setValue(0, "new");
+        buffer.setValue(1, new BigDecimal(1));
+        Assert.assertEquals("new", buffer.getValue(0));
+        Assert.assertEquals(new BigDecimal(1), buffer.getValue(1));
+        Assert.assertEquals(11, buffer.getDictionarySize());
+    }
+
+    @Test
+    public void testStringDictionaryOverflow() {
+        StringColumnBuffer buffer = new StringColumnBuffer(1);
+        buffer.appendNull();
+        int count = StringColumnBuffer.MAX_DICTIONARY_SIZE + 10;
+        for (int i = 0; i < count; i++) {
+            buffer.append("s" + i);
+        }
+        Assert.assertFalse(buffer.isEncoded());
+        Assert.assertEquals(-1, buffer.getDictionarySize());
+        Assert.assertEquals(count + 1, buffer.size());
+        Assert.assertNull(buffer.getValue(0));
+        Assert.assertEquals("s0", buffer.getValue(1));
+        Assert.assertEquals("s" + (count - 1), buffer.getValue(count));
+    }
+
+    @Test
+    public void testTemporal() {
+        Timestamp timestamp = Timestamp.valueOf("2024-03-01 10:20:30.123456789");
+        TemporalColumnBuffer timestamps = new TemporalColumnBuffer(1, TemporalColumnBuffer.getValueType(timestamp));
+        timestamps.appendObject(timestamp);
+        timestamps.appendNull();
+        // Different class is kept as is
+        Date date = new Date(1000);
+        timestamps.appendObject(date);
+        Assert.assertEquals(TemporalColumnBuffer.ValueType.TIMESTAMP, timestamps.getValueType());
+        Assert.assertEquals(timestamp, timestamps.getValue(0));
+        Assert.assertEquals(123456789, ((Timestamp) timestamps.getValue(0)).getNanos());
+        Assert.assertNull(timestamps.getValue(1));
+        Assert.assertSame(date, timestamps.getValue(2));
+
+        Time time = Time.valueOf("12:34:56");
+        TemporalColumnBuffer times = new TemporalColumnBuffer(1, TemporalColumnBuffer.ValueType.TIME);
+        times.appendObject(time);
+        Assert.assertEquals(time, times.getValue(0));
+        Assert.assertEquals(Time.class, times.getValue(0).getClass());
+
+        Assert.assertEquals(TemporalColumnBuffer.ValueType.DATE, TemporalColumnBuffer.getValueType(java.sql.Date.valueOf("2024-01-01")));
+        Assert.assertEquals(TemporalColumnBuffer.ValueType.UTIL_DATE, TemporalColumnBuffer.getValueType(date));
+        Assert.assertNull(TemporalColumnBuffer.getValueType("2024-01-01"));
+    }
+}
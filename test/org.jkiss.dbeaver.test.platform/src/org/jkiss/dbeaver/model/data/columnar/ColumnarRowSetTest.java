@@ -0,0 +1,148 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.columnar;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.data.DBDValueHandlerColumnar;
+import org.jkiss.dbeaver.model.exec.DBCAttributeMetaData;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+public class ColumnarRowSetTest {
+
+    @Test
+    public void testLongBuffer() {
+        LongColumnBuffer buffer = new LongColumnBuffer(2, LongColumnBuffer.BoxType.INTEGER);
+        for (int i = 0; i < 100; i++) {
+            if (i % 10 == 0) {
+                buffer.appendNull();
+            } else {
+                buffer.append(i);
+            }
+        }
+        // Value of unexpected type is kept as is
+        buffer.appendObject("text");
+        buffer.appendObject(7);
+
+        Assert.assertEquals(102, buffer.size());
+        Assert.assertTrue(buffer.isNull(0));
+        Assert.assertNull(buffer.getValue(50));
+        Assert.assertEquals(Integer.valueOf(42), buffer.getValue(42));
+        Assert.assertEquals(42L, buffer.getLong(42));
+        Assert.assertEquals("text", buffer.getValue(100));
+        Assert.assertEquals(Integer.valueOf(7), buffer.getValue(101));
+
+        buffer.setValue(100, 5);
+        buffer.setValue(42, null);
+        Assert.assertEquals(Integer.valueOf(5), buffer.getValue(100));
+        Assert.assertTrue(buffer.isNull(42));
+
+        buffer.clear();
+        Assert.assertEquals(0, buffer.size());
+        buffer.append(1);
+        Assert.assertFalse(buffer.isNull(0));
+        Assert.assertThrows(IndexOutOfBoundsException.class, () -> buffer.getValue(1));
+    }
+
+    @Test
+    public void testBoxTypes() {
+        LongColumnBuffer shorts = new LongColumnBuffer(1, LongColumnBuffer.BoxType.SHORT);
+        shorts.append(255);
+        Assert.assertEquals(Short.valueOf((short) 255), shorts.getValue(0));
+
+        LongColumnBuffer longs = new LongColumnBuffer(1, LongColumnBuffer.BoxType.LONG);
+        longs.append(Long.MAX_VALUE);
+        Assert.assertEquals(Long.MAX_VALUE, longs.getValue(0));
+
+        DoubleColumnBuffer doubles = new DoubleColumnBuffer(1);
+        doubles.append(1.5);
+        doubles.appendObject(2.5f);
+        Assert.assertEquals(1.5, doubles.getValue(0));
+        Assert.assertEquals(2.5f, doubles.getValue(1));
+    }
+
+    @Test
+    public void testRowSet() throws Exception {
+        DBCSession session = Mockito.mock(DBCSession.class);
+        DBCResultSet resultSet = Mockito.mock(DBCResultSet.class);
+
+        DBDValueHandler objectHandler = Mockito.mock(DBDValueHandler.class);
+        Mockito.when(objectHandler.fetchValueObject(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.eq(1)))
+            .thenReturn("a", "b", null);
+
+        DBDValueHandlerColumnar columnarHandler = Mockito.mock(DBDValueHandlerColumnar.class);
+        Mockito.when(columnarHandler.getColumnReader(ArgumentMatchers.any())).thenReturn(new ColumnReader() {
+            private long value;
+
+            @NotNull
+            @Override
+            public ColumnBuffer createBuffer(int capacity) {
+                return new LongColumnBuffer(capacity, LongColumnBuffer.BoxType.LONG);
+            }
+
+            @Override
+            public void readValue(@NotNull DBCSession session, @NotNull DBCResultSet resultSet, int index, @NotNull ColumnBuffer buffer) {
+                ((LongColumnBuffer) buffer).append(value++);
+            }
+        });
+        Mockito.when(columnarHandler.fetchValueObject(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.eq(0)))
+            .thenReturn(100L);
+
+        DBDAttributeBinding[] bindings = {
+            makeBinding(0, columnarHandler, true),
+            makeBinding(1, objectHandler, true),
+            makeBinding(2, objectHandler, false)
+        };
+
+        ColumnarRowSet rowSet = new ColumnarRowSet(bindings, 1, true);
+        Assert.assertTrue(rowSet.getColumn(0) instanceof LongColumnBuffer);
+        Assert.assertTrue(rowSet.getColumn(1) instanceof ObjectColumnBuffer);
+        for (int i = 0; i < 3; i++) {
+            rowSet.fetchRow(session, resultSet);
+        }
+        Assert.assertEquals(3, rowSet.getRowCount());
+        Assert.assertArrayEquals(new Object[] {0L, "a", null}, rowSet.getRowValues(0));
+        Assert.assertArrayEquals(new Object[] {2L, null, null}, rowSet.getRowValues(2));
+        Assert.assertEquals("b", rowSet.getValue(1, 1));
+
+        rowSet.clear();
+        Assert.assertEquals(0, rowSet.getRowCount());
+
+        // Column readers are disabled - values are read by value handler
+        rowSet = new ColumnarRowSet(bindings, 1, false);
+        Assert.assertTrue(rowSet.getColumn(0) instanceof ObjectColumnBuffer);
+        rowSet.fetchRow(session, resultSet);
+        Assert.assertEquals(100L, rowSet.getValue(0, 0));
+    }
+
+    @NotNull
+    private static DBDAttributeBinding makeBinding(int position, @NotNull DBDValueHandler valueHandler, boolean hasMeta) {
+        DBDAttributeBinding binding = Mockito.mock(DBDAttributeBinding.class);
+        Mockito.when(binding.getOrdinalPosition()).thenReturn(position);
+        Mockito.when(binding.getValueHandler()).thenReturn(valueHandler);
+        if (hasMeta) {
+            Mockito.when(binding.getMetaAttribute()).thenReturn(Mockito.mock(DBCAttributeMetaData.class));
+        }
+        return binding;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+public class JDBCCachePrefetchTest {
+
+    private final DBRProgressMonitor monitor = new VoidProgressMonitor();
+    private final DBSObject owner = Mockito.mock(DBSObject.class);
+
+    @Test
+    public void testPrefetchChildren() throws Exception {
+        DBSObject orders = makeObject("orders", owner);
+        DBSObject items = makeObject("items", owner);
+
+        // Objects are not read yet
+        TestStructCache cache = new TestStructCache();
+        cache.prefetchChildren(monitor, owner);
+        Assert.assertEquals(1, cache.loadCount);
+
+        // Children of some objects were read separately
+        cache = new TestStructCache();
+        cache.setCache(List.of(orders, items));
+        cache.getChildrenCache(orders);
+        cache.prefetchChildren(monitor, owner);
+        Assert.assertEquals(1, cache.loadCount);
+
+        // Children of all objects were read separately
+        cache.loadCount = 0;
+        cache.getChildrenCache(items);
+        cache.prefetchChildren(monitor, owner);
+        Assert.assertEquals(0, cache.loadCount);
+    }
+
+    @Test
+    public void testPrefetchObjects() throws Exception {
+        DBSObject orders = makeObject("orders", owner);
+        DBSObject items = makeObject("items", owner);
+        TestStructCache tableCache = new TestStructCache();
+        tableCache.setCache(List.of(orders, items));
+
+        TestCompositeCache cache = new TestCompositeCache(tableCache);
+        cache.cacheObject(makeObject("orders_pk", orders));
+        cache.prefetchObjects(monitor, owner);
+        Assert.assertEquals(1, cache.loadCount);
+
+        // Objects of all parents were read separately
+        cache.loadCount = 0;
+        cache.cacheObject(makeObject("items_pk", items));
+        cache.prefetchObjects(monitor, owner);
+        Assert.assertEquals(0, cache.loadCount);
+
+        // Parents are not read yet
+        cache = new TestCompositeCache(new TestStructCache());
+        cache.prefetchObjects(monitor, owner);
+        Assert.assertEquals(1, cache.loadCount);
+
+        // Already read with a single query
+        cache.loadCount = 0;
+        cache.setFullCache(true);
+        cache.prefetchObjects(monitor, owner);
+        Assert.assertEquals(0, cache.loadCount);
+    }
+
+    private static DBSObject makeObject(String name, DBSObject parent) {
+        DBSObject object = Mockito.mock(DBSObject.class);
+        Mockito.when(object.getName()).thenReturn(name);
+        Mockito.when(object.getParentObject()).thenReturn(parent);
+        Mockito.when(object.isPersisted()).thenReturn(true);
+        return object;
+    }
+
+    private static class TestStructCache extends JDBCStructCache<DBSObject, DBSObject, DBSObject> {
+        int loadCount;
+
+        TestStructCache() {
+            super("name");
+        }
+
+        @Override
+        public synchronized void loadChildren(DBRProgressMonitor monitor, DBSObject owner, @Nullable DBSObject forObject) {
+            loadCount++;
+        }
+
+        @NotNull
+        @Override
+        protected JDBCStatement prepareObjectsStatement(@NotNull JDBCSession session, @NotNull DBSObject owner) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected DBSObject fetchObject(@NotNull JDBCSession session, @NotNull DBSObject owner, @NotNull JDBCResultSet resultSet) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected JDBCStatement prepareChildrenStatement(@NotNull JDBCSession session, @NotNull DBSObject owner, @Nullable DBSObject forObject) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected DBSObject fetchChild(@NotNull JDBCSession session, @NotNull DBSObject owner, @NotNull DBSObject parent, @NotNull JDBCResultSet dbResult) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class TestCompositeCache extends JDBCCompositeCache<DBSObject, DBSObject, DBSObject, DBSObject> {
+        int loadCount;
+
+        TestCompositeCache(JDBCStructCache<DBSObject, ?, ?> parentCache) {
+            super(parentCache, DBSObject.class, "table_name", "name");
+        }
+
+        @Override
+        protected void loadObjects(DBRProgressMonitor monitor, DBSObject owner, DBSObject forParent) {
+            loadCount++;
+        }
+
+        @NotNull
+        @Override
+        protected JDBCStatement prepareObjectsStatement(JDBCSession session, DBSObject owner, DBSObject forParent) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected DBSObject fetchObject(JDBCSession session, DBSObject owner, DBSObject parent, String childName, JDBCResultSet resultSet) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected DBSObject[] fetchObjectRow(JDBCSession session, DBSObject parent, DBSObject forObject, JDBCResultSet resultSet) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void cacheChildren(DBRProgressMonitor monitor, DBSObject object, List<DBSObject> children) {
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.DBSObjectFilter;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.*;
+
+public class JDBCStructLookupCacheTest {
+
+    private final DBRProgressMonitor monitor = new VoidProgressMonitor();
+    // Table name -> DDL version
+    private final Map<String, Integer> tables = new LinkedHashMap<>();
+    private DBSObject owner;
+    private TestTableCache cache;
+
+    @Before
+    public void setUp() {
+        DBPDataSource dataSource = Mockito.mock(DBPDataSource.class);
+        Mockito.when(dataSource.getSQLDialect()).thenReturn(BasicSQLDialect.INSTANCE);
+        // Not persisted owner is not read from the database, tables are added as custom objects
+        owner = Mockito.mock(DBSObject.class);
+        Mockito.when(owner.getName()).thenReturn("public");
+        Mockito.when(owner.getDataSource()).thenReturn(dataSource);
+        cache = new TestTableCache();
+    }
+
+    @Test
+    public void testStampsAreReadOnRefresh() throws Exception {
+        addTables(3);
+        Assert.assertEquals(3, cache.getAllObjects(monitor, owner).size());
+        Assert.assertEquals(0, cache.stampReads);
+
+        // No stamps of the loaded objects: full reload
+        Assert.assertFalse(cache.refreshChangedObjects(monitor, owner));
+        Assert.assertEquals(1, cache.stampReads);
+        Assert.assertFalse(cache.isFullyCached());
+
+        Assert.assertEquals(3, cache.getAllObjects(monitor, owner).size());
+        Assert.assertEquals(2, cache.loads);
+        Assert.assertEquals(1, cache.stampReads);
+
+        // Nothing was changed
+        Assert.assertTrue(cache.refreshChangedObjects(monitor, owner));
+        Assert.assertEquals(2, cache.stampReads);
+        Assert.assertEquals(0, cache.reloads);
+        Assert.assertTrue(cache.isFullyCached());
+    }
+
+    @Test
+    public void testRefreshChangedObjects() throws Exception {
+        addTables(3);
+        loadWithStamps();
+        TestTable t1 = cache.getCachedObject("t1");
+        TestTable t2 = cache.getCachedObject("t2");
+
+        tables.put("t2", 2);
+        tables.remove("t3");
+        tables.put("t4", 1);
+        Assert.assertTrue(cache.refreshChangedObjects(monitor, owner));
+        Assert.assertEquals(2, cache.loads);
+        // Changed and added objects
+        Assert.assertEquals(2, cache.reloads);
+
+        Assert.assertEquals(List.of("t1", "t2", "t4"), getCachedNames());
+        // Cached objects stay the same, changed ones get the new state
+        Assert.assertSame(t1, cache.getCachedObject("t1"));
+        Assert.assertSame(t2, cache.getCachedObject("t2"));
+        Assert.assertEquals(1, t1.version);
+        Assert.assertEquals(2, t2.version);
+        Assert.assertNull(cache.getCachedObject("t3"));
+        Assert.assertEquals(1, cache.getCachedObject("t4").version);
+    }
+
+    @Test
+    public void testFilteredObjectsAreNotLoaded() throws Exception {
+        addTables(3);
+        loadWithStamps();
+
+        cache.objectFilter = new DBSObjectFilter(null, "tmp_%");
+        tables.put("t4", 1);
+        tables.put("tmp_data", 1);
+        Assert.assertTrue(cache.refreshChangedObjects(monitor, owner));
+        Assert.assertEquals(1, cache.reloads);
+        Assert.assertEquals(List.of("t1", "t2", "t3", "t4"), getCachedNames());
+
+        // Changed stamp of the filtered table doesn't load it either
+        tables.put("tmp_data", 2);
+        Assert.assertTrue(cache.refreshChangedObjects(monitor, owner));
+        Assert.assertEquals(1, cache.reloads);
+        Assert.assertNull(cache.getCachedObject("tmp_data"));
+    }
+
+    @Test
+    public void testTooManyChanges() throws Exception {
+        addTables(60);
+        loadWithStamps();
+
+        for (int i = 1; i <= 51; i++) {
+            tables.put("t" + i, 2);
+        }
+        Assert.assertFalse(cache.refreshChangedObjects(monitor, owner));
+        Assert.assertEquals(0, cache.reloads);
+        Assert.assertFalse(cache.isFullyCached());
+
+        Assert.assertEquals(60, cache.getAllObjects(monitor, owner).size());
+        Assert.assertEquals(3, cache.loads);
+        Assert.assertEquals(2, cache.getCachedObject("t51").version);
+
+        // Stamps read before the full reload are used by the next refresh
+        tables.put("t60", 2);
+        Assert.assertTrue(cache.refreshChangedObjects(monitor, owner));
+        Assert.assertEquals(1, cache.reloads);
+        Assert.assertEquals(2, cache.getCachedObject("t60").version);
+    }
+
+    private void addTables(int count) {
+        for (int i = 1; i <= count; i++) {
+            tables.put("t" + i, 1);
+        }
+    }
+
+    private void loadWithStamps() throws Exception {
+        cache.getAllObjects(monitor, owner);
+        cache.refreshChangedObjects(monitor, owner);
+        cache.getAllObjects(monitor, owner);
+        Assert.assertEquals(2, cache.loads);
+        cache.reloads = 0;
+    }
+
+    private List<String> getCachedNames() {
+        List<String> names = new ArrayList<>();
+        for (TestTable table : cache.getCachedObjects()) {
+            names.add(table.getName());
+        }
+        return names;
+    }
+
+    private static class TestTable implements DBSObject {
+        private final String name;
+        private int version;
+
+        TestTable(@NotNull String name, int version) {
+            this.name = name;
+            this.version = version;
+        }
+
+        @NotNull
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getDescription() {
+            return null;
+        }
+
+        @Override
+        public boolean isPersisted() {
+            return true;
+        }
+
+        @Override
+        public DBSObject getParentObject() {
+            return null;
+        }
+
+        @Override
+        public DBPDataSource getDataSource() {
+            return null;
+        }
+    }
+
+    private class TestTableCache extends JDBCStructLookupCache<DBSObject, TestTable, DBSObject> {
+        int loads;
+        int reloads;
+        int stampReads;
+        DBSObjectFilter objectFilter;
+
+        TestTableCache() {
+            super("name");
+        }
+
+        @Override
+        protected boolean supportsIncrementalRefresh(@NotNull DBSObject owner) {
+            return true;
+        }
+
+        @Nullable
+        @Override
+        protected DBSObjectFilter getObjectFilter(@NotNull DBSObject owner) {
+            return objectFilter;
+        }
+
+        @Nullable
+        @Override
+        protected Map<String, String> readChangeStamps(@NotNull DBRProgressMonitor monitor, @NotNull DBSObject owner) {
+            stampReads++;
+            Map<String, String> stamps = new HashMap<>();
+            tables.forEach((name, version) -> stamps.put(name, String.valueOf(version)));
+            return stamps;
+        }
+
+        @Override
+        protected void addCustomObjects(@NotNull DBRProgressMonitor monitor, @NotNull DBSObject owner, @NotNull List<TestTable> objectList) {
+            loads++;
+            tables.forEach((name, version) -> objectList.add(new TestTable(name, version)));
+        }
+
+        @Override
+        protected TestTable reloadObject(@NotNull DBRProgressMonitor monitor, @NotNull DBSObject owner, @Nullable TestTable object, @Nullable String objectName) {
+            reloads++;
+            String name = object != null ? object.getName() : objectName;
+            Integer version = tables.get(name);
+            return version == null ? null : new TestTable(name, version);
+        }
+
+        @NotNull
+        @Override
+        public JDBCStatement prepareLookupStatement(@NotNull JDBCSession session, @NotNull DBSObject owner, @Nullable TestTable object, @Nullable String objectName) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected TestTable fetchObject(@NotNull JDBCSession session, @NotNull DBSObject owner, @NotNull JDBCResultSet resultSet) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected JDBCStatement prepareChildrenStatement(@NotNull JDBCSession session, @NotNull DBSObject owner, @Nullable TestTable forObject) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected DBSObject fetchChild(@NotNull JDBCSession session, @NotNull DBSObject owner, @NotNull TestTable parent, @NotNull JDBCResultSet dbResult) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.exec;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class JDBCStatementCacheTest {
+
+    @Test
+    public void testAcquireRelease() throws Exception {
+        JDBCStatementCache cache = new JDBCStatementCache(10);
+        JDBCStatementCache.Key key = key("SELECT 1");
+        Assert.assertNull(cache.acquire(key));
+
+        PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+        Mockito.when(statement.getMaxRows()).thenReturn(100);
+        Assert.assertTrue(cache.release(key, statement));
+        Mockito.verify(statement).clearParameters();
+        Mockito.verify(statement).setMaxRows(0);
+
+        Assert.assertSame(statement, cache.acquire(key));
+        // Statement is in use
+        Assert.assertNull(cache.acquire(key));
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(2, cache.getMissCount());
+
+        // Result set type is a part of the key
+        Assert.assertTrue(cache.release(key, statement));
+        Assert.assertNull(cache.acquire(new JDBCStatementCache.Key("SELECT 1", ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)));
+
+        // Only one statement per key is cached
+        Assert.assertFalse(cache.release(key, Mockito.mock(PreparedStatement.class)));
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        JDBCStatementCache cache = new JDBCStatementCache(2);
+        PreparedStatement s1 = Mockito.mock(PreparedStatement.class);
+        PreparedStatement s2 = Mockito.mock(PreparedStatement.class);
+        PreparedStatement s3 = Mockito.mock(PreparedStatement.class);
+        cache.release(key("SELECT 1"), s1);
+        cache.release(key("SELECT 2"), s2);
+        // Use the first statement, so the second one becomes the eldest
+        Assert.assertSame(s1, cache.acquire(key("SELECT 1")));
+        cache.release(key("SELECT 1"), s1);
+        cache.release(key("SELECT 3"), s3);
+
+        Assert.assertEquals(2, cache.size());
+        Mockito.verify(s2).close();
+        Mockito.verify(s1, Mockito.never()).close();
+        Assert.assertNull(cache.acquire(key("SELECT 2")));
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        JDBCStatementCache cache = new JDBCStatementCache(10);
+        PreparedStatement s1 = Mockito.mock(PreparedStatement.class);
+        cache.release(key("SELECT 1"), s1);
+        cache.close();
+        Mockito.verify(s1).close();
+        Assert.assertEquals(0, cache.size());
+        Assert.assertNull(cache.acquire(key("SELECT 1")));
+
+        // Statements released after close must be closed by caller
+        Assert.assertFalse(cache.release(key("SELECT 2"), Mockito.mock(PreparedStatement.class)));
+
+        // Broken statements are not cached
+        cache = new JDBCStatementCache(10);
+        PreparedStatement broken = Mockito.mock(PreparedStatement.class);
+        Mockito.doThrow(new SQLException("Connection reset")).when(broken).clearParameters();
+        Assert.assertFalse(cache.release(key("SELECT 3"), broken));
+    }
+
+    private static JDBCStatementCache.Key key(String query) {
+        return new JDBCStatementCache.Key(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SQLQueryBatchShapeTest {
+
+    @Test
+    public void testSameShape() {
+        Assert.assertEquals(
+            shape("INSERT INTO orders (id, name) VALUES (1, 'a')"),
+            shape("insert into orders (id, name) values (2, 'b')"));
+        Assert.assertEquals(
+            shape("UPDATE orders SET name = 'a' WHERE id = 1"),
+            shape("UPDATE orders SET status = 2"));
+        Assert.assertEquals(
+            shape("DELETE FROM orders WHERE id = 1"),
+            shape("DELETE FROM orders WHERE id = 2"));
+    }
+
+    @Test
+    public void testDifferentShape() {
+        Assert.assertNotEquals(
+            shape("INSERT INTO orders (id, name) VALUES (1, 'a')"),
+            shape("INSERT INTO orders (id) VALUES (2)"));
+        Assert.assertNotEquals(
+            shape("INSERT INTO orders (id) VALUES (1)"),
+            shape("INSERT INTO items (id) VALUES (1)"));
+        Assert.assertNotEquals(
+            shape("UPDATE orders SET status = 1"),
+            shape("DELETE FROM orders"));
+    }
+
+    @Test
+    public void testNotBatchable() {
+        Assert.assertNull(shape("SELECT * FROM orders"));
+        Assert.assertNull(shape("CREATE TABLE orders (id INT)"));
+        Assert.assertNull(shape("INSERT INTO orders (id) VALUES (1) RETURNING id"));
+        Assert.assertNull(shape("not a query"));
+    }
+
+    @Nullable
+    private static String shape(@NotNull String text) {
+        return new SQLQuery(null, text).getBatchShape();
+    }
+}
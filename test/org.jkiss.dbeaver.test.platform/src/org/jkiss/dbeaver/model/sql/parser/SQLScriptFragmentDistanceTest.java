@@ -0,0 +1,63 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.parser;
+
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class SQLScriptFragmentDistanceTest {
+
+    @Test
+    public void testDistanceToFragment() {
+        // Fragment covers offsets 100..199
+        Assert.assertEquals(0, SQLScriptParser.getDistanceToFragment(query(120, 10), 100, 199));
+        Assert.assertEquals(0, SQLScriptParser.getDistanceToFragment(query(90, 20), 100, 199));
+        Assert.assertEquals(0, SQLScriptParser.getDistanceToFragment(query(190, 30), 100, 199));
+        Assert.assertEquals(0, SQLScriptParser.getDistanceToFragment(query(50, 300), 100, 199));
+        Assert.assertEquals(0, SQLScriptParser.getDistanceToFragment(query(80, 20), 100, 199));
+        Assert.assertEquals(0, SQLScriptParser.getDistanceToFragment(query(199, 5), 100, 199));
+        Assert.assertEquals(30, SQLScriptParser.getDistanceToFragment(query(50, 20), 100, 199));
+        Assert.assertEquals(1, SQLScriptParser.getDistanceToFragment(query(200, 5), 100, 199));
+        Assert.assertEquals(101, SQLScriptParser.getDistanceToFragment(query(300, 5), 100, 199));
+    }
+
+    @Test
+    public void testViewportOrdering() {
+        // Script of ten 40-char queries separated by 10 chars, viewport shows offsets 200..299
+        List<SQLScriptElement> elements = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            elements.add(query(i * 50, 40));
+        }
+        List<SQLScriptElement> ordered = new ArrayList<>(elements);
+        ordered.sort(Comparator.comparingInt(element -> SQLScriptParser.getDistanceToFragment(element, 200, 299)));
+
+        // Visible queries go first in document order, then the nearest ones, going away from the viewport
+        int[] expectedOffsets = {200, 250, 300, 150, 350, 100, 400, 50, 450, 0};
+        int[] actualOffsets = ordered.stream().mapToInt(SQLScriptElement::getOffset).toArray();
+        Assert.assertArrayEquals(expectedOffsets, actualOffsets);
+    }
+
+    private static SQLScriptElement query(int offset, int length) {
+        return new SQLQuery(null, "x".repeat(length), offset, length);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct;
+
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class DBStructUtilsTest {
+
+    @Test
+    public void testPrefetchThreshold() {
+        Assert.assertFalse(DBStructUtils.isPrefetchNeeded(5, 5));
+        Assert.assertTrue(DBStructUtils.isPrefetchNeeded(10, 10));
+        Assert.assertTrue(DBStructUtils.isPrefetchNeeded(10, 40));
+        // A few tables of a big schema are cheaper to read separately
+        Assert.assertFalse(DBStructUtils.isPrefetchNeeded(10, 41));
+        Assert.assertFalse(DBStructUtils.isPrefetchNeeded(50, 10000));
+        Assert.assertTrue(DBStructUtils.isPrefetchNeeded(2500, 10000));
+    }
+
+    @Test
+    public void testPrefetchStructure() throws Exception {
+        DBRProgressMonitor monitor = new VoidProgressMonitor();
+        DBSObjectContainer smallSchema = makeContainer(20);
+        DBSObjectContainer bigSchema = makeContainer(1000);
+        DBSObjectContainer fewSelected = makeContainer(20);
+
+        List<DBSObject> objects = new ArrayList<>();
+        objects.addAll(makeObjects(smallSchema, 15));
+        objects.addAll(makeObjects(bigSchema, 15));
+        objects.addAll(makeObjects(fewSelected, 3));
+
+        DBStructUtils.prefetchStructure(monitor, objects, DBSObjectContainer.STRUCT_ALL);
+
+        Mockito.verify(smallSchema).cacheStructure(Mockito.any(), Mockito.eq(DBSObjectContainer.STRUCT_ALL));
+        Mockito.verify(bigSchema, Mockito.never()).cacheStructure(Mockito.any(), Mockito.anyInt());
+        Mockito.verify(fewSelected, Mockito.never()).cacheStructure(Mockito.any(), Mockito.anyInt());
+        // Container size is not read when there are too few selected objects
+        Mockito.verify(fewSelected, Mockito.never()).getChildren(Mockito.any());
+    }
+
+    private static DBSObjectContainer makeContainer(int size) throws Exception {
+        DBSObjectContainer container = Mockito.mock(DBSObjectContainer.class);
+        Mockito.doReturn(Collections.nCopies(size, Mockito.mock(DBSObject.class))).when(container).getChildren(Mockito.any());
+        return container;
+    }
+
+    private static List<DBSObject> makeObjects(DBSObjectContainer container, int count) {
+        List<DBSObject> objects = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            DBSObject object = Mockito.mock(DBSObject.class);
+            Mockito.when(object.isPersisted()).thenReturn(true);
+            Mockito.when(object.getParentObject()).thenReturn(container);
+            objects.add(object);
+        }
+        return objects;
+    }
+}
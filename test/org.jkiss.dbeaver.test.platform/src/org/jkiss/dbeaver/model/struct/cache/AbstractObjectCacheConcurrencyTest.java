@@ -0,0 +1,260 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Object cache consistency under mixed read/load workload.
+ * Also reports lookup throughput, which may be compared between cache implementations.
+ */
+public class AbstractObjectCacheConcurrencyTest {
+
+    private static final int OBJECT_COUNT = 2000;
+    private static final int READER_COUNT = 4;
+    private static final long RUN_TIME = 1000;
+
+    @Test
+    public void testLookup() {
+        SimpleObjectCache<DBSObject, TestObject> cache = new SimpleObjectCache<>();
+        Assert.assertNull(cache.getCachedObject("orders"));
+        Assert.assertTrue(cache.getCachedObjects().isEmpty());
+
+        TestObject orders = new TestObject("orders", 0);
+        cache.cacheObject(orders);
+        Assert.assertSame(orders, cache.getCachedObject("orders"));
+        Assert.assertNull(cache.getCachedObject("ORDERS"));
+
+        cache.setCaseSensitive(false);
+        Assert.assertSame(orders, cache.getCachedObject("ORDERS"));
+        TestObject items = new TestObject("Items", 0);
+        cache.cacheObject(items);
+        Assert.assertSame(items, cache.getCachedObject("items"));
+
+        cache.renameObject(items, "Items", "order_items");
+        Assert.assertNull(cache.getCachedObject("items"));
+        Assert.assertSame(items, cache.getCachedObject("ORDER_ITEMS"));
+
+        // Duplicates are not indexed: the first object wins
+        cache.cacheObject(new TestObject("ORDERS", 1));
+        Assert.assertSame(orders, cache.getCachedObject("orders"));
+        Assert.assertEquals(3, cache.getCacheSize());
+
+        cache.removeObject(orders, false);
+        Assert.assertNull(cache.getCachedObject("orders"));
+        Assert.assertEquals(2, cache.getCacheSize());
+    }
+
+    @Test
+    public void testBulkAdd() {
+        SimpleObjectCache<DBSObject, TestObject> cache = new SimpleObjectCache<>();
+        cache.cacheObjects(List.of());
+        Assert.assertTrue(cache.isEmpty());
+
+        cache.cacheObject(new TestObject("object0", 0));
+        // Build name index before bulk add
+        Assert.assertNotNull(cache.getCachedObject("object0"));
+        List<TestObject> snapshot = cache.getCachedObjects();
+
+        List<TestObject> objects = makeObjects(1000, 1);
+        cache.cacheObjects(objects);
+        Assert.assertEquals(1, snapshot.size());
+        Assert.assertEquals(1001, cache.getCacheSize());
+        Assert.assertEquals(objects, cache.getCachedObjects().subList(1, 1001));
+        // Duplicate name is not indexed: the first object wins
+        Assert.assertEquals(0, cache.getCachedObject("object0").generation);
+        Assert.assertSame(objects.get(999), cache.getCachedObject("object999"));
+    }
+
+    @Test
+    public void testSnapshots() {
+        SimpleObjectCache<DBSObject, TestObject> cache = new SimpleObjectCache<>();
+        List<TestObject> objects = makeObjects(10, 0);
+        cache.setCache(objects);
+        objects.clear();
+        Assert.assertEquals(10, cache.getCacheSize());
+
+        List<TestObject> snapshot = cache.getCachedObjects();
+        cache.cacheObject(new TestObject("new_object", 0));
+        Assert.assertEquals(10, snapshot.size());
+        Assert.assertEquals(11, cache.getCachedObjects().size());
+        try {
+            snapshot.add(new TestObject("other", 0));
+            Assert.fail("Cached objects list must be read-only");
+        } catch (UnsupportedOperationException e) {
+            // Expected
+        }
+
+        TestObject object5 = cache.getCachedObject("object5");
+        Assert.assertNotNull(object5);
+        cache.mergeCache(makeObjects(20, 1));
+        Assert.assertEquals(20, cache.getCacheSize());
+        // Merge keeps already cached instances
+        Assert.assertSame(object5, cache.getCachedObject("object5"));
+        Assert.assertEquals(1, cache.getCachedObject("object15").generation);
+
+        // Iterator works with a snapshot and removes from the cache
+        int count = 0;
+        for (Iterator<TestObject> iter = cache.new CacheIterator(); iter.hasNext(); ) {
+            TestObject object = iter.next();
+            if (object.generation == 1) {
+                iter.remove();
+            }
+            count++;
+        }
+        Assert.assertEquals(20, count);
+        Assert.assertEquals(10, cache.getCacheSize());
+        Assert.assertNull(cache.getCachedObject("object15"));
+        Assert.assertSame(object5, cache.getCachedObject("object5"));
+    }
+
+    @Test
+    public void testMixedReadLoad() throws Exception {
+        SimpleObjectCache<DBSObject, TestObject> cache = new SimpleObjectCache<>();
+        cache.setCaseSensitive(false);
+        cache.setCache(makeObjects(OBJECT_COUNT, 0));
+
+        AtomicBoolean stopped = new AtomicBoolean();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        AtomicLong lookups = new AtomicLong();
+        AtomicLong loads = new AtomicLong();
+        CountDownLatch finished = new CountDownLatch(READER_COUNT + 1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < READER_COUNT; i++) {
+            int seed = i;
+            threads.add(new Thread(() -> {
+                try {
+                    long count = 0;
+                    int index = seed;
+                    while (!stopped.get()) {
+                        index = (index * 31 + 17) % OBJECT_COUNT;
+                        // Each published list is complete, so all objects may be found at any moment
+                        TestObject object = cache.getCachedObject("OBJECT" + index);
+                        Assert.assertNotNull("Object" + index + " not found", object);
+                        Assert.assertEquals("object" + index, object.getName());
+                        if (count % 1000 == 0) {
+                            List<TestObject> snapshot = cache.getCachedObjects();
+                            int size = snapshot.size();
+                            Assert.assertTrue("Bad snapshot size " + size, size == OBJECT_COUNT || size == OBJECT_COUNT + 1);
+                            Assert.assertEquals(snapshot.get(0).generation, snapshot.get(OBJECT_COUNT - 1).generation);
+                        }
+                        count++;
+                    }
+                    lookups.addAndGet(count);
+                } catch (Throwable e) {
+                    error.compareAndSet(null, e);
+                } finally {
+                    finished.countDown();
+                }
+            }, "Cache reader " + i));
+        }
+        threads.add(new Thread(() -> {
+            try {
+                for (int generation = 1; !stopped.get(); generation++) {
+                    cache.setCache(makeObjects(OBJECT_COUNT, generation));
+                    TestObject extra = new TestObject("extra", generation);
+                    cache.cacheObject(extra);
+                    cache.removeObject(extra, false);
+                    loads.incrementAndGet();
+                }
+            } catch (Throwable e) {
+                error.compareAndSet(null, e);
+            } finally {
+                finished.countDown();
+            }
+        }, "Cache loader"));
+
+        long startTime = System.currentTimeMillis();
+        threads.forEach(Thread::start);
+        Thread.sleep(RUN_TIME);
+        stopped.set(true);
+        Assert.assertTrue(finished.await(10, TimeUnit.SECONDS));
+        long duration = System.currentTimeMillis() - startTime;
+
+        if (error.get() != null) {
+            throw new AssertionError("Cache consistency check failed", error.get());
+        }
+        Assert.assertTrue(lookups.get() > 0);
+        Assert.assertTrue(loads.get() > 0);
+        System.out.println("Object cache: " + (lookups.get() * 1000 / duration) + " lookups/s, " +
+            (loads.get() * 1000 / duration) + " loads/s (" + READER_COUNT + " readers, " + OBJECT_COUNT + " objects)");
+    }
+
+    @NotNull
+    private static List<TestObject> makeObjects(int count, int generation) {
+        List<TestObject> objects = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            objects.add(new TestObject("object" + i, generation));
+        }
+        return objects;
+    }
+
+    private static class TestObject implements DBSObject {
+        private final String name;
+        private final int generation;
+
+        TestObject(@NotNull String name, int generation) {
+            this.name = name;
+            this.generation = generation;
+        }
+
+        @NotNull
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getDescription() {
+            return null;
+        }
+
+        @Override
+        public boolean isPersisted() {
+            return true;
+        }
+
+        @Override
+        public DBSObject getParentObject() {
+            return null;
+        }
+
+        @Override
+        public DBPDataSource getDataSource() {
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return name + " (" + generation + ")";
+        }
+    }
+}
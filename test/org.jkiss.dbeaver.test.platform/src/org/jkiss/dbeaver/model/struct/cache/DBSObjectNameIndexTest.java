@@ -0,0 +1,181 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
+import org.jkiss.dbeaver.model.struct.*;
+import org.jkiss.dbeaver.model.struct.rdb.DBSProcedure;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+public class DBSObjectNameIndexTest {
+
+    private static class TestCache<OWNER extends DBSObject, OBJECT extends DBSObject> extends SimpleObjectCache<OWNER, OBJECT> {
+        void loadScope(@NotNull OWNER owner, @NotNull List<OBJECT> objects) {
+            setCache(objects);
+            indexOwner(owner);
+        }
+    }
+
+    private static class EntityCache<OWNER extends DBSObject> extends TestCache<OWNER, DBSEntity> {
+    }
+
+    private static class SchemaEntityCache extends EntityCache<DBSObject> {
+    }
+
+    private DBPDataSource dataSource;
+    private DBSObject schema;
+    private DBSObjectType entityType;
+
+    @Before
+    public void setUp() {
+        dataSource = Mockito.mock(DBPDataSource.class);
+        Mockito.when(dataSource.getSQLDialect()).thenReturn(BasicSQLDialect.INSTANCE);
+        schema = Mockito.mock(DBSObject.class);
+        entityType = Mockito.mock(DBSObjectType.class);
+        Mockito.doReturn(DBSEntity.class).when(entityType).getTypeClass();
+    }
+
+    @Test
+    public void testSearch() {
+        SimpleObjectCache<DBSObject, DBSEntity> cache = new SimpleObjectCache<>();
+        DBSEntity orders = makeEntity("orders");
+        DBSEntity orderItems = makeEntity("Order_Items");
+        DBSEntity customers = makeEntity("customers");
+        cache.setCache(List.of(orders, orderItems, customers));
+
+        DBSObjectNameIndex index = DBSObjectNameIndex.getIndex(dataSource);
+        Assert.assertNotNull(index);
+        Assert.assertEquals(3, index.size());
+
+        Assert.assertEquals(List.of(orderItems, orders), index.findObjects(makeParams("ORDER%")));
+        Assert.assertEquals(List.of(orders), index.findObjects(makeParams("orders")));
+        Assert.assertEquals(List.of(orderItems), index.findObjects(makeParams("%item%")));
+        Assert.assertEquals(List.of(customers, orders), index.findObjects(makeParams("%rs")));
+        Assert.assertTrue(index.findObjects(makeParams("%invoice%")).isEmpty());
+
+        DBSStructureAssistant.ObjectsSearchParams params = makeParams("order%");
+        params.setCaseSensitive(true);
+        Assert.assertEquals(List.of(orders), index.findObjects(params));
+
+        params = makeParams("%");
+        params.setMaxResults(2);
+        Assert.assertEquals(2, index.findObjects(params).size());
+
+        params = makeParams("%");
+        params.setParentObject(Mockito.mock(DBSObject.class));
+        Assert.assertTrue(index.findObjects(params).isEmpty());
+        params.setParentObject(schema);
+        Assert.assertEquals(3, index.findObjects(params).size());
+
+        // Index can't answer these queries
+        Assert.assertNull(index.findObjects(makeParams("ord%ms")));
+        params = makeParams("order%");
+        params.setSearchInComments(true);
+        Assert.assertNull(index.findObjects(params));
+    }
+
+    @Test
+    public void testCacheModifications() {
+        SimpleObjectCache<DBSObject, DBSEntity> cache = new SimpleObjectCache<>();
+        DBSEntity orders = makeEntity("orders");
+        cache.cacheObject(orders);
+        DBSObjectNameIndex index = DBSObjectNameIndex.getIndex(dataSource);
+        Assert.assertNotNull(index);
+        Assert.assertEquals(List.of(orders), index.findObjects(makeParams("ord%")));
+
+        Mockito.when(orders.getName()).thenReturn("invoices");
+        cache.renameObject(orders, "orders", "invoices");
+        Assert.assertTrue(index.findObjects(makeParams("ord%")).isEmpty());
+        Assert.assertEquals(List.of(orders), index.findObjects(makeParams("%voice%")));
+
+        cache.removeObject(orders, false);
+        Assert.assertTrue(index.findObjects(makeParams("%voice%")).isEmpty());
+
+        DBSEntity items = makeEntity("items");
+        cache.setCache(List.of(orders, items));
+        Assert.assertEquals(2, index.size());
+        cache.clearChildrenOf(schema);
+        Assert.assertEquals(0, index.size());
+
+        cache.setCache(List.of(items));
+        cache.clearCache();
+        Assert.assertEquals(0, index.size());
+
+        // Objects which are not metadata entities are not indexed
+        SimpleObjectCache<DBSObject, DBSObject> objectCache = new SimpleObjectCache<>();
+        DBSObject object = Mockito.mock(DBSObject.class);
+        Mockito.when(object.getName()).thenReturn("orders");
+        Mockito.when(object.getDataSource()).thenReturn(dataSource);
+        objectCache.cacheObject(object);
+        Assert.assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testScopeIndexed() {
+        Mockito.when(schema.getDataSource()).thenReturn(dataSource);
+        DBSObjectType procedureType = Mockito.mock(DBSObjectType.class);
+        Mockito.doReturn(DBSProcedure.class).when(procedureType).getTypeClass();
+        DBSObjectType[] entityTypes = {entityType};
+
+        SchemaEntityCache cache = new SchemaEntityCache();
+        cache.cacheObject(makeEntity("orders"));
+        DBSObjectNameIndex index = DBSObjectNameIndex.getIndex(dataSource);
+        Assert.assertNotNull(index);
+        Assert.assertFalse(index.isScopeIndexed(schema, entityTypes));
+
+        cache.loadScope(schema, List.of(makeEntity("orders"), makeEntity("items")));
+        Assert.assertTrue(index.isScopeIndexed(schema, entityTypes));
+        Assert.assertFalse(index.isScopeIndexed(schema, new DBSObjectType[]{entityType, procedureType}));
+        Assert.assertFalse(index.isScopeIndexed(Mockito.mock(DBSObject.class), entityTypes));
+
+        cache.clearCache();
+        Assert.assertFalse(index.isScopeIndexed(schema, entityTypes));
+        cache.loadScope(schema, List.of());
+        Assert.assertTrue(index.isScopeIndexed(schema, entityTypes));
+        cache.removeObject(makeEntity("orders"), true);
+        Assert.assertFalse(index.isScopeIndexed(schema, entityTypes));
+
+        // Type of cached objects is unknown, so the cache can't prove that the scope is complete
+        DBSObject otherSchema = Mockito.mock(DBSObject.class);
+        Mockito.when(otherSchema.getDataSource()).thenReturn(dataSource);
+        TestCache<DBSObject, DBSEntity> genericCache = new TestCache<>();
+        genericCache.loadScope(otherSchema, List.of(makeEntity("invoices")));
+        Assert.assertFalse(index.isScopeIndexed(otherSchema, entityTypes));
+    }
+
+    @NotNull
+    private DBSEntity makeEntity(@NotNull String name) {
+        DBSEntity entity = Mockito.mock(DBSEntity.class);
+        Mockito.when(entity.getName()).thenReturn(name);
+        Mockito.when(entity.getDataSource()).thenReturn(dataSource);
+        Mockito.when(entity.getParentObject()).thenReturn(schema);
+        Mockito.when(entity.isPersisted()).thenReturn(true);
+        return entity;
+    }
+
+    @NotNull
+    private DBSStructureAssistant.ObjectsSearchParams makeParams(@NotNull String mask) {
+        return new DBSStructureAssistant.ObjectsSearchParams(new DBSObjectType[] {entityType}, mask);
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.connection.DBPDriver;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class MetadataLoaderTest {
+
+    private static final long TIMEOUT = 10;
+
+    private final DBRProgressMonitor monitor = new VoidProgressMonitor();
+
+    @Test
+    public void testMaxConnections() {
+        Assert.assertEquals(3, MetadataLoader.getMaxConnections(new TestDataSource(true, 3).container));
+        Assert.assertEquals(1, MetadataLoader.getMaxConnections(new TestDataSource(true, 0).container));
+        Assert.assertEquals(1, MetadataLoader.getMaxConnections(new TestDataSource(false, 3).container));
+
+        TestDataSource embedded = new TestDataSource(true, 3);
+        Mockito.when(embedded.driver.isEmbedded()).thenReturn(true);
+        Assert.assertEquals(1, MetadataLoader.getMaxConnections(embedded.container));
+
+        TestDataSource singleConnection = new TestDataSource(true, 3);
+        Mockito.when(singleConnection.container.isForceUseSingleConnection()).thenReturn(true);
+        Assert.assertEquals(1, MetadataLoader.getMaxConnections(singleConnection.container));
+
+        TestDataSource noSeparateConnection = new TestDataSource(true, 3);
+        Mockito.when(noSeparateConnection.preferenceStore.getString(ModelPreferences.META_SEPARATE_CONNECTION))
+            .thenReturn(ModelPreferences.SeparateConnectionBehavior.NEVER.name());
+        Assert.assertEquals(1, MetadataLoader.getMaxConnections(noSeparateConnection.container));
+    }
+
+    @Test
+    public void testSequentialFallback() throws Exception {
+        // Driver is not thread-safe
+        TestDataSource dataSource = new TestDataSource(false, 3);
+        List<DBSObject> objects = dataSource.makeObjects(5);
+        List<DBSObject> loaded = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        MetadataLoader.loadObjects(monitor, objects, "Test", (m, object) -> {
+            loaded.add(object);
+            threads.add(Thread.currentThread());
+            Assert.assertNull(MetadataLoader.getLoaderContext(dataSource.instance));
+        });
+        Assert.assertEquals(objects, loaded);
+        Assert.assertEquals(Collections.nCopies(objects.size(), Thread.currentThread()), threads);
+        Mockito.verify(dataSource.instance, Mockito.never()).openIsolatedContext(
+            ArgumentMatchers.any(), ArgumentMatchers.anyString(), ArgumentMatchers.any());
+
+        // Single object doesn't need helpers
+        TestDataSource parallelDataSource = new TestDataSource(true, 3);
+        DBSObject object = parallelDataSource.makeObjects(1).get(0);
+        threads.clear();
+        MetadataLoader.loadObjects(monitor, List.of(object), "Test", (m, o) -> threads.add(Thread.currentThread()));
+        Assert.assertEquals(List.of(Thread.currentThread()), threads);
+        Mockito.verify(parallelDataSource.instance, Mockito.never()).openIsolatedContext(
+            ArgumentMatchers.any(), ArgumentMatchers.anyString(), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void testParallelLoad() throws Exception {
+        TestDataSource dataSource = new TestDataSource(true, 3);
+        List<DBSObject> objects = dataSource.makeObjects(8);
+        List<DBSObject> loaded = new CopyOnWriteArrayList<>();
+        Set<Thread> threads = Collections.synchronizedSet(new HashSet<>());
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        AtomicInteger loadCount = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(3);
+        Thread callingThread = Thread.currentThread();
+        List<Boolean> contextErrors = new CopyOnWriteArrayList<>();
+
+        MetadataLoader.loadObjects(monitor, objects, "Test", (m, object) -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                threads.add(Thread.currentThread());
+                boolean helper = Thread.currentThread() != callingThread;
+                if (helper != (MetadataLoader.getLoaderContext(dataSource.instance) != null)) {
+                    contextErrors.add(helper);
+                }
+                if (loadCount.getAndIncrement() < 3) {
+                    // Each thread blocks on its first object until all three threads are loading
+                    started.countDown();
+                    started.await(TIMEOUT, TimeUnit.SECONDS);
+                }
+                loaded.add(object);
+            } catch (InterruptedException e) {
+                throw new DBException("Interrupted", e);
+            } finally {
+                active.decrementAndGet();
+            }
+        });
+
+        Assert.assertEquals("Objects were not loaded in parallel", 0, started.getCount());
+        Assert.assertEquals(new HashSet<>(objects), new HashSet<>(loaded));
+        Assert.assertEquals(objects.size(), loaded.size());
+        Assert.assertEquals(3, maxActive.get());
+        Assert.assertEquals(3, threads.size());
+        Assert.assertEquals(List.of(), contextErrors);
+        Assert.assertEquals(2, dataSource.openedContexts.size());
+        for (DBCExecutionContext context : dataSource.openedContexts) {
+            Mockito.verify(context).close();
+        }
+    }
+
+    @Test
+    public void testConnectionLimitIsShared() throws Exception {
+        // One helper permit per data source
+        TestDataSource dataSource = new TestDataSource(true, 2);
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch finish = new CountDownLatch(1);
+        AtomicReference<Throwable> firstLoadError = new AtomicReference<>();
+        Thread firstLoad = new Thread(() -> {
+            try {
+                MetadataLoader.loadObjects(monitor, dataSource.makeObjects(2), "First", (m, object) -> {
+                    try {
+                        started.countDown();
+                        finish.await(TIMEOUT, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        throw new DBException("Interrupted", e);
+                    }
+                });
+            } catch (Throwable e) {
+                firstLoadError.set(e);
+            }
+        });
+        firstLoad.start();
+        try {
+            Assert.assertTrue(started.await(TIMEOUT, TimeUnit.SECONDS));
+
+            // The only helper is busy, so everything is loaded by the calling thread
+            Set<Thread> threads = Collections.synchronizedSet(new HashSet<>());
+            MetadataLoader.loadObjects(monitor, dataSource.makeObjects(4), "Second", (m, object) -> threads.add(Thread.currentThread()));
+            Assert.assertEquals(Set.of(Thread.currentThread()), threads);
+            Assert.assertEquals(1, dataSource.openedContexts.size());
+        } finally {
+            finish.countDown();
+            firstLoad.join(TimeUnit.SECONDS.toMillis(TIMEOUT));
+        }
+        Assert.assertNull(firstLoadError.get());
+
+        // Permit is released after the first load
+        assertHelperAvailable(dataSource);
+    }
+
+    @Test
+    public void testErrorPropagation() throws Exception {
+        // Sequential load stops on the first error
+        TestDataSource sequentialDataSource = new TestDataSource(false, 1);
+        List<DBSObject> objects = sequentialDataSource.makeObjects(3);
+        List<DBSObject> loaded = new ArrayList<>();
+        DBException error = new DBException("Test error");
+        try {
+            MetadataLoader.loadObjects(monitor, objects, "Test", (m, object) -> {
+                loaded.add(object);
+                if (object == objects.get(1)) {
+                    throw error;
+                }
+            });
+            Assert.fail("Error expected");
+        } catch (DBException e) {
+            Assert.assertSame(error, e);
+        }
+        Assert.assertEquals(objects.subList(0, 2), loaded);
+
+        // Error of a helper job is thrown by the calling thread
+        TestDataSource dataSource = new TestDataSource(true, 2);
+        Thread callingThread = Thread.currentThread();
+        CountDownLatch helperFailed = new CountDownLatch(1);
+        IllegalStateException helperError = new IllegalStateException("Helper error");
+        AtomicInteger callingThreadLoads = new AtomicInteger();
+        try {
+            MetadataLoader.loadObjects(monitor, dataSource.makeObjects(10), "Test", (m, object) -> {
+                if (Thread.currentThread() != callingThread) {
+                    helperFailed.countDown();
+                    throw helperError;
+                }
+                callingThreadLoads.incrementAndGet();
+                try {
+                    helperFailed.await(TIMEOUT, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new DBException("Interrupted", e);
+                }
+            });
+            Assert.fail("Error expected");
+        } catch (IllegalStateException e) {
+            Assert.assertSame(helperError, e);
+        }
+        // Rest of objects is skipped after the error
+        Assert.assertEquals(1, callingThreadLoads.get());
+
+        // Permit is released after the failed load
+        assertHelperAvailable(dataSource);
+    }
+
+    @Test
+    public void testIsolatedContextFailure() throws Exception {
+        TestDataSource dataSource = new TestDataSource(true, 3);
+        Mockito.when(dataSource.instance.openIsolatedContext(
+            ArgumentMatchers.any(), ArgumentMatchers.anyString(), ArgumentMatchers.any()
+        )).thenThrow(new DBException("Too many connections"));
+        List<DBSObject> objects = dataSource.makeObjects(6);
+        List<DBSObject> loaded = new CopyOnWriteArrayList<>();
+        Set<Thread> threads = Collections.synchronizedSet(new HashSet<>());
+
+        MetadataLoader.loadObjects(monitor, objects, "Test", (m, object) -> {
+            loaded.add(object);
+            threads.add(Thread.currentThread());
+        });
+
+        // Objects taken by helpers are returned to the calling thread
+        Assert.assertEquals(new HashSet<>(objects), new HashSet<>(loaded));
+        Assert.assertEquals(objects.size(), loaded.size());
+        Assert.assertEquals(Set.of(Thread.currentThread()), threads);
+    }
+
+    private void assertHelperAvailable(@NotNull TestDataSource dataSource) throws DBException {
+        CountDownLatch started = new CountDownLatch(2);
+        MetadataLoader.loadObjects(monitor, dataSource.makeObjects(2), "Test", (m, object) -> {
+            try {
+                started.countDown();
+                started.await(TIMEOUT, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new DBException("Interrupted", e);
+            }
+        });
+        Assert.assertEquals("Helper permit was not released", 0, started.getCount());
+    }
+
+    private static class TestDataSource {
+        final DBPDriver driver = Mockito.mock(DBPDriver.class);
+        final DBPPreferenceStore preferenceStore = Mockito.mock(DBPPreferenceStore.class);
+        final DBPDataSourceContainer container = Mockito.mock(DBPDataSourceContainer.class);
+        final DBPDataSource dataSource = Mockito.mock(DBPDataSource.class);
+        final DBSInstance instance = Mockito.mock(DBSInstance.class);
+        final List<DBCExecutionContext> openedContexts = new CopyOnWriteArrayList<>();
+
+        TestDataSource(boolean threadSafe, int parallelConnections) {
+            Mockito.when(driver.isThreadSafeDriver()).thenReturn(threadSafe);
+            Mockito.when(preferenceStore.getString(ModelPreferences.META_SEPARATE_CONNECTION))
+                .thenReturn(ModelPreferences.SeparateConnectionBehavior.DEFAULT.name());
+            Mockito.when(preferenceStore.getInt(ModelPreferences.META_PARALLEL_CONNECTIONS)).thenReturn(parallelConnections);
+            Mockito.when(container.getDriver()).thenReturn(driver);
+            Mockito.when(container.getPreferenceStore()).thenReturn(preferenceStore);
+            Mockito.when(dataSource.getContainer()).thenReturn(container);
+            Mockito.when(dataSource.getDefaultInstance()).thenReturn(instance);
+            try {
+                Mockito.when(instance.openIsolatedContext(
+                    ArgumentMatchers.any(), ArgumentMatchers.anyString(), ArgumentMatchers.any()
+                )).thenAnswer(invocation -> {
+                    DBCExecutionContext context = Mockito.mock(DBCExecutionContext.class);
+                    openedContexts.add(context);
+                    return context;
+                });
+            } catch (DBException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        List<DBSObject> makeObjects(int count) {
+            List<DBSObject> objects = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                DBSObject object = Mockito.mock(DBSObject.class);
+                Mockito.when(object.getName()).thenReturn("schema" + i);
+                Mockito.when(object.getDataSource()).thenReturn(dataSource);
+                objects.add(object);
+            }
+            return objects;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct.cache;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+public class MetadataSnapshotStoreTest {
+
+    private static final String OWNER_ID = "postgres/db/public";
+    private static final String CACHE_TYPE = "org.jkiss.dbeaver.ext.postgresql.model.PostgreSchema$TableCache";
+    private static final long MAX_AGE = 60 * 60 * 1000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSaveAndRead() throws Exception {
+        MetadataSnapshotStore store = new MetadataSnapshotStore(folder.getRoot().toPath(), "1.0");
+        MetadataSnapshot snapshot = makeSnapshot();
+        store.saveSnapshot(OWNER_ID, CACHE_TYPE, snapshot);
+
+        MetadataSnapshot loaded = store.readSnapshot("session1", OWNER_ID, CACHE_TYPE, MAX_AGE);
+        Assert.assertNotNull(loaded);
+        Assert.assertTrue(loaded.hasSameContent(snapshot));
+        Assert.assertEquals(snapshot.getTimestamp(), loaded.getTimestamp());
+        Assert.assertEquals("relname", loaded.getColumnLabel(0));
+        Assert.assertEquals(Types.BIGINT, loaded.getColumnType(1));
+        Assert.assertArrayEquals(new byte[] {1, 2, 3}, (byte[]) loaded.getRows().get(0)[4]);
+        Assert.assertNull(loaded.getRows().get(1)[2]);
+        Assert.assertFalse(loaded.isValidated());
+    }
+
+    @Test
+    public void testFirstReadInSession() throws Exception {
+        MetadataSnapshotStore store = new MetadataSnapshotStore(folder.getRoot().toPath(), "1.0");
+        store.saveSnapshot(OWNER_ID, CACHE_TYPE, makeSnapshot());
+
+        Assert.assertNotNull(store.readSnapshot("session1", OWNER_ID, CACHE_TYPE, MAX_AGE));
+        // Refresh reads the live catalog
+        Assert.assertNull(store.readSnapshot("session1", OWNER_ID, CACHE_TYPE, MAX_AGE));
+
+        // Snapshot refreshed by revalidation can be read once again
+        store.markValidated(OWNER_ID, CACHE_TYPE);
+        MetadataSnapshot validated = store.readSnapshot("session1", OWNER_ID, CACHE_TYPE, MAX_AGE);
+        Assert.assertNotNull(validated);
+        Assert.assertTrue(validated.isValidated());
+        Assert.assertNull(store.readSnapshot("session1", OWNER_ID, CACHE_TYPE, MAX_AGE));
+
+        // Reconnect
+        Assert.assertNotNull(store.readSnapshot("session2", OWNER_ID, CACHE_TYPE, MAX_AGE));
+    }
+
+    @Test
+    public void testObsoleteSnapshots() throws Exception {
+        Path root = folder.getRoot().toPath();
+        MetadataSnapshotStore store = new MetadataSnapshotStore(root, "1.0");
+        store.saveSnapshot(OWNER_ID, CACHE_TYPE, makeSnapshot());
+
+        Thread.sleep(10);
+        Assert.assertNull(store.readSnapshot("session1", OWNER_ID, CACHE_TYPE, 1));
+        // Expired snapshot is removed
+        Assert.assertNull(store.readSnapshot("session2", OWNER_ID, CACHE_TYPE, 0));
+
+        store.saveSnapshot(OWNER_ID, CACHE_TYPE, makeSnapshot());
+        Assert.assertNull(new MetadataSnapshotStore(root, "2.0").readSnapshot("session1", OWNER_ID, CACHE_TYPE, MAX_AGE));
+        Assert.assertNull(store.readSnapshot("session3", OWNER_ID, CACHE_TYPE, MAX_AGE));
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        MetadataSnapshotStore store = new MetadataSnapshotStore(folder.getRoot().toPath(), "1.0");
+        store.saveSnapshot(OWNER_ID, CACHE_TYPE, makeSnapshot());
+        store.saveSnapshot(OWNER_ID, CACHE_TYPE + "#children", makeSnapshot());
+        store.saveSnapshot("postgres/db", CACHE_TYPE, makeSnapshot());
+
+        store.invalidate(OWNER_ID);
+        Assert.assertNull(store.readSnapshot("session1", OWNER_ID, CACHE_TYPE, MAX_AGE));
+        Assert.assertNull(store.readSnapshot("session1", OWNER_ID, CACHE_TYPE + "#children", MAX_AGE));
+        Assert.assertNotNull(store.readSnapshot("session1", "postgres/db", CACHE_TYPE, MAX_AGE));
+
+        store.clear();
+        Assert.assertNull(store.readSnapshot("session2", "postgres/db", CACHE_TYPE, MAX_AGE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedValue() {
+        MetadataSnapshot snapshot = new MetadataSnapshot(new String[] {"value"}, new int[] {Types.OTHER});
+        snapshot.addRow(new Object[] {new Object()});
+    }
+
+    private static MetadataSnapshot makeSnapshot() {
+        MetadataSnapshot snapshot = new MetadataSnapshot(
+            new String[] {"relname", "reltuples", "description", "relsize", "relacl", "created", "is_view"},
+            new int[] {Types.VARCHAR, Types.BIGINT, Types.VARCHAR, Types.NUMERIC, Types.BINARY, Types.TIMESTAMP, Types.BOOLEAN});
+        Timestamp created = new Timestamp(1700000000000L);
+        created.setNanos(123456789);
+        snapshot.addRow(new Object[] {"orders", 1000L, "Customer orders", new BigDecimal("8192.5"), new byte[] {1, 2, 3}, created, false});
+        snapshot.addRow(new Object[] {"order_view", 0L, null, null, null, null, true});
+        return snapshot;
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.qm.QMEventCursor;
+import org.jkiss.dbeaver.model.qm.QMMetaEventEntity;
+import org.jkiss.dbeaver.model.qm.QMObjectType;
+import org.jkiss.dbeaver.model.qm.filters.QMCursorFilter;
+import org.jkiss.dbeaver.model.qm.filters.QMDateRange;
+import org.jkiss.dbeaver.model.qm.filters.QMEventCriteria;
+import org.jkiss.dbeaver.model.qm.filters.QMEventStatus;
+import org.jkiss.dbeaver.model.qm.meta.QMMConnectionInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMProjectInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementExecuteInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementInfo;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class QMHistoryStoreTest {
+
+    private static final long BASE_TIME = 1700000000000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testAppendAndRead() throws Exception {
+        QMHistoryStore store = new QMHistoryStore(folder.getRoot().toPath());
+        store.append(List.of(
+            makeQuery("postgres-1", "SELECT * FROM orders", 0, null),
+            makeQuery("postgres-1", "UPDATE orders SET status = 1", 1, "permission denied"),
+            makeQuery("mysql-1", "SELECT * FROM items", 2, null)));
+        store.close();
+
+        List<QMMetaEventEntity> events = readEvents(store, new QMEventCriteria());
+        Assert.assertEquals(3, events.size());
+        // Newest first
+        QMMStatementExecuteInfo last = (QMMStatementExecuteInfo) events.get(0).getObject();
+        Assert.assertEquals("SELECT * FROM items", last.getQueryString());
+        Assert.assertEquals(3, events.get(0).getId());
+        Assert.assertEquals(BASE_TIME + 2000, last.getOpenTime());
+        Assert.assertEquals(BASE_TIME + 2010, last.getCloseTime());
+        Assert.assertEquals(DBCExecutionPurpose.USER, last.getStatement().getPurpose());
+        QMMConnectionInfo connection = last.getConnection();
+        Assert.assertEquals("mysql-1", connection.getContainerId());
+        Assert.assertEquals("Connection mysql-1", connection.getContainerName());
+        Assert.assertEquals("test:driver", connection.getDriverId());
+        Assert.assertEquals("test", connection.getProjectInfo().getId());
+        Assert.assertEquals("public", last.getSchema());
+        Assert.assertNull(last.getCatalog());
+
+        QMMStatementExecuteInfo failed = (QMMStatementExecuteInfo) events.get(1).getObject();
+        Assert.assertTrue(failed.hasError());
+        Assert.assertEquals("permission denied", failed.getErrorMessage());
+        Assert.assertEquals(42, failed.getErrorCode());
+
+        QMEventCriteria criteria = new QMEventCriteria();
+        criteria.setDesc(false);
+        Assert.assertEquals(1, readEvents(store, criteria).get(0).getId());
+
+        // Transactions and sessions are not stored
+        criteria = new QMEventCriteria();
+        criteria.setObjectTypes(new QMObjectType[] {QMObjectType.txn});
+        Assert.assertTrue(readEvents(store, criteria).isEmpty());
+    }
+
+    @Test
+    public void testSearch() throws Exception {
+        QMHistoryStore store = new QMHistoryStore(folder.getRoot().toPath());
+        store.append(List.of(
+            makeQuery("postgres-1", "SELECT * FROM orders", 0, null),
+            makeQuery("postgres-1", "UPDATE orders SET status = 1", 1, "permission denied"),
+            makeQuery("mysql-1", "SELECT * FROM Order_Items", 2, null)));
+
+        QMEventCriteria criteria = new QMEventCriteria();
+        criteria.setSearchString("ORDER_");
+        Assert.assertEquals(List.of("SELECT * FROM Order_Items"), getQueries(readEvents(store, criteria)));
+        criteria.setSearchString("or");
+        Assert.assertEquals(3, readEvents(store, criteria).size());
+        criteria.setSearchString("customers");
+        Assert.assertTrue(readEvents(store, criteria).isEmpty());
+
+        criteria = new QMEventCriteria();
+        criteria.setContainerId("postgres-1");
+        criteria.setEventStatuses(Set.of(QMEventStatus.SUCCESS));
+        Assert.assertEquals(List.of("SELECT * FROM orders"), getQueries(readEvents(store, criteria)));
+
+        criteria = new QMEventCriteria();
+        criteria.setQueryTypes(new DBCExecutionPurpose[] {DBCExecutionPurpose.META});
+        Assert.assertTrue(readEvents(store, criteria).isEmpty());
+
+        criteria = new QMEventCriteria();
+        criteria.setStartDateRange(new QMDateRange(String.valueOf(BASE_TIME + 500), String.valueOf(BASE_TIME + 1500)));
+        Assert.assertEquals(List.of("UPDATE orders SET status = 1"), getQueries(readEvents(store, criteria)));
+
+        // Custom filter is applied to the restored events
+        QMCursorFilter cursorFilter = new QMCursorFilter(null, new QMEventCriteria(),
+            event -> ((QMMStatementExecuteInfo) event.getObject()).getConnection().getContainerId().startsWith("mysql"));
+        try (QMEventCursor cursor = store.getQueryHistoryCursor(cursorFilter)) {
+            Assert.assertTrue(cursor.hasNextEvent(new VoidProgressMonitor()));
+            Assert.assertEquals(3, cursor.nextEvent(new VoidProgressMonitor()).getId());
+            Assert.assertFalse(cursor.hasNextEvent(new VoidProgressMonitor()));
+        }
+    }
+
+    @Test
+    public void testPaging() throws Exception {
+        QMHistoryStore store = new QMHistoryStore(folder.getRoot().toPath());
+        List<QMMStatementExecuteInfo> queries = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            queries.add(makeQuery("postgres-1", "SELECT " + i, i, null));
+        }
+        store.append(queries);
+
+        QMEventCriteria criteria = new QMEventCriteria();
+        criteria.setFetchingSize(10);
+        List<Long> ids = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            List<QMMetaEventEntity> events = readEvents(store, criteria);
+            Assert.assertEquals(page < 2 ? 10 : 5, events.size());
+            events.forEach(e -> ids.add(e.getId()));
+            criteria.setLastEventId(events.get(events.size() - 1).getId());
+        }
+        Assert.assertEquals(25, ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Assert.assertEquals(25 - i, ids.get(i).longValue());
+        }
+    }
+
+    @Test
+    public void testSegments() throws Exception {
+        Path root = folder.getRoot().toPath();
+        QMHistoryStore store = new QMHistoryStore(root);
+        // Each batch exceeds segment size, so each one goes to its own segment
+        String longQuery = "SELECT '" + "x".repeat((int) QMHistoryStore.SEGMENT_MAX_SIZE) + "'";
+        store.append(List.of(makeQuery("postgres-1", longQuery, 0, null)));
+        store.append(List.of(makeQuery("postgres-1", "SELECT 1", 100, null)));
+        store.append(List.of(makeQuery("mysql-1", "SELECT 2", 200, null)));
+        store.close();
+        Assert.assertEquals(2, countFiles(root, ".qmh"));
+
+        // Reopened store continues ids in a new segment
+        store = new QMHistoryStore(root);
+        store.append(List.of(makeQuery("mysql-1", "SELECT 3", 300, null)));
+        store.close();
+        Assert.assertEquals(3, countFiles(root, ".qmh"));
+        List<QMMetaEventEntity> events = readEvents(store, new QMEventCriteria());
+        Assert.assertEquals(List.of("SELECT 3", "SELECT 2", "SELECT 1", longQuery), getQueries(events));
+        Assert.assertEquals(4, events.get(0).getId());
+
+        // Damaged record at the end of a segment is skipped
+        Path lastSegment;
+        try (Stream<Path> list = Files.list(root)) {
+            lastSegment = list.filter(p -> p.toString().endsWith(".qmh")).sorted().toList().get(1);
+        }
+        try (RandomAccessFile file = new RandomAccessFile(lastSegment.toFile(), "rw")) {
+            file.setLength(file.length() - 3);
+        }
+        store = new QMHistoryStore(root);
+        Assert.assertEquals(List.of("SELECT 3", "SELECT 1", longQuery), getQueries(readEvents(store, new QMEventCriteria())));
+
+        // Old segments are removed
+        store.purge(BASE_TIME + 250 * 1000);
+        Assert.assertEquals(1, countFiles(root, ".qmh"));
+        Assert.assertEquals(1, countFiles(root, ".qmi"));
+        Assert.assertEquals(List.of("SELECT 3"), getQueries(readEvents(store, new QMEventCriteria())));
+    }
+
+    @NotNull
+    private static List<QMMetaEventEntity> readEvents(@NotNull QMHistoryStore store, @NotNull QMEventCriteria criteria) throws Exception {
+        List<QMMetaEventEntity> events = new ArrayList<>();
+        VoidProgressMonitor monitor = new VoidProgressMonitor();
+        try (QMEventCursor cursor = store.getQueryHistoryCursor(new QMCursorFilter(null, criteria, null))) {
+            while (cursor.hasNextEvent(monitor)) {
+                events.add(cursor.nextEvent(monitor));
+            }
+        }
+        return events;
+    }
+
+    @NotNull
+    private static List<String> getQueries(@NotNull List<QMMetaEventEntity> events) {
+        return events.stream().map(e -> ((QMMStatementExecuteInfo) e.getObject()).getQueryString()).toList();
+    }
+
+    private static long countFiles(@NotNull Path root, @NotNull String extension) throws Exception {
+        try (Stream<Path> list = Files.list(root)) {
+            return list.filter(p -> p.toString().endsWith(extension)).count();
+        }
+    }
+
+    @NotNull
+    private static QMMStatementExecuteInfo makeQuery(
+        @NotNull String containerId,
+        @NotNull String query,
+        int second,
+        @Nullable String error
+    ) {
+        long openTime = BASE_TIME + second * 1000L;
+        QMMConnectionInfo connection = QMMConnectionInfo.builder()
+            .setProjectInfo(QMMProjectInfo.builder().setId("test").setName("Test").build())
+            .setContainerId(containerId)
+            .setContainerName("Connection " + containerId)
+            .setDriverId("test:driver")
+            .setContextName("Main")
+            .setOpenTime(BASE_TIME)
+            .build();
+        QMMStatementInfo statement = new QMMStatementInfo(openTime, openTime + 10, connection, DBCExecutionPurpose.USER);
+        return new QMMStatementExecuteInfo(
+            openTime, openTime + 10, statement, query, 1, error == null ? 0 : 42, error, 0, 0, false, "public", null);
+    }
+}
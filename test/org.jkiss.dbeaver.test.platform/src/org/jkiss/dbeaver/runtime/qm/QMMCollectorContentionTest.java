@@ -0,0 +1,231 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.qm;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.app.DBPWorkspace;
+import org.jkiss.dbeaver.model.auth.SMSessionContext;
+import org.jkiss.dbeaver.model.auth.SMSessionPersistent;
+import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
+import org.jkiss.dbeaver.model.connection.DBPDriver;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.qm.QMConstants;
+import org.jkiss.dbeaver.model.qm.QMEventAction;
+import org.jkiss.dbeaver.model.qm.QMMetaEvent;
+import org.jkiss.dbeaver.model.qm.meta.QMMConnectionInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMObject;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementExecuteInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementInfo;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Query manager collector under concurrent statement execution.
+ * Each thread executes statements in its own execution context, like SQL editors and background jobs do.
+ * Also reports collector throughput for a single thread and for many threads.
+ */
+public class QMMCollectorContentionTest {
+
+    private static final int THREAD_COUNT = 16;
+    private static final int STATEMENT_COUNT = 5000;
+    // Context open, six events per statement, context close
+    private static final int EVENTS_PER_CONTEXT = 2 + STATEMENT_COUNT * 6;
+
+    @Test
+    public void testSingleThread() throws Exception {
+        runBenchmark(1);
+    }
+
+    @Test
+    public void testManyThreads() throws Exception {
+        runBenchmark(THREAD_COUNT);
+    }
+
+    private void runBenchmark(int threadCount) throws Exception {
+        QMMCollectorImpl collector = new QMMCollectorImpl(false);
+        Map<QMMConnectionInfo, StringBuilder> eventLog = new IdentityHashMap<>();
+        collector.addListener((monitor, events) -> {
+            for (QMMetaEvent event : events) {
+                eventLog.computeIfAbsent(getConnection(event.getObject()), c -> new StringBuilder())
+                    .append(getEventCode(event));
+            }
+        });
+
+        List<DBCExecutionContext> contexts = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            contexts.add(makeContext(i + 1));
+        }
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(threadCount);
+        List<Thread> threads = new ArrayList<>();
+        for (DBCExecutionContext context : contexts) {
+            threads.add(new Thread(() -> {
+                try {
+                    startSignal.await();
+                    executeStatements(collector, context);
+                } catch (Throwable e) {
+                    error.compareAndSet(null, e);
+                } finally {
+                    finished.countDown();
+                }
+            }, "QM client " + context.getContextId()));
+        }
+
+        // Single event consumer, like the regular events dispatcher
+        AtomicBoolean stopped = new AtomicBoolean();
+        Thread dispatcher = new Thread(() -> {
+            VoidProgressMonitor monitor = new VoidProgressMonitor();
+            while (!stopped.get()) {
+                collector.dispatchEvents(monitor);
+                Thread.yield();
+            }
+        }, "QM dispatcher");
+        dispatcher.start();
+        threads.forEach(Thread::start);
+
+        long startTime = System.nanoTime();
+        startSignal.countDown();
+        finished.await();
+        long duration = Math.max(1, System.nanoTime() - startTime);
+        stopped.set(true);
+        dispatcher.join();
+        collector.dispatchEvents(new VoidProgressMonitor());
+        collector.dispose();
+
+        if (error.get() != null) {
+            throw new AssertionError("Statement execution failed", error.get());
+        }
+        Assert.assertEquals(threadCount, eventLog.size());
+        String expectedLog = "C+" + "S+E+E~E~E-S-".repeat(STATEMENT_COUNT) + "C-";
+        for (Map.Entry<QMMConnectionInfo, StringBuilder> entry : eventLog.entrySet()) {
+            // Events of each context are dispatched in the order they happened
+            Assert.assertEquals(EVENTS_PER_CONTEXT * 2, entry.getValue().length());
+            Assert.assertEquals(expectedLog, entry.getValue().toString());
+        }
+        // Closed connections are removed by the dispatcher
+        for (DBCExecutionContext context : contexts) {
+            Assert.assertNull(collector.getConnectionInfo(context));
+        }
+
+        long eventCount = (long) EVENTS_PER_CONTEXT * threadCount;
+        System.out.println("QM collector: " + (eventCount * 1_000_000_000L / duration) + " events/s (" +
+            threadCount + " threads, " + STATEMENT_COUNT + " statements per thread)");
+    }
+
+    private static void executeStatements(@NotNull QMMCollectorImpl collector, @NotNull DBCExecutionContext context) {
+        collector.handleContextOpen(context, false);
+
+        DBCSession session = stub(DBCSession.class);
+        Mockito.when(session.getExecutionContext()).thenReturn(context);
+        Mockito.when(session.getPurpose()).thenReturn(DBCExecutionPurpose.USER);
+        DBPDataSource dataSource = context.getDataSource();
+        Mockito.when(session.getDataSource()).thenReturn(dataSource);
+        DBCStatement statement = stub(DBCStatement.class);
+        Mockito.when(statement.getSession()).thenReturn(session);
+        Mockito.when(statement.getQueryString()).thenReturn("SELECT 1");
+        DBCResultSet resultSet = stub(DBCResultSet.class);
+        Mockito.when(resultSet.getSession()).thenReturn(session);
+        Mockito.when(resultSet.getSourceStatement()).thenReturn(statement);
+
+        for (int i = 0; i < STATEMENT_COUNT; i++) {
+            collector.handleStatementOpen(statement);
+            collector.handleStatementExecuteBegin(statement);
+            collector.handleResultSetOpen(resultSet);
+            collector.handleResultSetClose(resultSet, 1);
+            collector.handleStatementExecuteEnd(statement, 1, null);
+            collector.handleStatementClose(statement, 1);
+        }
+
+        collector.handleContextClose(context);
+    }
+
+    @NotNull
+    private static DBCExecutionContext makeContext(long contextId) throws Exception {
+        SMSessionPersistent qmSession = stub(SMSessionPersistent.class);
+        Mockito.when(qmSession.<String>getAttribute(QMConstants.QM_SESSION_ID_ATTR)).thenReturn("test-session");
+        SMSessionContext authContext = stub(SMSessionContext.class);
+        Mockito.when(authContext.getSpaceSession(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.anyBoolean()))
+            .thenReturn(qmSession);
+        DBPWorkspace workspace = stub(DBPWorkspace.class);
+        Mockito.when(workspace.getAuthContext()).thenReturn(authContext);
+
+        DBPProject project = stub(DBPProject.class);
+        Mockito.when(project.getId()).thenReturn("test");
+        Mockito.when(project.getName()).thenReturn("Test");
+        Mockito.when(project.getProjectID()).thenReturn(UUID.randomUUID());
+        Mockito.when(project.getAbsolutePath()).thenReturn(Path.of("test"));
+        Mockito.when(project.getSessionContext()).thenReturn(stub(SMSessionContext.class));
+        Mockito.when(project.getWorkspace()).thenReturn(workspace);
+
+        DBPDriver driver = stub(DBPDriver.class);
+        Mockito.when(driver.getFullId()).thenReturn("test:driver");
+        DBPDataSourceContainer container = stub(DBPDataSourceContainer.class);
+        Mockito.when(container.getId()).thenReturn("test-" + contextId);
+        Mockito.when(container.getName()).thenReturn("Test " + contextId);
+        Mockito.when(container.getDriver()).thenReturn(driver);
+        Mockito.when(container.getProject()).thenReturn(project);
+        Mockito.when(container.getConnectionConfiguration()).thenReturn(new DBPConnectionConfiguration());
+        DBPDataSource dataSource = stub(DBPDataSource.class);
+        Mockito.when(dataSource.getContainer()).thenReturn(container);
+        DBSInstance instance = stub(DBSInstance.class);
+        Mockito.when(instance.getName()).thenReturn("main");
+
+        DBCExecutionContext context = stub(DBCExecutionContext.class);
+        Mockito.when(context.getContextId()).thenReturn(contextId);
+        Mockito.when(context.getContextName()).thenReturn("Context " + contextId);
+        Mockito.when(context.getDataSource()).thenReturn(dataSource);
+        Mockito.when(context.getOwnerInstance()).thenReturn(instance);
+        return context;
+    }
+
+    // Stub-only mocks do not record invocations, so they don't add contention of their own
+    @NotNull
+    private static <T> T stub(@NotNull Class<T> type) {
+        return Mockito.mock(type, Mockito.withSettings().stubOnly());
+    }
+
+    @NotNull
+    private static QMMConnectionInfo getConnection(@NotNull QMMObject object) {
+        if (object instanceof QMMStatementExecuteInfo exec) {
+            return exec.getStatement().getConnection();
+        } else if (object instanceof QMMStatementInfo stat) {
+            return stat.getConnection();
+        }
+        return (QMMConnectionInfo) object;
+    }
+
+    @NotNull
+    private static String getEventCode(@NotNull QMMetaEvent event) {
+        QMMObject object = event.getObject();
+        String type = object instanceof QMMStatementExecuteInfo ? "E" : object instanceof QMMStatementInfo ? "S" : "C";
+        return type + (event.getAction() == QMEventAction.BEGIN ? "+" : event.getAction() == QMEventAction.END ? "-" : "~");
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.tools.transfer.stream.arrow.ArrowColumn;
+import org.jkiss.dbeaver.tools.transfer.stream.arrow.ArrowStreamWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.List;
+
+public class ArrowStreamWriterTest {
+
+    private static final List<ArrowColumn> COLUMNS = List.of(
+        ArrowColumn.of("id", ArrowColumn.Kind.INT64),
+        ArrowColumn.of("name", ArrowColumn.Kind.UTF8),
+        ArrowColumn.decimal("amount", 20, 2),
+        ArrowColumn.of("created", ArrowColumn.Kind.DATE_DAY),
+        ArrowColumn.timestamp("updated", false),
+        ArrowColumn.of("active", ArrowColumn.Kind.BOOL),
+        ArrowColumn.of("ratio", ArrowColumn.Kind.FLOAT64)
+    );
+
+    private static final int ROW_COUNT = 2500;
+    private static final int BATCH_SIZE = 1000;
+
+    @Test
+    public void testFileFormat() throws Exception {
+        ByteBuffer file = ByteBuffer.wrap(writeRows(true)).order(ByteOrder.LITTLE_ENDIAN);
+        int size = file.capacity();
+        Assert.assertEquals("ARROW1", new String(file.array(), 0, 6, StandardCharsets.US_ASCII));
+        Assert.assertEquals("ARROW1", new String(file.array(), size - 6, 6, StandardCharsets.US_ASCII));
+
+        int footerLength = file.getInt(size - 10);
+        int footer = size - 10 - footerLength;
+        Assert.assertEquals(0, footer % 8);
+        int footerTable = footer + file.getInt(footer);
+
+        // Schema
+        int schema = indirect(file, field(file, footerTable, 1));
+        int fields = indirect(file, field(file, schema, 1));
+        Assert.assertEquals(COLUMNS.size(), file.getInt(fields));
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            int fieldTable = indirect(file, fields + 4 + i * 4);
+            Assert.assertEquals(COLUMNS.get(i).getName(), readString(file, indirect(file, field(file, fieldTable, 0))));
+        }
+
+        // Record batches
+        int blocks = indirect(file, field(file, footerTable, 3));
+        int blockCount = file.getInt(blocks);
+        Assert.assertEquals((ROW_COUNT + BATCH_SIZE - 1) / BATCH_SIZE, blockCount);
+        int row = 0;
+        for (int i = 0; i < blockCount; i++) {
+            int block = blocks + 4 + i * 24;
+            Assert.assertEquals(0, block % 8);
+            int offset = (int) file.getLong(block);
+            int metadataLength = file.getInt(block + 8);
+            Assert.assertEquals(0, offset % 8);
+            Assert.assertEquals(0, metadataLength % 8);
+            Assert.assertEquals(-1, file.getInt(offset));
+            row += checkRecordBatch(file, offset + 8, offset + metadataLength, row);
+        }
+        Assert.assertEquals(ROW_COUNT, row);
+    }
+
+    @Test
+    public void testStreamFormat() throws Exception {
+        ByteBuffer stream = ByteBuffer.wrap(writeRows(false)).order(ByteOrder.LITTLE_ENDIAN);
+        int position = 0;
+        int row = 0;
+        boolean schemaRead = false;
+        while (true) {
+            Assert.assertEquals(-1, stream.getInt(position));
+            int metadataLength = stream.getInt(position + 4);
+            if (metadataLength == 0) {
+                Assert.assertEquals(stream.capacity(), position + 8);
+                break;
+            }
+            int messageStart = position + 8;
+            int message = messageStart + stream.getInt(messageStart);
+            byte headerType = stream.get(field(stream, message, 1));
+            long bodyLength = stream.getLong(field(stream, message, 3));
+            if (!schemaRead) {
+                Assert.assertEquals(1, headerType);
+                schemaRead = true;
+            } else {
+                Assert.assertEquals(3, headerType);
+                row += checkRecordBatch(stream, messageStart, messageStart + metadataLength, row);
+            }
+            position = messageStart + metadataLength + (int) bodyLength;
+            Assert.assertEquals(0, position % 8);
+        }
+        Assert.assertEquals(ROW_COUNT, row);
+    }
+
+    private static byte[] writeRows(boolean fileFormat) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ArrowStreamWriter writer = new ArrowStreamWriter(out, COLUMNS, fileFormat, BATCH_SIZE);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            writer.writeRow(new Object[]{
+                (long) i,
+                i % 7 == 0 ? null : "name" + i,
+                i % 5 == 0 ? null : new BigDecimal("-1234567890.5").add(BigDecimal.valueOf(i)),
+                Date.valueOf("2024-01-01"),
+                Timestamp.valueOf("1970-01-01 00:00:01.000002"),
+                i % 3 == 0,
+                i / 4.0
+            });
+        }
+        writer.finish();
+        Assert.assertEquals(ROW_COUNT, writer.getRowCount());
+        return out.toByteArray();
+    }
+
+    /**
+     * Checks record batch values and returns row count
+     */
+    private static int checkRecordBatch(ByteBuffer buffer, int messageStart, int bodyStart, int firstRow) {
+        int message = messageStart + buffer.getInt(messageStart);
+        int recordBatch = indirect(buffer, field(buffer, message, 2));
+        int length = (int) buffer.getLong(field(buffer, recordBatch, 0));
+        int nodes = indirect(buffer, field(buffer, recordBatch, 1));
+        int buffers = indirect(buffer, field(buffer, recordBatch, 2));
+        Assert.assertEquals(COLUMNS.size(), buffer.getInt(nodes));
+        Assert.assertEquals(length, buffer.getLong(nodes + 4));
+
+        // id: validity, values
+        int idValues = bodyStart + (int) buffer.getLong(buffers + 4 + 16);
+        // name: validity, offsets, data
+        int nameValidity = bodyStart + (int) buffer.getLong(buffers + 4 + 2 * 16);
+        int nameOffsets = bodyStart + (int) buffer.getLong(buffers + 4 + 3 * 16);
+        int nameData = bodyStart + (int) buffer.getLong(buffers + 4 + 4 * 16);
+        // amount: validity, values
+        int amountValues = bodyStart + (int) buffer.getLong(buffers + 4 + 6 * 16);
+        int dateValues = bodyStart + (int) buffer.getLong(buffers + 4 + 8 * 16);
+        int timestampValues = bodyStart + (int) buffer.getLong(buffers + 4 + 10 * 16);
+        int boolValues = bodyStart + (int) buffer.getLong(buffers + 4 + 12 * 16);
+        int ratioValues = bodyStart + (int) buffer.getLong(buffers + 4 + 14 * 16);
+        for (int i = 0; i < buffer.getInt(buffers); i++) {
+            Assert.assertEquals(0, buffer.getLong(buffers + 4 + i * 16) % 8);
+        }
+
+        for (int i = 0; i < length; i++) {
+            int row = firstRow + i;
+            Assert.assertEquals(row, buffer.getLong(idValues + i * 8));
+            boolean nameValid = (buffer.get(nameValidity + i / 8) & (1 << (i % 8))) != 0;
+            Assert.assertEquals(row % 7 != 0, nameValid);
+            if (nameValid) {
+                int start = buffer.getInt(nameOffsets + i * 4);
+                int end = buffer.getInt(nameOffsets + i * 4 + 4);
+                Assert.assertEquals("name" + row, new String(buffer.array(), nameData + start, end - start, StandardCharsets.UTF_8));
+            }
+            if (row % 5 != 0) {
+                byte[] bigEndian = new byte[16];
+                for (int b = 0; b < 16; b++) {
+                    bigEndian[15 - b] = buffer.get(amountValues + i * 16 + b);
+                }
+                Assert.assertEquals(
+                    new BigDecimal("-1234567890.5").add(BigDecimal.valueOf(row)).setScale(2),
+                    new BigDecimal(new BigInteger(bigEndian), 2));
+            }
+            Assert.assertEquals(19723, buffer.getInt(dateValues + i * 4));
+            Assert.assertEquals(1_000_002L, buffer.getLong(timestampValues + i * 8));
+            Assert.assertEquals(row % 3 == 0, (buffer.get(boolValues + i / 8) & (1 << (i % 8))) != 0);
+            Assert.assertEquals(row / 4.0, buffer.getDouble(ratioValues + i * 8), 0.0);
+        }
+        return length;
+    }
+
+    private static int field(ByteBuffer buffer, int table, int id) {
+        int vtable = table - buffer.getInt(table);
+        int vtableSize = buffer.getShort(vtable);
+        int offset = 4 + id * 2 < vtableSize ? buffer.getShort(vtable + 4 + id * 2) : 0;
+        Assert.assertNotEquals("Field " + id + " is missing", 0, offset);
+        return table + offset;
+    }
+
+    private static int indirect(ByteBuffer buffer, int position) {
+        return position + buffer.getInt(position);
+    }
+
+    private static String readString(ByteBuffer buffer, int position) {
+        return new String(buffer.array(), position + 4, buffer.getInt(position), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.tools.transfer.stream.importer.CSVParallelReader;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CSVParallelReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final int RECORD_COUNT = 1000;
+
+    @Test
+    public void testOrderedChunks() throws Exception {
+        Path file = writeFile(false);
+        List<String> records = readRecords(file, true, 0);
+        Assert.assertEquals(expectedRecords(), records);
+    }
+
+    @Test
+    public void testUnorderedChunks() throws Exception {
+        Path file = writeFile(false);
+        List<String> records = readRecords(file, false, 0);
+        records.sort(null);
+        List<String> expected = expectedRecords();
+        expected.sort(null);
+        Assert.assertEquals(expected, records);
+    }
+
+    @Test
+    public void testByteOrderMark() throws Exception {
+        Path file = writeFile(true);
+        Assert.assertEquals(expectedRecords(), readRecords(file, true, 3));
+    }
+
+    @Test
+    public void testEscapeOutsideQuotes() throws Exception {
+        // Escape character outside of quotes is a regular character and doesn't escape line feeds
+        List<String> expected = new ArrayList<>();
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            String record = i + ",\"quoted \\\" \\\\\",c:\\dir" + i + "\\";
+            expected.add(record);
+            content.append(record).append('\n');
+        }
+        Path file = folder.newFile().toPath();
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+
+        CSVParallelReader.ChunkParser parser = (reader, firstChunk, rows) -> {
+            BufferedReader lineReader = new BufferedReader(reader);
+            for (String line; (line = lineReader.readLine()) != null; ) {
+                rows.add(new String[]{line});
+            }
+        };
+        List<String> records = new ArrayList<>();
+        int chunkCount = 0;
+        try (CSVParallelReader reader = new CSVParallelReader(
+            file, StandardCharsets.UTF_8, 4, 100, true, '"', '\\', parser))
+        {
+            reader.start();
+            for (CSVParallelReader.Chunk chunk; (chunk = reader.nextChunk()) != null; ) {
+                chunkCount++;
+                for (String[] row : chunk.getRows()) {
+                    records.add(row[0]);
+                }
+            }
+        }
+        Assert.assertEquals(expected, records);
+        Assert.assertTrue("File was not split into chunks", chunkCount > 1);
+
+        // File is not locked after the reader is closed
+        Files.delete(file);
+    }
+
+    @Test
+    public void testSupportedCharsets() {
+        Assert.assertTrue(CSVParallelReader.isSupported(StandardCharsets.UTF_8, ',', '"', '\\'));
+        Assert.assertTrue(CSVParallelReader.isSupported(StandardCharsets.ISO_8859_1, ';', '\''));
+        Assert.assertFalse(CSVParallelReader.isSupported(StandardCharsets.UTF_16, ',', '"'));
+        Assert.assertFalse(CSVParallelReader.isSupported(StandardCharsets.UTF_8, '\u00A7'));
+    }
+
+    private Path writeFile(boolean bom) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (bom) {
+            out.write(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF});
+        }
+        for (String record : expectedRecords()) {
+            out.write((record + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        Path file = folder.newFile().toPath();
+        Files.write(file, out.toByteArray());
+        return file;
+    }
+
+    private static List<String> expectedRecords() {
+        List<String> records = new ArrayList<>();
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            // Quoted values with line feeds, escaped quotes and multibyte characters
+            records.add(i + ",\"multi\nline \\\" value\n" + i + "\",\u00E4\u00F6\u00FC" + i);
+        }
+        return records;
+    }
+
+    /**
+     * Reads chunks and splits them into records. Each chunk must consist of whole records.
+     */
+    private static List<String> readRecords(Path file, boolean ordered, long dataOffset) throws Exception {
+        CSVParallelReader.ChunkParser parser = (reader, firstChunk, rows) -> {
+            StringBuilder record = new StringBuilder();
+            BufferedReader lineReader = new BufferedReader(reader);
+            for (String line; (line = lineReader.readLine()) != null; ) {
+                if (!record.isEmpty()) {
+                    record.append('\n');
+                }
+                record.append(line);
+                // Each record contains two line feeds
+                if (record.chars().filter(c -> c == '\n').count() == 2) {
+                    rows.add(new String[]{record.toString()});
+                    record.setLength(0);
+                }
+            }
+            Assert.assertEquals("Chunk ends inside a record", 0, record.length());
+        };
+        List<String> records = new ArrayList<>();
+        try (CSVParallelReader reader = new CSVParallelReader(
+            file, StandardCharsets.UTF_8, 4, 100, ordered, '"', '\\', parser))
+        {
+            reader.start();
+            long totalLength = 0;
+            for (CSVParallelReader.Chunk chunk; (chunk = reader.nextChunk()) != null; ) {
+                totalLength += chunk.getLength();
+                for (String[] row : chunk.getRows()) {
+                    records.add(row[0]);
+                }
+            }
+            Assert.assertEquals(Files.size(file) - dataOffset, totalLength);
+        }
+        return records;
+    }
+}
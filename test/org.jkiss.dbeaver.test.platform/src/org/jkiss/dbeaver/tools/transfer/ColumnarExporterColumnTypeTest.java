@@ -0,0 +1,85 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.tools.transfer.stream.exporter.ColumnarExporterAbstract;
+import org.jkiss.dbeaver.tools.transfer.stream.exporter.ColumnarExporterAbstract.ColumnType;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.Types;
+
+public class ColumnarExporterColumnTypeTest {
+
+    @Test
+    public void testNumericTypes() {
+        Assert.assertEquals(ColumnType.BOOLEAN, getColumnType(DBPDataKind.BOOLEAN, Types.BOOLEAN));
+        Assert.assertEquals(ColumnType.INT32, getColumnType(DBPDataKind.NUMERIC, Types.TINYINT));
+        Assert.assertEquals(ColumnType.INT32, getColumnType(DBPDataKind.NUMERIC, Types.INTEGER));
+        Assert.assertEquals(ColumnType.INT64, getColumnType(DBPDataKind.NUMERIC, Types.BIGINT));
+        Assert.assertEquals(ColumnType.FLOAT32, getColumnType(DBPDataKind.NUMERIC, Types.REAL));
+        Assert.assertEquals(ColumnType.FLOAT64, getColumnType(DBPDataKind.NUMERIC, Types.DOUBLE));
+        Assert.assertEquals(ColumnType.FLOAT64, getColumnType(DBPDataKind.NUMERIC, Types.OTHER));
+    }
+
+    @Test
+    public void testDecimalTypes() {
+        Assert.assertEquals(ColumnType.DECIMAL, getDecimalType(10, 2));
+        Assert.assertEquals(ColumnType.DECIMAL, getDecimalType(38, 0));
+        // Unconstrained and too wide decimals are exported as strings
+        Assert.assertNull(getDecimalType(null, null));
+        Assert.assertNull(getDecimalType(0, 0));
+        Assert.assertNull(getDecimalType(39, 2));
+        Assert.assertNull(getDecimalType(5, 6));
+        Assert.assertNull(getDecimalType(10, -1));
+    }
+
+    @Test
+    public void testOtherTypes() {
+        Assert.assertEquals(ColumnType.DATE, getColumnType(DBPDataKind.DATETIME, Types.DATE));
+        Assert.assertEquals(ColumnType.TIME, getColumnType(DBPDataKind.DATETIME, Types.TIME));
+        Assert.assertEquals(ColumnType.TIMESTAMP, getColumnType(DBPDataKind.DATETIME, Types.TIMESTAMP));
+        Assert.assertEquals(ColumnType.TIMESTAMP_TZ, getColumnType(DBPDataKind.DATETIME, Types.TIMESTAMP_WITH_TIMEZONE));
+        Assert.assertNull(getColumnType(DBPDataKind.DATETIME, Types.TIME_WITH_TIMEZONE));
+        Assert.assertEquals(ColumnType.STRING, getColumnType(DBPDataKind.STRING, Types.VARCHAR));
+        Assert.assertEquals(ColumnType.BINARY, getColumnType(DBPDataKind.BINARY, Types.VARBINARY));
+        Assert.assertEquals(ColumnType.STRING, getColumnType(DBPDataKind.CONTENT, Types.CLOB));
+        Assert.assertEquals(ColumnType.STRING, getColumnType(DBPDataKind.CONTENT, Types.SQLXML));
+        Assert.assertEquals(ColumnType.BINARY, getColumnType(DBPDataKind.CONTENT, Types.BLOB));
+        Assert.assertNull(getColumnType(DBPDataKind.STRUCT, Types.STRUCT));
+        Assert.assertNull(getColumnType(DBPDataKind.ARRAY, Types.ARRAY));
+    }
+
+    private static ColumnType getColumnType(DBPDataKind dataKind, int typeId) {
+        DBDAttributeBinding binding = Mockito.mock(DBDAttributeBinding.class);
+        Mockito.when(binding.getDataKind()).thenReturn(dataKind);
+        Mockito.when(binding.getTypeID()).thenReturn(typeId);
+        return ColumnarExporterAbstract.getColumnType(binding);
+    }
+
+    private static ColumnType getDecimalType(Integer precision, Integer scale) {
+        DBDAttributeBinding binding = Mockito.mock(DBDAttributeBinding.class);
+        Mockito.when(binding.getDataKind()).thenReturn(DBPDataKind.NUMERIC);
+        Mockito.when(binding.getTypeID()).thenReturn(Types.DECIMAL);
+        Mockito.when(binding.getPrecision()).thenReturn(precision);
+        Mockito.when(binding.getScale()).thenReturn(scale);
+        return ColumnarExporterAbstract.getColumnType(binding);
+    }
+}
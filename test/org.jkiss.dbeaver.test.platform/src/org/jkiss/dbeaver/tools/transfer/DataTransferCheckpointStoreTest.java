@@ -0,0 +1,82 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class DataTransferCheckpointStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("task").resolve(DataTransferCheckpointStore.CHECKPOINTS_FILE_NAME);
+        DataTransferCheckpointStore store = DataTransferCheckpointStore.load(file);
+        Assert.assertFalse(store.hasProgress());
+
+        DataTransferCheckpoint orders = store.getCheckpoint("0:orders");
+        orders.setKeyAttribute("id");
+        orders.commit(10000, "123456");
+        orders.commit(20000, "9007199254740993");
+        DataTransferCheckpoint customers = store.getCheckpoint("1:customers");
+        customers.commit(500, null);
+        customers.complete();
+        Assert.assertTrue(Files.exists(file));
+        Assert.assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".tmp")));
+
+        DataTransferCheckpointStore loaded = DataTransferCheckpointStore.load(file);
+        Assert.assertTrue(loaded.hasProgress());
+        Assert.assertFalse(loaded.isCompleted());
+        Assert.assertEquals(2, loaded.getCheckpoints().size());
+
+        DataTransferCheckpoint loadedOrders = loaded.getCheckpoint("0:orders");
+        Assert.assertEquals("id", loadedOrders.getKeyAttribute());
+        Assert.assertEquals("9007199254740993", loadedOrders.getLastKey());
+        Assert.assertEquals(20000, loadedOrders.getCommittedRows());
+        Assert.assertFalse(loadedOrders.isCompleted());
+
+        DataTransferCheckpoint loadedCustomers = loaded.getCheckpoint("1:customers");
+        Assert.assertNull(loadedCustomers.getKeyAttribute());
+        Assert.assertNull(loadedCustomers.getLastKey());
+        Assert.assertEquals(500, loadedCustomers.getCommittedRows());
+        Assert.assertTrue(loadedCustomers.isCompleted());
+
+        loadedOrders.complete();
+        Assert.assertTrue(DataTransferCheckpointStore.load(file).isCompleted());
+
+        loaded.clear();
+        Assert.assertFalse(Files.exists(file));
+        Assert.assertFalse(DataTransferCheckpointStore.load(file).hasProgress());
+    }
+
+    @Test
+    public void testBrokenFile() throws Exception {
+        Path file = folder.newFile(DataTransferCheckpointStore.CHECKPOINTS_FILE_NAME).toPath();
+        Files.writeString(file, "{\"checkpoints\": [{\"pipe\": ", StandardCharsets.UTF_8);
+        DataTransferCheckpointStore store = DataTransferCheckpointStore.load(file);
+        Assert.assertFalse(store.hasProgress());
+        Assert.assertTrue(store.getCheckpoints().isEmpty());
+    }
+}
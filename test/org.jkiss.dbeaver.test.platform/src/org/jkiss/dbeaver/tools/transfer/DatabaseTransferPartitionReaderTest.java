@@ -0,0 +1,251 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.data.DBDValueHandlerProvider;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.data.DefaultValueHandler;
+import org.jkiss.dbeaver.model.impl.local.LocalResultSet;
+import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseProducerSettings;
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferPartitionReader;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class DatabaseTransferPartitionReaderTest {
+
+    private static final Pattern RANGE_PATTERN = Pattern.compile("id>=(\\d+) AND id(<=?)(\\d+)");
+
+    private DBCSession session;
+    private DBSEntity entity;
+    private DBSEntityAttribute keyAttribute;
+    private DatabaseProducerSettings settings;
+    // Key value which fails partition read
+    private volatile long brokenKey = -1;
+
+    @Before
+    public void setUp() throws Exception {
+        DBPDataSource dataSource = Mockito.mock(DBPDataSource.class, Mockito.withSettings().extraInterfaces(DBDValueHandlerProvider.class));
+        Mockito.when(dataSource.getSQLDialect()).thenReturn(BasicSQLDialect.INSTANCE);
+        Mockito.when(((DBDValueHandlerProvider) dataSource).getValueHandler(Mockito.any(), Mockito.any(), Mockito.any()))
+            .thenReturn(DefaultValueHandler.INSTANCE);
+
+        DBCSession partitionSession = Mockito.mock(DBCSession.class);
+        Mockito.when(partitionSession.getDataSource()).thenReturn(dataSource);
+        DBCExecutionContext partitionContext = Mockito.mock(DBCExecutionContext.class);
+        Mockito.when(partitionContext.openSession(Mockito.any(), Mockito.any(), Mockito.anyString())).thenReturn(partitionSession);
+        DBSInstance instance = Mockito.mock(DBSInstance.class);
+        Mockito.when(instance.openIsolatedContext(Mockito.any(), Mockito.anyString(), Mockito.any())).thenReturn(partitionContext);
+
+        entity = Mockito.mock(DBSEntity.class, Mockito.withSettings().extraInterfaces(DBSDataContainer.class));
+        Mockito.when(entity.getName()).thenReturn("orders");
+        Mockito.when(entity.getParentObject()).thenReturn(instance);
+        Mockito.doAnswer(invocation -> readPartition(
+                invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3)))
+            .when((DBSDataContainer) entity).readData(
+                Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.anyLong(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyInt());
+
+        keyAttribute = Mockito.mock(DBSEntityAttribute.class);
+        Mockito.when(keyAttribute.getName()).thenReturn("id");
+        Mockito.when(keyAttribute.getDataSource()).thenReturn(dataSource);
+        Mockito.when(keyAttribute.getDataKind()).thenReturn(DBPDataKind.NUMERIC);
+        Mockito.when(keyAttribute.isRequired()).thenReturn(true);
+
+        session = Mockito.mock(DBCSession.class);
+        Mockito.when(session.getProgressMonitor()).thenReturn(new VoidProgressMonitor());
+        Mockito.when(session.getExecutionContext()).thenReturn(Mockito.mock(DBCExecutionContext.class));
+        Mockito.when(session.getDataSource()).thenReturn(dataSource);
+
+        settings = new DatabaseProducerSettings();
+        settings.setPartitionCount(4);
+    }
+
+    @Test
+    public void testIntegralRangeSplit() {
+        List<BigDecimal> bounds = DatabaseTransferPartitionReader.splitKeyRange(
+            BigDecimal.valueOf(1), BigDecimal.valueOf(100), 4, true);
+        Assert.assertEquals(List.of(
+            BigDecimal.valueOf(1), BigDecimal.valueOf(25), BigDecimal.valueOf(50), BigDecimal.valueOf(75), BigDecimal.valueOf(100)), bounds);
+    }
+
+    @Test
+    public void testNarrowIntegralRangeSplit() {
+        // Less distinct keys than partitions - no empty or duplicate ranges
+        List<BigDecimal> bounds = DatabaseTransferPartitionReader.splitKeyRange(
+            BigDecimal.valueOf(10), BigDecimal.valueOf(12), 8, true);
+        Assert.assertEquals(List.of(BigDecimal.valueOf(10), BigDecimal.valueOf(11), BigDecimal.valueOf(12)), bounds);
+    }
+
+    @Test
+    public void testSingleValueRange() {
+        List<BigDecimal> bounds = DatabaseTransferPartitionReader.splitKeyRange(
+            BigDecimal.valueOf(5), BigDecimal.valueOf(5), 4, true);
+        Assert.assertEquals(2, bounds.size());
+    }
+
+    @Test
+    public void testFractionalRangeSplit() {
+        List<BigDecimal> bounds = DatabaseTransferPartitionReader.splitKeyRange(
+            new BigDecimal("0"), new BigDecimal("1"), 4, false);
+        Assert.assertEquals(5, bounds.size());
+        Assert.assertEquals(0, new BigDecimal("0.25").compareTo(bounds.get(1)));
+        Assert.assertEquals(0, new BigDecimal("0.75").compareTo(bounds.get(3)));
+    }
+
+    @Test
+    public void testLobTableIsNotPartitioned() throws Exception {
+        DBSEntityAttribute lobAttribute = Mockito.mock(DBSEntityAttribute.class);
+        Mockito.when(lobAttribute.getDataKind()).thenReturn(DBPDataKind.CONTENT);
+        Mockito.when(entity.getAttribute(Mockito.any(), Mockito.eq("id"))).thenReturn(keyAttribute);
+        Mockito.doReturn(List.of(keyAttribute, lobAttribute)).when(entity).getAttributes(Mockito.any());
+        settings.setPartitionColumn("id");
+
+        Assert.assertNull(DatabaseTransferPartitionReader.create(
+            session, Mockito.mock(DBCExecutionSource.class), (DBSDataContainer) entity, null, settings));
+    }
+
+    @Test
+    public void testReadOrdering() throws Exception {
+        DatabaseTransferPartitionReader reader = createReader();
+        Assert.assertEquals(4, reader.getPartitionCount());
+
+        RecordingReceiver receiver = new RecordingReceiver();
+        reader.readData(Mockito.mock(DBCExecutionSource.class), session, receiver, 0);
+
+        Assert.assertEquals(1, receiver.startCount);
+        Assert.assertEquals(1, receiver.endCount);
+        Assert.assertEquals(1, receiver.closeCount);
+        // Consumer is invoked in the calling thread only
+        Assert.assertEquals(Set.of(Thread.currentThread()), receiver.threads);
+
+        // Partitions are interleaved, rows of each partition keep their order
+        List<Long> keys = receiver.keys;
+        Assert.assertEquals(1001, keys.size());
+        Assert.assertEquals(1001, new HashSet<>(keys).size());
+        Map<Long, Long> lastPartitionKeys = new HashMap<>();
+        for (Long key : keys) {
+            // Partitions are [0, 250), [250, 500), [500, 750) and [750, 1000]
+            Long partition = Math.min(key / 250, 3);
+            Long lastKey = lastPartitionKeys.put(partition, key);
+            if (lastKey != null) {
+                Assert.assertTrue("Key " + key + " after " + lastKey, key > lastKey);
+            }
+        }
+    }
+
+    @Test
+    public void testReadError() throws Exception {
+        DatabaseTransferPartitionReader reader = createReader();
+        brokenKey = 600;
+
+        RecordingReceiver receiver = new RecordingReceiver();
+        try {
+            reader.readData(Mockito.mock(DBCExecutionSource.class), session, receiver, 0);
+            Assert.fail("Partition read error must be thrown");
+        } catch (DBException e) {
+            Assert.assertNotNull(e.getCause());
+            Assert.assertEquals("Broken row 600", e.getCause().getMessage());
+        }
+        // Consumer is finished even if some partition failed
+        Assert.assertEquals(1, receiver.endCount);
+        Assert.assertEquals(1, receiver.closeCount);
+        Assert.assertFalse(receiver.keys.contains(600L));
+    }
+
+    @NotNull
+    private DatabaseTransferPartitionReader createReader() {
+        DatabaseTransferPartitionReader reader = DatabaseTransferPartitionReader.create(
+            (DBSDataContainer) entity, entity, keyAttribute, BigDecimal.valueOf(0), BigDecimal.valueOf(1000), null, settings);
+        Assert.assertNotNull(reader);
+        return reader;
+    }
+
+    private DBCStatistics readPartition(DBCSession session, DBDDataReceiver receiver, DBDDataFilter filter) throws DBCException {
+        Matcher matcher = RANGE_PATTERN.matcher(filter.getWhere());
+        Assert.assertTrue(filter.getWhere(), matcher.matches());
+        long startKey = Long.parseLong(matcher.group(1));
+        long endKey = Long.parseLong(matcher.group(3)) - (matcher.group(2).equals("<") ? 1 : 0);
+
+        LocalResultSet<DBCStatement> resultSet = new LocalResultSet<>(session, null);
+        resultSet.addColumn("id", DBPDataKind.NUMERIC);
+        resultSet.addColumn("name", DBPDataKind.STRING);
+        receiver.fetchStart(session, resultSet, -1, -1);
+        for (long key = startKey; key <= endKey; key++) {
+            if (key == brokenKey) {
+                throw new DBCException("Broken row " + key);
+            }
+            resultSet.addRow(key, "row" + key);
+            resultSet.nextRow();
+            receiver.fetchRow(session, resultSet);
+        }
+        receiver.fetchEnd(session, resultSet);
+        return new DBCStatistics();
+    }
+
+    private static class RecordingReceiver implements DBDDataReceiver {
+        final List<Long> keys = new ArrayList<>();
+        final Set<Thread> threads = new HashSet<>();
+        int startCount;
+        int endCount;
+        int closeCount;
+
+        @Override
+        public void fetchStart(@NotNull DBCSession session, @NotNull DBCResultSet resultSet, long offset, long maxRows) {
+            threads.add(Thread.currentThread());
+            startCount++;
+        }
+
+        @Override
+        public void fetchRow(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+            threads.add(Thread.currentThread());
+            long key = (Long) resultSet.getAttributeValue(0);
+            Assert.assertEquals("row" + key, resultSet.getAttributeValue(1));
+            keys.add(key);
+        }
+
+        @Override
+        public void fetchEnd(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) {
+            threads.add(Thread.currentThread());
+            endCount++;
+        }
+
+        @Override
+        public void close() {
+            threads.add(Thread.currentThread());
+            closeCount++;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.data.DBDValueHandlerProvider;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.data.DefaultValueHandler;
+import org.jkiss.dbeaver.model.impl.local.LocalResultSet;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferPipelinedReceiver;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DatabaseTransferPipelinedReceiverTest {
+
+    private static final int ROW_COUNT = 95;
+
+    private DBCSession session;
+    private DBSDataContainer dataContainer;
+    private LocalResultSet<DBCStatement> resultSet;
+
+    @Before
+    public void setUp() {
+        DBPDataSource dataSource = Mockito.mock(DBPDataSource.class, Mockito.withSettings().extraInterfaces(DBDValueHandlerProvider.class));
+        Mockito.when(((DBDValueHandlerProvider) dataSource).getValueHandler(Mockito.any(), Mockito.any(), Mockito.any()))
+            .thenReturn(DefaultValueHandler.INSTANCE);
+        DBPDataSourceContainer container = Mockito.mock(DBPDataSourceContainer.class);
+        Mockito.when(container.getPreferenceStore()).thenReturn(Mockito.mock(DBPPreferenceStore.class));
+        Mockito.when(dataSource.getContainer()).thenReturn(container);
+
+        session = Mockito.mock(DBCSession.class);
+        Mockito.when(session.getProgressMonitor()).thenReturn(new VoidProgressMonitor());
+        Mockito.when(session.getDataSource()).thenReturn(dataSource);
+
+        dataContainer = Mockito.mock(DBSDataContainer.class, Mockito.withSettings().extraInterfaces(DBSEntity.class));
+        Mockito.when(dataContainer.getName()).thenReturn("orders");
+
+        resultSet = new LocalResultSet<>(session, null);
+        resultSet.addColumn("id", DBPDataKind.NUMERIC);
+        resultSet.addColumn("name", DBPDataKind.STRING);
+    }
+
+    @Test
+    public void testDrainRows() throws Exception {
+        RecordingReceiver target = new RecordingReceiver(-1);
+        DatabaseTransferPipelinedReceiver receiver = new DatabaseTransferPipelinedReceiver(target, dataContainer, 10, 2);
+        produceRows(receiver);
+        receiver.close();
+        receiver.checkError();
+
+        List<Long> expectedKeys = new ArrayList<>();
+        for (long key = 0; key < ROW_COUNT; key++) {
+            expectedKeys.add(key);
+        }
+        Assert.assertEquals(expectedKeys, target.keys);
+        Assert.assertEquals(1, target.closeCount);
+
+        // Target is started and finished by the producer with the source session
+        Assert.assertSame(Thread.currentThread(), target.startThread);
+        Assert.assertSame(Thread.currentThread(), target.endThread);
+        Assert.assertSame(session, target.startSession);
+        Assert.assertSame(session, target.endSession);
+
+        // Rows are written in another thread with a detached session
+        Assert.assertNotSame(Thread.currentThread(), target.rowThread);
+        Assert.assertNotSame(session, target.rowSession);
+        Assert.assertSame(session.getDataSource(), target.rowSession.getDataSource());
+        Assert.assertTrue(target.rowSessionDetached);
+    }
+
+    @Test
+    public void testDrainError() throws Exception {
+        RecordingReceiver target = new RecordingReceiver(50);
+        DatabaseTransferPipelinedReceiver receiver = new DatabaseTransferPipelinedReceiver(target, dataContainer, 10, 2);
+        try {
+            produceRows(receiver);
+            Assert.fail("Target error must be thrown");
+        } catch (DBCException e) {
+            Assert.assertEquals("Broken row 50", e.getMessage());
+        } finally {
+            receiver.close();
+        }
+        Assert.assertEquals(50, target.keys.size());
+        Assert.assertEquals(1, target.closeCount);
+    }
+
+    private void produceRows(@NotNull DBDDataReceiver receiver) throws DBCException {
+        receiver.fetchStart(session, resultSet, 0, 0);
+        for (long key = 0; key < ROW_COUNT; key++) {
+            resultSet.addRow(key, "row" + key);
+            resultSet.nextRow();
+            receiver.fetchRow(session, resultSet);
+        }
+        receiver.fetchEnd(session, resultSet);
+    }
+
+    private static class RecordingReceiver implements DBDDataReceiver {
+        private final long brokenKey;
+        final List<Long> keys = new ArrayList<>();
+        Thread startThread, rowThread, endThread;
+        DBCSession startSession, rowSession, endSession;
+        boolean rowSessionDetached;
+        int closeCount;
+
+        RecordingReceiver(long brokenKey) {
+            this.brokenKey = brokenKey;
+        }
+
+        @Override
+        public void fetchStart(@NotNull DBCSession session, @NotNull DBCResultSet resultSet, long offset, long maxRows) {
+            startThread = Thread.currentThread();
+            startSession = session;
+        }
+
+        @Override
+        public void fetchRow(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) throws DBCException {
+            long key = (Long) resultSet.getAttributeValue(0);
+            if (key == brokenKey) {
+                throw new DBCException("Broken row " + key);
+            }
+            Assert.assertEquals("row" + key, resultSet.getAttributeValue(1));
+            if (rowSession == null) {
+                rowThread = Thread.currentThread();
+                rowSession = session;
+                try {
+                    session.prepareStatement(DBCStatementType.QUERY, "SELECT 1", false, false, false);
+                } catch (DBCFeatureNotSupportedException e) {
+                    rowSessionDetached = true;
+                }
+            }
+            keys.add(key);
+        }
+
+        @Override
+        public void fetchEnd(@NotNull DBCSession session, @NotNull DBCResultSet resultSet) {
+            endThread = Thread.currentThread();
+            endSession = session;
+        }
+
+        @Override
+        public void close() {
+            closeCount++;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.*;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+
+public class ParquetFileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final List<ParquetColumn> COLUMNS = List.of(
+        ParquetColumn.primitive("id", ParquetType.INT64),
+        ParquetColumn.string("name"),
+        ParquetColumn.decimal("amount", 10, 2),
+        ParquetColumn.decimal("big_amount", 30, 4),
+        ParquetColumn.date("created_date"),
+        ParquetColumn.timestamp("created_at", false),
+        ParquetColumn.primitive("active", ParquetType.BOOLEAN),
+        ParquetColumn.primitive("ratio", ParquetType.DOUBLE),
+        ParquetColumn.primitive("data", ParquetType.BYTE_ARRAY)
+    );
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        for (ParquetCodec codec : ParquetCodec.values()) {
+            for (boolean dictionary : new boolean[]{true, false}) {
+                checkRoundTrip(codec, dictionary);
+            }
+        }
+    }
+
+    @Test
+    public void testSnappyCompressibleData() throws Exception {
+        // Long repeating values produce overlapping copies
+        Path file = folder.newFile().toPath();
+        String longValue = "abc".repeat(10_000);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            ParquetFileWriter writer = new ParquetFileWriter(
+                out, List.of(ParquetColumn.string("text")), ParquetCodec.SNAPPY, 0, 0, false, null);
+            writer.writeRow(new Object[]{longValue});
+            writer.finish();
+        }
+        Assert.assertTrue(Files.size(file) < 2000);
+        try (ParquetFileReader reader = new ParquetFileReader(file)) {
+            Assert.assertEquals(longValue, reader.readRowGroup(0)[0][0]);
+        }
+    }
+
+    private void checkRoundTrip(ParquetCodec codec, boolean dictionary) throws Exception {
+        Path file = folder.newFile().toPath();
+        int rowCount = 5000;
+        Object[][] rows = new Object[rowCount][];
+        try (OutputStream out = Files.newOutputStream(file)) {
+            // Small row groups and pages to get several of them
+            ParquetFileWriter writer = new ParquetFileWriter(out, COLUMNS, codec, 32 * 1024, 4 * 1024, dictionary, null);
+            for (int i = 0; i < rowCount; i++) {
+                rows[i] = new Object[]{
+                    (long) i,
+                    i % 7 == 0 ? null : "name" + (i % 50),
+                    new BigDecimal(i + ".25"),
+                    i % 5 == 0 ? null : new BigDecimal("-12345678901234567890.1234").add(BigDecimal.valueOf(i)),
+                    Date.valueOf("2024-02-" + (1 + i % 28)),
+                    Timestamp.valueOf("2024-03-05 10:11:12.123456"),
+                    i % 3 == 0,
+                    i / 3.0,
+                    i % 11 == 0 ? null : new byte[]{1, 2, (byte) i}
+                };
+                writer.writeRow(rows[i]);
+            }
+            writer.finish();
+            Assert.assertEquals(rowCount, writer.getRowCount());
+        }
+
+        try (ParquetFileReader reader = new ParquetFileReader(file)) {
+            Assert.assertEquals(rowCount, reader.getRowCount());
+            Assert.assertEquals(COLUMNS.size(), reader.getColumns().size());
+            Assert.assertEquals(ParquetColumn.LogicalType.DECIMAL, reader.getColumns().get(2).getLogicalType());
+            Assert.assertTrue(reader.getRowGroupCount() > 1);
+            int row = 0;
+            for (int group = 0; group < reader.getRowGroupCount(); group++) {
+                Object[][] columns = reader.readRowGroup(group);
+                for (int i = 0; i < columns[0].length; i++, row++) {
+                    for (int col = 0; col < columns.length; col++) {
+                        assertValueEquals(codec + " row " + row + " column " + col, rows[row][col], columns[col][i]);
+                    }
+                }
+            }
+            Assert.assertEquals(rowCount, row);
+        }
+    }
+
+    private static void assertValueEquals(String message, Object expected, Object actual) {
+        if (expected instanceof byte[] bytes) {
+            Assert.assertTrue(message, Arrays.equals(bytes, (byte[]) actual));
+        } else if (expected instanceof BigDecimal decimal) {
+            Assert.assertEquals(message, 0, decimal.compareTo((BigDecimal) actual));
+        } else {
+            Assert.assertEquals(message, expected, actual);
+        }
+    }
+}
@@ -0,0 +1,615 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetCodec;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetColumn;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetFileWriter;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Checks files produced by {@link ParquetFileWriter} against the Parquet format specification.
+ * <p>
+ * Files are decoded by a minimal decoder written from the parquet-format definitions
+ * (Thrift compact protocol, PLAIN and RLE_DICTIONARY encodings, RLE/bit-packed hybrid levels,
+ * SNAPPY block format and GZIP). It shares no code with ParquetFileReader, so a mistake
+ * made symmetrically in the writer and the reader is still detected.
+ */
+public class ParquetFormatTest {
+
+    // parquet.thrift enum values
+    private static final int TYPE_BOOLEAN = 0;
+    private static final int TYPE_INT32 = 1;
+    private static final int TYPE_INT64 = 2;
+    private static final int TYPE_DOUBLE = 5;
+    private static final int TYPE_BYTE_ARRAY = 6;
+    private static final int REPETITION_OPTIONAL = 1;
+    private static final int CONVERTED_UTF8 = 0;
+    private static final int CONVERTED_DECIMAL = 5;
+    private static final int CONVERTED_DATE = 6;
+    private static final int ENCODING_PLAIN = 0;
+    private static final int ENCODING_PLAIN_DICTIONARY = 2;
+    private static final int ENCODING_RLE = 3;
+    private static final int ENCODING_RLE_DICTIONARY = 8;
+    private static final int PAGE_DATA = 0;
+    private static final int PAGE_DICTIONARY = 2;
+    private static final Map<ParquetCodec, Integer> CODEC_IDS = Map.of(
+        ParquetCodec.UNCOMPRESSED, 0,
+        ParquetCodec.SNAPPY, 1,
+        ParquetCodec.GZIP, 2
+    );
+
+    private static final List<ParquetColumn> COLUMNS = List.of(
+        ParquetColumn.primitive("id", ParquetType.INT64),
+        ParquetColumn.string("name"),
+        ParquetColumn.decimal("amount", 10, 2),
+        ParquetColumn.decimal("big_amount", 30, 4),
+        ParquetColumn.date("created_date"),
+        ParquetColumn.timestamp("created_at", false),
+        ParquetColumn.primitive("active", ParquetType.BOOLEAN),
+        ParquetColumn.primitive("ratio", ParquetType.DOUBLE),
+        ParquetColumn.primitive("data", ParquetType.BYTE_ARRAY)
+    );
+
+    private static final int ROW_COUNT = 3000;
+
+    @Test
+    public void testFileStructure() throws Exception {
+        for (ParquetCodec codec : ParquetCodec.values()) {
+            for (boolean dictionary : new boolean[]{true, false}) {
+                checkFile(codec, dictionary);
+            }
+        }
+    }
+
+    @Test
+    public void testSchema() throws Exception {
+        Map<Integer, Object> metadata = readFileMetadata(writeFile(ParquetCodec.UNCOMPRESSED, false));
+        Assert.assertEquals(1L, metadata.get(1));
+        Assert.assertEquals((long) ROW_COUNT, metadata.get(3));
+        Assert.assertEquals("DBeaver", string(metadata, 6));
+
+        List<Map<Integer, Object>> keyValues = structList(metadata, 5);
+        Assert.assertEquals(1, keyValues.size());
+        Assert.assertEquals("source", string(keyValues.get(0), 1));
+        Assert.assertEquals("test", string(keyValues.get(0), 2));
+
+        List<Map<Integer, Object>> schema = structList(metadata, 2);
+        Assert.assertEquals(COLUMNS.size() + 1, schema.size());
+        Map<Integer, Object> root = schema.get(0);
+        Assert.assertEquals("schema", string(root, 4));
+        Assert.assertEquals((long) COLUMNS.size(), root.get(5));
+        Assert.assertNull("Root must be a group", root.get(1));
+
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            Map<Integer, Object> element = schema.get(i + 1);
+            Assert.assertEquals(COLUMNS.get(i).getName(), string(element, 4));
+            Assert.assertEquals((long) REPETITION_OPTIONAL, element.get(3));
+        }
+        assertElement(schema.get(1), TYPE_INT64, null);
+        assertElement(schema.get(2), TYPE_BYTE_ARRAY, CONVERTED_UTF8);
+        Assert.assertEquals(Set.of(1), struct(schema.get(2), 10).keySet());
+        assertElement(schema.get(3), TYPE_INT64, CONVERTED_DECIMAL);
+        Assert.assertEquals(2L, schema.get(3).get(7));
+        Assert.assertEquals(10L, schema.get(3).get(8));
+        Assert.assertEquals(Map.of(1, 2L, 2, 10L), struct(struct(schema.get(3), 10), 5));
+        assertElement(schema.get(4), TYPE_BYTE_ARRAY, CONVERTED_DECIMAL);
+        Assert.assertEquals(Map.of(1, 4L, 2, 30L), struct(struct(schema.get(4), 10), 5));
+        assertElement(schema.get(5), TYPE_INT32, CONVERTED_DATE);
+        Assert.assertEquals(Set.of(6), struct(schema.get(5), 10).keySet());
+        // Local timestamp has no converted type, converted types imply UTC
+        assertElement(schema.get(6), TYPE_INT64, null);
+        Map<Integer, Object> timestamp = struct(struct(schema.get(6), 10), 8);
+        Assert.assertEquals(Boolean.FALSE, timestamp.get(1));
+        Assert.assertEquals("Time unit must be MICROS", Set.of(2), struct(timestamp, 2).keySet());
+        assertElement(schema.get(7), TYPE_BOOLEAN, null);
+        assertElement(schema.get(8), TYPE_DOUBLE, null);
+        assertElement(schema.get(9), TYPE_BYTE_ARRAY, null);
+    }
+
+    private static void assertElement(Map<Integer, Object> element, int type, Integer convertedType) {
+        Assert.assertEquals((long) type, element.get(1));
+        Assert.assertEquals(convertedType == null ? null : (long) convertedType, element.get(6));
+        if (convertedType == null && type != TYPE_INT64) {
+            Assert.assertNull(element.get(10));
+        }
+    }
+
+    private void checkFile(ParquetCodec codec, boolean dictionary) throws Exception {
+        String message = codec + (dictionary ? " with dictionary" : " plain");
+        byte[] file = writeFile(codec, dictionary);
+        Map<Integer, Object> metadata = readFileMetadata(file);
+
+        List<List<Object>> columnValues = new ArrayList<>();
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            columnValues.add(new ArrayList<>());
+        }
+        List<Map<Integer, Object>> rowGroups = structList(metadata, 4);
+        Assert.assertTrue(message, rowGroups.size() > 1);
+        long totalRows = 0;
+        long expectedOffset = 4;
+        boolean dictionaryUsed = false;
+        for (Map<Integer, Object> rowGroup : rowGroups) {
+            long rowCount = (Long) rowGroup.get(3);
+            List<Map<Integer, Object>> chunks = structList(rowGroup, 1);
+            Assert.assertEquals(message, COLUMNS.size(), chunks.size());
+            Assert.assertEquals(message, expectedOffset, rowGroup.get(5));
+            long groupCompressed = 0;
+            long groupUncompressed = 0;
+            for (int col = 0; col < chunks.size(); col++) {
+                Map<Integer, Object> chunk = chunks.get(col);
+                Map<Integer, Object> meta = struct(chunk, 3);
+                String chunkMessage = message + ", column " + COLUMNS.get(col).getName();
+                Assert.assertEquals(chunkMessage, (long) COLUMNS.get(col).getType().getId(), meta.get(1));
+                Assert.assertEquals(chunkMessage, List.of(COLUMNS.get(col).getName()), stringList(meta, 3));
+                Assert.assertEquals(chunkMessage, (long) CODEC_IDS.get(codec), meta.get(4));
+                Assert.assertEquals(chunkMessage, rowCount, meta.get(5));
+
+                long chunkStart = meta.containsKey(11) ? (Long) meta.get(11) : (Long) meta.get(9);
+                Assert.assertEquals(chunkMessage, expectedOffset, chunkStart);
+                Assert.assertEquals(chunkMessage, chunkStart, chunk.get(2));
+                ChunkData data = readChunk(file, chunkStart, (Long) meta.get(7), codec, (int) (long) (Long) meta.get(1));
+                Assert.assertEquals(chunkMessage, meta.get(6), data.uncompressedSize);
+                Assert.assertEquals(chunkMessage, rowCount, data.values.size());
+                if (meta.containsKey(11)) {
+                    Assert.assertEquals(chunkMessage, meta.get(9), data.firstDataPageOffset);
+                }
+                Set<Long> encodings = new HashSet<>();
+                for (Object encoding : (List<?>) meta.get(2)) {
+                    encodings.add((Long) encoding);
+                }
+                Assert.assertTrue(chunkMessage, encodings.containsAll(data.encodings));
+                dictionaryUsed |= data.encodings.contains((long) ENCODING_RLE_DICTIONARY);
+
+                columnValues.get(col).addAll(data.values);
+                expectedOffset += (Long) meta.get(7);
+                groupCompressed += (Long) meta.get(7);
+                groupUncompressed += (Long) meta.get(6);
+            }
+            Assert.assertEquals(message, groupCompressed, rowGroup.get(6));
+            Assert.assertEquals(message, groupUncompressed, rowGroup.get(2));
+            totalRows += rowCount;
+        }
+        Assert.assertEquals(message, (long) ROW_COUNT, totalRows);
+        Assert.assertEquals(message, dictionary, dictionaryUsed);
+        // Footer follows the last column chunk
+        Assert.assertEquals(message, expectedOffset, file.length - 8 - readIntLE(file, file.length - 8));
+
+        for (int row = 0; row < ROW_COUNT; row++) {
+            Object[] expected = getExpectedValues(row);
+            for (int col = 0; col < COLUMNS.size(); col++) {
+                Object actual = toSpecValue(col, columnValues.get(col).get(row));
+                String valueMessage = message + ", row " + row + ", column " + COLUMNS.get(col).getName();
+                if (expected[col] instanceof byte[] bytes) {
+                    Assert.assertArrayEquals(valueMessage, bytes, (byte[]) actual);
+                } else {
+                    Assert.assertEquals(valueMessage, expected[col], actual);
+                }
+            }
+        }
+    }
+
+    private static byte[] writeFile(ParquetCodec codec, boolean dictionary) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // Small row groups and pages to get several of them
+        ParquetFileWriter writer = new ParquetFileWriter(out, COLUMNS, codec, 32 * 1024, 4 * 1024, dictionary, Map.of("source", "test"));
+        for (int i = 0; i < ROW_COUNT; i++) {
+            writer.writeRow(new Object[]{
+                (long) i,
+                i % 7 == 0 ? null : "name" + (i % 50),
+                new BigDecimal(i + ".25"),
+                i % 5 == 0 ? null : new BigDecimal("-12345678901234567890.1234").add(BigDecimal.valueOf(i)),
+                Date.valueOf(LocalDate.of(2024, 2, 1 + i % 28)),
+                Timestamp.valueOf("2024-03-05 10:11:12.123456"),
+                i % 3 == 0,
+                i / 3.0,
+                i % 11 == 0 ? null : new byte[]{1, 2, (byte) i}
+            });
+        }
+        writer.finish();
+        return out.toByteArray();
+    }
+
+    /**
+     * Values of the written row as defined by the specification of the column logical types
+     */
+    private static Object[] getExpectedValues(int i) {
+        return new Object[]{
+            (long) i,
+            i % 7 == 0 ? null : "name" + (i % 50),
+            // DECIMAL(10, 2) stored as INT64 unscaled value
+            i * 100L + 25,
+            // DECIMAL(30, 4) stored as big-endian two's complement unscaled value
+            i % 5 == 0 ? null : new BigInteger("-123456789012345678901234").add(BigInteger.valueOf(i * 10_000L)),
+            // DATE is a number of days from the Unix epoch
+            (int) LocalDate.of(2024, 2, 1 + i % 28).toEpochDay(),
+            // Local TIMESTAMP(MICROS) is a number of microseconds from 1970-01-01T00:00:00 local time
+            LocalDateTime.of(2024, 3, 5, 10, 11, 12).toEpochSecond(ZoneOffset.UTC) * 1_000_000L + 123_456L,
+            i % 3 == 0,
+            i / 3.0,
+            i % 11 == 0 ? null : new byte[]{1, 2, (byte) i}
+        };
+    }
+
+    private static Object toSpecValue(int column, Object physical) {
+        if (physical == null) {
+            return null;
+        }
+        return switch (column) {
+            case 1 -> new String((byte[]) physical, StandardCharsets.UTF_8);
+            case 3 -> new BigInteger((byte[]) physical);
+            default -> physical;
+        };
+    }
+
+    private static Map<Integer, Object> readFileMetadata(byte[] file) {
+        byte[] magic = "PAR1".getBytes(StandardCharsets.US_ASCII);
+        Assert.assertArrayEquals(magic, Arrays.copyOfRange(file, 0, 4));
+        Assert.assertArrayEquals(magic, Arrays.copyOfRange(file, file.length - 4, file.length));
+        int footerLength = readIntLE(file, file.length - 8);
+        int footerStart = file.length - 8 - footerLength;
+        Assert.assertTrue(footerStart >= 4);
+        SpecDecoder decoder = new SpecDecoder(file, footerStart);
+        Map<Integer, Object> metadata = decoder.readStruct();
+        Assert.assertEquals("Footer length", file.length - 8, decoder.pos);
+        return metadata;
+    }
+
+    private static class ChunkData {
+        final List<Object> values = new ArrayList<>();
+        final Set<Long> encodings = new HashSet<>();
+        long uncompressedSize;
+        Long firstDataPageOffset;
+    }
+
+    /**
+     * Reads all pages of the column chunk. Pages must exactly fill the chunk.
+     */
+    private static ChunkData readChunk(byte[] file, long start, long compressedSize, ParquetCodec codec, int type) throws IOException {
+        ChunkData chunk = new ChunkData();
+        List<Object> dictionary = null;
+        SpecDecoder decoder = new SpecDecoder(file, (int) start);
+        long end = start + compressedSize;
+        while (decoder.pos < end) {
+            int pageStart = decoder.pos;
+            Map<Integer, Object> header = decoder.readStruct();
+            int pageType = (int) (long) (Long) header.get(1);
+            int uncompressedSize = (int) (long) (Long) header.get(2);
+            int compressedPageSize = (int) (long) (Long) header.get(3);
+            chunk.uncompressedSize += decoder.pos - pageStart + uncompressedSize;
+            byte[] compressed = Arrays.copyOfRange(file, decoder.pos, decoder.pos + compressedPageSize);
+            decoder.pos += compressedPageSize;
+            byte[] page = decompress(codec, compressed);
+            Assert.assertEquals(uncompressedSize, page.length);
+            SpecDecoder pageDecoder = new SpecDecoder(page, 0);
+
+            if (pageType == PAGE_DICTIONARY) {
+                Assert.assertNull("Duplicate dictionary page", dictionary);
+                Assert.assertTrue("Dictionary page must be the first page", chunk.values.isEmpty());
+                Map<Integer, Object> dictionaryHeader = struct(header, 7);
+                Assert.assertEquals((long) ENCODING_PLAIN, dictionaryHeader.get(2));
+                chunk.encodings.add((long) ENCODING_PLAIN);
+                dictionary = pageDecoder.readPlain(type, (int) (long) (Long) dictionaryHeader.get(1));
+            } else {
+                Assert.assertEquals(PAGE_DATA, pageType);
+                if (chunk.firstDataPageOffset == null) {
+                    chunk.firstDataPageOffset = (long) pageStart;
+                }
+                Map<Integer, Object> dataHeader = struct(header, 5);
+                int valueCount = (int) (long) (Long) dataHeader.get(1);
+                long encoding = (Long) dataHeader.get(2);
+                Assert.assertEquals((long) ENCODING_RLE, dataHeader.get(3));
+                chunk.encodings.add(encoding);
+                chunk.encodings.add((long) ENCODING_RLE);
+
+                // Optional flat column: max definition level is 1, no repetition levels
+                int levelsLength = pageDecoder.readIntLE();
+                int levelsEnd = pageDecoder.pos + levelsLength;
+                int[] levels = pageDecoder.readHybrid(1, valueCount);
+                Assert.assertEquals("Definition levels length", levelsEnd, pageDecoder.pos);
+                int nonNullCount = 0;
+                for (int level : levels) {
+                    Assert.assertTrue(level == 0 || level == 1);
+                    nonNullCount += level;
+                }
+
+                List<Object> values;
+                if (encoding == ENCODING_PLAIN) {
+                    values = pageDecoder.readPlain(type, nonNullCount);
+                } else {
+                    Assert.assertTrue(encoding == ENCODING_RLE_DICTIONARY || encoding == ENCODING_PLAIN_DICTIONARY);
+                    Assert.assertNotNull("Dictionary page is missing", dictionary);
+                    int bitWidth = page[pageDecoder.pos++];
+                    values = new ArrayList<>();
+                    for (int index : pageDecoder.readHybrid(bitWidth, nonNullCount)) {
+                        values.add(dictionary.get(index));
+                    }
+                }
+                Iterator<Object> valueIterator = values.iterator();
+                for (int level : levels) {
+                    chunk.values.add(level == 0 ? null : valueIterator.next());
+                }
+            }
+            Assert.assertEquals("Page data was not fully consumed", page.length, pageDecoder.pos);
+        }
+        Assert.assertEquals("Pages must fill the column chunk", end, decoder.pos);
+        return chunk;
+    }
+
+    private static byte[] decompress(ParquetCodec codec, byte[] data) throws IOException {
+        if (codec == ParquetCodec.SNAPPY) {
+            return decompressSnappy(data);
+        } else if (codec == ParquetCodec.GZIP) {
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+                return in.readAllBytes();
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Decodes raw Snappy block: uncompressed length followed by literal and copy elements
+     */
+    private static byte[] decompressSnappy(byte[] data) {
+        SpecDecoder decoder = new SpecDecoder(data, 0);
+        byte[] out = new byte[(int) decoder.readVarint()];
+        int outPos = 0;
+        while (decoder.pos < data.length) {
+            int tag = data[decoder.pos++] & 0xFF;
+            if ((tag & 3) == 0) {
+                // Literal
+                int length = tag >>> 2;
+                if (length >= 60) {
+                    length = (int) decoder.readLE(length - 59);
+                }
+                length++;
+                System.arraycopy(data, decoder.pos, out, outPos, length);
+                decoder.pos += length;
+                outPos += length;
+                continue;
+            }
+            // Copy with 1, 2 or 4 byte offset
+            int length;
+            int offset;
+            if ((tag & 3) == 1) {
+                length = 4 + ((tag >>> 2) & 7);
+                offset = ((tag >>> 5) << 8) | (data[decoder.pos++] & 0xFF);
+            } else {
+                length = (tag >>> 2) + 1;
+                offset = (int) decoder.readLE((tag & 3) == 2 ? 2 : 4);
+            }
+            Assert.assertTrue("Invalid Snappy copy offset", offset > 0 && offset <= outPos);
+            for (int i = 0; i < length; i++, outPos++) {
+                out[outPos] = out[outPos - offset];
+            }
+        }
+        Assert.assertEquals("Snappy uncompressed length", out.length, outPos);
+        return out;
+    }
+
+    private static int readIntLE(byte[] data, int offset) {
+        return (int) new SpecDecoder(data, offset).readLE(4);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Integer, Object> struct(Map<Integer, Object> struct, int field) {
+        Object value = struct.get(field);
+        Assert.assertTrue("Field " + field + " must be a struct", value instanceof Map);
+        return (Map<Integer, Object>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<Integer, Object>> structList(Map<Integer, Object> struct, int field) {
+        Object value = struct.get(field);
+        Assert.assertTrue("Field " + field + " must be a list", value instanceof List);
+        return (List<Map<Integer, Object>>) value;
+    }
+
+    private static List<String> stringList(Map<Integer, Object> struct, int field) {
+        List<String> strings = new ArrayList<>();
+        for (Object value : (List<?>) struct.get(field)) {
+            strings.add(new String((byte[]) value, StandardCharsets.UTF_8));
+        }
+        return strings;
+    }
+
+    private static String string(Map<Integer, Object> struct, int field) {
+        Object value = struct.get(field);
+        return value == null ? null : new String((byte[]) value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes Thrift compact protocol structs and Parquet value encodings.
+     * Structs are returned as maps of field ids to values: Boolean, Long for all integer types, Double,
+     * byte[] for binary, List for lists and sets, Map for maps and nested structs.
+     */
+    private static class SpecDecoder {
+        private final byte[] data;
+        private int pos;
+
+        SpecDecoder(byte[] data, int pos) {
+            this.data = data;
+            this.pos = pos;
+        }
+
+        Map<Integer, Object> readStruct() {
+            Map<Integer, Object> fields = new HashMap<>();
+            int fieldId = 0;
+            while (true) {
+                int header = data[pos++] & 0xFF;
+                int type = header & 0x0F;
+                if (type == 0) {
+                    return fields;
+                }
+                int delta = header >>> 4;
+                fieldId = delta == 0 ? (int) readZigZag() : fieldId + delta;
+                // Boolean fields are encoded in the field type
+                Object value = type == 1 ? Boolean.TRUE : type == 2 ? Boolean.FALSE : readValue(type);
+                Assert.assertNull("Duplicate field " + fieldId, fields.put(fieldId, value));
+            }
+        }
+
+        private Object readValue(int type) {
+            switch (type) {
+                case 1, 2:
+                    // Boolean element of a collection
+                    return data[pos++] == 1;
+                case 3:
+                    return (long) data[pos++];
+                case 4, 5, 6:
+                    return readZigZag();
+                case 7:
+                    return Double.longBitsToDouble(readLE(8));
+                case 8: {
+                    int length = (int) readVarint();
+                    byte[] bytes = Arrays.copyOfRange(data, pos, pos + length);
+                    pos += length;
+                    return bytes;
+                }
+                case 9, 10: {
+                    int header = data[pos++] & 0xFF;
+                    int size = header >>> 4;
+                    if (size == 15) {
+                        size = (int) readVarint();
+                    }
+                    List<Object> list = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        list.add(readValue(header & 0x0F));
+                    }
+                    return list;
+                }
+                case 11: {
+                    int size = (int) readVarint();
+                    Map<Object, Object> map = new LinkedHashMap<>();
+                    if (size > 0) {
+                        int types = data[pos++] & 0xFF;
+                        for (int i = 0; i < size; i++) {
+                            map.put(readValue(types >>> 4), readValue(types & 0x0F));
+                        }
+                    }
+                    return map;
+                }
+                case 12:
+                    return readStruct();
+                default:
+                    throw new IllegalStateException("Unknown compact protocol type " + type + " at " + (pos - 1));
+            }
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = data[pos++] & 0xFF;
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+
+        private long readZigZag() {
+            long value = readVarint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        long readLE(int length) {
+            long value = 0;
+            for (int i = 0; i < length; i++) {
+                value |= (long) (data[pos++] & 0xFF) << (8 * i);
+            }
+            return value;
+        }
+
+        int readIntLE() {
+            return (int) readLE(4);
+        }
+
+        /**
+         * Reads RLE/bit-packed hybrid encoded values (without length prefix)
+         */
+        int[] readHybrid(int bitWidth, int count) {
+            int[] values = new int[count];
+            int n = 0;
+            while (n < count) {
+                long header = readVarint();
+                if ((header & 1) == 0) {
+                    int runLength = (int) (header >>> 1);
+                    int value = (int) readLE((bitWidth + 7) / 8);
+                    Assert.assertTrue("RLE run exceeds value count", n + runLength <= count);
+                    Arrays.fill(values, n, n + runLength, value);
+                    n += runLength;
+                } else {
+                    int groups = (int) (header >>> 1);
+                    int start = pos;
+                    long bitPos = 0;
+                    for (int i = 0; i < groups * 8; i++) {
+                        int value = 0;
+                        for (int bit = 0; bit < bitWidth; bit++, bitPos++) {
+                            if (((data[start + (int) (bitPos >>> 3)] >>> (bitPos & 7)) & 1) != 0) {
+                                value |= 1 << bit;
+                            }
+                        }
+                        // The last group is padded
+                        if (n < count) {
+                            values[n++] = value;
+                        }
+                    }
+                    pos = start + groups * bitWidth;
+                }
+            }
+            return values;
+        }
+
+        List<Object> readPlain(int type, int count) {
+            List<Object> values = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                switch (type) {
+                    case TYPE_BOOLEAN -> values.add(((data[pos + i / 8] >>> (i % 8)) & 1) != 0);
+                    case TYPE_INT32 -> values.add(readIntLE());
+                    case TYPE_INT64 -> values.add(readLE(8));
+                    case TYPE_DOUBLE -> values.add(Double.longBitsToDouble(readLE(8)));
+                    case TYPE_BYTE_ARRAY -> {
+                        int length = readIntLE();
+                        values.add(Arrays.copyOfRange(data, pos, pos + length));
+                        pos += length;
+                    }
+                    default -> throw new IllegalStateException("Unexpected physical type " + type);
+                }
+            }
+            if (type == TYPE_BOOLEAN) {
+                pos += (count + 7) / 8;
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2024 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+public class ResultSetRowStoreTest {
+
+    @Test
+    public void testStoreRowValues() {
+        ResultSetRowStore store = new ResultSetRowStore(3);
+        store.addRow(new Object[]{1L, "a", 1.5});
+        int index = store.addRow(new Object[]{2L, null, 2.5});
+        ResultSetRow row = new ResultSetRow(1, store, index);
+
+        Assert.assertEquals(2, store.getRowCount());
+        Assert.assertEquals(2L, row.getValue(0));
+        Assert.assertNull(row.getValue(1));
+        Assert.assertEquals(2.5, row.getValue(2));
+        Assert.assertArrayEquals(new Object[]{2L, null, 2.5}, row.getValues());
+
+        // Values are copied from the store
+        row.getValues()[0] = 100L;
+        Assert.assertEquals(2L, row.getValue(0));
+    }
+
+    @Test
+    public void testSetValueOnStoreRow() {
+        ResultSetRowStore store = new ResultSetRowStore(3);
+        ResultSetRow first = new ResultSetRow(0, store, store.addRow(new Object[]{1, "a", null}));
+        ResultSetRow second = new ResultSetRow(1, store, store.addRow(new Object[]{2, "b", null}));
+
+        second.setValue(0, 20);
+        second.setValue(1, null);
+        // Column had only nulls so far
+        second.setValue(2, "c");
+
+        Assert.assertArrayEquals(new Object[]{1, "a", null}, first.getValues());
+        Assert.assertArrayEquals(new Object[]{20, null, "c"}, second.getValues());
+        Assert.assertEquals(20, store.getValue(1, 0));
+
+        second.setValue(2, null);
+        Assert.assertNull(second.getValue(2));
+        Assert.assertNull(first.getValue(2));
+    }
+
+    @Test
+    public void testSetValuesDetachesRowFromStore() {
+        ResultSetRowStore store = new ResultSetRowStore(2);
+        ResultSetRow row = new ResultSetRow(0, store, store.addRow(new Object[]{1L, "a"}));
+        Object[] values = {2L, "b"};
+        row.setValues(values);
+        row.setValue(0, 3L);
+
+        Assert.assertEquals(3L, values[0]);
+        Assert.assertEquals(1L, store.getValue(0, 0));
+    }
+
+    @Test
+    public void testMetadataLengthMismatch() {
+        ResultSetRowStore store = new ResultSetRowStore(3);
+        // Fewer values than columns
+        ResultSetRow shortRow = new ResultSetRow(0, store, store.addRow(new Object[]{1L}));
+        // More values than columns
+        ResultSetRow longRow = new ResultSetRow(1, store, store.addRow(new Object[]{2L, "b", "c", "d"}));
+
+        Assert.assertArrayEquals(new Object[]{1L, null, null}, shortRow.getValues());
+        Assert.assertArrayEquals(new Object[]{2L, "b", "c"}, longRow.getValues());
+        Assert.assertNull(longRow.getValue(3));
+        Assert.assertNull(longRow.getValue(-1));
+
+        ResultSetRow arrayRow = new ResultSetRow(2, new Object[]{1L});
+        Assert.assertEquals(1L, arrayRow.getValue(0));
+        Assert.assertNull(arrayRow.getValue(1));
+    }
+
+    @Test
+    public void testMixedTypeColumns() {
+        ResultSetRowStore store = new ResultSetRowStore(2);
+        Timestamp timestamp = new Timestamp(1_000_000L);
+        Object[][] rows = {
+            {1L, "a"},
+            {"text", 1},
+            {2, timestamp},
+            {new BigDecimal("3.5"), "b"},
+            {null, null},
+            {Long.MAX_VALUE, 2.5},
+        };
+        for (Object[] values : rows) {
+            store.addRow(values);
+        }
+        for (int i = 0; i < rows.length; i++) {
+            Assert.assertArrayEquals("Row " + i, rows[i], store.getRowValues(i));
+            for (int k = 0; k < rows[i].length; k++) {
+                Object value = store.getValue(i, k);
+                Assert.assertEquals(rows[i][k], value);
+                if (value != null) {
+                    // Values are boxed into the original type
+                    Assert.assertSame(rows[i][k].getClass(), value.getClass());
+                }
+            }
+        }
+
+        // Primitive value replaces the value kept as is and vice versa
+        store.setValue(1, 0, 5L);
+        store.setValue(0, 0, "x");
+        Assert.assertEquals(5L, store.getValue(1, 0));
+        Assert.assertEquals("x", store.getValue(0, 0));
+    }
+}